@@ -29,6 +29,25 @@ android {
         sourceCompatibility = JavaVersion.VERSION_11
         targetCompatibility = JavaVersion.VERSION_11
     }
+    testOptions {
+        // lets simulation classes call android.util.Log from local unit tests (policy tournament)
+        unitTests.isReturnDefaultValues = true
+        unitTests.all {
+            // the tournament grids take tens of minutes, they only run through :app:policyTournament
+            it.exclude("**/PolicyTournamentBenchmark.class")
+        }
+    }
+}
+
+tasks.register<Test>("policyTournament") {
+    group = "verification"
+    description = "Runs the policy tournament grids and writes csvs to build/reports/policy-tournament."
+    val unitTests = tasks.named<Test>("testDebugUnitTest").get()
+    dependsOn("compileDebugUnitTestJavaWithJavac")
+    testClassesDirs = unitTests.testClassesDirs
+    classpath = unitTests.classpath
+    include("**/PolicyTournamentBenchmark.class")
+    outputs.upToDateWhen { false }
 }
 
 dependencies {
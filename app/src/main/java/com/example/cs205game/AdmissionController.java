@@ -0,0 +1,234 @@
+package com.example.cs205game;
+
+import android.util.Log;
+
+/**
+ * Backpressure-aware admission control for process arrivals.
+ * GameManager feeds it downstream pressure signals (buffer occupancy, memory pressure
+ * and queue depth) every tick, and ProcessManager asks it whether a new arrival may enter
+ * the system. Arrivals can be admitted, throttled (deferred briefly) or shed (dropped at the source).
+ */
+public class AdmissionController {
+    private static final String TAG = "AdmissionController";
+
+    /** Strategy used to decide whether an arrival is admitted. */
+    public enum Strategy {
+        NONE, // Admit everything (original behaviour)
+        TOKEN_BUCKET, // Tokens refill at a rate scaled down by pressure
+        AIMD // Additive-increase / multiplicative-decrease admission rate
+    }
+
+    /** Outcome of an admission check. */
+    public enum Decision {
+        ADMIT, // Spawn the process
+        THROTTLE, // Defer the spawn and retry shortly
+        SHED // Drop the arrival entirely
+    }
+
+    private static final double DEFAULT_BASE_RATE = 0.25; // Arrivals per second (roughly one per 4s spawn interval)
+    private static final double DEFAULT_BURST = 3.0; // Max tokens stored in the bucket
+    private static final double MIN_RATE_SCALE = 0.1; // Token refill never drops below 10% of base rate
+    private static final double HIGH_WATERMARK = 0.75; // Pressure above this counts as congestion for AIMD
+    private static final double SHED_THRESHOLD = 0.95; // Pressure at which arrivals are shed instead of throttled
+    private static final double AIMD_ADDITIVE_INCREASE = 0.02; // Arrivals/s added per adjust interval
+    private static final double AIMD_DECREASE_FACTOR = 0.5; // Rate multiplier on congestion
+    private static final double AIMD_ADJUST_INTERVAL_S = 1.0; // How often AIMD re-evaluates pressure
+    private static final double AIMD_MIN_RATE = 0.02; // Floor so the system never fully starves
+    private static final double AIMD_MAX_RATE = 1.0; // Ceiling on the admission rate
+
+    private Strategy strategy;
+    private final double baseRate;
+    private final double burst;
+
+    // latest pressure signals, each normalized to 0.0 - 1.0
+    private volatile double bufferOccupancy = 0;
+    private volatile double memoryPressure = 0;
+    private volatile double queueDepth = 0;
+
+    // token bucket state
+    private double tokens;
+
+    // aimd state
+    private double aimdRate;
+    private double aimdAdjustTimer = AIMD_ADJUST_INTERVAL_S;
+    private double timeSinceLastAdmitS = Double.MAX_VALUE;
+
+    // statistics
+    private int admittedCount = 0;
+    private int throttledCount = 0;
+    private int shedCount = 0;
+
+    public AdmissionController() {
+        this(Strategy.NONE);
+    }
+
+    /** @param strategy The admission strategy to use, at the game's arrival rate and burst. */
+    public AdmissionController(Strategy strategy) {
+        this(strategy, DEFAULT_BASE_RATE, DEFAULT_BURST);
+    }
+
+    /**
+     * @param strategy The admission strategy to use.
+     * @param baseRate Target admission rate in arrivals per second when there is no pressure.
+     * @param burst Maximum number of arrivals that can be admitted back to back (token bucket size).
+     */
+    public AdmissionController(Strategy strategy, double baseRate, double burst) {
+        if (baseRate <= 0 || burst < 1) {
+            throw new IllegalArgumentException("baseRate must be > 0 and burst >= 1");
+        }
+        this.strategy = strategy;
+        this.baseRate = baseRate;
+        this.burst = burst;
+        this.tokens = burst;
+        this.aimdRate = baseRate;
+    }
+
+    public synchronized Strategy getStrategy() {
+        return strategy;
+    }
+
+    /** Switches strategy and resets the strategy state so the new one starts from a clean slate. */
+    public synchronized void setStrategy(Strategy strategy) {
+        this.strategy = strategy;
+        resetState();
+        Log.i(TAG, "Admission strategy set to " + strategy);
+    }
+
+    /**
+     * Records the latest downstream pressure signals. Values are clamped to 0.0 - 1.0.
+     * @param bufferOccupancy Fraction of the shared buffer in use (including producers waiting for space).
+     * @param memoryPressure Fraction of memory in use.
+     * @param queueDepth Fraction of the process queue capacity in use.
+     */
+    public void observe(double bufferOccupancy, double memoryPressure, double queueDepth) {
+        this.bufferOccupancy = clamp(bufferOccupancy);
+        this.memoryPressure = clamp(memoryPressure);
+        this.queueDepth = clamp(queueDepth);
+    }
+
+    /** @return the combined pressure, i.e. the most saturated downstream resource. */
+    public double getPressure() {
+        return Math.max(bufferOccupancy, Math.max(memoryPressure, queueDepth));
+    }
+
+    /**
+     * Advances the strategy state (token refill, AIMD rate adjustment).
+     * @param deltaTime Time elapsed since the last update in seconds.
+     */
+    public synchronized void update(double deltaTime) {
+        if (timeSinceLastAdmitS < Double.MAX_VALUE) {
+            timeSinceLastAdmitS += deltaTime;
+        }
+        double pressure = getPressure();
+        switch (strategy) {
+            case TOKEN_BUCKET:
+                double rateScale = Math.max(MIN_RATE_SCALE, 1.0 - pressure);
+                tokens = Math.min(burst, tokens + baseRate * rateScale * deltaTime);
+                break;
+            case AIMD:
+                aimdAdjustTimer -= deltaTime;
+                if (aimdAdjustTimer <= 0) {
+                    aimdAdjustTimer = AIMD_ADJUST_INTERVAL_S;
+                    if (pressure > HIGH_WATERMARK) {
+                        aimdRate = Math.max(AIMD_MIN_RATE, aimdRate * AIMD_DECREASE_FACTOR);
+                        Log.d(TAG, "AIMD congestion (pressure " + String.format("%.2f", pressure) + "), rate -> " + String.format("%.3f", aimdRate));
+                    } else {
+                        aimdRate = Math.min(AIMD_MAX_RATE, aimdRate + AIMD_ADDITIVE_INCREASE);
+                    }
+                }
+                break;
+            case NONE:
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Decides what to do with an arrival that is due to spawn.
+     * Consumes a token / rate slot when the arrival is admitted.
+     * @return the admission decision.
+     */
+    public synchronized Decision onArrival() {
+        Decision decision;
+        switch (strategy) {
+            case TOKEN_BUCKET:
+                if (tokens >= 1.0) {
+                    tokens -= 1.0;
+                    decision = Decision.ADMIT;
+                } else {
+                    decision = getPressure() >= SHED_THRESHOLD ? Decision.SHED : Decision.THROTTLE;
+                }
+                break;
+            case AIMD:
+                if (timeSinceLastAdmitS >= 1.0 / aimdRate) {
+                    timeSinceLastAdmitS = 0;
+                    decision = Decision.ADMIT;
+                } else {
+                    decision = getPressure() >= SHED_THRESHOLD ? Decision.SHED : Decision.THROTTLE;
+                }
+                break;
+            case NONE:
+            default:
+                decision = Decision.ADMIT;
+                break;
+        }
+
+        switch (decision) {
+            case ADMIT:
+                admittedCount++;
+                break;
+            case THROTTLE:
+                throttledCount++;
+                break;
+            case SHED:
+                shedCount++;
+                Log.i(TAG, "Shed arrival under pressure " + String.format("%.2f", getPressure()));
+                break;
+        }
+        return decision;
+    }
+
+    public synchronized int getAdmittedCount() {
+        return admittedCount;
+    }
+
+    public synchronized int getThrottledCount() {
+        return throttledCount;
+    }
+
+    public synchronized int getShedCount() {
+        return shedCount;
+    }
+
+    /** @return the current AIMD admission rate in arrivals per second. */
+    public synchronized double getAimdRate() {
+        return aimdRate;
+    }
+
+    /** @return the number of tokens currently in the bucket. */
+    public synchronized double getTokens() {
+        return tokens;
+    }
+
+    /** Resets strategy state and statistics. Call when starting a new game. */
+    public synchronized void reset() {
+        resetState();
+        admittedCount = 0;
+        throttledCount = 0;
+        shedCount = 0;
+        bufferOccupancy = 0;
+        memoryPressure = 0;
+        queueDepth = 0;
+    }
+
+    private void resetState() {
+        tokens = burst;
+        aimdRate = baseRate;
+        aimdAdjustTimer = AIMD_ADJUST_INTERVAL_S;
+        timeSinceLastAdmitS = Double.MAX_VALUE;
+    }
+
+    private static double clamp(double value) {
+        return Math.max(0.0, Math.min(1.0, value));
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.cs205game;
+
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+
+/**
+ * Adaptive Replacement Cache (Megiddo and Modha). Resident pages are split between T1 (seen
+ * once recently) and T2 (seen at least twice); ghost lists B1 and B2 remember keys recently
+ * evicted from each. A miss that hits a ghost list shifts the target size {@code p} of T1
+ * towards whichever list would have kept the page, so the policy adapts between recency and
+ * frequency and resists scans that would flush LRU.
+ */
+public class ArcPageReplacement implements PageReplacementPolicy {
+    private final int capacity;
+    // each set is ordered least recent first
+    private final LinkedHashSet<Long> t1 = new LinkedHashSet<>();
+    private final LinkedHashSet<Long> t2 = new LinkedHashSet<>();
+    private final LinkedHashSet<Long> b1 = new LinkedHashSet<>();
+    private final LinkedHashSet<Long> b2 = new LinkedHashSet<>();
+    private double p = 0; // target size of t1
+
+    /** @param capacity Most pages resident at once (the number of frames). */
+    public ArcPageReplacement(int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public String getName() {
+        return "ARC";
+    }
+
+    @Override
+    public void onInsert(long key) {
+        if (b1.remove(key)) {
+            // recency list was too small
+            p = Math.min(capacity, p + Math.max(1.0, (double) b2.size() / Math.max(1, b1.size() + 1)));
+            t2.add(key);
+        } else if (b2.remove(key)) {
+            // frequency list was too small
+            p = Math.max(0, p - Math.max(1.0, (double) b1.size() / Math.max(1, b2.size() + 1)));
+            t2.add(key);
+        } else {
+            t1.add(key);
+        }
+        trimGhosts();
+    }
+
+    @Override
+    public void onAccess(long key) {
+        if (t1.remove(key) || t2.remove(key)) {
+            t2.add(key);
+        }
+    }
+
+    @Override
+    public long evict(long incomingKey) {
+        boolean fromT1 = !t1.isEmpty()
+                && (t1.size() > p || (b2.contains(incomingKey) && t1.size() == (int) p) || t2.isEmpty());
+        if (fromT1) {
+            long victim = pollFirst(t1);
+            b1.add(victim);
+            return victim;
+        }
+        if (t2.isEmpty()) return NO_PAGE;
+        long victim = pollFirst(t2);
+        b2.add(victim);
+        return victim;
+    }
+
+    @Override
+    public void remove(long key) {
+        t1.remove(key);
+        t2.remove(key);
+        b1.remove(key);
+        b2.remove(key);
+    }
+
+    @Override
+    public int size() {
+        return t1.size() + t2.size();
+    }
+
+    @Override
+    public void clear() {
+        t1.clear();
+        t2.clear();
+        b1.clear();
+        b2.clear();
+        p = 0;
+    }
+
+    /** @return the current target size of the recency list. */
+    public double getTargetRecencySize() {
+        return p;
+    }
+
+    // ghosts never describe more than 'capacity' pages per side, 2 * capacity overall
+    private void trimGhosts() {
+        while (t1.size() + b1.size() > capacity && !b1.isEmpty()) {
+            pollFirst(b1);
+        }
+        while (t1.size() + t2.size() + b1.size() + b2.size() > 2 * capacity && !b2.isEmpty()) {
+            pollFirst(b2);
+        }
+    }
+
+    private static long pollFirst(LinkedHashSet<Long> set) {
+        Iterator<Long> it = set.iterator();
+        long first = it.next();
+        it.remove();
+        return first;
+    }
+}
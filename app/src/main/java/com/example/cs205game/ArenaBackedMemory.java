@@ -0,0 +1,131 @@
+package com.example.cs205game;
+
+import java.util.List;
+
+/**
+ * Backs every allocation of another backend with real off-heap bytes. The wrapped backend still
+ * decides admission and placement; each GB it grants is also given a chunk of an
+ * {@link OffHeapArena}, and as an {@link ExecutionHook} running processes stream over their
+ * chunks at a fixed byte rate per cpu second, so the simulation exercises the host's memory
+ * system instead of only counting. Backend specific features (compaction, numa hints, ...)
+ * are not reachable through the wrapper.
+ */
+public class ArenaBackedMemory implements MemoryBackend, ExecutionHook {
+    public static final int DEFAULT_BYTES_PER_GB = 1 << 20; // 1 MiB of real memory per simulated GB
+    public static final long DEFAULT_TOUCH_BYTES_PER_CPU_S = 64L << 20; // traffic per second of cpu progress
+
+    private final MemoryBackend inner;
+    private final OffHeapArena arena;
+    private final long touchBytesPerCpuS;
+    private double clockS = 0;
+    private int arenaRefusals = 0; // granted by the inner backend but no chunks left
+
+    public ArenaBackedMemory(MemoryBackend inner) {
+        this(inner, DEFAULT_BYTES_PER_GB, DEFAULT_TOUCH_BYTES_PER_CPU_S);
+    }
+
+    /**
+     * @param inner Backend doing the accounting.
+     * @param bytesPerGb Real bytes backing one simulated GB.
+     * @param touchBytesPerCpuS Bytes a process reads and writes per second of cpu progress.
+     */
+    public ArenaBackedMemory(MemoryBackend inner, int bytesPerGb, long touchBytesPerCpuS) {
+        this.inner = inner;
+        this.arena = new OffHeapArena(inner.getCapacity(), bytesPerGb);
+        this.touchBytesPerCpuS = touchBytesPerCpuS;
+    }
+
+    public MemoryBackend getInner() {
+        return inner;
+    }
+
+    public OffHeapArena getArena() {
+        return arena;
+    }
+
+    @Override
+    public String getName() {
+        return inner.getName() + " + off-heap arena";
+    }
+
+    @Override
+    public int getCapacity() {
+        return inner.getCapacity();
+    }
+
+    @Override
+    public synchronized int getAvailableMemory() {
+        return Math.min(inner.getAvailableMemory(), arena.getFreeChunks());
+    }
+
+    @Override
+    public synchronized boolean canAllocate(int amount) {
+        return inner.canAllocate(amount) && arena.getFreeChunks() >= amount;
+    }
+
+    @Override
+    public synchronized boolean allocate(int ownerId, int amount) {
+        if (amount <= 0) return true;
+        if (!inner.allocate(ownerId, amount)) return false;
+        if (!arena.claim(ownerId, amount)) {
+            inner.free(ownerId, amount); // e.g. an overcommitting backend granted more than exists
+            arenaRefusals++;
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public synchronized int free(int ownerId, int amount) {
+        int freed = inner.free(ownerId, amount);
+        arena.release(ownerId, freed);
+        return freed;
+    }
+
+    @Override
+    public synchronized void clear() {
+        inner.clear();
+        arena.clear();
+        arena.resetStats();
+        clockS = 0;
+        arenaRefusals = 0;
+    }
+
+    @Override
+    public synchronized void update(double deltaTime) {
+        clockS += deltaTime;
+        inner.update(deltaTime);
+    }
+
+    @Override
+    public synchronized List<MemoryBlock> getBlockMap() {
+        return inner.getBlockMap();
+    }
+
+    /** Reads and writes the running process's memory in proportion to its cpu progress. */
+    @Override
+    public synchronized void onExecute(Core core, Process process, double runS) {
+        arena.touch(process.getId(), (long) (runS * touchBytesPerCpuS));
+    }
+
+    // --- statistics --- //
+
+    /** @return bytes touched per simulated second. */
+    public synchronized double getBytesTouchedPerS() {
+        return clockS == 0 ? 0 : arena.getBytesTouched() / clockS;
+    }
+
+    /** @return bandwidth the host actually achieved while touching, in GB (10^9 bytes) per wall second. */
+    public synchronized double getHostGbPerS() {
+        long nanos = arena.getTouchNanos();
+        return nanos == 0 ? 0 : (double) arena.getBytesTouched() / nanos;
+    }
+
+    public synchronized long getBytesTouched() {
+        return arena.getBytesTouched();
+    }
+
+    public synchronized int getArenaRefusals() {
+        return arenaRefusals;
+    }
+}
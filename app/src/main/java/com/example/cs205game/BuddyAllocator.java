@@ -0,0 +1,261 @@
+package com.example.cs205game;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Buddy-system memory backend. Memory is split into power-of-two blocks of minimum size
+ * 1/{@code blocksPerGb} GB; a request is rounded up to the next power of two, larger free
+ * blocks are split in halves until the size fits, and freed blocks merge with their buddy
+ * while the buddy is also free. Each order keeps its own address-ordered free list, so split
+ * and coalesce are O(log n). Capacities that are not a power of two are covered by several
+ * naturally aligned top-level blocks (e.g. 24 GB = 16 + 8).
+ */
+public class BuddyAllocator implements MemoryBackend {
+
+    private static final class Allocation {
+        final int offset;
+        final int order;
+        final int ownerId;
+        final int requestedUnits;
+
+        Allocation(int offset, int order, int ownerId, int requestedUnits) {
+            this.offset = offset;
+            this.order = order;
+            this.ownerId = ownerId;
+            this.requestedUnits = requestedUnits;
+        }
+    }
+
+    private final int capacity; // in GB
+    private final int blocksPerGb; // minimum block = 1/blocksPerGb GB
+    private final int totalUnits;
+    private final int maxOrder;
+    private final List<int[]> topBlocks = new ArrayList<>(); // {offset, order}
+    private final TreeSet<Integer>[] freeLists; // per order, free block offsets
+    private final Map<Integer, Allocation> allocations = new HashMap<>(); // by offset
+    private final Map<Integer, Deque<Allocation>> byOwner = new HashMap<>();
+    private int freeUnits;
+    private int allocatedUnits; // sum of block sizes handed out
+    private int requestedUnits; // sum of what owners actually asked for
+
+    // admission statistics
+    private int successfulAllocations = 0;
+    private int failedAllocations = 0;
+
+    /**
+     * @param capacity Capacity in GB.
+     * @param blocksPerGb Minimum blocks per GB (1 means the smallest block is 1 GB).
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public BuddyAllocator(int capacity, int blocksPerGb) {
+        if (capacity <= 0 || blocksPerGb <= 0 || (long) capacity * blocksPerGb > (1 << 30)) {
+            throw new IllegalArgumentException("invalid buddy geometry: " + capacity + "GB x " + blocksPerGb);
+        }
+        this.capacity = capacity;
+        this.blocksPerGb = blocksPerGb;
+        this.totalUnits = capacity * blocksPerGb;
+        this.maxOrder = 31 - Integer.numberOfLeadingZeros(totalUnits);
+        this.freeLists = new TreeSet[maxOrder + 1];
+        for (int o = 0; o <= maxOrder; o++) {
+            freeLists[o] = new TreeSet<>();
+        }
+        // largest blocks first keeps every top block aligned to its own size
+        int offset = 0;
+        for (int o = maxOrder; o >= 0; o--) {
+            if ((totalUnits & (1 << o)) != 0) {
+                topBlocks.add(new int[]{offset, o});
+                offset += 1 << o;
+            }
+        }
+        clear();
+    }
+
+    @Override
+    public String getName() {
+        return "buddy";
+    }
+
+    @Override
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public synchronized int getAvailableMemory() {
+        return freeUnits / blocksPerGb;
+    }
+
+    @Override
+    public synchronized boolean canAllocate(int amount) {
+        int order = orderFor(amount * blocksPerGb);
+        return order >= 0 && smallestFreeOrderAtLeast(order) >= 0;
+    }
+
+    @Override
+    public synchronized boolean allocate(int ownerId, int amount) {
+        if (amount <= 0) return true;
+        int units = amount * blocksPerGb;
+        int order = orderFor(units);
+        int available = order < 0 ? -1 : smallestFreeOrderAtLeast(order);
+        if (available < 0) {
+            failedAllocations++;
+            return false;
+        }
+        int offset = freeLists[available].pollFirst();
+        // split down to the requested order, returning the upper halves to the free lists
+        for (int o = available; o > order; o--) {
+            freeLists[o - 1].add(offset + (1 << (o - 1)));
+        }
+        Allocation allocation = new Allocation(offset, order, ownerId, units);
+        allocations.put(offset, allocation);
+        byOwner.computeIfAbsent(ownerId, k -> new ArrayDeque<>()).push(allocation);
+        freeUnits -= 1 << order;
+        allocatedUnits += 1 << order;
+        requestedUnits += units;
+        successfulAllocations++;
+        return true;
+    }
+
+    @Override
+    public synchronized int free(int ownerId, int amount) {
+        Deque<Allocation> owned = byOwner.get(ownerId);
+        if (owned == null || amount <= 0) return 0;
+        int target = amount * blocksPerGb;
+        int freedRequested = 0;
+        while (freedRequested < target && !owned.isEmpty()) {
+            Allocation a = owned.pop();
+            allocations.remove(a.offset);
+            freeUnits += 1 << a.order;
+            allocatedUnits -= 1 << a.order;
+            requestedUnits -= a.requestedUnits;
+            freedRequested += a.requestedUnits;
+            coalesce(a.offset, a.order);
+        }
+        if (owned.isEmpty()) {
+            byOwner.remove(ownerId);
+        }
+        return freedRequested / blocksPerGb;
+    }
+
+    @Override
+    public synchronized void clear() {
+        for (TreeSet<Integer> list : freeLists) {
+            list.clear();
+        }
+        for (int[] top : topBlocks) {
+            freeLists[top[1]].add(top[0]);
+        }
+        allocations.clear();
+        byOwner.clear();
+        freeUnits = totalUnits;
+        allocatedUnits = 0;
+        requestedUnits = 0;
+    }
+
+    @Override
+    public synchronized List<MemoryBlock> getBlockMap() {
+        List<MemoryBlock> blocks = new ArrayList<>();
+        for (int o = 0; o <= maxOrder; o++) {
+            for (int offset : freeLists[o]) {
+                blocks.add(new MemoryBlock(toGb(offset), toGb(1 << o), 0, MemoryBlock.FREE));
+            }
+        }
+        for (Allocation a : allocations.values()) {
+            blocks.add(new MemoryBlock(toGb(a.offset), toGb(1 << a.order), toGb(a.requestedUnits), a.ownerId));
+        }
+        blocks.sort((x, y) -> Double.compare(x.startGb, y.startGb));
+        return blocks;
+    }
+
+    // --- metrics --- //
+
+    /** @return fraction of allocated block space the owners did not ask for (power-of-two rounding waste). */
+    public synchronized double getInternalFragmentation() {
+        return allocatedUnits == 0 ? 0 : 1.0 - (double) requestedUnits / allocatedUnits;
+    }
+
+    /** @return 1 - largest free block / total free space (0 when free space is one block). */
+    public synchronized double getExternalFragmentation() {
+        return freeUnits == 0 ? 0 : 1.0 - (double) largestFreeUnits() / freeUnits;
+    }
+
+    /** @return the largest request (GB) that would currently succeed. */
+    public synchronized double getLargestAllocatableGb() {
+        return toGb(largestFreeUnits());
+    }
+
+    /** @return number of free blocks of each order (index = order, block size = 2^order units). */
+    public synchronized int[] getFreeBlockCounts() {
+        int[] counts = new int[maxOrder + 1];
+        for (int o = 0; o <= maxOrder; o++) {
+            counts[o] = freeLists[o].size();
+        }
+        return counts;
+    }
+
+    /** @return fraction of allocation requests that succeeded. */
+    public synchronized double getAllocationSuccessRate() {
+        int attempts = successfulAllocations + failedAllocations;
+        return attempts == 0 ? 1.0 : (double) successfulAllocations / attempts;
+    }
+
+    public synchronized int getFailedAllocations() {
+        return failedAllocations;
+    }
+
+    // --- internals --- //
+
+    // merges a freed block with its buddy for as long as the buddy is free too
+    private void coalesce(int offset, int order) {
+        int topOrder = topOrderContaining(offset);
+        while (order < topOrder) {
+            int buddy = offset ^ (1 << order);
+            if (!freeLists[order].remove(buddy)) {
+                break;
+            }
+            offset = Math.min(offset, buddy);
+            order++;
+        }
+        freeLists[order].add(offset);
+    }
+
+    private int topOrderContaining(int offset) {
+        for (int[] top : topBlocks) {
+            if (offset >= top[0] && offset < top[0] + (1 << top[1])) {
+                return top[1];
+            }
+        }
+        throw new IllegalStateException("offset outside memory: " + offset);
+    }
+
+    private int smallestFreeOrderAtLeast(int order) {
+        for (int o = order; o <= maxOrder; o++) {
+            if (!freeLists[o].isEmpty()) return o;
+        }
+        return -1;
+    }
+
+    private int largestFreeUnits() {
+        for (int o = maxOrder; o >= 0; o--) {
+            if (!freeLists[o].isEmpty()) return 1 << o;
+        }
+        return 0;
+    }
+
+    // smallest order whose block holds 'units', or -1 if larger than any block
+    private int orderFor(int units) {
+        if (units <= 1) return 0;
+        int order = 32 - Integer.numberOfLeadingZeros(units - 1);
+        return order > maxOrder ? -1 : order;
+    }
+
+    private double toGb(int units) {
+        return (double) units / blocksPerGb;
+    }
+}
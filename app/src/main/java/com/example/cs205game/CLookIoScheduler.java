@@ -0,0 +1,25 @@
+package com.example.cs205game;
+
+/**
+ * Circular look: the head only serves on upward sweeps; past the highest request it jumps back
+ * to the lowest one. Waits are more uniform than with SCAN, which serves the middle of the disk
+ * twice per round trip.
+ */
+public class CLookIoScheduler extends SortedIoScheduler {
+
+    @Override
+    public String getName() {
+        return "C-LOOK";
+    }
+
+    @Override
+    public IoRequest poll(int headBlock, double nowS) {
+        if (byBlock.isEmpty()) return null;
+        IoRequest next = ceiling(headBlock);
+        if (next == null) {
+            next = byBlock.first();
+        }
+        byBlock.remove(next);
+        return next;
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.cs205game;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Second-chance (CLOCK) replacement: resident pages sit in a circular array with a reference
+ * bit set on every hit. The hand clears set bits as it sweeps and evicts the first page whose
+ * bit is already clear. Hits cost O(1) with no list reordering, which is why real kernels use it.
+ */
+public class ClockPageReplacement implements PageReplacementPolicy {
+    private final long[] slots;
+    private final boolean[] referenced;
+    private final Map<Long, Integer> slotOf = new HashMap<>();
+    private final ArrayDeque<Integer> freeSlots = new ArrayDeque<>();
+    private int hand = 0;
+
+    /** @param capacity Most pages resident at once (the number of frames). */
+    public ClockPageReplacement(int capacity) {
+        this.slots = new long[capacity];
+        this.referenced = new boolean[capacity];
+        clear();
+    }
+
+    @Override
+    public String getName() {
+        return "CLOCK";
+    }
+
+    @Override
+    public void onInsert(long key) {
+        Integer slot = freeSlots.poll();
+        if (slot == null) {
+            throw new IllegalStateException("clock is full, evict before inserting");
+        }
+        slots[slot] = key;
+        referenced[slot] = true;
+        slotOf.put(key, slot);
+    }
+
+    @Override
+    public void onAccess(long key) {
+        Integer slot = slotOf.get(key);
+        if (slot != null) {
+            referenced[slot] = true;
+        }
+    }
+
+    @Override
+    public long evict(long incomingKey) {
+        if (slotOf.isEmpty()) return NO_PAGE;
+        // at most two sweeps: the first may only clear reference bits
+        while (true) {
+            int slot = hand;
+            hand = (hand + 1) % slots.length;
+            if (slots[slot] == NO_PAGE) continue;
+            if (referenced[slot]) {
+                referenced[slot] = false;
+                continue;
+            }
+            long victim = slots[slot];
+            release(slot, victim);
+            return victim;
+        }
+    }
+
+    @Override
+    public void remove(long key) {
+        Integer slot = slotOf.get(key);
+        if (slot != null) {
+            release(slot, key);
+        }
+    }
+
+    @Override
+    public int size() {
+        return slotOf.size();
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(slots, NO_PAGE);
+        Arrays.fill(referenced, false);
+        slotOf.clear();
+        freeSlots.clear();
+        for (int i = 0; i < slots.length; i++) {
+            freeSlots.add(i);
+        }
+        hand = 0;
+    }
+
+    private void release(int slot, long key) {
+        slots[slot] = NO_PAGE;
+        referenced[slot] = false;
+        slotOf.remove(key);
+        freeSlots.push(slot);
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.cs205game;
 
 import android.util.Log;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
@@ -14,6 +16,9 @@ public class Core {
     private final int coreId;
     private Process currentProcess = null;
     private boolean isUtilized = false;
+    private double sliceElapsedS = 0; // cpu time the current process has used since it was assigned
+    private int homeNode = 0; // numa node this core is attached to
+    private final List<ExecutionHook> executionHooks = new ArrayList<>(); // e.g. virtual memory page accesses
     // callback when cpu work is fully done (passes coreid, process)
     private final BiConsumer<Integer, Process> onCpuCompleteCallback; 
     // callback when an io process needs to be moved to io (passes the ioprocess)
@@ -42,6 +47,29 @@ public class Core {
         return currentProcess;
     }
 
+    /** @return the numa node this core is attached to. */
+    public int getHomeNode() {
+        return homeNode;
+    }
+
+    /** @param homeNode the numa node this core is attached to. */
+    public void setHomeNode(int homeNode) {
+        this.homeNode = homeNode;
+    }
+
+    /** @return cpu seconds the current process has run since it was assigned (its current time slice). */
+    public synchronized double getSliceElapsedS() {
+        return sliceElapsedS;
+    }
+
+    /**
+     * registers a hook told about every slice of cpu progress made on this core.
+     * @param hook the hook, e.g. a virtual memory backend turning cpu time into page accesses.
+     */
+    public synchronized void addExecutionHook(ExecutionHook hook) {
+        executionHooks.add(hook);
+    }
+
     /** @return true if the core is currently processing a task, false otherwise. */
     public synchronized boolean isUtilized() {
         return isUtilized;
@@ -61,6 +89,7 @@ public class Core {
         }
         this.currentProcess = process;
         this.isUtilized = true;
+        this.sliceElapsedS = 0;
         process.setCurrentState(Process.ProcessState.ON_CORE);
         Log.i(TAG, "assigned process " + process.getId() + " to core " + coreId);
         return true;
@@ -123,8 +152,14 @@ public class Core {
                 return; 
             }
 
-            // decrement cpu time for the i/o process
-            if (!ioProcess.decrementCpuTime(deltaTime)) {
+            // decrement cpu time for the i/o process, after serving any memory stall
+            sliceElapsedS += deltaTime;
+            double runS = ioProcess.consumeStall(deltaTime);
+            if (runS <= 0) {
+                return;
+            }
+            runExecutionHooks(ioProcess, runS);
+            if (!ioProcess.decrementCpuTime(runS)) {
                 // i/o process finished remaining cpu work (after returning from i/o)
                 Log.i(TAG, "ioprocess " + ioProcess.getId() + " finished cpu on core " + coreId);
                 Process completedProcess = removeProcess();
@@ -143,8 +178,14 @@ public class Core {
                  }
             }
         } else { // handle normal processes
-            // decrement cpu time for the normal process
-            if (!currentProcess.decrementCpuTime(deltaTime)) {
+            // decrement cpu time for the normal process, after serving any memory stall
+            sliceElapsedS += deltaTime;
+            double runS = currentProcess.consumeStall(deltaTime);
+            if (runS <= 0) {
+                return;
+            }
+            runExecutionHooks(currentProcess, runS);
+            if (!currentProcess.decrementCpuTime(runS)) {
                 // normal process finished cpu work
                  Log.i(TAG, "process " + currentProcess.getId() + " finished cpu on core " + coreId);
                 Process completedProcess = removeProcess();
@@ -155,6 +196,12 @@ public class Core {
         }
     }
 
+    private void runExecutionHooks(Process process, double runS) {
+        for (ExecutionHook hook : executionHooks) {
+            hook.onExecute(this, process, runS);
+        }
+    }
+
     /** clears the core, removing any current process and marking it as free. */
     public synchronized void clear() {
         currentProcess = null;
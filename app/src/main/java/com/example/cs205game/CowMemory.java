@@ -0,0 +1,486 @@
+package com.example.cs205game;
+
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Paged memory where frames can be mapped by several processes at once, so shared pages count
+ * once toward used memory. Frames are reference counted; a page is either private, shared
+ * (a segment attached by several processes, writes visible to all) or copy-on-write (after a
+ * fork, the first write copies the frame at a modelled cost).
+ * <p>
+ * Workload model: processes with the same memory requirement run the same program. A share of
+ * each allocation is the program image (code and read-mostly data), loaded once and mapped
+ * copy-on-write into every instance at the top of its address space, above the private hot
+ * working set, as if forked from a common parent. Explicit segments and {@link #fork} are
+ * available to callers that know more about their processes, either directly or as hints
+ * ({@link #forkOnAllocate}, {@link #attachOnAllocate}) applied when the owner's memory is granted.
+ */
+public class CowMemory implements MemoryBackend, PageAccessListener {
+    private static final String TAG = "CowMemory";
+    public static final int DEFAULT_PAGES_PER_GB = VirtualMemory.DEFAULT_PAGES_PER_GB;
+    public static final double DEFAULT_SHARED_FRACTION = 0.5; // share of an allocation mapped from the program image
+    public static final double DEFAULT_COPY_GB_PER_S = MemoryCompactor.DEFAULT_COPY_GB_PER_S;
+
+    // per process page table
+    private static final class AddressSpace {
+        int pages = 0;
+        int[] frames = new int[0];
+        boolean[] cow = new boolean[0]; // write protected, copy on the first write
+        int imageKey = -1; // program image mapped into this space, -1 if none
+        final List<Integer> segments = new ArrayList<>(); // explicit segments attached
+
+        void grow(int morePages) {
+            pages += morePages;
+            frames = Arrays.copyOf(frames, pages);
+            cow = Arrays.copyOf(cow, pages);
+        }
+    }
+
+    // frames held on behalf of every process that maps them
+    private static final class Segment {
+        final int[] frames;
+        int attached = 0;
+        boolean destroyed = false; // no new attachments, freed when the last one detaches
+
+        Segment(int[] frames) {
+            this.frames = frames;
+        }
+    }
+
+    private final int capacity; // in GB
+    private final int pagesPerGb;
+    private final double sharedFraction;
+    private final double pageCopyS;
+    private final int[] refCount; // mappings per frame, 0 = free
+    private final Map<Integer, AddressSpace> spaces = new HashMap<>();
+    private final Map<Integer, Segment> images = new HashMap<>(); // program (memory requirement) -> image
+    private final Map<Integer, Segment> segments = new HashMap<>(); // explicit shared segments
+    private final Map<Integer, Integer> pendingForks = new HashMap<>(); // child -> parent, used by allocate
+    private final Map<Integer, Integer> pendingAttachments = new HashMap<>(); // owner -> segment, used by allocate
+    private int freeFrames;
+    private int nextFrame = 0; // where the free frame search starts
+    private long mappedPages = 0; // pages over all address spaces, shared ones counted per mapping
+
+    // statistics
+    private long accesses = 0;
+    private long writes = 0;
+    private long cowFaults = 0;
+    private long cowStalls = 0; // cow writes that found no free frame to copy into
+    private long forks = 0;
+    private long attachments = 0;
+    private double copyS = 0;
+    private int failedAllocations = 0;
+
+    public CowMemory(int capacity) {
+        this(capacity, DEFAULT_PAGES_PER_GB, DEFAULT_SHARED_FRACTION, DEFAULT_COPY_GB_PER_S);
+    }
+
+    /**
+     * @param capacity Capacity in GB.
+     * @param pagesPerGb Pages (and frames) per GB.
+     * @param sharedFraction Share of each allocation mapped from its program image.
+     * @param copyGbPerS Modelled bandwidth of a copy-on-write page copy.
+     */
+    public CowMemory(int capacity, int pagesPerGb, double sharedFraction, double copyGbPerS) {
+        if (capacity <= 0 || pagesPerGb <= 0 || sharedFraction < 0 || sharedFraction > 1 || copyGbPerS <= 0) {
+            throw new IllegalArgumentException("invalid cow memory: " + capacity + "GB x " + pagesPerGb
+                    + ", shared " + sharedFraction);
+        }
+        this.capacity = capacity;
+        this.pagesPerGb = pagesPerGb;
+        this.sharedFraction = sharedFraction;
+        this.pageCopyS = 1.0 / pagesPerGb / copyGbPerS;
+        this.refCount = new int[capacity * pagesPerGb];
+        this.freeFrames = refCount.length;
+    }
+
+    @Override
+    public String getName() {
+        return "shared / copy-on-write";
+    }
+
+    @Override
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /** @return GB of frames not mapped by anyone; shared frames are only counted once as used. */
+    @Override
+    public synchronized int getAvailableMemory() {
+        return freeFrames / pagesPerGb;
+    }
+
+    /** Assumes a new process, whose image may already be loaded. */
+    @Override
+    public synchronized boolean canAllocate(int amount) {
+        return framesNeeded(amount, false) <= freeFrames;
+    }
+
+    @Override
+    public synchronized boolean allocate(int ownerId, int amount) {
+        if (amount <= 0) return true;
+        boolean existing = spaces.containsKey(ownerId);
+        if (!existing && forkable(ownerId, amount)) {
+            fork(pendingForks.get(ownerId), ownerId);
+            clearHints(ownerId);
+            return true;
+        }
+        Integer segmentId = existing ? null : attachable(ownerId, amount);
+        int segmentPages = segmentId == null ? 0 : segments.get(segmentId).frames.length;
+        if (framesNeeded(amount, existing) - segmentPages > freeFrames) {
+            failedAllocations++;
+            return false;
+        }
+        AddressSpace space = spaces.computeIfAbsent(ownerId, k -> new AddressSpace());
+        int pages = amount * pagesPerGb;
+        int imagePages = existing ? 0 : imagePages(amount);
+        int privatePages = pages - imagePages - segmentPages;
+        int first = space.pages;
+        space.grow(pages);
+        for (int page = first; page < first + privatePages; page++) {
+            space.frames[page] = takeFrame();
+            space.cow[page] = false; // the slot may have held a forked page before a partial free
+        }
+        if (segmentId != null) {
+            // part of the requirement is the segment, between the private pages and the image
+            mapSegment(space, segments.get(segmentId), first + privatePages, false);
+            space.segments.add(segmentId);
+            attachments++;
+        }
+        if (imagePages > 0) {
+            Segment image = images.get(amount);
+            if (image == null) {
+                image = new Segment(takeFrames(imagePages));
+                images.put(amount, image);
+                Log.d(TAG, "loaded " + imagePages + " page image for " + amount + "GB programs");
+            }
+            mapSegment(space, image, first + pages - imagePages, true);
+            space.imageKey = amount;
+        }
+        mappedPages += pages;
+        clearHints(ownerId);
+        return true;
+    }
+
+    @Override
+    public synchronized int free(int ownerId, int amount) {
+        AddressSpace space = spaces.get(ownerId);
+        if (space == null || amount <= 0) return 0;
+        int pages = Math.min(amount * pagesPerGb, space.pages);
+        for (int page = space.pages - pages; page < space.pages; page++) {
+            unref(space.frames[page]);
+        }
+        space.pages -= pages;
+        mappedPages -= pages;
+        if (space.pages == 0) {
+            spaces.remove(ownerId);
+            if (space.imageKey >= 0) {
+                detach(images, space.imageKey);
+            }
+            for (int segmentId : space.segments) {
+                detach(segments, segmentId);
+            }
+        }
+        return pages / pagesPerGb;
+    }
+
+    @Override
+    public synchronized void clear() {
+        spaces.clear();
+        images.clear();
+        segments.clear();
+        pendingForks.clear();
+        pendingAttachments.clear();
+        Arrays.fill(refCount, 0);
+        freeFrames = refCount.length;
+        nextFrame = 0;
+        mappedPages = 0;
+    }
+
+    // --- sharing --- //
+
+    /**
+     * Asks that the child's first allocation fork the parent instead of taking fresh frames, the
+     * way a process started by fork() gets its memory. The hint is kept until the child's memory
+     * is granted and is ignored if the parent has left or no longer holds the same amount by then.
+     */
+    public synchronized void forkOnAllocate(int childId, int parentId) {
+        pendingForks.put(childId, parentId);
+    }
+
+    /**
+     * Asks that the owner's first allocation map the segment as part of its requirement, in place
+     * of private pages. The hint is kept until the owner's memory is granted and is ignored if the
+     * segment is gone or larger than the private part of the allocation.
+     */
+    public synchronized void attachOnAllocate(int ownerId, int segmentId) {
+        pendingAttachments.put(ownerId, segmentId);
+    }
+
+    /**
+     * Creates a shared segment that processes can attach.
+     * @return false if the id is taken or there is not enough free memory.
+     */
+    public synchronized boolean createSegment(int segmentId, int gb) {
+        int pages = gb * pagesPerGb;
+        if (segments.containsKey(segmentId) || pages > freeFrames) return false;
+        segments.put(segmentId, new Segment(takeFrames(pages)));
+        return true;
+    }
+
+    /**
+     * Maps a shared segment at the top of the owner's address space; writes are seen by every
+     * process attached to it (no copy-on-write). Counts toward the owner's memory like any page.
+     * @return false if there is no such segment or the owner holds no memory yet.
+     */
+    public synchronized boolean attachSegment(int ownerId, int segmentId) {
+        Segment segment = segments.get(segmentId);
+        AddressSpace space = spaces.get(ownerId);
+        if (segment == null || segment.destroyed || space == null) return false;
+        int first = space.pages;
+        space.grow(segment.frames.length);
+        mapSegment(space, segment, first, false);
+        space.segments.add(segmentId);
+        mappedPages += segment.frames.length;
+        attachments++;
+        return true;
+    }
+
+    /** Marks a segment for removal; its memory is freed once the last process attached to it leaves. */
+    public synchronized void destroySegment(int segmentId) {
+        Segment segment = segments.get(segmentId);
+        if (segment == null || segment.destroyed) return;
+        segment.destroyed = true;
+        if (segment.attached == 0) {
+            release(segments, segmentId);
+        }
+    }
+
+    /**
+     * Gives the child a copy-on-write copy of the parent's address space: no frames are copied
+     * until one side writes. Pages of attached segments stay shared.
+     * @return false if the parent holds no memory or the child already does.
+     */
+    public synchronized boolean fork(int parentId, int childId) {
+        AddressSpace parent = spaces.get(parentId);
+        if (parent == null || spaces.containsKey(childId)) return false;
+        AddressSpace child = new AddressSpace();
+        child.grow(parent.pages);
+        for (int page = 0; page < parent.pages; page++) {
+            int frame = parent.frames[page];
+            boolean sharedMapping = !parent.cow[page] && refCount[frame] > 1;
+            child.frames[page] = frame;
+            refCount[frame]++;
+            if (!sharedMapping) {
+                parent.cow[page] = true;
+                child.cow[page] = true;
+            }
+        }
+        if (parent.imageKey >= 0) {
+            child.imageKey = parent.imageKey;
+            images.get(parent.imageKey).attached++;
+        }
+        for (int segmentId : parent.segments) {
+            child.segments.add(segmentId);
+            segments.get(segmentId).attached++;
+        }
+        spaces.put(childId, child);
+        mappedPages += child.pages;
+        forks++;
+        return true;
+    }
+
+    /** Breaks copy-on-write on a write to a protected page, returning the copy stall. */
+    @Override
+    public synchronized double onPageAccess(Core core, Process process, int page, boolean write, double stallSoFarS) {
+        AddressSpace space = spaces.get(process.getId());
+        if (space == null || page >= space.pages) return 0;
+        accesses++;
+        if (!write) return 0;
+        writes++;
+        if (!space.cow[page]) return 0;
+        int frame = space.frames[page];
+        if (refCount[frame] == 1) {
+            space.cow[page] = false; // every other sharer is gone, take it over without a copy
+            return 0;
+        }
+        if (freeFrames == 0) {
+            cowStalls++; // nothing to copy into; the write waits a copy time and retries later
+            copyS += pageCopyS;
+            return pageCopyS;
+        }
+        refCount[frame]--;
+        space.frames[page] = takeFrame();
+        space.cow[page] = false;
+        cowFaults++;
+        copyS += pageCopyS;
+        return pageCopyS;
+    }
+
+    private boolean forkable(int childId, int amount) {
+        Integer parentId = pendingForks.get(childId);
+        AddressSpace parent = parentId == null ? null : spaces.get(parentId);
+        return parent != null && parent.pages == amount * pagesPerGb;
+    }
+
+    // the hinted segment if it can stand in for private pages of a new allocation, else null
+    private Integer attachable(int ownerId, int amount) {
+        Integer segmentId = pendingAttachments.get(ownerId);
+        Segment segment = segmentId == null ? null : segments.get(segmentId);
+        if (segment == null || segment.destroyed) return null;
+        return segment.frames.length <= amount * pagesPerGb - imagePages(amount) ? segmentId : null;
+    }
+
+    private void clearHints(int ownerId) {
+        pendingForks.remove(ownerId);
+        pendingAttachments.remove(ownerId);
+    }
+
+    // frames for the private part, plus the image if its program has none loaded yet
+    private int framesNeeded(int amount, boolean existing) {
+        int pages = amount * pagesPerGb;
+        if (existing) return pages;
+        int imagePages = imagePages(amount);
+        return pages - imagePages + (images.containsKey(amount) ? 0 : imagePages);
+    }
+
+    private int imagePages(int amount) {
+        return (int) Math.floor(amount * pagesPerGb * sharedFraction);
+    }
+
+    private void mapSegment(AddressSpace space, Segment segment, int firstPage, boolean copyOnWrite) {
+        for (int i = 0; i < segment.frames.length; i++) {
+            space.frames[firstPage + i] = segment.frames[i];
+            space.cow[firstPage + i] = copyOnWrite;
+            refCount[segment.frames[i]]++;
+        }
+        segment.attached++;
+    }
+
+    private void detach(Map<Integer, Segment> table, int key) {
+        Segment segment = table.get(key);
+        if (segment == null) return;
+        segment.attached--;
+        // images live while a program instance does; explicit segments until destroyed
+        if (segment.attached == 0 && (table == images || segment.destroyed)) {
+            release(table, key);
+        }
+    }
+
+    // drops the segment's own reference on its frames
+    private void release(Map<Integer, Segment> table, int key) {
+        Segment segment = table.remove(key);
+        for (int frame : segment.frames) {
+            unref(frame);
+        }
+    }
+
+    private int[] takeFrames(int count) {
+        int[] frames = new int[count];
+        for (int i = 0; i < count; i++) {
+            frames[i] = takeFrame();
+        }
+        return frames;
+    }
+
+    private int takeFrame() {
+        for (int i = 0; i < refCount.length; i++) {
+            int frame = (nextFrame + i) % refCount.length;
+            if (refCount[frame] == 0) {
+                refCount[frame] = 1;
+                freeFrames--;
+                nextFrame = (frame + 1) % refCount.length;
+                return frame;
+            }
+        }
+        throw new IllegalStateException("no free frame");
+    }
+
+    private void unref(int frame) {
+        if (--refCount[frame] == 0) {
+            freeFrames++;
+        }
+    }
+
+    // --- statistics --- //
+
+    public int getPagesPerGb() {
+        return pagesPerGb;
+    }
+
+    /** @return GB mapped over all processes, counting a shared page once per mapping. */
+    public synchronized double getMappedGb() {
+        return (double) mappedPages / pagesPerGb;
+    }
+
+    /** @return GB actually backed by frames. */
+    public synchronized double getResidentGb() {
+        return (double) (refCount.length - freeFrames) / pagesPerGb;
+    }
+
+    /** @return GB that sharing saves compared to giving every mapping its own frame. */
+    public synchronized double getSavedGb() {
+        return Math.max(0, getMappedGb() - getResidentGb());
+    }
+
+    /** @return share of mapped memory that did not need its own frame. */
+    public synchronized double getMemorySavings() {
+        return mappedPages == 0 ? 0 : getSavedGb() / getMappedGb();
+    }
+
+    /** @return frames mapped by more than one process. */
+    public synchronized int getSharedFrames() {
+        int shared = 0;
+        for (int refs : refCount) {
+            if (refs > 1) shared++;
+        }
+        return shared;
+    }
+
+    public synchronized long getAccesses() {
+        return accesses;
+    }
+
+    public synchronized long getCowFaults() {
+        return cowFaults;
+    }
+
+    /** @return copy-on-write faults per page access. */
+    public synchronized double getCowFaultRate() {
+        return accesses == 0 ? 0 : (double) cowFaults / accesses;
+    }
+
+    /** @return copy-on-write faults per write. */
+    public synchronized double getCowFaultsPerWrite() {
+        return writes == 0 ? 0 : (double) cowFaults / writes;
+    }
+
+    /** @return children given a copy-on-write copy of a parent, directly or through a hint. */
+    public synchronized long getForks() {
+        return forks;
+    }
+
+    /** @return segment attachments, directly or through a hint. */
+    public synchronized long getAttachments() {
+        return attachments;
+    }
+
+    public synchronized long getCowStalls() {
+        return cowStalls;
+    }
+
+    /** @return total modelled time spent copying pages. */
+    public synchronized double getCopyS() {
+        return copyS;
+    }
+
+    public synchronized int getFailedAllocations() {
+        return failedAllocations;
+    }
+}
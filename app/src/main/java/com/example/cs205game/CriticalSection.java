@@ -0,0 +1,61 @@
+package com.example.cs205game;
+
+/**
+ * A span of a process's cpu work during which it must hold a shared resource.
+ * The process tries to acquire the resource once it has done {@code startS} seconds of cpu
+ * work and releases it after a further {@code holdS} seconds (or when it finishes).
+ */
+public class CriticalSection {
+    private final int resourceId;
+    private final double startS;
+    private final double holdS;
+    private boolean entered = false; // lock acquired
+    private boolean exited = false; // lock released
+
+    /**
+     * @param resourceId Id of the SharedResource to lock.
+     * @param startS CPU progress (seconds) at which the lock is requested.
+     * @param holdS CPU seconds spent inside the section.
+     */
+    public CriticalSection(int resourceId, double startS, double holdS) {
+        if (startS < 0 || holdS <= 0) {
+            throw new IllegalArgumentException("startS must be >= 0 and holdS > 0");
+        }
+        this.resourceId = resourceId;
+        this.startS = startS;
+        this.holdS = holdS;
+    }
+
+    public int getResourceId() {
+        return resourceId;
+    }
+
+    public double getStartS() {
+        return startS;
+    }
+
+    public double getEndS() {
+        return startS + holdS;
+    }
+
+    public boolean isEntered() {
+        return entered;
+    }
+
+    public boolean isExited() {
+        return exited;
+    }
+
+    /** @return true if the process currently holds the resource. */
+    public boolean isHolding() {
+        return entered && !exited;
+    }
+
+    void markEntered() {
+        entered = true;
+    }
+
+    void markExited() {
+        exited = true;
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.cs205game;
+
+import java.util.ArrayDeque;
+
+/**
+ * C-LOOK order for throughput, plus a fifo of arrivals: when the oldest request has waited
+ * longer than the deadline it is served next, wherever it is, so sweeps cannot starve
+ * requests far from the head.
+ */
+public class DeadlineIoScheduler extends SortedIoScheduler {
+    public static final double DEFAULT_DEADLINE_S = 5.0;
+
+    private final double deadlineS;
+    private final ArrayDeque<IoRequest> byArrival = new ArrayDeque<>();
+    private int expiredServed = 0;
+
+    public DeadlineIoScheduler(double deadlineS) {
+        this.deadlineS = deadlineS;
+    }
+
+    @Override
+    public String getName() {
+        return "deadline";
+    }
+
+    @Override
+    public void add(IoRequest request) {
+        super.add(request);
+        byArrival.offer(request);
+    }
+
+    @Override
+    public IoRequest poll(int headBlock, double nowS) {
+        IoRequest oldest = byArrival.peek();
+        if (oldest == null) return null;
+        IoRequest next;
+        if (nowS - oldest.getQueuedAtS() > deadlineS) {
+            next = oldest;
+            expiredServed++;
+        } else {
+            next = ceiling(headBlock);
+            if (next == null) {
+                next = byBlock.first();
+            }
+        }
+        byBlock.remove(next);
+        byArrival.remove(next);
+        return next;
+    }
+
+    @Override
+    public boolean remove(Process process) {
+        if (!super.remove(process)) return false;
+        byArrival.removeIf(r -> r.getProcess() == process);
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        byArrival.clear();
+        expiredServed = 0;
+    }
+
+    public double getDeadlineS() {
+        return deadlineS;
+    }
+
+    /** @return requests served out of order because their deadline had passed. */
+    public int getExpiredServed() {
+        return expiredServed;
+    }
+}
@@ -0,0 +1,229 @@
+package com.example.cs205game;
+
+import android.util.Log;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A dma engine moving io data while the cores keep running other work. It has a fixed number of
+ * channels; each transfer occupies one, and active transfers share the engine's bandwidth
+ * (each capped at the channel bandwidth). Transfers beyond the channel count wait in fifo order.
+ * An io second of the workload stands for a fixed amount of data, so a lone transfer at
+ * {@code gbPerIoS} per second takes as long as it would on an io device.
+ */
+public class DmaEngine {
+    private static final String TAG = "DmaEngine";
+    public static final int DEFAULT_CHANNELS = 4;
+    public static final double DEFAULT_CHANNEL_GB_PER_S = 1.0;
+    public static final double DEFAULT_TOTAL_GB_PER_S = 2.0; // shared by all active channels
+    public static final double DEFAULT_GB_PER_IO_S = 1.0; // data moved per second of workload io time
+    public static final double DEFAULT_INTERRUPT_COST_S = 0.002; // cpu time to take a completion interrupt
+
+    /** Told about each finished transfer and the core that issued it. */
+    public interface CompletionListener {
+        void onTransferCompleted(IOProcess process, int issuingCoreId);
+    }
+
+    // one transfer, waiting or on a channel
+    private static final class Transfer {
+        final IOProcess process;
+        final int coreId;
+        final double queuedAtS;
+
+        Transfer(IOProcess process, int coreId, double queuedAtS) {
+            this.process = process;
+            this.coreId = coreId;
+            this.queuedAtS = queuedAtS;
+        }
+    }
+
+    private final int channels;
+    private final double channelGbPerS;
+    private final double totalGbPerS;
+    private final double gbPerIoS;
+    private final double interruptCostS;
+    private final ArrayDeque<Transfer> waiting = new ArrayDeque<>();
+    private final List<Transfer> active = new ArrayList<>();
+    private final List<Transfer> finishedScratch = new ArrayList<>(); // reused every tick
+    private double clockS = 0;
+
+    // statistics
+    private int completed = 0;
+    private double gbMoved = 0;
+    private double channelBusyS = 0; // summed over channels
+    private double totalWaitS = 0; // time transfers waited for a channel
+    private int started = 0;
+
+    public DmaEngine() {
+        this(DEFAULT_CHANNELS, DEFAULT_CHANNEL_GB_PER_S, DEFAULT_TOTAL_GB_PER_S, DEFAULT_GB_PER_IO_S,
+                DEFAULT_INTERRUPT_COST_S);
+    }
+
+    /**
+     * @param channels Transfers that can run at once.
+     * @param channelGbPerS Bandwidth cap of one channel.
+     * @param totalGbPerS Bandwidth shared by all active channels.
+     * @param gbPerIoS Data per second of workload io time.
+     * @param interruptCostS Cpu seconds a completion interrupt costs the issuing core.
+     */
+    public DmaEngine(int channels, double channelGbPerS, double totalGbPerS, double gbPerIoS, double interruptCostS) {
+        if (channels <= 0 || channelGbPerS <= 0 || totalGbPerS <= 0 || gbPerIoS <= 0 || interruptCostS < 0) {
+            throw new IllegalArgumentException("invalid dma engine: " + channels + " channels, " + channelGbPerS
+                    + "/" + totalGbPerS + " GB/s");
+        }
+        this.channels = channels;
+        this.channelGbPerS = channelGbPerS;
+        this.totalGbPerS = totalGbPerS;
+        this.gbPerIoS = gbPerIoS;
+        this.interruptCostS = interruptCostS;
+    }
+
+    /**
+     * Queues a transfer, starting it if a channel is free.
+     * @param process The process whose io data moves, in WAITING_IO until a channel takes it.
+     * @param coreId Core that issued it (and takes the completion interrupt).
+     */
+    public synchronized void submit(IOProcess process, int coreId) {
+        process.setCurrentState(Process.ProcessState.WAITING_IO);
+        waiting.offer(new Transfer(process, coreId, clockS));
+        startWaiting();
+    }
+
+    private void startWaiting() {
+        while (active.size() < channels && !waiting.isEmpty()) {
+            Transfer t = waiting.poll();
+            t.process.setCurrentState(Process.ProcessState.IN_IO);
+            totalWaitS += clockS - t.queuedAtS;
+            started++;
+            active.add(t);
+        }
+    }
+
+    /**
+     * Moves data on every active channel and reports finished transfers.
+     * The listener is called after the engine's lock is released.
+     */
+    public void update(double deltaTime, CompletionListener listener) {
+        finishedScratch.clear();
+        synchronized (this) {
+            clockS += deltaTime;
+            if (active.isEmpty()) return;
+            double rateGbPerS = Math.min(channelGbPerS, totalGbPerS / active.size());
+            for (Iterator<Transfer> it = active.iterator(); it.hasNext(); ) {
+                Transfer t = it.next();
+                // a transfer finishing mid-tick only moves what it had left
+                double movedGb = Math.min(rateGbPerS * deltaTime, t.process.getRemainingIoTime() * gbPerIoS);
+                gbMoved += movedGb;
+                channelBusyS += movedGb / rateGbPerS;
+                if (!t.process.decrementIoTime(deltaTime * rateGbPerS / gbPerIoS)) {
+                    it.remove();
+                    finishedScratch.add(t);
+                    completed++;
+                }
+            }
+            startWaiting();
+        }
+        for (Transfer t : finishedScratch) {
+            Log.d(TAG, "transfer for process " + t.process.getId() + " finished, interrupting core " + t.coreId);
+            listener.onTransferCompleted(t.process, t.coreId);
+        }
+    }
+
+    /**
+     * Drops the process's transfer whether it is on a channel or waiting for one, e.g. when it is
+     * killed, and gives a freed channel to the next waiting transfer.
+     * @return true if the process had a transfer here.
+     */
+    public synchronized boolean remove(Process process) {
+        for (Iterator<Transfer> it = active.iterator(); it.hasNext(); ) {
+            if (it.next().process == process) {
+                it.remove();
+                startWaiting();
+                return true;
+            }
+        }
+        for (Iterator<Transfer> it = waiting.iterator(); it.hasNext(); ) {
+            if (it.next().process == process) {
+                it.remove();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** @return the processes whose data is on a channel right now. */
+    public synchronized List<IOProcess> getInService() {
+        List<IOProcess> inService = new ArrayList<>(active.size());
+        for (Transfer t : active) {
+            inService.add(t.process);
+        }
+        return inService;
+    }
+
+    /** @return the process with this id if it is waiting for or using a channel, else null. */
+    public synchronized IOProcess find(int processId) {
+        for (Transfer t : active) {
+            if (t.process.getId() == processId) return t.process;
+        }
+        for (Transfer t : waiting) {
+            if (t.process.getId() == processId) return t.process;
+        }
+        return null;
+    }
+
+    public synchronized boolean isBusy() {
+        return !active.isEmpty();
+    }
+
+    public synchronized void clear() {
+        waiting.clear();
+        active.clear();
+        clockS = 0;
+        completed = 0;
+        gbMoved = 0;
+        channelBusyS = 0;
+        totalWaitS = 0;
+        started = 0;
+    }
+
+    // --- statistics --- //
+
+    public int getChannels() {
+        return channels;
+    }
+
+    public double getInterruptCostS() {
+        return interruptCostS;
+    }
+
+    public synchronized int getCompleted() {
+        return completed;
+    }
+
+    public synchronized int getActiveTransfers() {
+        return active.size();
+    }
+
+    /** @return share of channel time spent transferring. */
+    public synchronized double getChannelUtilization() {
+        return clockS == 0 ? 0 : channelBusyS / (clockS * channels);
+    }
+
+    /** @return achieved bandwidth, in GB per simulated second. */
+    public synchronized double getGbPerS() {
+        return clockS == 0 ? 0 : gbMoved / clockS;
+    }
+
+    /** @return mean time a transfer waited for a free channel. */
+    public synchronized double getMeanWaitS() {
+        return started == 0 ? 0 : totalWaitS / started;
+    }
+
+    /** @return cpu seconds spent on completion interrupts. */
+    public synchronized double getInterruptCpuS() {
+        return completed * interruptCostS;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.cs205game;
+
+/**
+ * Observes cpu time handed to processes on a core, e.g. to model the memory accesses made
+ * during that time. Hooks may charge stalls with {@link Process#addStall(double)}; the core
+ * serves them before further cpu progress.
+ * note: called from inside core.update, the core's monitor is held by this thread.
+ */
+public interface ExecutionHook {
+
+    /**
+     * @param core The core the process ran on.
+     * @param process The running process.
+     * @param runS Cpu seconds the process made progress for in this tick.
+     */
+    void onExecute(Core core, Process process, double runS);
+}
@@ -0,0 +1,258 @@
+package com.example.cs205game;
+
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * An io device whose bandwidth is shared by up to {@code queueDepth} outstanding requests under
+ * weighted fair queuing. Each request moves its process's io size ({@link IOProcess#getIoSizeMb()})
+ * and is weighted by its process's tickets, so it gets bandwidth in proportion to its weight among
+ * the active requests. Requests beyond the queue depth wait in the device's {@link IoScheduler}.
+ *
+ * <p>Service follows a virtual clock that advances at bandwidth / total active weight. A request
+ * admitted at virtual time V finishes when the clock reaches V + size / weight, so finish tags
+ * are fixed at admission and only the tag at the head of the queue is looked at; completion
+ * times change only when the active set does. There is no head to move, the seek model is not
+ * used. A finished request leaves the device at once, freeing its share.
+ */
+public class FairShareIOArea extends IOArea {
+    private static final String TAG = "FairShareIOArea";
+    public static final int DEFAULT_QUEUE_DEPTH = 4;
+
+    // an admitted request and its fixed virtual finish tag
+    private static final class Flow {
+        final IoRequest request;
+        final double weight;
+        final double finishTag;
+
+        Flow(IoRequest request, double weight, double finishTag) {
+            this.request = request;
+            this.weight = weight;
+            this.finishTag = finishTag;
+        }
+    }
+
+    private final int queueDepth;
+    private final double bandwidthMbPerS;
+    private final PriorityQueue<Flow> active = new PriorityQueue<>((a, b) -> {
+        int byTag = Double.compare(a.finishTag, b.finishTag);
+        return byTag != 0 ? byTag : Long.compare(a.request.getSequence(), b.request.getSequence());
+    });
+    private double virtualTime = 0;
+    private double activeWeight = 0;
+    private final List<IOProcess> finishedScratch = new ArrayList<>(); // reused every tick
+    private int recalculations = 0; // active set changes
+
+    public FairShareIOArea(int id, double serviceRate) {
+        this(id, serviceRate, DEFAULT_QUEUE_DEPTH, new FifoIoScheduler());
+    }
+
+    /**
+     * @param id Device index.
+     * @param serviceRate Bandwidth relative to an exclusive device, 1.0 is {@link IOProcess#MB_PER_IO_S}.
+     * @param queueDepth Requests sharing the bandwidth at once.
+     * @param scheduler Order of requests waiting for a slot.
+     */
+    public FairShareIOArea(int id, double serviceRate, int queueDepth, IoScheduler scheduler) {
+        super(id, serviceRate, scheduler, SeekModel.NONE);
+        if (queueDepth <= 0) {
+            throw new IllegalArgumentException("queue depth must be positive: " + queueDepth);
+        }
+        this.queueDepth = queueDepth;
+        this.bandwidthMbPerS = serviceRate * IOProcess.MB_PER_IO_S;
+    }
+
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    /** @return the request finishing first, or null when idle. */
+    @Override
+    public synchronized IOProcess getCurrentProcess() {
+        Flow head = active.peek();
+        return head == null ? null : head.request.getProcess();
+    }
+
+    @Override
+    public synchronized boolean isBusy() {
+        return !active.isEmpty();
+    }
+
+    @Override
+    public synchronized boolean assignProcess(IOProcess process) {
+        if (active.size() >= queueDepth) {
+            Log.w(TAG, "Device " + id + " has no free slot for process " + process.getId());
+            return false;
+        }
+        admit(new IoRequest(process, clockS, sequence++));
+        return true;
+    }
+
+    @Override
+    public synchronized boolean enqueue(IOProcess process) {
+        IoRequest request = new IoRequest(process, clockS, sequence++);
+        if (active.size() < queueDepth && pending.isEmpty()) {
+            admit(request);
+            return true;
+        }
+        pending.add(request);
+        process.setCurrentState(Process.ProcessState.WAITING_IO);
+        return false;
+    }
+
+    private void admit(IoRequest request) {
+        IOProcess process = request.getProcess();
+        double weight = process.getTickets();
+        double remainingMb = process.getIoTimer() == 0 ? 0
+                : process.getIoSizeMb() * process.getRemainingIoTime() / process.getIoTimer();
+        active.add(new Flow(request, weight, virtualTime + remainingMb / weight));
+        activeWeight += weight;
+        recalculations++;
+        recordStart(request);
+        Log.i(TAG, "Admitted IOProcess " + process.getId() + " to device " + id + " (" + active.size() + " sharing)");
+    }
+
+    // fills free slots from the waiting requests
+    private void admitWaiting() {
+        while (active.size() < queueDepth && !pending.isEmpty()) {
+            admit(pending.poll(0, clockS));
+        }
+    }
+
+    /** Finished requests leave on their own; this drops the one finishing first. */
+    @Override
+    public synchronized IOProcess removeProcess() {
+        Flow head = active.peek();
+        if (head == null) return null;
+        IOProcess process = head.request.getProcess();
+        removeProcess(process);
+        return process;
+    }
+
+    @Override
+    public synchronized boolean removeProcess(Process process) {
+        for (Iterator<Flow> it = active.iterator(); it.hasNext(); ) {
+            Flow f = it.next();
+            if (f.request.getProcess() == process) {
+                it.remove();
+                dropWeight(f.weight);
+                admitWaiting();
+                return true;
+            }
+        }
+        return removeQueued(process);
+    }
+
+    private void dropWeight(double weight) {
+        activeWeight -= weight;
+        recalculations++;
+        if (active.isEmpty()) {
+            // idle: restart the virtual clock so tags stay small
+            virtualTime = 0;
+            activeWeight = 0;
+        }
+    }
+
+    /**
+     * Advances the virtual clock, jumping from one finish to the next within the tick.
+     * @param deltaTime Time elapsed since the last update in seconds.
+     * @param onIoCompleted Told about each finished request, once.
+     */
+    @Override
+    public void update(double deltaTime, java.util.function.Consumer<IOProcess> onIoCompleted) {
+        finishedScratch.clear();
+        synchronized (this) {
+            double endS = clockS + deltaTime;
+            while (!active.isEmpty()) {
+                Flow head = active.peek();
+                double untilFinishS = (head.finishTag - virtualTime) * activeWeight / bandwidthMbPerS;
+                if (clockS + untilFinishS > endS) break;
+                busyS += Math.max(0, untilFinishS);
+                clockS += Math.max(0, untilFinishS);
+                virtualTime = head.finishTag;
+                active.poll();
+                IOProcess process = head.request.getProcess();
+                process.decrementIoTime(process.getRemainingIoTime()); // marks the io completed
+                completed++;
+                latenciesS.add(clockS - head.request.getQueuedAtS());
+                finishedScratch.add(process);
+                dropWeight(head.weight);
+                admitWaiting();
+            }
+            if (!active.isEmpty()) {
+                busyS += endS - clockS;
+                virtualTime += (endS - clockS) * bandwidthMbPerS / activeWeight;
+            }
+            clockS = endS;
+        }
+        for (IOProcess process : finishedScratch) {
+            Log.i(TAG, "IOProcess " + process.getId() + " finished IO on device " + id + ".");
+            onIoCompleted.accept(process);
+        }
+    }
+
+    /** Bandwidth is only shared between requests; background work is not modelled. */
+    @Override
+    public synchronized boolean addBackgroundWork(double ioS) {
+        return false;
+    }
+
+    @Override
+    public synchronized void clear() {
+        super.clear();
+        active.clear();
+        virtualTime = 0;
+        activeWeight = 0;
+        recalculations = 0;
+    }
+
+    @Override
+    public synchronized int getQueueLength() {
+        return pending.size() + active.size();
+    }
+
+    @Override
+    public synchronized List<IOProcess> getInService() {
+        List<IOProcess> inService = new ArrayList<>(active.size());
+        for (Flow f : active) {
+            inService.add(f.request.getProcess());
+        }
+        return inService;
+    }
+
+    @Override
+    public synchronized boolean holds(Process process) {
+        for (Flow f : active) {
+            if (f.request.getProcess() == process) return true;
+        }
+        return super.holds(process);
+    }
+
+    @Override
+    public synchronized IOProcess find(int processId) {
+        for (Flow f : active) {
+            if (f.request.getProcess().getId() == processId) return f.request.getProcess();
+        }
+        return super.find(processId);
+    }
+
+    /** @return seconds until the device would drain everything it holds at full bandwidth. */
+    @Override
+    public synchronized double getBacklogS() {
+        double[] mb = {0};
+        for (Flow f : active) {
+            mb[0] += (f.finishTag - virtualTime) * f.weight;
+        }
+        pending.forEach(r -> mb[0] += r.getProcess().getRemainingIoTime() * IOProcess.MB_PER_IO_S);
+        return mb[0] / bandwidthMbPerS;
+    }
+
+    /** @return times the active set changed, each one a fair share recalculation. */
+    public synchronized int getRecalculations() {
+        return recalculations;
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.cs205game;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Measures how closely cpu time follows ticket shares.
+ * Every tick each runnable process is entitled to a slice of the cores proportional to its
+ * tickets (capped at one core); the stats compare that entitlement to what it actually received.
+ */
+public class FairnessStats {
+    private static final int MAX_TRACKED = 512; // Oldest processes are dropped beyond this
+    private static final double MIN_ENTITLEMENT_S = 0.5; // Ignore processes that barely competed
+
+    private static final class Share {
+        double entitledS;
+        double receivedS;
+    }
+
+    private final LinkedHashMap<Integer, Share> shares = new LinkedHashMap<Integer, Share>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Share> eldest) {
+            return size() > MAX_TRACKED;
+        }
+    };
+
+    /**
+     * Records one tick.
+     * @param deltaTime Tick length in seconds.
+     * @param numCores Number of cores shared by the runnable processes.
+     * @param running Processes that made cpu progress this tick.
+     * @param waiting Processes that were ready but not running.
+     */
+    public synchronized void sample(double deltaTime, int numCores, List<Process> running, List<Process> waiting) {
+        long totalTickets = 0;
+        for (Process p : running) totalTickets += p.getTickets();
+        for (Process p : waiting) totalTickets += p.getTickets();
+        if (totalTickets == 0 || deltaTime <= 0) return;
+
+        for (Process p : running) {
+            Share share = record(p, deltaTime, numCores, totalTickets);
+            share.receivedS += deltaTime;
+        }
+        for (Process p : waiting) {
+            record(p, deltaTime, numCores, totalTickets);
+        }
+    }
+
+    private Share record(Process p, double deltaTime, int numCores, long totalTickets) {
+        Share share = shares.get(p.getId());
+        if (share == null) {
+            share = new Share();
+            shares.put(p.getId(), share);
+        }
+        double fraction = Math.min(1.0, (double) numCores * p.getTickets() / totalTickets);
+        share.entitledS += fraction * deltaTime;
+        return share;
+    }
+
+    /**
+     * @return Jain's fairness index over received/entitled ratios (1.0 is perfectly proportional).
+     */
+    public synchronized double getJainIndex() {
+        double sum = 0;
+        double sumSquares = 0;
+        int n = 0;
+        for (Share share : shares.values()) {
+            if (share.entitledS < MIN_ENTITLEMENT_S) continue;
+            double x = share.receivedS / share.entitledS;
+            sum += x;
+            sumSquares += x * x;
+            n++;
+        }
+        return n == 0 || sumSquares == 0 ? 1.0 : (sum * sum) / (n * sumSquares);
+    }
+
+    /** @return the largest absolute difference between received and entitled cpu seconds. */
+    public synchronized double getMaxShareErrorS() {
+        double max = 0;
+        for (Share share : shares.values()) {
+            max = Math.max(max, Math.abs(share.receivedS - share.entitledS));
+        }
+        return max;
+    }
+
+    public synchronized void reset() {
+        shares.clear();
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.cs205game;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+/** Serves io requests in arrival order, wherever the head is. */
+public class FifoIoScheduler implements IoScheduler {
+    private final ArrayDeque<IoRequest> queue = new ArrayDeque<>();
+
+    @Override
+    public String getName() {
+        return "FIFO";
+    }
+
+    @Override
+    public void add(IoRequest request) {
+        queue.offer(request);
+    }
+
+    @Override
+    public IoRequest poll(int headBlock, double nowS) {
+        return queue.poll();
+    }
+
+    @Override
+    public boolean remove(Process process) {
+        for (Iterator<IoRequest> it = queue.iterator(); it.hasNext(); ) {
+            if (it.next().getProcess() == process) {
+                it.remove();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int size() {
+        return queue.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return queue.isEmpty();
+    }
+
+    @Override
+    public void clear() {
+        queue.clear();
+    }
+
+    @Override
+    public void forEach(Consumer<IoRequest> action) {
+        queue.forEach(action);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.cs205game;
+
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+
+/** Evicts the page that was loaded first, ignoring how often it is used. */
+public class FifoPageReplacement implements PageReplacementPolicy {
+    private final LinkedHashSet<Long> order = new LinkedHashSet<>();
+
+    @Override
+    public String getName() {
+        return "FIFO";
+    }
+
+    @Override
+    public void onInsert(long key) {
+        order.add(key);
+    }
+
+    @Override
+    public void onAccess(long key) {
+        // load order only
+    }
+
+    @Override
+    public long evict(long incomingKey) {
+        Iterator<Long> it = order.iterator();
+        if (!it.hasNext()) return NO_PAGE;
+        long victim = it.next();
+        it.remove();
+        return victim;
+    }
+
+    @Override
+    public void remove(long key) {
+        order.remove(key);
+    }
+
+    @Override
+    public int size() {
+        return order.size();
+    }
+
+    @Override
+    public void clear() {
+        order.clear();
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.cs205game;
+
+import java.util.ArrayDeque;
+import java.util.function.Consumer;
+
+/** First come first serve ready queue, the policy the player follows in the manual game. */
+public class FifoReadyQueue implements ReadyQueue {
+    private final ArrayDeque<Process> queue = new ArrayDeque<>();
+
+    @Override
+    public String getName() {
+        return "FIFO";
+    }
+
+    @Override
+    public synchronized void add(Process process) {
+        queue.offer(process);
+    }
+
+    @Override
+    public synchronized Process poll() {
+        return queue.poll();
+    }
+
+    @Override
+    public synchronized boolean remove(Process process) {
+        return queue.remove(process);
+    }
+
+    @Override
+    public synchronized int size() {
+        return queue.size();
+    }
+
+    @Override
+    public synchronized boolean isEmpty() {
+        return queue.isEmpty();
+    }
+
+    @Override
+    public synchronized void clear() {
+        queue.clear();
+    }
+
+    @Override
+    public synchronized void forEach(Consumer<Process> action) {
+        queue.forEach(action);
+    }
+}
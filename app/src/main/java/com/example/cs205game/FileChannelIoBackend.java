@@ -0,0 +1,109 @@
+package com.example.cs205game;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Serves io with explicit reads and writes on a temp file through a {@link FileChannel}.
+ * A request's size follows its io time and its offset its block address; it writes or reads
+ * as {@link IOProcess#isWrite()} says. Requests of one segment use a positional read or write, larger ones
+ * a scatter read or gather write over segment sized direct buffers. {@link MappedIoBackend}
+ * serves the same ranges through a mapping.
+ */
+public class FileChannelIoBackend implements IoBackend {
+    public static final int SEGMENT_BYTES = 64 << 10;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final long fileBytes;
+    private final long bytesPerIoS;
+    private final boolean syncWrites;
+    private final ByteBuffer[] segments; // reused by every request, the device calls from one thread
+
+    public FileChannelIoBackend() throws IOException {
+        this(DEFAULT_FILE_BYTES, DEFAULT_BYTES_PER_IO_S, false);
+    }
+
+    /**
+     * @param fileBytes Size of the temp file, written once up front.
+     * @param bytesPerIoS Bytes moved per second of workload io time.
+     * @param syncWrites Force writes to the device instead of leaving them in the host's page cache.
+     */
+    public FileChannelIoBackend(long fileBytes, long bytesPerIoS, boolean syncWrites) throws IOException {
+        if (fileBytes < 2L * SEGMENT_BYTES || bytesPerIoS <= 0) {
+            throw new IllegalArgumentException("invalid file backend: " + fileBytes + " bytes, " + bytesPerIoS + " per io s");
+        }
+        this.fileBytes = fileBytes - fileBytes % SEGMENT_BYTES;
+        this.bytesPerIoS = bytesPerIoS;
+        this.syncWrites = syncWrites;
+        this.file = Files.createTempFile("cs205-io", ".dat");
+        this.channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.DELETE_ON_CLOSE);
+        int maxSegments = (int) (this.fileBytes / 2 / SEGMENT_BYTES);
+        this.segments = new ByteBuffer[maxSegments];
+        for (int i = 0; i < maxSegments; i++) {
+            segments[i] = ByteBuffer.allocateDirect(SEGMENT_BYTES);
+        }
+        // fill the file so reads hit real blocks rather than holes
+        ByteBuffer fill = segments[0];
+        for (long pos = 0; pos < this.fileBytes; pos += SEGMENT_BYTES) {
+            fill.clear();
+            while (fill.hasRemaining()) {
+                channel.write(fill, pos + fill.position());
+            }
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "file channel";
+    }
+
+    @Override
+    public long transfer(IOProcess process) throws IOException {
+        long bytes = IoBackend.requestBytes(process, bytesPerIoS, fileBytes / 2);
+        int count = (int) Math.max(1, (bytes + SEGMENT_BYTES - 1) / SEGMENT_BYTES);
+        long span = (long) count * SEGMENT_BYTES;
+        long position = ((long) process.getBlockAddress() * SEGMENT_BYTES) % (fileBytes - span + 1);
+        position -= position % SEGMENT_BYTES;
+        boolean write = process.isWrite();
+        for (int i = 0; i < count; i++) {
+            segments[i].clear();
+        }
+        long moved = 0;
+        if (count == 1) {
+            ByteBuffer buffer = segments[0];
+            while (buffer.hasRemaining()) {
+                int n = write ? channel.write(buffer, position + buffer.position())
+                        : channel.read(buffer, position + buffer.position());
+                if (n < 0) break;
+                moved += n;
+            }
+        } else {
+            channel.position(position);
+            while (moved < span) {
+                long n = write ? channel.write(segments, 0, count) : channel.read(segments, 0, count);
+                if (n < 0) break;
+                moved += n;
+            }
+        }
+        if (write && syncWrites) {
+            channel.force(false);
+        }
+        return moved;
+    }
+
+    public long getFileBytes() {
+        return fileBytes;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+        Files.deleteIfExists(file);
+    }
+}
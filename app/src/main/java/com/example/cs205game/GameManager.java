@@ -8,6 +8,11 @@ import android.content.Context; // Required for getting Vibrator service
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -23,17 +28,43 @@ public class GameManager {
     private static final int PROCESS_COMPLETION_SCORE = 100; // score for consumed process (updated from 20)
     private static final int NUM_CORES = 4;
     public static final int MEMORY_CAPACITY = 16; // gb
+    private static final MemoryModel MEMORY_MODEL = MemoryModel.PAGE_FRAME; // allocator behind memory (contiguous ones only in the tournament, BUDDY shows a block map)
+    private static final boolean PAGE_REFERENCES = false; // cpu time drives per-core tlbs (and virtual memory faults)
+    private static final boolean OFF_HEAP_ARENA = false; // back allocations with real bytes (hides model specific features)
+    private static final int NUM_IO_DEVICES = 1; // the player drags onto device 0, the scheduler routes to all
+    private static final IODevices.Routing IO_ROUTING = IODevices.Routing.SHORTEST_QUEUE;
+    private static final IoScheduler.Kind IO_SCHEDULER = IoScheduler.Kind.FIFO; // order of each device's queue
+    private static final SeekModel IO_SEEK_MODEL = SeekModel.NONE; // new SeekModel() for disk-like head movement
+    private static final int IO_QUEUE_DEPTH = 1; // > 1 shares each device's bandwidth between that many requests
+    private static final IoBackend.Kind IO_BACKEND = IoBackend.Kind.SIMULATED; // FILE_CHANNEL / MAPPED do real temp file io
+    private static final int PAGE_CACHE_GB = 0; // memory set aside for a block cache in front of the io devices
+    private static final VirtualMemory.Replacement PAGE_CACHE_POLICY = VirtualMemory.Replacement.ARC;
+    private static final IoRing.Coalescing IO_COALESCING = IoRing.Coalescing.NONE; // interrupt per io completion
+    // arrivals slow down as the buffer (and the completions waiting for it), memory or queue fill up
+    private static final AdmissionController.Strategy ADMISSION_STRATEGY = AdmissionController.Strategy.TOKEN_BUCKET;
     public static final int BUFFER_CAPACITY = 5; // max items in buffer
     private static final int NUM_CLIENTS = 2; // number of consumer threads
 
     private int score;
     private int health;
     private final Memory memory;
+    private final MemoryCompactor memoryCompactor; // null unless memory needs contiguous page frames
+    private final OomKiller oomKiller; // null unless memory is overcommitted
+    private final TlbSimulator tlbSimulator; // null unless PAGE_REFERENCES
     private final ProcessManager processManager;
     private final List<Core> cpuCores;
-    private final IOArea ioArea;
+    private final IODevices ioDevices;
+    private final IoRing ioRing; // submission / completion queues in front of the devices
+    private final IOArea ioArea; // device 0, the one shown on screen
     private final SharedBuffer sharedBuffer;
+    private final Scheduler scheduler; // automatic dispatch (manual mode by default)
     private final List<Client> clients;
+    // completed processes waiting for buffer space, drained each tick instead of blocking in sharedbuffer.put
+    private final Queue<Process> pendingBufferInsertions = new ConcurrentLinkedQueue<>();
+    // manual moves parked in memory's wait queue: process id -> core the player dropped it on
+    private final Map<Integer, Integer> memoryWaitTargets = new ConcurrentHashMap<>();
+    // parked moves whose memory was granted, placed on a core by the game thread
+    private final Queue<Process> grantedMoves = new ConcurrentLinkedQueue<>();
     private ExecutorService clientExecutor; // using an executorservice is better for managing threads
     private volatile boolean gameRunning = false;
     private Vibrator vibrator; // Vibrator instance
@@ -48,9 +79,17 @@ public class GameManager {
 
         this.score = 0;
         this.health = INITIAL_HEALTH;
-        this.memory = new Memory(MEMORY_CAPACITY);
-        this.processManager = new ProcessManager();
-        this.ioArea = new IOArea();
+        MemoryBackend backend = MEMORY_MODEL.create(MEMORY_CAPACITY);
+        this.memory = new Memory(OFF_HEAP_ARENA ? new ArenaBackedMemory(backend) : backend);
+        this.processManager = new ProcessManager(new AdmissionController(ADMISSION_STRATEGY));
+        this.ioDevices = new IODevices(NUM_IO_DEVICES, IO_ROUTING, IO_SCHEDULER, IO_SEEK_MODEL, IO_QUEUE_DEPTH,
+                IO_BACKEND);
+        this.ioArea = ioDevices.getDevice(0);
+        if (PAGE_CACHE_GB > 0) {
+            ioDevices.setPageCache(new PageCache(memory, PAGE_CACHE_GB, PAGE_CACHE_POLICY));
+        }
+        this.ioRing = new IoRing(ioDevices, IO_COALESCING, IoRing.DEFAULT_INTERRUPT_COST_S,
+                IoRing.DEFAULT_PER_COMPLETION_COST_S);
         this.cpuCores = new ArrayList<>(NUM_CORES);
         for (int i = 0; i < NUM_CORES; i++) {
             int coreId = i; // Need final variable for lambda capture
@@ -59,6 +98,70 @@ public class GameManager {
                                 this::handleIoRequired)); // method reference for io request
         }
         this.sharedBuffer = new SharedBuffer(BUFFER_CAPACITY);
+        this.scheduler = new Scheduler(memory, processManager, cpuCores, ioRing,
+                new FifoReadyQueue(), Scheduler.Mode.MANUAL);
+        if (PAGE_REFERENCES) {
+            // cpu time becomes page references, translated by per-core tlbs (and faulted in by virtual memory)
+            MemoryAccessGenerator accessGenerator = new MemoryAccessGenerator(
+                    MemoryAccessGenerator.pagesPerGbOf(memory.getBackend()), new Random());
+            this.tlbSimulator = new TlbSimulator();
+            accessGenerator.addListener(tlbSimulator);
+            if (memory.getBackend() instanceof PageAccessListener) {
+                accessGenerator.addListener((PageAccessListener) memory.getBackend());
+            }
+            for (Core core : cpuCores) {
+                core.addExecutionHook(accessGenerator);
+            }
+        } else {
+            this.tlbSimulator = null;
+        }
+        if (memory.getBackend() instanceof NumaMemory) {
+            // cores belong to nodes, remote memory slows their progress
+            NumaMemory numa = (NumaMemory) memory.getBackend();
+            numa.assignHomeNodes(cpuCores);
+            for (Core core : cpuCores) {
+                core.addExecutionHook(numa);
+            }
+        }
+        if (tlbSimulator != null && memory.getBackend() instanceof PageFrameAllocator) {
+            // huge pages widen tlb reach; page tables change under the memory lock
+            PageFrameAllocator frames = (PageFrameAllocator) memory.getBackend();
+            tlbSimulator.setHugePageMap((ownerId, page) -> {
+                synchronized (memory) {
+                    return frames.getTranslationSpan(ownerId, page);
+                }
+            });
+        }
+        if (memory.getBackend() instanceof PageFrameAllocator
+                && ((PageFrameAllocator) memory.getBackend()).isContiguousRequired()) {
+            // scattered frames never refuse for fragmentation, only contiguous placement needs compacting
+            this.memoryCompactor = new MemoryCompactor(memory);
+            // copy time is served by the process whose pages moved, on its next core time
+            memoryCompactor.setOnOwnerStalled((ownerId, seconds) -> {
+                Process owner = scheduler.findResidentProcess(ownerId);
+                if (owner != null) owner.addStall(seconds);
+            });
+        } else {
+            this.memoryCompactor = null;
+        }
+        if (memory.getBackend() instanceof ArenaBackedMemory) {
+            // cpu progress reads and writes the process's slice of the arena
+            for (Core core : cpuCores) {
+                core.addExecutionHook((ArenaBackedMemory) memory.getBackend());
+            }
+        }
+        if (memory.getBackend() instanceof OvercommitMemory) {
+            // running processes touch more of their commitment, the killer reclaims it when it runs out
+            for (Core core : cpuCores) {
+                core.addExecutionHook((OvercommitMemory) memory.getBackend());
+            }
+            this.oomKiller = new OomKiller(memory, cpuCores, ioDevices);
+            oomKiller.setOnKilled(this::handleOomKill);
+            oomKiller.setDmaEngine(scheduler.getDmaEngine());
+            oomKiller.setLockManager(scheduler.getLockManager());
+        } else {
+            this.oomKiller = null;
+        }
         this.clients = new ArrayList<>(NUM_CLIENTS);
         // Using an ExecutorService to manage client threads is generally better than raw Threads
         for (int i = 0; i < NUM_CLIENTS; i++) {
@@ -79,6 +182,7 @@ public class GameManager {
         if (gameRunning) return;
         Log.i(TAG, "Starting game and client threads...");
         gameRunning = true;
+        ioDevices.open(); // closed again by stopGame
         // create a new executor if it's null or shut down
         if (clientExecutor == null || clientExecutor.isShutdown()) {
              clientExecutor = Executors.newFixedThreadPool(NUM_CLIENTS);
@@ -120,6 +224,8 @@ public class GameManager {
             }
         }
         Log.i(TAG, "Client threads requested to stop.");
+        // real io backends hold temp files and worker threads; startGame reopens them
+        ioDevices.close();
     }
 
     /**
@@ -129,12 +235,27 @@ public class GameManager {
     public void update(double deltaTime) {
         if (!gameRunning) return;
 
+        // feed downstream pressure to admission control before the spawner runs
+        updateAdmissionPressure();
+
         // update process spawning and queue patience
         processManager.update(deltaTime, this::handlePatienceExpired);
 
+        // advance memory devices, then move a bounded slice of pages if free memory is fragmented
+        memory.update(deltaTime);
+        if (memoryCompactor != null) {
+            memoryCompactor.update(deltaTime);
+        }
+
         // update cooldowns for processes waiting in the buffer
         sharedBuffer.update(deltaTime);
 
+        // move completed processes into the buffer as space frees up
+        drainPendingBufferInsertions();
+
+        // place manual moves that were parked for memory and have since been granted it
+        drainGrantedMoves();
+
         // update processes running on cores
         for (Core core : cpuCores) {
             // lambda used here to pass core id to the handler
@@ -142,8 +263,16 @@ public class GameManager {
             core.update(deltaTime); 
         }
 
-        // update process running in the io area
-        ioArea.update(deltaTime, this::handleIoCompleted);
+        // update processes being served by the io devices, reaping completions when an interrupt fires
+        ioRing.update(deltaTime, this::handleIoCompleted);
+
+        // reclaim memory if overcommitted processes touched more than there is
+        if (oomKiller != null) {
+            oomKiller.update();
+        }
+
+        // automatic dispatch (if enabled) and utilization sampling
+        scheduler.update(deltaTime);
 
         // game over check is now handled in gameview via isgamerunning()
     }
@@ -153,11 +282,23 @@ public class GameManager {
 
     // called by processmanager when a process's patience runs out in the queue
     private void handlePatienceExpired(Process process) {
+        // stop waiting for memory; a grant that already happened is handed back by the drain
+        if (memory.cancelWait(process.getId())) {
+            memoryWaitTargets.remove(process.getId());
+        }
         if (!gameRunning) return; // ignore if game already stopped
         Log.w(TAG, "Process " + process.getId() + " removed due to expired patience.");
         decreaseHealth(PATIENCE_PENALTY);
     }
 
+    // called by the oom killer after it removed a process and released its memory
+    private void handleOomKill(Process process, int penalty) {
+        scheduler.onProcessCompleted(process); // its locks must not die with it
+        if (!gameRunning) return;
+        Log.w(TAG, "Process " + process.getId() + " killed to reclaim memory.");
+        decreaseHealth(penalty);
+    }
+
     /**
      * Callback from core when a process finishes its CPU execution.
      * Moves the process to the SharedBuffer and frees its memory.
@@ -168,36 +309,98 @@ public class GameManager {
         // note: core.removeProcess() was already called inside core.update before this callback
         Log.i(TAG, "Handling CPU completion for Process " + process.getId() + " from Core " + coreId);
 
+        // release any shared resource still held before the process leaves the cpu
+        scheduler.onProcessCompleted(process);
+
         // free memory now that CPU work is done
-        memory.freeMemory(process.getMemoryRequirement());
+        memory.release(process.getId(), process.getMemoryRequirement());
         Log.d(TAG, "Freed memory for Process " + process.getId());
 
         process.setCurrentState(Process.ProcessState.IN_BUFFER);
-        try {
-            sharedBuffer.put(process);
+        // never block the game thread on a full buffer, park the process until space frees up
+        // (keep fifo order by going through the pending queue if others are already waiting)
+        if (pendingBufferInsertions.isEmpty() && sharedBuffer.offer(process)) {
             Log.d(TAG, "Process " + process.getId() + " added to SharedBuffer.");
-        } catch (InterruptedException e) {
-            // Handle shutdown case - may happen during normal game shutdown
-            if (!gameRunning) {
-                Log.d(TAG, "Buffer operation interrupted during shutdown for Process " + process.getId());
-            } else {
-                // Unexpected interruption during normal gameplay
-                Thread.currentThread().interrupt();
-                Log.e(TAG, "Interrupted while putting process " + process.getId() + " into buffer", e);
+        } else {
+            pendingBufferInsertions.offer(process);
+            Log.d(TAG, "SharedBuffer full, Process " + process.getId() + " waiting for space (" + pendingBufferInsertions.size() + " pending).");
+        }
+    }
+
+    // moves as many pending completed processes into the buffer as it has room for
+    private void drainPendingBufferInsertions() {
+        Process next;
+        while ((next = pendingBufferInsertions.peek()) != null) {
+            if (!sharedBuffer.offer(next)) {
+                return; // still full, try again next tick
+            }
+            pendingBufferInsertions.poll();
+            Log.d(TAG, "Pending Process " + next.getId() + " added to SharedBuffer.");
+        }
+    }
+
+    // puts granted parked moves on their target core, or any free core if that one got taken
+    private void drainGrantedMoves() {
+        Process next;
+        while ((next = grantedMoves.peek()) != null) {
+            int processId = next.getId();
+            if (processManager.getProcessQueue().peek() != next) {
+                // patience ran out after the memory was granted
+                grantedMoves.poll();
+                memoryWaitTargets.remove(processId);
+                memory.release(processId, next.getMemoryRequirement());
+                continue;
             }
+            Integer targetCoreId = memoryWaitTargets.get(processId);
+            Core core = targetCoreId != null && !cpuCores.get(targetCoreId).isUtilized()
+                    ? cpuCores.get(targetCoreId) : findFreeCore();
+            if (core == null) {
+                return; // holds its memory, placed as soon as a core frees up
+            }
+            synchronized (core) {
+                if (core.isUtilized()) return;
+                processManager.takeProcessFromQueue();
+                core.assignProcess(next);
+            }
+            grantedMoves.poll();
+            memoryWaitTargets.remove(processId);
+            Log.i(TAG, "Process " + processId + " got its memory and moved to Core " + core.getId());
+        }
+    }
+
+    private Core findFreeCore() {
+        for (Core core : cpuCores) {
+            if (!core.isUtilized()) return core;
         }
+        return null;
+    }
+
+    // samples buffer, memory and queue saturation for the admission controller
+    private void updateAdmissionPressure() {
+        double bufferOccupancy = (double) (sharedBuffer.size() + pendingBufferInsertions.size()) / sharedBuffer.getCapacity();
+        double memoryPressure = (double) memory.getUsedMemory() / memory.getCapacity();
+        double queueDepth = (double) processManager.getProcessQueue().size() / processManager.getMaxQueueCapacity();
+        processManager.getAdmissionController().observe(bufferOccupancy, memoryPressure, queueDepth);
     }
 
     // called by core when an ioprocess needs io
     private void handleIoRequired(IOProcess ioProcess) {
         if (!gameRunning) return;
+        if (scheduler.isAutomatic()) {
+            scheduler.onIoRequired(ioProcess);
+            return;
+        }
         // log indicates user needs to drag process to io area
         Log.i(TAG, "IO Required for Process " + ioProcess.getId() + ". Waiting for user action.");
     }
 
-    // called by ioarea when an ioprocess finishes io
+    // called by the io ring, once per finished io, when it reaps the completion
     private void handleIoCompleted(IOProcess ioProcess) {
         if (!gameRunning) return;
+        if (scheduler.isAutomatic()) {
+            scheduler.onIoCompleted(ioProcess);
+            return;
+        }
         // log indicates user needs to drag process back to a core
          Log.i(TAG, "IO Completed for Process " + ioProcess.getId() + ". Waiting for user action.");
     }
@@ -230,6 +433,10 @@ public class GameManager {
      */
     public void moveProcessFromQueueToCore(int processId, int targetCoreId) {
         if (!gameRunning) return;
+        if (scheduler.isAutomatic()) {
+            Log.w(TAG, "User Action Ignored: scheduler is in " + scheduler.getMode() + " mode.");
+            return;
+        }
         if (targetCoreId < 0 || targetCoreId >= cpuCores.size()) {
             Log.e(TAG, "Invalid target Core ID: " + targetCoreId);
             return;
@@ -244,6 +451,13 @@ public class GameManager {
             return;
         }
 
+        // 1b. already parked for memory: just follow the new drop target
+        if (memoryWaitTargets.containsKey(processId)) {
+            memoryWaitTargets.put(processId, targetCoreId);
+            Log.d(TAG, "Process " + processId + " is waiting for memory, will move to Core " + targetCoreId);
+            return;
+        }
+
         // 2. check if core is free
         synchronized (targetCore) { // synchronize on core for check-then-act
             if (targetCore.isUtilized()) {
@@ -259,22 +473,23 @@ public class GameManager {
                 return; // potential race condition or logic error somewhere
             }
 
-            // 4. check memory
-            if (!memory.hasEnoughMemory(processToMove.getMemoryRequirement())) {
-                 Log.w(TAG, "User Action Failed: Not enough memory for Process " + processId + ". Required: " + processToMove.getMemoryRequirement() + ", Available: " + memory.getAvailableMemory());
-                 // todo: visual feedback for insufficient memory?
+            // 4. check and take memory in one step (on the target core's numa node if memory has nodes)
+            if (memory.getBackend() instanceof NumaMemory) {
+                ((NumaMemory) memory.getBackend()).preferNode(processToMove.getId(), targetCore.getHomeNode());
+            }
+            //    if it does not fit, park it; the free that makes room wakes it (see drainGrantedMoves)
+            memoryWaitTargets.put(processId, targetCoreId);
+            if (!memory.allocateOrWait(processId, processToMove.getMemoryRequirement(),
+                    waitS -> grantedMoves.offer(processToMove))) {
+                 Log.w(TAG, "Not enough memory for Process " + processId + ". Required: " + processToMove.getMemoryRequirement() + ", Available: " + memory.getAvailableMemory() + ". Waiting for memory.");
                  return;
             }
+            memoryWaitTargets.remove(processId);
 
-            // 5. all checks passed: allocate memory, remove from queue, assign to core
-            if (memory.allocateMemory(processToMove.getMemoryRequirement())) {
-                 processManager.takeProcessFromQueue(); // now remove from queue
-                 targetCore.assignProcess(processToMove);
-                 // success visual feedback handled by state change drawing
-            } else {
-                // should not happen due to check, but log 
-                 Log.e(TAG, "Memory allocation failed unexpectedly after check for Process " + processId);
-            }
+            // 5. all checks passed: remove from queue, assign to core
+            processManager.takeProcessFromQueue(); // now remove from queue
+            targetCore.assignProcess(processToMove);
+            // success visual feedback handled by state change drawing
         }
     }
 
@@ -287,6 +502,10 @@ public class GameManager {
      */
     public void moveProcessFromCoreToIO(int processId, int sourceCoreId) {
         if (!gameRunning) return;
+        if (scheduler.isAutomatic()) {
+            Log.w(TAG, "User Action Ignored: scheduler is in " + scheduler.getMode() + " mode.");
+            return;
+        }
          if (sourceCoreId < 0 || sourceCoreId >= cpuCores.size()) {
              Log.e(TAG, "Invalid source Core ID: " + sourceCoreId);
              return;
@@ -353,6 +572,10 @@ public class GameManager {
      */
     public void moveProcessFromIOToCore(int processId, int targetCoreId) {
         if (!gameRunning) return;
+        if (scheduler.isAutomatic()) {
+            Log.w(TAG, "User Action Ignored: scheduler is in " + scheduler.getMode() + " mode.");
+            return;
+        }
         if (targetCoreId < 0 || targetCoreId >= cpuCores.size()) {
             Log.e(TAG, "Invalid target Core ID: " + targetCoreId);
             return;
@@ -406,6 +629,14 @@ public class GameManager {
         return health;
     }
 
+    /**
+     * @param processId A queued process.
+     * @return seconds a drop of this process has waited for memory, or -1 if it is not waiting.
+     */
+    public double getMemoryWaitS(int processId) {
+        return memoryWaitTargets.containsKey(processId) ? memory.getWaitS(processId) : -1;
+    }
+
     public Memory getMemory() {
         return memory;
     }
@@ -422,10 +653,50 @@ public class GameManager {
         return ioArea;
      }
 
+    /** @return every io device (device 0 is the io area on screen). */
+    public IODevices getIoDevices() {
+        return ioDevices;
+    }
+
+    /** @return the io submission / completion queues (interrupt coalescing and its statistics). */
+    public IoRing getIoRing() {
+        return ioRing;
+    }
+
      public SharedBuffer getSharedBuffer() {
         return sharedBuffer;
      }
 
+    /** @return the scheduler (switch its mode to let the os dispatch processes automatically). */
+    public Scheduler getScheduler() {
+        return scheduler;
+    }
+
+    /** @return the per-core tlb simulator, or null if cpu time does not generate page references. */
+    public TlbSimulator getTlbSimulator() {
+        return tlbSimulator;
+    }
+
+    /** @return the incremental memory compactor, or null unless memory needs contiguous page frames. */
+    public MemoryCompactor getMemoryCompactor() {
+        return memoryCompactor;
+    }
+
+    /** @return the oom killer, or null if memory is not overcommitted. */
+    public OomKiller getOomKiller() {
+        return oomKiller;
+    }
+
+    /** @return the admission controller guarding process arrivals (set its strategy to enable throttling). */
+    public AdmissionController getAdmissionController() {
+        return processManager.getAdmissionController();
+    }
+
+    /** @return the number of completed processes waiting for space in the shared buffer. */
+    public int getPendingBufferInsertionCount() {
+        return pendingBufferInsertions.size();
+    }
+
     // Add getter for clients
      public List<Client> getClients() {
          return clients;
@@ -487,11 +758,27 @@ public class GameManager {
         // clear components
         processManager.reset();
         sharedBuffer.clear(); // This also resets the shutdown flag
-        ioArea.clear();
+        pendingBufferInsertions.clear();
+        grantedMoves.clear();
+        memoryWaitTargets.clear();
+        scheduler.reset();
+        ioRing.clear(); // and the devices
         for (Core core : cpuCores) {
             core.clear();
         }
         memory.clear();
+        if (ioDevices.getPageCache() != null) {
+            ioDevices.getPageCache().clear(); // takes its memory back
+        }
+        if (memoryCompactor != null) {
+            memoryCompactor.reset();
+        }
+        if (oomKiller != null) {
+            oomKiller.reset();
+        }
+        if (tlbSimulator != null) {
+            tlbSimulator.reset();
+        }
         
         // client list is reused, but threads need restarting
         // ensure clients internal state is ready for restart if they hold state
@@ -47,6 +47,8 @@ public class GameView extends SurfaceView implements SurfaceHolder.Callback {
     private Paint smallTextPaint; // For smaller labels like process ID
     private Paint memoryCellPaint;
     private Paint memoryUsedPaint;
+    private Paint memoryWastePaint; // allocated but unrequested space (block rounding)
+    private Paint memoryBlockEdgePaint; // marks where each allocator block starts
     private Paint healthBarPaint;
     private Paint healthBarBackgroundPaint;
     private Paint patienceGreenPaint;
@@ -388,6 +390,15 @@ public class GameView extends SurfaceView implements SurfaceHolder.Callback {
         memoryUsedPaint.setColor(Color.parseColor("#F44336")); // Red for memory usage (changed from blue)
         memoryUsedPaint.setStyle(Paint.Style.FILL);
 
+        memoryWastePaint = new Paint();
+        memoryWastePaint.setColor(Color.parseColor("#FFB300")); // Amber for internal fragmentation
+        memoryWastePaint.setStyle(Paint.Style.FILL);
+
+        memoryBlockEdgePaint = new Paint();
+        memoryBlockEdgePaint.setColor(Color.WHITE);
+        memoryBlockEdgePaint.setStyle(Paint.Style.STROKE);
+        memoryBlockEdgePaint.setStrokeWidth(4);
+
         healthBarPaint = new Paint();
         healthBarPaint.setColor(Color.parseColor("#4CAF50")); // Green for health
         healthBarPaint.setStyle(Paint.Style.FILL);
@@ -885,8 +896,15 @@ public class GameView extends SurfaceView implements SurfaceHolder.Callback {
     private void drawProcessRepresentation(@NonNull Canvas canvas, @NonNull Process p, RectF bounds, float alpha, boolean inQueue) {
         boolean isIOProcess = p instanceof IOProcess;
         
+        // A dropped process waiting for memory is greyed out
+        double memoryWaitS = inQueue ? gameManager.getMemoryWaitS(p.getId()) : -1;
+
         // Draw chip background
         Paint chipPaint = isIOProcess ? ioBgPaint : processBgPaint;
+        if (memoryWaitS >= 0) {
+            chipPaint = new Paint(chipPaint);
+            chipPaint.setColor(Color.parseColor("#616161")); // Grey
+        }
         chipPaint.setAlpha((int)(255 * alpha));
         canvas.drawRoundRect(bounds, 16, 16, chipPaint);
         
@@ -924,6 +942,17 @@ public class GameView extends SurfaceView implements SurfaceHolder.Callback {
             }
         }
 
+        // Show how long it has been waiting for memory
+        if (memoryWaitS >= 0) {
+            Paint memoryWaitPaint = new Paint(textPaint2);
+            memoryWaitPaint.setAlpha((int)(255 * alpha));
+            memoryWaitPaint.setColor(Color.LTGRAY);
+            memoryWaitPaint.setTextSize(22);
+            memoryWaitPaint.setTypeface(Typeface.create(Typeface.MONOSPACE, Typeface.BOLD));
+            memoryWaitPaint.setTextAlign(Paint.Align.CENTER);
+            canvas.drawText(String.format("MEM WAIT %.1fs", memoryWaitS), bounds.centerX(), bounds.bottom - 6, memoryWaitPaint);
+        }
+
         // Draw patience indicator as a decreasing border if in queue
         if (inQueue) {
             // Calculate patience ratio
@@ -1232,6 +1261,16 @@ public class GameView extends SurfaceView implements SurfaceHolder.Callback {
 
         int usedCells = gameManager.getMemory().getUsedMemory();
 
+        // the buddy allocator gets a block map instead of a fill bar
+        MemoryBackend backend = gameManager.getMemory().getBackend();
+        if (backend instanceof ArenaBackedMemory) {
+            backend = ((ArenaBackedMemory) backend).getInner();
+        }
+        if (backend instanceof BuddyAllocator) {
+            drawMemoryBlockMap(canvas, area, (BuddyAllocator) backend, cellWidth, cellHeight, cellsPerRow);
+            return;
+        }
+
         for (int i = 0; i < totalCells; i++) {
             int row = i / cellsPerRow;
             int col = i % cellsPerRow;
@@ -1254,6 +1293,40 @@ public class GameView extends SurfaceView implements SurfaceHolder.Callback {
         canvas.drawText(memUsageText, area.centerX() - textWidth / 2, area.bottom + textPaint.getTextSize() + 5, textPaint);
     }
 
+    /**
+     * Draws memory as allocator blocks: requested space in red, rounding waste in amber,
+     * a white edge where each block starts, plus the allocator's internal / external
+     * fragmentation and the largest request it could currently grant.
+     */
+    private void drawMemoryBlockMap(Canvas canvas, Rect area, BuddyAllocator buddy,
+                                    float cellWidth, float cellHeight, int cellsPerRow) {
+        for (MemoryBlock block : buddy.getBlockMap()) {
+            // colour each 1 GB cell the block covers
+            int firstCell = (int) Math.floor(block.startGb);
+            int lastCell = (int) Math.ceil(block.startGb + block.sizeGb) - 1;
+            for (int i = firstCell; i <= lastCell && i < GameManager.MEMORY_CAPACITY; i++) {
+                float left = area.left + (i % cellsPerRow) * cellWidth;
+                float top = area.top + (i / cellsPerRow) * cellHeight;
+                if (!block.isFree()) {
+                    boolean requestedCell = i < block.startGb + block.requestedGb;
+                    canvas.drawRect(left, top, left + cellWidth, top + cellHeight,
+                            requestedCell ? memoryUsedPaint : memoryWastePaint);
+                }
+                canvas.drawRect(left + 1, top + 1, left + cellWidth - 1, top + cellHeight - 1, memoryCellPaint);
+            }
+            float edgeX = area.left + (firstCell % cellsPerRow) * cellWidth;
+            float edgeY = area.top + (firstCell / cellsPerRow) * cellHeight;
+            canvas.drawLine(edgeX, edgeY, edgeX, edgeY + cellHeight, memoryBlockEdgePaint);
+        }
+
+        String memUsageText = String.format("MEM: %d / %d GB  waste %.0f%%  frag %.0f%%  max %.1f GB",
+                gameManager.getMemory().getUsedMemory(), GameManager.MEMORY_CAPACITY,
+                buddy.getInternalFragmentation() * 100, buddy.getExternalFragmentation() * 100,
+                buddy.getLargestAllocatableGb());
+        float textWidth = textPaint.measureText(memUsageText);
+        canvas.drawText(memUsageText, area.centerX() - textWidth / 2, area.bottom + textPaint.getTextSize() + 5, textPaint);
+    }
+
     private void drawCores(Canvas canvas, Map<Integer, Rect> coreRectsMap) {
         for (Map.Entry<Integer, Rect> entry : coreRectsMap.entrySet()) {
             int coreId = entry.getKey();
@@ -2038,12 +2111,12 @@ public class GameView extends SurfaceView implements SurfaceHolder.Callback {
     }
     
     /**
-     * Shows a temporary error message when there are insufficient resources
+     * Shows a temporary error message when a dropped process has to wait for memory
      */
     private void showInsufficientResourcesError() {
         // Set a flag to display an error message
         isShowingError = true;
-        errorMessage = "Not enough memory!";
+        errorMessage = "Not enough memory, waiting...";
         errorDisplayStartTime = System.currentTimeMillis();
         
         // Create a handler to clear the error after a delay
@@ -2507,13 +2580,11 @@ public class GameView extends SurfaceView implements SurfaceHolder.Callback {
                 Log.d(TAG, "Dropped Process " + droppedProcess.getId() + " onto Core " + coreId);
                 if (sourceState == Process.ProcessState.IN_QUEUE) {
                     if (gameManager.getProcessManager().isProcessAtHead(droppedProcess.getId())) {
-                        // Check if there's enough memory to allocate the process
-                        if (!gameManager.getMemory().hasEnoughMemory(droppedProcess.getMemoryRequirement())) {
-                            // Not enough memory - provide vibration feedback
+                        gameManager.moveProcessFromQueueToCore(droppedProcess.getId(), coreId);
+                        // Not enough memory - the process waits for it, greyed out in the queue
+                        if (gameManager.getMemoryWaitS(droppedProcess.getId()) >= 0) {
                             vibrateForError();
                             showInsufficientResourcesError();
-                        } else {
-                            gameManager.moveProcessFromQueueToCore(droppedProcess.getId(), coreId);
                         }
                     } else {
                         Log.e(TAG, "FCFS Error on drop - Process " + droppedProcess.getId() + " no longer at head.");
@@ -0,0 +1,16 @@
+package com.example.cs205game;
+
+/**
+ * Tells a {@link TlbSimulator} how much of an address space one translation covers, so a single
+ * tlb entry can map a whole huge page.
+ */
+public interface HugePageMap {
+
+    /**
+     * @param ownerId The process translating.
+     * @param page The virtual page (in base pages) being accessed.
+     * @return base pages covered by the translation containing the page: 1 for a base page,
+     *         the huge page size otherwise. Aligned to that size in virtual pages.
+     */
+    int getTranslationSpan(int ownerId, int page);
+}
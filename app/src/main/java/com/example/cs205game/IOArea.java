@@ -2,11 +2,78 @@ package com.example.cs205game;
 
 import android.util.Log;
 
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One io device. Serves one IOProcess at a time at its service rate (io seconds per second);
+ * requests arriving while it is busy wait in its own queue, ordered by its {@link IoScheduler},
+ * and the next one starts when the process being served is removed. Starting a request first
+ * moves the head to the request's block, at the cost given by the {@link SeekModel}.
+ * {@link FairShareIOArea} serves several requests at once instead, and {@link RealIOArea} does
+ * real file io in place of the countdown.
+ */
 public class IOArea {
     private static final String TAG = "IOArea";
+
+    protected final int id;
+    protected final double serviceRate;
+    protected final IoScheduler pending;
+    private final SeekModel seekModel;
+    private IoRequest currentRequest = null;
     private IOProcess currentProcess = null;
     private boolean isBusy = false;
     private double remainingIoTimeS = 0;
+    protected double clockS = 0;
+    private int headBlock = 0;
+    private double seekRemainingS = 0; // seek still to do before the current transfer runs
+    private double backgroundIoS = 0; // queued background work (e.g. cache write-back), in io seconds
+    protected long sequence = 0;
+
+    // Statistics
+    protected double busyS = 0; // time spent serving unfinished io
+    private int started = 0;
+    protected int completed = 0;
+    private double totalWaitS = 0; // queueing time of started requests
+    private double maxWaitS = 0;
+    private double totalSeekS = 0;
+    protected final List<Double> latenciesS = new ArrayList<>(); // queueing plus service, per completed request
+
+    public IOArea() {
+        this(0, 1.0);
+    }
+
+    public IOArea(int id, double serviceRate) {
+        this(id, serviceRate, new FifoIoScheduler(), SeekModel.NONE);
+    }
+
+    /**
+     * @param id Device index.
+     * @param serviceRate Io seconds served per second (2.0 finishes requests twice as fast).
+     * @param scheduler Order of queued requests.
+     * @param seekModel Head movement cost.
+     */
+    public IOArea(int id, double serviceRate, IoScheduler scheduler, SeekModel seekModel) {
+        if (serviceRate <= 0) {
+            throw new IllegalArgumentException("service rate must be positive: " + serviceRate);
+        }
+        this.id = id;
+        this.serviceRate = serviceRate;
+        this.pending = scheduler;
+        this.seekModel = seekModel;
+    }
+
+    public IoScheduler getScheduler() {
+        return pending;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public double getServiceRate() {
+        return serviceRate;
+    }
 
     public IOProcess getCurrentProcess() {
         return currentProcess;
@@ -21,58 +88,280 @@ public class IOArea {
      * @param process The IOProcess to assign.
      * @return true if assignment was successful, false if the area was already busy.
      */
-    public boolean assignProcess(IOProcess process) {
+    public synchronized boolean assignProcess(IOProcess process) {
         if (isBusy) {
             Log.w(TAG, "IOArea is already busy with Process " + (currentProcess != null ? currentProcess.getId() : "?") + ". Cannot assign process " + process.getId());
             return false;
         }
+        start(new IoRequest(process, clockS, sequence++));
+        return true;
+    }
+
+    /**
+     * Starts serving the process now, or queues it behind the requests already waiting.
+     * A queued process is put in WAITING_IO until it starts.
+     * @param process The IOProcess to serve.
+     * @return true if it started immediately.
+     */
+    public synchronized boolean enqueue(IOProcess process) {
+        IoRequest request = new IoRequest(process, clockS, sequence++);
+        if (!isBusy && pending.isEmpty()) {
+            start(request);
+            return true;
+        }
+        pending.add(request);
+        process.setCurrentState(Process.ProcessState.WAITING_IO);
+        Log.d(TAG, "Queued IOProcess " + process.getId() + " on device " + id + " (" + pending.size() + " waiting)");
+        return false;
+    }
+
+    /**
+     * Drops a queued (not yet started) request, e.g. when its process is killed.
+     * @return true if the process was queued here.
+     */
+    public synchronized boolean removeQueued(Process process) {
+        return pending.remove(process);
+    }
+
+    private void start(IoRequest request) {
+        IOProcess process = request.getProcess();
+        this.currentRequest = request;
         this.currentProcess = process;
         this.isBusy = true;
-        process.setCurrentState(Process.ProcessState.IN_IO);
-        Log.i(TAG, "Assigned IOProcess " + process.getId() + " to IOArea.");
-        return true;
+        seekRemainingS = seekModel.seekS(headBlock, request.getBlock());
+        totalSeekS += seekRemainingS;
+        // Background work queued earlier goes first
+        seekRemainingS += backgroundIoS / serviceRate;
+        backgroundIoS = 0;
+        headBlock = request.getBlock();
+        recordStart(request);
+        Log.i(TAG, "Assigned IOProcess " + process.getId() + " to IOArea " + id + ".");
+        onStart(request);
+    }
+
+    /** Called once a request has been given the device. */
+    protected void onStart(IoRequest request) {
+    }
+
+    protected IoRequest getCurrentRequest() {
+        return currentRequest;
+    }
+
+    /** Counts the request's queueing time and moves its process into IN_IO. */
+    protected void recordStart(IoRequest request) {
+        double waitS = clockS - request.getQueuedAtS();
+        started++;
+        totalWaitS += waitS;
+        maxWaitS = Math.max(maxWaitS, waitS);
+        request.getProcess().setCurrentState(Process.ProcessState.IN_IO);
     }
 
     /**
-     * Removes the current IOProcess from the area, marking it as free.
+     * Removes the current IOProcess from the area, marking it as free, and starts the next
+     * queued request if there is one.
      * Should be called when the IO completes and the process needs to be moved back to a core.
      * @return The IOProcess that was removed, or null if the area was already free.
      */
-    public IOProcess removeProcess() {
+    public synchronized IOProcess removeProcess() {
         if (!isBusy) {
             return null;
         }
         IOProcess removedProcess = this.currentProcess;
-        Log.i(TAG, "Removing IOProcess " + removedProcess.getId() + " from IOArea.");
+        Log.i(TAG, "Removing IOProcess " + removedProcess.getId() + " from IOArea " + id + ".");
         this.currentProcess = null;
+        this.currentRequest = null;
         this.isBusy = false;
         // State change (to IO_COMPLETED_WAITING_CORE) should happen in GameManager/Core when moved back
+        IoRequest next = pending.poll(headBlock, clockS);
+        if (next != null) {
+            start(next);
+        }
         return removedProcess;
     }
 
+    /**
+     * Queues io that belongs to no process, e.g. cache write-back. It runs while the device is
+     * idle, and a request starting before it is done waits for the rest.
+     * @param ioS Work in io seconds.
+     * @return false if this device does not model background io.
+     */
+    public synchronized boolean addBackgroundWork(double ioS) {
+        backgroundIoS += ioS;
+        return true;
+    }
+
+    /**
+     * Drops the process whether it is being served or queued, e.g. when it is killed or its
+     * completion has been handled.
+     * @return true if the process was on this device.
+     */
+    public synchronized boolean removeProcess(Process process) {
+        if (currentProcess == process) {
+            removeProcess();
+            return true;
+        }
+        return removeQueued(process);
+    }
+
     /**
      * Updates the IO timer for the process currently in the IO area.
      * @param deltaTime Time elapsed since the last update in seconds.
-     * @param onIoCompleted Callback for when the IO process finishes its IO work.
+     * @param onIoCompleted Callback for when the IO process finishes its IO work, called once.
      */
     public void update(double deltaTime, java.util.function.Consumer<IOProcess> onIoCompleted) {
-        if (!isBusy || currentProcess == null) {
-            return;
+        IOProcess finished = null;
+        synchronized (this) {
+            clockS += deltaTime;
+            if (!isBusy || currentProcess == null) {
+                // An idle device works off queued background io
+                if (backgroundIoS > 0) {
+                    double servedS = Math.min(backgroundIoS / serviceRate, deltaTime);
+                    backgroundIoS -= servedS * serviceRate;
+                    busyS += servedS;
+                }
+                return;
+            }
+            boolean wasCompleted = currentProcess.isIoCompleted();
+            if (!wasCompleted) {
+                busyS += deltaTime;
+            }
+            // The head has to reach the block before data moves
+            double transferS = deltaTime;
+            if (seekRemainingS > 0) {
+                double seekS = Math.min(seekRemainingS, deltaTime);
+                seekRemainingS -= seekS;
+                transferS -= seekS;
+            }
+            // Posted once, when the transfer ends; a finished process waiting to be removed is idle
+            if (!wasCompleted && transferS > 0 && !currentProcess.decrementIoTime(transferS * serviceRate)) {
+                completed++;
+                latenciesS.add(clockS - currentRequest.getQueuedAtS());
+                finished = currentProcess;
+            }
         }
-
-        if (!currentProcess.decrementIoTime(deltaTime)) {
+        if (finished != null) {
             // IO work finished for this process
-            Log.i(TAG, "IOProcess " + currentProcess.getId() + " finished IO in IOArea.");
+            Log.i(TAG, "IOProcess " + finished.getId() + " finished IO in IOArea " + id + ".");
             // Don't remove it here, wait for user to drag it back.
             // The process's internal state (isIoCompleted) is already set.
-            onIoCompleted.accept(currentProcess); // Notify GameManager/View that it's ready to be moved back
+            onIoCompleted.accept(finished); // Notify GameManager/View that it's ready to be moved back
         }
     }
 
-    /** Clears the IO area, removing any current process. */
+    /** Releases host resources held by the device (files, threads). */
+    public void close() {
+    }
+
+    /** Reacquires what {@link #close()} released, so a stopped game can resume. */
+    public void open() {
+    }
+
+    /** Clears the IO area, removing any current and queued process, and its statistics. */
     public synchronized void clear() {
         currentProcess = null;
+        currentRequest = null;
+        isBusy = false;
         remainingIoTimeS = 0;
+        pending.clear();
+        clockS = 0;
+        headBlock = 0;
+        seekRemainingS = 0;
+        backgroundIoS = 0;
+        sequence = 0;
+        resetStats();
         Log.d(TAG, "IOArea cleared.");
     }
-} 
\ No newline at end of file
+
+    protected void resetStats() {
+        latenciesS.clear();
+        busyS = 0;
+        started = 0;
+        completed = 0;
+        totalWaitS = 0;
+        maxWaitS = 0;
+        totalSeekS = 0;
+    }
+
+    // --- Queue inspection / statistics --- //
+
+    /** @return requests waiting behind the one being served. */
+    public synchronized int getQueuedCount() {
+        return pending.size();
+    }
+
+    /** @return requests on the device, the one being served included. */
+    public synchronized int getQueueLength() {
+        return pending.size() + (isBusy ? 1 : 0);
+    }
+
+    /** @return the processes whose io is being served right now. */
+    public synchronized List<IOProcess> getInService() {
+        List<IOProcess> inService = new ArrayList<>(1);
+        if (currentProcess != null) inService.add(currentProcess);
+        return inService;
+    }
+
+    /** @return true if the process is being served or waiting here. */
+    public synchronized boolean holds(Process process) {
+        if (currentProcess == process) return true;
+        boolean[] found = new boolean[1];
+        pending.forEach(r -> found[0] |= r.getProcess() == process);
+        return found[0];
+    }
+
+    /** @return the process with this id if it is being served or waiting here, else null. */
+    public synchronized IOProcess find(int processId) {
+        if (currentProcess != null && currentProcess.getId() == processId) return currentProcess;
+        IOProcess[] found = new IOProcess[1];
+        pending.forEach(r -> {
+            if (r.getProcess().getId() == processId) found[0] = r.getProcess();
+        });
+        return found[0];
+    }
+
+    /** @return seconds until the device would drain its current queue. */
+    public synchronized double getBacklogS() {
+        double[] work = {currentProcess == null ? 0 : currentProcess.getRemainingIoTime()};
+        pending.forEach(r -> work[0] += r.getProcess().getRemainingIoTime());
+        return seekRemainingS + (work[0] + backgroundIoS) / serviceRate;
+    }
+
+    /** @return fraction of time spent serving io. */
+    public synchronized double getUtilization() {
+        return clockS == 0 ? 0 : busyS / clockS;
+    }
+
+    public synchronized int getStarted() {
+        return started;
+    }
+
+    public synchronized int getCompleted() {
+        return completed;
+    }
+
+    public synchronized double getTotalWaitS() {
+        return totalWaitS;
+    }
+
+    public synchronized double getMeanWaitS() {
+        return started == 0 ? 0 : totalWaitS / started;
+    }
+
+    public synchronized double getMaxWaitS() {
+        return maxWaitS;
+    }
+
+    /** @return total head movement time charged to started requests. */
+    public synchronized double getTotalSeekS() {
+        return totalSeekS;
+    }
+
+    public synchronized int getHeadBlock() {
+        return headBlock;
+    }
+
+    /** Copies the latency (queued to io finished) of every completed request into the list. */
+    public synchronized void collectLatencies(List<Double> out) {
+        out.addAll(latenciesS);
+    }
+}
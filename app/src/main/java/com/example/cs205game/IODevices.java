@@ -0,0 +1,381 @@
+package com.example.cs205game;
+
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A set of io devices, each an {@link IOArea} with its own queue and service rate. New io
+ * requests are routed to a device by the selected policy; device 0 is the one the player
+ * drags processes onto. An optional {@link PageCache} in front of them completes requests it
+ * can serve without routing them at all.
+ */
+public class IODevices {
+    private static final String TAG = "IODevices";
+
+    /** How a request picks its device. */
+    public enum Routing {
+        ROUND_ROBIN, // devices in turn
+        SHORTEST_QUEUE, // least queued work (remaining io time over service rate)
+        AFFINITY // each core has a home device (core id modulo device count)
+    }
+
+    private final List<IOArea> devices;
+    private final List<IOProcess> servedFromCache = new ArrayList<>(); // completions to report next update
+    private PageCache pageCache = null;
+    private Routing routing;
+    private int nextDevice = 0; // round robin cursor
+
+    /** A single device, as before there were several. */
+    public IODevices(IOArea device) {
+        this.devices = Collections.singletonList(device);
+        this.routing = Routing.ROUND_ROBIN;
+    }
+
+    /** @param count Number of identical devices (service rate 1). */
+    public IODevices(int count, Routing routing) {
+        this(routing, uniformRates(count));
+    }
+
+    /**
+     * @param routing Routing policy.
+     * @param serviceRates Service rate of each device, in io seconds per second.
+     */
+    public IODevices(Routing routing, double... serviceRates) {
+        this(routing, IoScheduler.Kind.FIFO, SeekModel.NONE, serviceRates);
+    }
+
+    /**
+     * @param routing Routing policy.
+     * @param scheduler Queue policy of every device.
+     * @param seekModel Head movement cost of every device.
+     * @param serviceRates Service rate of each device, in io seconds per second.
+     */
+    public IODevices(Routing routing, IoScheduler.Kind scheduler, SeekModel seekModel, double... serviceRates) {
+        this(routing, scheduler, seekModel, 1, serviceRates);
+    }
+
+    /**
+     * @param routing Routing policy.
+     * @param scheduler Queue policy of every device.
+     * @param seekModel Head movement cost of every exclusive device.
+     * @param queueDepth Requests sharing a device's bandwidth at once; 1 serves them one at a time,
+     *                   more builds {@link FairShareIOArea}s.
+     * @param serviceRates Service rate of each device, in io seconds per second.
+     */
+    public IODevices(Routing routing, IoScheduler.Kind scheduler, SeekModel seekModel, int queueDepth,
+                     double... serviceRates) {
+        this(routing, scheduler, seekModel, queueDepth, IoBackend.Kind.SIMULATED, serviceRates);
+    }
+
+    /**
+     * @param routing Routing policy.
+     * @param scheduler Queue policy of every device.
+     * @param seekModel Head movement cost of every exclusive device.
+     * @param queueDepth Requests sharing a simulated device's bandwidth at once.
+     * @param backend SIMULATED counts io time down, anything else builds {@link RealIOArea}s doing
+     *                host io (service rates, seek model and queue depth then do not apply).
+     * @param serviceRates Service rate of each device, in io seconds per second.
+     */
+    public IODevices(Routing routing, IoScheduler.Kind scheduler, SeekModel seekModel, int queueDepth,
+                     IoBackend.Kind backend, double... serviceRates) {
+        if (serviceRates.length == 0) {
+            throw new IllegalArgumentException("need at least one io device");
+        }
+        List<IOArea> list = new ArrayList<>(serviceRates.length);
+        for (int i = 0; i < serviceRates.length; i++) {
+            if (backend != IoBackend.Kind.SIMULATED) {
+                list.add(new RealIOArea(i, scheduler.create(), backend::create));
+                continue;
+            }
+            list.add(queueDepth > 1
+                    ? new FairShareIOArea(i, serviceRates[i], queueDepth, scheduler.create())
+                    : new IOArea(i, serviceRates[i], scheduler.create(), seekModel));
+        }
+        this.devices = Collections.unmodifiableList(list);
+        this.routing = routing;
+    }
+
+    /** @param count Number of identical devices (service rate 1). */
+    public IODevices(int count, Routing routing, IoScheduler.Kind scheduler, SeekModel seekModel) {
+        this(routing, scheduler, seekModel, uniformRates(count));
+    }
+
+    /** @param count Number of identical devices (service rate 1). */
+    public IODevices(int count, Routing routing, IoScheduler.Kind scheduler, SeekModel seekModel, int queueDepth) {
+        this(routing, scheduler, seekModel, queueDepth, uniformRates(count));
+    }
+
+    /** @param count Number of identical devices (service rate 1). */
+    public IODevices(int count, Routing routing, IoScheduler.Kind scheduler, SeekModel seekModel, int queueDepth,
+                     IoBackend.Kind backend) {
+        this(routing, scheduler, seekModel, queueDepth, backend, uniformRates(count));
+    }
+
+    static double[] uniformRates(int count) {
+        double[] rates = new double[count];
+        java.util.Arrays.fill(rates, 1.0);
+        return rates;
+    }
+
+    public synchronized Routing getRouting() {
+        return routing;
+    }
+
+    public synchronized void setRouting(Routing routing) {
+        this.routing = routing;
+        Log.i(TAG, "io routing set to " + routing);
+    }
+
+    public synchronized PageCache getPageCache() {
+        return pageCache;
+    }
+
+    /** Puts a block cache in front of the devices, or removes it with null. */
+    public synchronized void setPageCache(PageCache pageCache) {
+        this.pageCache = pageCache;
+    }
+
+    public int size() {
+        return devices.size();
+    }
+
+    public IOArea getDevice(int index) {
+        return devices.get(index);
+    }
+
+    public List<IOArea> getDevices() {
+        return devices;
+    }
+
+    /**
+     * Routes a request to a device and starts or queues it there.
+     * @param process The process needing io.
+     * @param coreId Core it ran on, used by affinity routing.
+     * @return the device chosen, or null if the page cache served the request.
+     */
+    public IOArea submit(IOProcess process, int coreId) {
+        PageCache cache = getPageCache();
+        if (cache != null) {
+            double deviceShare = cache.serve(process, this);
+            if (deviceShare <= 0) {
+                process.setCurrentState(Process.ProcessState.IN_IO);
+                process.decrementIoTime(process.getRemainingIoTime()); // marks the io completed
+                synchronized (this) {
+                    servedFromCache.add(process);
+                }
+                return null;
+            }
+            process.setRemainingIoTime(process.getRemainingIoTime() * deviceShare);
+        }
+        IOArea device = route(coreId);
+        device.enqueue(process);
+        return device;
+    }
+
+    /** @return the device the routing policy picks for a request from this core. */
+    public synchronized IOArea route(int coreId) {
+        switch (routing) {
+            case SHORTEST_QUEUE: {
+                IOArea best = devices.get(0);
+                double bestBacklog = best.getBacklogS();
+                for (int i = 1; i < devices.size(); i++) {
+                    double backlog = devices.get(i).getBacklogS();
+                    if (backlog < bestBacklog) {
+                        best = devices.get(i);
+                        bestBacklog = backlog;
+                    }
+                }
+                return best;
+            }
+            case AFFINITY:
+                return devices.get(Math.floorMod(coreId, devices.size()));
+            case ROUND_ROBIN:
+            default: {
+                IOArea device = devices.get(nextDevice);
+                nextDevice = (nextDevice + 1) % devices.size();
+                return device;
+            }
+        }
+    }
+
+    /** @return the device serving or queueing this process, or null. */
+    public IOArea findDevice(Process process) {
+        for (IOArea device : devices) {
+            if (device.holds(process)) return device;
+        }
+        return null;
+    }
+
+    /** @return the process with this id if a device is serving or queueing it, else null. */
+    public IOProcess find(int processId) {
+        synchronized (this) {
+            for (IOProcess p : servedFromCache) {
+                if (p.getId() == processId) return p;
+            }
+        }
+        for (IOArea device : devices) {
+            IOProcess p = device.find(processId);
+            if (p != null) return p;
+        }
+        return null;
+    }
+
+    /** Drops the process from whichever device holds it, starting that device's next request. */
+    public void remove(Process process) {
+        synchronized (this) {
+            servedFromCache.remove(process);
+        }
+        for (IOArea device : devices) {
+            device.removeProcess(process);
+        }
+    }
+
+    /** @return true if any device is serving a process. */
+    public boolean isAnyBusy() {
+        for (IOArea device : devices) {
+            if (device.isBusy()) return true;
+        }
+        return false;
+    }
+
+    /** @return requests waiting behind the ones being served, over all devices. */
+    public int getQueuedCount() {
+        int queued = 0;
+        for (IOArea device : devices) {
+            queued += device.getQueuedCount();
+        }
+        return queued;
+    }
+
+    /** Advances every device, reporting finished io through the callback. */
+    public void update(double deltaTime, Consumer<IOProcess> onIoCompleted) {
+        List<IOProcess> hits;
+        synchronized (this) {
+            hits = new ArrayList<>(servedFromCache);
+            servedFromCache.clear();
+        }
+        for (IOProcess process : hits) {
+            onIoCompleted.accept(process);
+        }
+        PageCache cache = getPageCache();
+        if (cache != null) {
+            cache.update(deltaTime, this);
+        }
+        for (IOArea device : devices) {
+            device.update(deltaTime, onIoCompleted);
+        }
+    }
+
+    /** Releases host resources held by the devices. */
+    public void close() {
+        for (IOArea device : devices) {
+            device.close();
+        }
+    }
+
+    /** Reacquires host resources released by {@link #close()}; a no-op for open devices. */
+    public void open() {
+        for (IOArea device : devices) {
+            device.open();
+        }
+    }
+
+    /** Clears every device and the routing cursor. The page cache is cleared with the memory it lives in. */
+    public synchronized void clear() {
+        servedFromCache.clear();
+        for (IOArea device : devices) {
+            device.clear();
+        }
+        nextDevice = 0;
+    }
+
+    // --- statistics --- //
+
+    /** @return utilization averaged over devices. */
+    public double getMeanUtilization() {
+        double sum = 0;
+        for (IOArea device : devices) {
+            sum += device.getUtilization();
+        }
+        return sum / devices.size();
+    }
+
+    /** @return mean queueing time of started requests over all devices. */
+    public double getMeanWaitS() {
+        double waitS = 0;
+        int started = 0;
+        for (IOArea device : devices) {
+            waitS += device.getTotalWaitS();
+            started += device.getStarted();
+        }
+        return started == 0 ? 0 : waitS / started;
+    }
+
+    public double getMaxWaitS() {
+        double max = 0;
+        for (IOArea device : devices) {
+            max = Math.max(max, device.getMaxWaitS());
+        }
+        return max;
+    }
+
+    public int getCompleted() {
+        int done = 0;
+        for (IOArea device : devices) {
+            done += device.getCompleted();
+        }
+        return done;
+    }
+
+    /** @return latencies (queued to io finished) of every completed request, ascending. */
+    public double[] getSortedLatencies() {
+        List<Double> all = new ArrayList<>();
+        for (IOArea device : devices) {
+            device.collectLatencies(all);
+        }
+        double[] sorted = new double[all.size()];
+        for (int i = 0; i < sorted.length; i++) sorted[i] = all.get(i);
+        java.util.Arrays.sort(sorted);
+        return sorted;
+    }
+
+    /** @return host time (submitted to done) of every real transfer, in seconds, ascending. */
+    public double[] getSortedHostLatencies() {
+        List<Double> all = new ArrayList<>();
+        for (IOArea device : devices) {
+            if (device instanceof RealIOArea) ((RealIOArea) device).collectHostLatencies(all);
+        }
+        double[] sorted = new double[all.size()];
+        for (int i = 0; i < sorted.length; i++) sorted[i] = all.get(i);
+        java.util.Arrays.sort(sorted);
+        return sorted;
+    }
+
+    /** @return bytes moved by real transfers per host second in flight, in MB, 0 without real devices. */
+    public double getHostMbPerS() {
+        long bytes = 0;
+        long busyNs = 0;
+        for (IOArea device : devices) {
+            if (device instanceof RealIOArea) {
+                bytes += ((RealIOArea) device).getBytesMoved();
+                busyNs += ((RealIOArea) device).getHostBusyNs();
+            }
+        }
+        return busyNs == 0 ? 0 : bytes * 1000.0 / busyNs;
+    }
+
+    /** @return mean head movement time per started request. */
+    public double getMeanSeekS() {
+        double seekS = 0;
+        int started = 0;
+        for (IOArea device : devices) {
+            seekS += device.getTotalSeekS();
+            started += device.getStarted();
+        }
+        return started == 0 ? 0 : seekS / started;
+    }
+}
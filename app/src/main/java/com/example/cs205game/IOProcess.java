@@ -1,16 +1,21 @@
 package com.example.cs205game;
 
 public class IOProcess extends Process {
+    public static final double MB_PER_IO_S = 100.0; // Data moved per second of io on a service rate 1 device
 
     private double ioTimer; // Total IO time needed (seconds)
     private double remainingIoTime; // IO time left (seconds)
+    private final double ioSizeMb; // Data to move, for devices that share bandwidth
     private boolean ioCompleted; // Flag specifically for IO completion
     private boolean cpuPausedForIO; // Track if CPU is paused
+    private int blockAddress = 0; // Where on the io device its data lives
+    private boolean write = false; // Direction of the request, chosen by the workload
 
     public IOProcess(int memoryRequirement, double patience, double cpuTime, double ioTime) {
         super(memoryRequirement, patience, cpuTime);
         this.ioTimer = ioTime;
         this.remainingIoTime = ioTime;
+        this.ioSizeMb = ioTime * MB_PER_IO_S;
         this.ioCompleted = false;
         this.cpuPausedForIO = false;
     }
@@ -32,6 +37,27 @@ public class IOProcess extends Process {
         return cpuPausedForIO;
     }
 
+    public double getIoSizeMb() {
+        return ioSizeMb;
+    }
+
+    /** @return true if the request writes its data, false if it reads. */
+    public boolean isWrite() {
+        return write;
+    }
+
+    /**
+     * Replaces the io time left, e.g. when a cache serves part of the request.
+     * @param seconds New remaining io time, clamped at 0.
+     */
+    public void setRemainingIoTime(double seconds) {
+        this.remainingIoTime = Math.max(0, seconds);
+    }
+
+    public int getBlockAddress() {
+        return blockAddress;
+    }
+
     // --- Setters / Modifiers ---
     public void setIoCompleted(boolean completed) {
         this.ioCompleted = completed;
@@ -41,6 +67,14 @@ public class IOProcess extends Process {
         this.cpuPausedForIO = paused;
     }
 
+    public void setBlockAddress(int blockAddress) {
+        this.blockAddress = blockAddress;
+    }
+
+    public void setWrite(boolean write) {
+        this.write = write;
+    }
+
     /**
      * Decrements the remaining IO time.
      * @param deltaTime Time elapsed in seconds.
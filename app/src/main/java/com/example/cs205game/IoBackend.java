@@ -0,0 +1,51 @@
+package com.example.cs205game;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Does an io request's work for real against local storage. Used by {@link RealIOArea}, which
+ * calls it from the device's own thread, one request at a time.
+ */
+public interface IoBackend extends Closeable {
+    long DEFAULT_BYTES_PER_IO_S = 1L << 20; // 1 MiB moved per second of workload io time
+    long DEFAULT_FILE_BYTES = 64L << 20;
+
+    /** Where a device's io goes. */
+    enum Kind {
+        SIMULATED, // countdown only, no host io
+        FILE_CHANNEL, // reads and writes on a temp file
+        MAPPED; // loads and stores on a memory-mapped temp file
+
+        /** @return a new backend, or null for SIMULATED. */
+        public IoBackend create() {
+            try {
+                switch (this) {
+                    case FILE_CHANNEL:
+                        return new FileChannelIoBackend();
+                    case MAPPED:
+                        return new MappedIoBackend();
+                    case SIMULATED:
+                    default:
+                        return null;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("could not create " + this + " io backend", e);
+            }
+        }
+    }
+
+    String getName();
+
+    /**
+     * Performs the process's io, blocking until it is done.
+     * @return bytes moved.
+     */
+    long transfer(IOProcess process) throws IOException;
+
+    /** @return bytes a request of this process moves. */
+    static long requestBytes(IOProcess process, long bytesPerIoS, long maxBytes) {
+        return Math.max(1, Math.min(maxBytes, (long) (process.getIoTimer() * bytesPerIoS)));
+    }
+}
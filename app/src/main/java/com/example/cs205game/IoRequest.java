@@ -0,0 +1,56 @@
+package com.example.cs205game;
+
+/** A pending io request: the process, the block it reads and when it was queued. */
+public final class IoRequest {
+    private final IOProcess process;
+    private final int block;
+    private final double queuedAtS;
+    private final long sequence; // arrival order on its device, breaks ties between equal blocks
+
+    public IoRequest(IOProcess process, double queuedAtS, long sequence) {
+        this.process = process;
+        this.block = process.getBlockAddress();
+        this.queuedAtS = queuedAtS;
+        this.sequence = sequence;
+    }
+
+    // search key for sorted schedulers
+    private IoRequest(int block, long sequence) {
+        this.process = null;
+        this.block = block;
+        this.queuedAtS = 0;
+        this.sequence = sequence;
+    }
+
+    /** @return a key sorting before every request on the block. */
+    static IoRequest lowestAt(int block) {
+        return new IoRequest(block, Long.MIN_VALUE);
+    }
+
+    /** @return a key sorting after every request on the block. */
+    static IoRequest highestAt(int block) {
+        return new IoRequest(block, Long.MAX_VALUE);
+    }
+
+    public IOProcess getProcess() {
+        return process;
+    }
+
+    public int getBlock() {
+        return block;
+    }
+
+    public double getQueuedAtS() {
+        return queuedAtS;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    /** Orders requests by block, then arrival. */
+    static int compareByBlock(IoRequest a, IoRequest b) {
+        int c = Integer.compare(a.block, b.block);
+        return c != 0 ? c : Long.compare(a.sequence, b.sequence);
+    }
+}
@@ -0,0 +1,255 @@
+package com.example.cs205game;
+
+import android.util.Log;
+
+import java.util.ArrayDeque;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Submission and completion queues between the cores and the {@link IODevices}, in the style of
+ * io_uring. Io requests are queued on submission and handed to the devices once per tick;
+ * devices post each finished request once to the completion queue, and completions are
+ * harvested in batches when an interrupt fires. Interrupt coalescing fires only once enough
+ * completions are waiting or the oldest has waited long enough, trading completion latency
+ * for fewer interrupts; every interrupt costs cpu time, reported to a listener.
+ * Used from the game thread only.
+ */
+public class IoRing {
+    private static final String TAG = "IoRing";
+    public static final double DEFAULT_INTERRUPT_COST_S = 0.002; // cpu time to take an interrupt
+    public static final double DEFAULT_PER_COMPLETION_COST_S = 0.0005; // cpu time to reap one completion
+
+    /** When the completion queue raises an interrupt. */
+    public static final class Coalescing {
+        /** An interrupt per completion. */
+        public static final Coalescing NONE = new Coalescing(1, 0);
+
+        public final int count; // interrupt once this many completions wait
+        public final double timeS; // ...or once the oldest has waited this long
+
+        public Coalescing(int count, double timeS) {
+            if (count < 1 || timeS < 0) {
+                throw new IllegalArgumentException("invalid coalescing: " + count + " completions / " + timeS + "s");
+            }
+            this.count = count;
+            this.timeS = timeS;
+        }
+
+        @Override
+        public String toString() {
+            if (count == 1) return "none";
+            String byCount = count == Integer.MAX_VALUE ? null : "n=" + count;
+            String byTime = timeS == Double.MAX_VALUE ? null : "t=" + timeS + "s";
+            if (byCount == null) return byTime;
+            return byTime == null ? byCount : byCount + "|" + byTime;
+        }
+    }
+
+    // a submission queue entry
+    private static final class Submission {
+        final IOProcess process;
+        final int coreId;
+
+        Submission(IOProcess process, int coreId) {
+            this.process = process;
+            this.coreId = coreId;
+        }
+    }
+
+    // a completion queue entry
+    private static final class Completion {
+        final IOProcess process;
+        final double postedAtS;
+
+        Completion(IOProcess process, double postedAtS) {
+            this.process = process;
+            this.postedAtS = postedAtS;
+        }
+    }
+
+    private final IODevices devices;
+    private final ArrayDeque<Submission> submissionQueue = new ArrayDeque<>();
+    private final ArrayDeque<Completion> completionQueue = new ArrayDeque<>();
+    private final Consumer<IOProcess> postCompletion = this::post; // reused every tick
+    private Coalescing coalescing;
+    private final double interruptCostS;
+    private final double perCompletionCostS;
+    private volatile DoubleConsumer onInterrupt = costS -> { }; // swapped when the scheduler changes mode
+    private BooleanSupplier releaseOnCompletion = () -> false;
+    private double clockS = 0;
+
+    // statistics
+    private int submissions = 0;
+    private int completions = 0;
+    private int interrupts = 0;
+    private double totalHarvestDelayS = 0; // time completions waited in the queue for an interrupt
+    private double maxHarvestDelayS = 0;
+    private long harvestNanos = 0; // host time spent reaping completions
+
+    public IoRing(IODevices devices) {
+        this(devices, Coalescing.NONE, DEFAULT_INTERRUPT_COST_S, DEFAULT_PER_COMPLETION_COST_S);
+    }
+
+    /**
+     * @param devices Devices the requests are routed to.
+     * @param coalescing When to raise an interrupt.
+     * @param interruptCostS Cpu seconds charged per interrupt.
+     * @param perCompletionCostS Cpu seconds charged per completion reaped.
+     */
+    public IoRing(IODevices devices, Coalescing coalescing, double interruptCostS, double perCompletionCostS) {
+        this.devices = devices;
+        this.coalescing = coalescing;
+        this.interruptCostS = interruptCostS;
+        this.perCompletionCostS = perCompletionCostS;
+    }
+
+    public IODevices getDevices() {
+        return devices;
+    }
+
+    public Coalescing getCoalescing() {
+        return coalescing;
+    }
+
+    public void setCoalescing(Coalescing coalescing) {
+        this.coalescing = coalescing;
+        Log.i(TAG, "interrupt coalescing set to " + coalescing);
+    }
+
+    /** @param listener told the cpu cost of every interrupt, e.g. to stall the core that takes it. */
+    public void setOnInterrupt(DoubleConsumer listener) {
+        this.onInterrupt = listener;
+    }
+
+    /**
+     * @param release true while finished requests should leave their device as soon as they are
+     *                posted, so it can start the next one before the completion is reaped (the
+     *                manual game leaves them for the player to drag away).
+     */
+    public void setReleaseOnCompletion(BooleanSupplier release) {
+        this.releaseOnCompletion = release;
+    }
+
+    /**
+     * Queues an io request; it reaches a device on the next {@link #update}.
+     * @param process The process needing io, put in WAITING_IO.
+     * @param coreId Core it ran on, for affinity routing.
+     */
+    public void submit(IOProcess process, int coreId) {
+        process.setCurrentState(Process.ProcessState.WAITING_IO);
+        submissionQueue.offer(new Submission(process, coreId));
+        submissions++;
+    }
+
+    /**
+     * Hands queued submissions to the devices, advances them, and reaps completions if the
+     * coalescing rule raises an interrupt.
+     * @param deltaTime Time elapsed in seconds.
+     * @param onIoCompleted Told about each reaped completion, once.
+     */
+    public void update(double deltaTime, Consumer<IOProcess> onIoCompleted) {
+        clockS += deltaTime;
+        Submission s;
+        while ((s = submissionQueue.poll()) != null) {
+            if (s.process.getCurrentState() == Process.ProcessState.KILLED) continue;
+            devices.submit(s.process, s.coreId);
+        }
+        devices.update(deltaTime, postCompletion);
+        Completion oldest = completionQueue.peek();
+        if (oldest == null) return;
+        if (completionQueue.size() >= coalescing.count || clockS - oldest.postedAtS >= coalescing.timeS) {
+            harvest(onIoCompleted);
+        }
+    }
+
+    // a device finished a request
+    private void post(IOProcess process) {
+        if (releaseOnCompletion.getAsBoolean()) {
+            IOArea device = devices.findDevice(process);
+            if (device != null) device.removeProcess(process);
+        }
+        completionQueue.offer(new Completion(process, clockS));
+    }
+
+    // one interrupt: reap every waiting completion
+    private void harvest(Consumer<IOProcess> onIoCompleted) {
+        long startNs = System.nanoTime();
+        int reaped = 0;
+        Completion c;
+        while ((c = completionQueue.poll()) != null) {
+            double delayS = clockS - c.postedAtS;
+            totalHarvestDelayS += delayS;
+            maxHarvestDelayS = Math.max(maxHarvestDelayS, delayS);
+            onIoCompleted.accept(c.process);
+            reaped++;
+        }
+        harvestNanos += System.nanoTime() - startNs;
+        completions += reaped;
+        interrupts++;
+        onInterrupt.accept(interruptCostS + reaped * perCompletionCostS);
+    }
+
+    /** @return the process with this id if it is submitted, on a device or waiting to be reaped. */
+    public IOProcess find(int processId) {
+        for (Submission s : submissionQueue) {
+            if (s.process.getId() == processId) return s.process;
+        }
+        for (Completion c : completionQueue) {
+            if (c.process.getId() == processId) return c.process;
+        }
+        return devices.find(processId);
+    }
+
+    /** Drops queued submissions and completions and clears the devices and statistics. */
+    public void clear() {
+        submissionQueue.clear();
+        completionQueue.clear();
+        devices.clear();
+        clockS = 0;
+        submissions = 0;
+        completions = 0;
+        interrupts = 0;
+        totalHarvestDelayS = 0;
+        maxHarvestDelayS = 0;
+        harvestNanos = 0;
+    }
+
+    // --- statistics --- //
+
+    public int getSubmissions() {
+        return submissions;
+    }
+
+    public int getCompletions() {
+        return completions;
+    }
+
+    public int getInterrupts() {
+        return interrupts;
+    }
+
+    public double getCompletionsPerInterrupt() {
+        return interrupts == 0 ? 0 : (double) completions / interrupts;
+    }
+
+    /** @return mean time a completion waited for its interrupt (latency added by coalescing). */
+    public double getMeanHarvestDelayS() {
+        return completions == 0 ? 0 : totalHarvestDelayS / completions;
+    }
+
+    public double getMaxHarvestDelayS() {
+        return maxHarvestDelayS;
+    }
+
+    /** @return simulated cpu seconds of interrupt handling per completion. */
+    public double getOverheadPerCompletionS() {
+        return completions == 0 ? 0 : (interrupts * interruptCostS + completions * perCompletionCostS) / completions;
+    }
+
+    /** @return host nanoseconds spent reaping per completion (callbacks included). */
+    public double getHostNsPerCompletion() {
+        return completions == 0 ? 0 : (double) harvestNanos / completions;
+    }
+}
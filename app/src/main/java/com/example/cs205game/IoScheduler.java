@@ -0,0 +1,61 @@
+package com.example.cs205game;
+
+import java.util.function.Consumer;
+
+/**
+ * The queue of requests waiting for one io device. Each implementation embodies a disk
+ * scheduling policy: the order in which {@link #poll(int, double)} hands requests to the
+ * device, given where its head is. Called with the device's lock held.
+ */
+public interface IoScheduler {
+
+    /** Policies available for the io devices. */
+    enum Kind {
+        FIFO,
+        SCAN, // elevator: sweep up, then down
+        C_LOOK, // sweep up only, jump back to the lowest request
+        DEADLINE; // c-look order, but a request past its deadline goes first
+
+        public IoScheduler create() {
+            switch (this) {
+                case SCAN:
+                    return new ScanIoScheduler();
+                case C_LOOK:
+                    return new CLookIoScheduler();
+                case DEADLINE:
+                    return new DeadlineIoScheduler(DeadlineIoScheduler.DEFAULT_DEADLINE_S);
+                case FIFO:
+                default:
+                    return new FifoIoScheduler();
+            }
+        }
+    }
+
+    /** @return a short human readable name of the policy (used in logs and reports). */
+    String getName();
+
+    void add(IoRequest request);
+
+    /**
+     * Removes and returns the next request to serve according to the policy.
+     * @param headBlock Block the device head is on.
+     * @param nowS Device clock, for deadlines.
+     * @return the chosen request, or null if the queue is empty.
+     */
+    IoRequest poll(int headBlock, double nowS);
+
+    /**
+     * Removes the request of a specific process (e.g. killed).
+     * @return true if it was queued.
+     */
+    boolean remove(Process process);
+
+    int size();
+
+    boolean isEmpty();
+
+    void clear();
+
+    /** Visits every queued request (in no particular order). */
+    void forEach(Consumer<IoRequest> action);
+}
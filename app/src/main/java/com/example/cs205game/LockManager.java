@@ -0,0 +1,226 @@
+package com.example.cs205game;
+
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Manages shared resources (mutexes) and the priority protocol applied when processes contend for them.
+ * Also measures priority inversion: the time a process spends blocked on a resource held by a
+ * process of lower base priority.
+ */
+public class LockManager {
+    private static final String TAG = "LockManager";
+
+    /** How holders' priorities are adjusted while they own a resource. */
+    public enum Protocol {
+        NONE, // no adjustment, unbounded inversion is possible
+        INHERITANCE, // holder inherits the highest priority among processes it blocks
+        CEILING // holder runs at the resource's ceiling priority as soon as it locks it
+    }
+
+    private final Map<Integer, SharedResource> resources = new HashMap<>();
+    private final Map<Process, Double> inversionStartS = new HashMap<>(); // waiters currently inverted
+    private final Map<Process, SharedResource> blockedOn = new HashMap<>();
+    private Protocol protocol;
+    private Consumer<Process> onPriorityChanged = p -> { };
+    private int nextResourceId = 0;
+    private double clockS = 0;
+
+    // inversion statistics
+    private int inversionCount = 0;
+    private double totalInversionS = 0;
+    private double maxInversionS = 0;
+
+    public LockManager(Protocol protocol) {
+        this.protocol = protocol;
+    }
+
+    public synchronized Protocol getProtocol() {
+        return protocol;
+    }
+
+    public synchronized void setProtocol(Protocol protocol) {
+        this.protocol = protocol;
+        Log.i(TAG, "lock protocol set to " + protocol);
+    }
+
+    /** @param listener notified whenever a process's effective priority changes (e.g. to reorder a ready queue). */
+    public synchronized void setOnPriorityChanged(Consumer<Process> listener) {
+        this.onPriorityChanged = listener;
+    }
+
+    /**
+     * Creates a new shared resource.
+     * @param name Display name.
+     * @param ceilingPriority Highest priority of any process that may lock it (used by the ceiling protocol).
+     */
+    public synchronized SharedResource createResource(String name, int ceilingPriority) {
+        SharedResource resource = new SharedResource(nextResourceId++, name, ceilingPriority);
+        resources.put(resource.getId(), resource);
+        return resource;
+    }
+
+    public synchronized SharedResource getResource(int id) {
+        return resources.get(id);
+    }
+
+    /** Advances the clock used to time inversions. */
+    public synchronized void update(double deltaTime) {
+        clockS += deltaTime;
+    }
+
+    /**
+     * Attempts to lock a resource for a process.
+     * If it is held, the process joins the wait queue and must be descheduled by the caller.
+     * @return true if the lock was granted immediately.
+     */
+    public synchronized boolean acquire(Process process, SharedResource resource) {
+        if (resource.getOwner() == null) {
+            grant(process, resource);
+            return true;
+        }
+        Process owner = resource.getOwner();
+        resource.getWaiters().add(process);
+        blockedOn.put(process, resource);
+        if (owner.getPriority() < process.getPriority()) {
+            inversionStartS.put(process, clockS); // high priority work stuck behind lower priority holder
+        }
+        if (protocol == Protocol.INHERITANCE) {
+            propagateInheritance(owner, process.getEffectivePriority());
+        }
+        return false;
+    }
+
+    /**
+     * Unlocks a resource held by the process and hands it to the highest priority waiter.
+     * @return the waiter that now owns the resource (and should be made ready), or null if none.
+     */
+    public synchronized Process release(Process process, SharedResource resource) {
+        if (resource.getOwner() != process) {
+            Log.w(TAG, "process " + process.getId() + " released " + resource.getName() + " it does not own");
+            return null;
+        }
+        resource.setOwner(null);
+        recomputeEffectivePriority(process);
+
+        Process next = resource.pollHighestWaiter();
+        if (next != null) {
+            blockedOn.remove(next);
+            endInversion(next);
+            grant(next, resource);
+            // the remaining waiters now wait behind a new owner
+            for (Process waiter : resource.getWaiters()) {
+                if (next.getPriority() < waiter.getPriority()) {
+                    inversionStartS.putIfAbsent(waiter, clockS);
+                } else {
+                    endInversion(waiter);
+                }
+            }
+            if (protocol == Protocol.INHERITANCE) {
+                propagateInheritance(next, resource.getHighestWaiterPriority());
+            }
+        }
+        return next;
+    }
+
+    /** Drops a process from every wait queue (e.g. it was killed). */
+    public synchronized void abandon(Process process) {
+        SharedResource resource = blockedOn.remove(process);
+        if (resource != null) {
+            resource.getWaiters().remove(process);
+            endInversion(process);
+            if (resource.getOwner() != null) {
+                recomputeEffectivePriority(resource.getOwner());
+            }
+        }
+    }
+
+    private void grant(Process process, SharedResource resource) {
+        resource.setOwner(process);
+        if (protocol == Protocol.CEILING && resource.getCeilingPriority() > process.getEffectivePriority()) {
+            changeEffectivePriority(process, resource.getCeilingPriority());
+        }
+    }
+
+    // raises the owner (and, transitively, whoever it is blocked behind) to at least the given priority
+    private void propagateInheritance(Process owner, int priority) {
+        Process current = owner;
+        while (current != null && current.getEffectivePriority() < priority) {
+            changeEffectivePriority(current, priority);
+            SharedResource next = blockedOn.get(current);
+            current = next == null ? null : next.getOwner();
+        }
+    }
+
+    // effective priority = base, raised by ceilings / waiters of every resource still held
+    private void recomputeEffectivePriority(Process process) {
+        int effective = process.getPriority();
+        for (SharedResource r : resources.values()) {
+            if (r.getOwner() != process) continue;
+            if (protocol == Protocol.CEILING) {
+                effective = Math.max(effective, r.getCeilingPriority());
+            } else if (protocol == Protocol.INHERITANCE) {
+                effective = Math.max(effective, r.getHighestWaiterPriority());
+            }
+        }
+        if (effective != process.getEffectivePriority()) {
+            changeEffectivePriority(process, effective);
+        }
+    }
+
+    private void changeEffectivePriority(Process process, int priority) {
+        process.setEffectivePriority(priority);
+        onPriorityChanged.accept(process);
+    }
+
+    private void endInversion(Process process) {
+        Double start = inversionStartS.remove(process);
+        if (start == null) return;
+        double duration = clockS - start;
+        inversionCount++;
+        totalInversionS += duration;
+        maxInversionS = Math.max(maxInversionS, duration);
+        Log.d(TAG, "process " + process.getId() + " priority inversion lasted " + String.format("%.2f", duration) + "s");
+    }
+
+    /** @return number of completed inversions. */
+    public synchronized int getInversionCount() {
+        return inversionCount;
+    }
+
+    public synchronized double getTotalInversionS() {
+        return totalInversionS;
+    }
+
+    public synchronized double getMaxInversionS() {
+        return maxInversionS;
+    }
+
+    public synchronized double getMeanInversionS() {
+        return inversionCount == 0 ? 0 : totalInversionS / inversionCount;
+    }
+
+    /** @return processes currently waiting on any resource. */
+    public synchronized List<Process> getBlockedProcesses() {
+        return new ArrayList<>(blockedOn.keySet());
+    }
+
+    /** Releases every lock and clears statistics. Resources themselves are kept. */
+    public synchronized void reset() {
+        for (SharedResource r : resources.values()) {
+            r.setOwner(null);
+            r.getWaiters().clear();
+        }
+        blockedOn.clear();
+        inversionStartS.clear();
+        inversionCount = 0;
+        totalInversionS = 0;
+        maxInversionS = 0;
+        clockS = 0;
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.cs205game;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.function.Consumer;
+
+/**
+ * Lottery scheduling: each dispatch draws a random ticket, a process wins with probability
+ * proportional to its tickets. Processes are preempted after a time slice so the share
+ * converges to the ticket ratio over time.
+ */
+public class LotteryReadyQueue implements ReadyQueue {
+    public static final double DEFAULT_TIME_SLICE_S = 0.5;
+
+    private final ArrayList<Process> processes = new ArrayList<>();
+    private final Random random;
+    private final double timeSliceS;
+    private long totalTickets = 0;
+
+    public LotteryReadyQueue() {
+        this(new Random(), DEFAULT_TIME_SLICE_S);
+    }
+
+    /**
+     * @param random Random source (pass a seeded one for reproducible runs).
+     * @param timeSliceS Quantum after which a running process is preempted if others are waiting.
+     */
+    public LotteryReadyQueue(Random random, double timeSliceS) {
+        this.random = random;
+        this.timeSliceS = timeSliceS;
+    }
+
+    @Override
+    public String getName() {
+        return "LOTTERY";
+    }
+
+    @Override
+    public synchronized void add(Process process) {
+        processes.add(process);
+        totalTickets += process.getTickets();
+    }
+
+    @Override
+    public synchronized Process poll() {
+        if (processes.isEmpty()) return null;
+        long winner = (long) (random.nextDouble() * totalTickets);
+        long counter = 0;
+        for (int i = 0; i < processes.size(); i++) {
+            counter += processes.get(i).getTickets();
+            if (counter > winner) {
+                return removeAt(i);
+            }
+        }
+        return removeAt(processes.size() - 1); // guards against rounding at the upper edge
+    }
+
+    @Override
+    public synchronized boolean remove(Process process) {
+        int index = processes.indexOf(process);
+        if (index < 0) return false;
+        removeAt(index);
+        return true;
+    }
+
+    @Override
+    public synchronized int size() {
+        return processes.size();
+    }
+
+    @Override
+    public synchronized boolean isEmpty() {
+        return processes.isEmpty();
+    }
+
+    @Override
+    public synchronized void clear() {
+        processes.clear();
+        totalTickets = 0;
+    }
+
+    @Override
+    public synchronized void forEach(Consumer<Process> action) {
+        processes.forEach(action);
+    }
+
+    @Override
+    public double getTimeSliceS() {
+        return timeSliceS;
+    }
+
+    // swap-remove, order does not matter for a lottery
+    private Process removeAt(int index) {
+        int last = processes.size() - 1;
+        Process removed = processes.get(index);
+        processes.set(index, processes.get(last));
+        processes.remove(last);
+        totalTickets -= removed.getTickets();
+        return removed;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.cs205game;
+
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+
+/** Evicts the least recently used page. Every hit moves the page to the most recent end. */
+public class LruPageReplacement implements PageReplacementPolicy {
+    private final LinkedHashSet<Long> recency = new LinkedHashSet<>(); // least recent first
+
+    @Override
+    public String getName() {
+        return "LRU";
+    }
+
+    @Override
+    public void onInsert(long key) {
+        recency.add(key);
+    }
+
+    @Override
+    public void onAccess(long key) {
+        if (recency.remove(key)) {
+            recency.add(key);
+        }
+    }
+
+    @Override
+    public long evict(long incomingKey) {
+        Iterator<Long> it = recency.iterator();
+        if (!it.hasNext()) return NO_PAGE;
+        long victim = it.next();
+        it.remove();
+        return victim;
+    }
+
+    @Override
+    public void remove(long key) {
+        recency.remove(key);
+    }
+
+    @Override
+    public int size() {
+        return recency.size();
+    }
+
+    @Override
+    public void clear() {
+        recency.clear();
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.cs205game;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+
+/**
+ * Serves io from a {@link MappedByteBuffer} over a large temp file, without copying through a
+ * read or write call. The file is written once up front like {@link FileChannelIoBackend}'s, so
+ * both backends read real blocks rather than holes. Requests cover the same ranges as {@link FileChannelIoBackend}
+ * (size from io time, offset from block address, direction from {@link IOProcess#isWrite()}) and touch every long
+ * in them. Each page access is timed; the first touch of a page pays the host's page-in, so the
+ * gap between first and repeat touches is the observable page fault cost.
+ */
+public class MappedIoBackend implements IoBackend {
+    public static final long DEFAULT_MAPPED_FILE_BYTES = 256L << 20;
+    public static final int PAGE_BYTES = 4096; // host page size assumed for fault accounting
+
+    private final Path file;
+    private final FileChannel channel;
+    private volatile MappedByteBuffer mapped; // null once closed
+    private final long fileBytes;
+    private final long bytesPerIoS;
+    private final BitSet touchedPages; // pages accessed at least once
+    private long sink = 0; // keeps reads from being optimized away
+
+    // statistics
+    private long bytesTouched = 0;
+    private long coldPages = 0;
+    private long coldNs = 0;
+    private long warmPages = 0;
+    private long warmNs = 0;
+
+    public MappedIoBackend() throws IOException {
+        this(DEFAULT_MAPPED_FILE_BYTES, DEFAULT_BYTES_PER_IO_S);
+    }
+
+    /**
+     * @param fileBytes Size of the mapping, at most 2 GB.
+     * @param bytesPerIoS Bytes touched per second of workload io time.
+     */
+    public MappedIoBackend(long fileBytes, long bytesPerIoS) throws IOException {
+        if (fileBytes < 2L * PAGE_BYTES || fileBytes > Integer.MAX_VALUE || bytesPerIoS <= 0) {
+            throw new IllegalArgumentException("invalid mapped backend: " + fileBytes + " bytes, " + bytesPerIoS + " per io s");
+        }
+        this.fileBytes = fileBytes - fileBytes % PAGE_BYTES;
+        this.bytesPerIoS = bytesPerIoS;
+        this.file = Files.createTempFile("cs205-mmap", ".dat");
+        this.channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.DELETE_ON_CLOSE);
+        // fill the file so reads hit real blocks rather than holes
+        ByteBuffer fill = ByteBuffer.allocateDirect(FileChannelIoBackend.SEGMENT_BYTES);
+        for (long pos = 0; pos < this.fileBytes; pos += fill.capacity()) {
+            fill.clear();
+            fill.limit((int) Math.min(fill.capacity(), this.fileBytes - pos));
+            while (fill.hasRemaining()) {
+                channel.write(fill, pos + fill.position());
+            }
+        }
+        this.mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, this.fileBytes);
+        this.touchedPages = new BitSet((int) (this.fileBytes / PAGE_BYTES));
+    }
+
+    @Override
+    public String getName() {
+        return "mapped";
+    }
+
+    @Override
+    public long transfer(IOProcess process) throws IOException {
+        MappedByteBuffer mapped = this.mapped;
+        if (mapped == null) throw new ClosedChannelException();
+        long bytes = IoBackend.requestBytes(process, bytesPerIoS, fileBytes / 2);
+        int pages = (int) Math.max(1, (bytes + PAGE_BYTES - 1) / PAGE_BYTES);
+        long span = (long) pages * PAGE_BYTES;
+        long position = ((long) process.getBlockAddress() * FileChannelIoBackend.SEGMENT_BYTES) % (fileBytes - span + 1);
+        int firstPage = (int) (position / PAGE_BYTES);
+        boolean write = process.isWrite();
+        long value = process.getId();
+        long cold = 0, coldTimeNs = 0, warm = 0, warmTimeNs = 0;
+        for (int page = firstPage; page < firstPage + pages; page++) {
+            boolean wasTouched = touchedPages.get(page);
+            int base = page * PAGE_BYTES;
+            long startNs = System.nanoTime();
+            if (write) {
+                for (int off = 0; off < PAGE_BYTES; off += Long.BYTES) {
+                    mapped.putLong(base + off, value);
+                }
+            } else {
+                long sum = 0;
+                for (int off = 0; off < PAGE_BYTES; off += Long.BYTES) {
+                    sum += mapped.getLong(base + off);
+                }
+                sink += sum;
+            }
+            long ns = System.nanoTime() - startNs;
+            if (wasTouched) {
+                warm++;
+                warmTimeNs += ns;
+            } else {
+                touchedPages.set(page);
+                cold++;
+                coldTimeNs += ns;
+            }
+        }
+        synchronized (this) {
+            bytesTouched += span;
+            coldPages += cold;
+            coldNs += coldTimeNs;
+            warmPages += warm;
+            warmNs += warmTimeNs;
+        }
+        return span;
+    }
+
+    // --- statistics --- //
+
+    public synchronized long getBytesTouched() {
+        return bytesTouched;
+    }
+
+    /** @return pages touched for the first time, each a page-in on the host. */
+    public synchronized long getColdPages() {
+        return coldPages;
+    }
+
+    /** @return mean host time to access a page. */
+    public synchronized double getMeanAccessNs() {
+        long pages = coldPages + warmPages;
+        return pages == 0 ? 0 : (double) (coldNs + warmNs) / pages;
+    }
+
+    /** @return extra time a first touch took over a repeat touch, per page. */
+    public synchronized double getPageInNs() {
+        if (coldPages == 0) return 0;
+        double warmMean = warmPages == 0 ? 0 : (double) warmNs / warmPages;
+        return Math.max(0, (double) coldNs / coldPages - warmMean);
+    }
+
+    @Override
+    public void close() throws IOException {
+        // there is no public unmap: the mapping (and its address space) is only released once the
+        // buffer is garbage collected, so drop our reference to let that happen
+        mapped = null;
+        channel.close();
+        Files.deleteIfExists(file);
+    }
+}
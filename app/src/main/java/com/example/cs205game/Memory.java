@@ -2,27 +2,63 @@ package com.example.cs205game;
 
 import android.util.Log;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.DoubleConsumer;
+
 public class Memory {
     private static final String TAG = "Memory";
-    private final int capacity;
-    private int availableMemory;
+    /** Owner id used by the legacy entry points that do not say who the memory belongs to. */
+    public static final int ANONYMOUS_OWNER = -1;
+
+    private final MemoryBackend backend;
+    private final ScalarMemoryBackend lockFree; // same backend when it supports the cas path, else null
+    private final MemoryWaitQueue waitQueue;
+    private double clockS = 0; // simulated time, for wait statistics
 
+    /** Creates memory tracked by the original scalar counter. */
     public Memory(int capacity) {
-        this.capacity = capacity;
-        this.availableMemory = capacity;
-        Log.i(TAG, "Memory initialized with capacity: " + capacity);
+        this(new ScalarMemoryBackend(capacity));
+    }
+
+    /**
+     * Creates memory tracked by the given backend (e.g. a PageFrameAllocator).
+     * @param backend The allocation strategy.
+     */
+    public Memory(MemoryBackend backend) {
+        this(backend, MemoryWaitQueue.Policy.FIFO);
+    }
+
+    /**
+     * Creates memory tracked by the given backend.
+     * @param backend The allocation strategy.
+     * @param waitPolicy Order in which parked allocations are granted when memory is freed.
+     */
+    public Memory(MemoryBackend backend, MemoryWaitQueue.Policy waitPolicy) {
+        this.backend = backend;
+        this.lockFree = backend instanceof ScalarMemoryBackend ? (ScalarMemoryBackend) backend : null;
+        this.waitQueue = new MemoryWaitQueue(waitPolicy);
+        Log.i(TAG, "Memory initialized with capacity: " + backend.getCapacity() + " (" + backend.getName() + ")");
+    }
+
+    public MemoryBackend getBackend() {
+        return backend;
+    }
+
+    public MemoryWaitQueue getWaitQueue() {
+        return waitQueue;
     }
 
     public int getCapacity() {
-        return capacity;
+        return backend.getCapacity();
     }
 
-    public int getAvailableMemory() {
-        return availableMemory;
+    public synchronized int getAvailableMemory() {
+        return backend.getAvailableMemory();
     }
 
-    public int getUsedMemory() {
-        return capacity - availableMemory;
+    public synchronized int getUsedMemory() {
+        return backend.getCapacity() - backend.getAvailableMemory();
     }
 
     /**
@@ -31,7 +67,7 @@ public class Memory {
      * @return true if enough memory is available, false otherwise.
      */
     public synchronized boolean hasEnoughMemory(int memoryRequired) {
-        return availableMemory >= memoryRequired;
+        return backend.canAllocate(memoryRequired);
     }
 
     /**
@@ -41,33 +77,184 @@ public class Memory {
      * @return true if allocation was successful, false otherwise.
      */
     public synchronized boolean allocateMemory(int memoryToAllocate) {
-        if (hasEnoughMemory(memoryToAllocate)) {
-            availableMemory -= memoryToAllocate;
-            Log.d(TAG, "Allocated " + memoryToAllocate + "GB. Available: " + availableMemory);
+        return allocateMemory(ANONYMOUS_OWNER, memoryToAllocate);
+    }
+
+    /**
+     * Attempts to allocate memory on behalf of a process, so the backend can track placement.
+     * @param ownerId The id of the process the memory belongs to.
+     * @param memoryToAllocate The amount of memory to allocate.
+     * @return true if allocation was successful, false otherwise.
+     */
+    public synchronized boolean allocateMemory(int ownerId, int memoryToAllocate) {
+        if (backend.allocate(ownerId, memoryToAllocate)) {
+            Log.d(TAG, "Allocated " + memoryToAllocate + "GB to " + ownerId + ". Available: " + backend.getAvailableMemory());
             return true;
         }
-        Log.w(TAG, "Failed to allocate " + memoryToAllocate + "GB. Only " + availableMemory + " available.");
+        Log.w(TAG, "Failed to allocate " + memoryToAllocate + "GB. Only " + backend.getAvailableMemory() + " available.");
         return false;
     }
 
+    /**
+     * Hot-path allocation for dispatchers: no logging, and no monitor at all when the backend is
+     * a scalar counter (compare-and-set). Placement-tracking backends still serialise on this Memory.
+     * @param ownerId The id of the process the memory belongs to.
+     * @param amount The amount of memory to allocate.
+     * @return true if allocation was successful, false if there is not enough memory.
+     */
+    public boolean tryAllocate(int ownerId, int amount) {
+        if (lockFree != null) {
+            return lockFree.tryAllocate(amount);
+        }
+        synchronized (this) {
+            return backend.allocate(ownerId, amount);
+        }
+    }
+
+    /**
+     * Hot-path counterpart of {@link #tryAllocate(int, int)}.
+     * Never frees more than the owner holds, nor raises free memory above capacity.
+     * Parked requests that now fit are granted before this returns.
+     * @return the amount actually freed.
+     */
+    public int release(int ownerId, int amount) {
+        int freed;
+        if (lockFree != null) {
+            freed = lockFree.release(amount);
+        } else {
+            synchronized (this) {
+                freed = backend.free(ownerId, amount);
+            }
+        }
+        if (freed > 0 && !waitQueue.isEmpty()) {
+            wakeWaiters();
+        }
+        return freed;
+    }
+
+    /**
+     * Allocates now if possible, otherwise parks the request until a free makes room for it.
+     * Scalar memory is tried first with {@link #tryAllocate(int, int)}'s compare-and-set, so the
+     * dispatchers only take the monitor when memory is short or others are already waiting.
+     * Parked requests are granted in the wait queue's policy order by the thread that frees the
+     * memory, and the callback runs on that thread outside the memory lock, so it should only
+     * hand the process over (e.g. enqueue it) rather than touch cores or the scheduler directly.
+     * @param ownerId The id of the process the memory belongs to.
+     * @param amount The amount of memory to allocate.
+     * @param onGranted Called with the time spent waiting once the parked request holds its memory.
+     * @return true if the memory was allocated straight away (the callback is not called),
+     *         false if the request was parked.
+     */
+    public boolean allocateOrWait(int ownerId, int amount, DoubleConsumer onGranted) {
+        // a waiter parked concurrently may be bypassed once, as a release racing a park is handled below
+        if (lockFree != null && (waitQueue.isEmpty() || waitQueue.allowsBypass()) && lockFree.tryAllocate(amount)) {
+            return true;
+        }
+        List<MemoryWaitQueue.Waiter> granted = new ArrayList<>();
+        boolean allocated = false;
+        synchronized (this) {
+            if ((waitQueue.isEmpty() || waitQueue.allowsBypass()) && backend.allocate(ownerId, amount)) {
+                return true;
+            }
+            MemoryWaitQueue.Waiter parked = waitQueue.add(ownerId, amount, clockS, onGranted);
+            // a lock-free release may have slipped in between the failed attempt and parking
+            waitQueue.grant(backend, clockS, granted);
+            if (granted.remove(parked)) {
+                allocated = true;
+            } else {
+                Log.d(TAG, "Parked " + amount + "GB request of " + ownerId + ", " + waitQueue.size() + " waiting");
+            }
+        }
+        notifyGranted(granted);
+        return allocated;
+    }
+
+    /**
+     * Withdraws an owner's parked request (e.g. its patience ran out while waiting).
+     * @return true if a request was parked, false if there was none or it was already granted.
+     */
+    public synchronized boolean cancelWait(int ownerId) {
+        return waitQueue.remove(ownerId);
+    }
+
+    /** @return true if the owner has a request parked for memory. */
+    public synchronized boolean isWaiting(int ownerId) {
+        return waitQueue.contains(ownerId);
+    }
+
+    /** @return simulated seconds the owner's request has been parked, or -1 if none is. */
+    public synchronized double getWaitS(int ownerId) {
+        return waitQueue.waitedS(ownerId, clockS);
+    }
+
+    /**
+     * Grants parked requests that fit now. Called after every free; also useful after anything
+     * else that can make room without freeing, such as compaction joining free runs.
+     */
+    public void wakeWaiters() {
+        if (waitQueue.isEmpty()) return;
+        List<MemoryWaitQueue.Waiter> granted = new ArrayList<>();
+        synchronized (this) {
+            waitQueue.grant(backend, clockS, granted);
+        }
+        notifyGranted(granted);
+    }
+
+    // runs grant callbacks outside the memory lock, the receivers may take core / scheduler locks
+    private void notifyGranted(List<MemoryWaitQueue.Waiter> granted) {
+        for (MemoryWaitQueue.Waiter waiter : granted) {
+            Log.d(TAG, "Granted " + waiter.amount + "GB to " + waiter.ownerId + " after waiting "
+                    + String.format("%.2f", waiter.waitS) + "s");
+            waiter.onGranted.accept(waiter.waitS);
+        }
+    }
+
     /**
      * Frees up a previously allocated amount of memory.
      * @param memoryToFree The amount of memory to free.
      */
-    public synchronized void freeMemory(int memoryToFree) {
+    public void freeMemory(int memoryToFree) {
+        freeMemory(ANONYMOUS_OWNER, memoryToFree);
+    }
+
+    /**
+     * Frees memory previously allocated to a process.
+     * @param ownerId The id of the process the memory belongs to.
+     * @param memoryToFree The amount of memory to free.
+     */
+    public void freeMemory(int ownerId, int memoryToFree) {
         if (memoryToFree <= 0) return;
 
-        availableMemory += memoryToFree;
-        if (availableMemory > capacity) {
-            Log.w(TAG, "Freed more memory than capacity? Freed: " + memoryToFree + ", Available: " + availableMemory + ", Capacity: " + capacity);
-            availableMemory = capacity; // Cap at maximum capacity
+        synchronized (this) {
+            int freed = backend.free(ownerId, memoryToFree);
+            if (freed < memoryToFree) {
+                Log.w(TAG, "Freed more memory than owner " + ownerId + " held? Requested: " + memoryToFree + ", Freed: " + freed + ", Available: " + backend.getAvailableMemory());
+            }
+            Log.d(TAG, "Freed " + freed + "GB. Available: " + backend.getAvailableMemory());
         }
-         Log.d(TAG, "Freed " + memoryToFree + "GB. Available: " + availableMemory);
+        wakeWaiters(); // Parked requests are served by the free, not by polling
+    }
+
+    /**
+     * Advances time-dependent backend state once per tick.
+     * @param deltaTime Time elapsed since the last update in seconds.
+     */
+    public synchronized void update(double deltaTime) {
+        clockS += deltaTime;
+        backend.update(deltaTime);
+    }
+
+    /** @return a snapshot of block placement, or null if the backend does not model placement. */
+    public synchronized List<MemoryBlock> getBlockMap() {
+        return backend.getBlockMap();
     }
 
     /** Resets memory usage to zero. */
     public synchronized void clear() {
-        availableMemory = capacity; // Reset available memory to full capacity
+        backend.clear(); // Reset available memory to full capacity
+        waitQueue.clear(); // Parked requests belong to the old game
+        waitQueue.resetStats();
+        clockS = 0;
         Log.d(TAG, "Memory cleared.");
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,137 @@
+package com.example.cs205game;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.WeakHashMap;
+
+/**
+ * Turns the cpu time a process gets into a stream of page references and hands each one to
+ * the registered {@link PageAccessListener}s (virtual memory, tlbs...). A process of N GB has
+ * N * pagesPerGb pages. References come in sequential runs: a run starts on a random page, mostly
+ * in the hot working set (the first pages) and otherwise anywhere in the address space, and walks
+ * forward a page every few references, the way a loop over an array does. The stall every
+ * listener reports is charged to the process, which serves it on the core before further cpu
+ * progress.
+ */
+public class MemoryAccessGenerator implements ExecutionHook {
+    public static final double DEFAULT_HOT_FRACTION = 0.5; // share of pages in the working set
+    public static final double DEFAULT_LOCALITY = 0.9; // runs that start in the working set
+    public static final int DEFAULT_RUN_LENGTH = 32; // references per sequential run
+    public static final int DEFAULT_REFERENCES_PER_PAGE = 8; // references before a run moves to the next page
+    public static final double DEFAULT_WRITE_FRACTION = 0.3; // references that dirty their page
+    public static final double DEFAULT_ACCESSES_PER_S = 40; // page-granular references per cpu second
+
+    private final int pagesPerGb;
+    private final double hotFraction;
+    private final double locality;
+    private final double writeFraction;
+    private final double accessesPerS;
+    private final int runLength;
+    private final int referencesPerPage;
+    private final Random random;
+    private final List<PageAccessListener> listeners = new ArrayList<>();
+    private final Map<Process, Stream> streams = new WeakHashMap<>();
+
+    // where a process's reference stream is, kept across its core time slices
+    private static final class Stream {
+        double carry = 0; // fractional references owed
+        int page = 0;
+        int runLeft = 0; // references left in the current run
+    }
+
+    public MemoryAccessGenerator(int pagesPerGb, Random random) {
+        this(pagesPerGb, DEFAULT_HOT_FRACTION, DEFAULT_LOCALITY, DEFAULT_WRITE_FRACTION, DEFAULT_ACCESSES_PER_S,
+                DEFAULT_RUN_LENGTH, DEFAULT_REFERENCES_PER_PAGE, random);
+    }
+
+    /**
+     * @param pagesPerGb Pages per GB of process memory (must match any paged backend listening).
+     * @param hotFraction Share of a process's pages in its hot working set.
+     * @param locality Share of runs that start in the working set.
+     * @param writeFraction Share of references that write.
+     * @param accessesPerS References per cpu second.
+     * @param runLength References per sequential run, 1 for independent references.
+     * @param referencesPerPage References a run makes to a page before moving to the next one.
+     * @param random Source of the reference pattern.
+     */
+    public MemoryAccessGenerator(int pagesPerGb, double hotFraction, double locality, double writeFraction,
+                                 double accessesPerS, int runLength, int referencesPerPage, Random random) {
+        if (runLength <= 0 || referencesPerPage <= 0) {
+            throw new IllegalArgumentException("invalid reference runs: " + runLength + " references, "
+                    + referencesPerPage + " per page");
+        }
+        this.pagesPerGb = pagesPerGb;
+        this.hotFraction = hotFraction;
+        this.locality = locality;
+        this.writeFraction = writeFraction;
+        this.accessesPerS = accessesPerS;
+        this.runLength = runLength;
+        this.referencesPerPage = referencesPerPage;
+        this.random = random;
+    }
+
+    public synchronized void addListener(PageAccessListener listener) {
+        listeners.add(listener);
+    }
+
+    public int getPagesPerGb() {
+        return pagesPerGb;
+    }
+
+    /** @return the page size a backend works in (virtual pages or page frames), or the virtual memory default. */
+    public static int pagesPerGbOf(MemoryBackend backend) {
+        if (backend instanceof VirtualMemory) {
+            return ((VirtualMemory) backend).getPagesPerGb();
+        }
+        if (backend instanceof PageFrameAllocator) {
+            return ((PageFrameAllocator) backend).getFramesPerGb();
+        }
+        if (backend instanceof CowMemory) {
+            return ((CowMemory) backend).getPagesPerGb();
+        }
+        return VirtualMemory.DEFAULT_PAGES_PER_GB;
+    }
+
+    /** @return the number of hot working set pages of a process with the given page count. */
+    public static int hotPages(int pages, double hotFraction) {
+        return Math.max(1, Math.min(pages, (int) Math.ceil(pages * hotFraction)));
+    }
+
+    @Override
+    public synchronized void onExecute(Core core, Process process, double runS) {
+        int pages = process.getMemoryRequirement() * pagesPerGb;
+        if (pages <= 0 || listeners.isEmpty()) return;
+        int hot = hotPages(pages, hotFraction);
+
+        Stream stream = streams.get(process);
+        if (stream == null) {
+            stream = new Stream();
+            streams.put(process, stream);
+        }
+        double due = stream.carry + runS * accessesPerS;
+        int count = (int) due;
+        stream.carry = due - count;
+        double stallS = 0;
+        for (int i = 0; i < count; i++) {
+            int page = nextPage(stream, pages, hot);
+            boolean write = random.nextDouble() < writeFraction;
+            for (PageAccessListener listener : listeners) {
+                stallS += listener.onPageAccess(core, process, page, write, stallS);
+            }
+        }
+        process.addStall(stallS);
+    }
+
+    private int nextPage(Stream stream, int pages, int hot) {
+        if (stream.runLeft <= 0 || stream.page >= pages) {
+            stream.page = random.nextInt(random.nextDouble() < locality ? hot : pages);
+            stream.runLeft = runLength;
+        } else if ((runLength - stream.runLeft) % referencesPerPage == 0) {
+            stream.page = (stream.page + 1) % pages;
+        }
+        stream.runLeft--;
+        return stream.page;
+    }
+}
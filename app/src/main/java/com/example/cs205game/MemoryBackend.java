@@ -0,0 +1,53 @@
+package com.example.cs205game;
+
+import java.util.List;
+
+/**
+ * Strategy that actually tracks memory for {@link Memory}.
+ * Amounts are in simulated GB (the unit used by Process.getMemoryRequirement()).
+ * Implementations do not need to be thread safe, Memory serialises access.
+ */
+public interface MemoryBackend {
+
+    /** @return a short name for logs and reports. */
+    String getName();
+
+    /** @return total capacity in GB. */
+    int getCapacity();
+
+    /** @return free memory in GB. */
+    int getAvailableMemory();
+
+    /** @return true if an allocation of the given size would currently succeed. */
+    boolean canAllocate(int amount);
+
+    /**
+     * Allocates memory on behalf of an owner (a process id, or Memory.ANONYMOUS_OWNER).
+     * @return true on success, false if the request cannot be satisfied.
+     */
+    boolean allocate(int ownerId, int amount);
+
+    /**
+     * Frees memory previously allocated to the owner.
+     * @return the amount actually freed (never more than the owner holds).
+     */
+    int free(int ownerId, int amount);
+
+    /** Releases every allocation. */
+    void clear();
+
+    /**
+     * Advances backend time (e.g. for device queues), called once per tick.
+     * @param deltaTime Time elapsed since the last update in seconds.
+     */
+    default void update(double deltaTime) {
+    }
+
+    /**
+     * @return the current placement as address ordered blocks, or null if the backend does not
+     * model placement.
+     */
+    default List<MemoryBlock> getBlockMap() {
+        return null;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.cs205game;
+
+/** One entry of a memory block map (for drawing placement). Sizes are in GB. */
+public class MemoryBlock {
+    public static final int FREE = -2; // ownerId of an unallocated block
+
+    public final double startGb;
+    public final double sizeGb;
+    public final double requestedGb; // part of the block the owner asked for, the rest is internal waste
+    public final int ownerId;
+
+    public MemoryBlock(double startGb, double sizeGb, double requestedGb, int ownerId) {
+        this.startGb = startGb;
+        this.sizeGb = sizeGb;
+        this.requestedGb = requestedGb;
+        this.ownerId = ownerId;
+    }
+
+    public boolean isFree() {
+        return ownerId == FREE;
+    }
+}
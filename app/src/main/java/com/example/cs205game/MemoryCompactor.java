@@ -0,0 +1,289 @@
+package com.example.cs205game;
+
+import android.util.Log;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Incremental compaction for a {@link PageFrameAllocator}. When free memory becomes too
+ * fragmented for large contiguous requests, pages are slid towards low addresses a bounded
+ * number of frames per tick (never stop-the-world). Each moved frame costs a modelled copy time
+ * that is charged as a stall to the process owning the page, so only the processes being moved
+ * pay, and no single tick pauses longer than the configured budget.
+ */
+public class MemoryCompactor {
+    private static final String TAG = "MemoryCompactor";
+    public static final double DEFAULT_COPY_GB_PER_S = 4.0; // modelled memcpy bandwidth
+    public static final double DEFAULT_MAX_PAUSE_PER_TICK_S = 0.002; // copy budget per tick
+    public static final double DEFAULT_TRIGGER_FRAGMENTATION = 0.3; // external fragmentation that starts a cycle
+
+    private final Memory memory;
+    private final PageFrameAllocator allocator;
+    private final double copyGbPerS;
+    private final double maxPausePerTickS;
+    private final double triggerFragmentation;
+    private final int framesPerTick;
+    private final double frameCopyS; // modelled time to copy one frame
+    private final Map<Integer, Integer> movedScratch = new HashMap<>(); // frames moved per owner this tick
+    private BiConsumer<Integer, Double> onOwnerStalled = (ownerId, seconds) -> { };
+
+    private boolean active = false;
+    private int cursor = 0; // frames below this are already compact
+    private int movedThisPass = 0; // frames moved since the cursor last started from 0
+    private double clockS = 0;
+    private double cycleStartS = 0;
+    private int lastRefusals = 0; // allocator refusal count seen at the previous tick
+
+    // statistics
+    private int cycles = 0;
+    private long framesMoved = 0;
+    private double totalPauseS = 0;
+    private double maxTickPauseS = 0;
+    private double lastCycleS = 0; // wall time the last completed cycle took
+    private double largestFreeBeforeGb = 0; // largest allocatable run when the last cycle started
+    private double largestFreeAfterGb = 0; // ... and when it finished
+    // placement success while idle before compaction vs. after a completed cycle
+    private int checksBefore = 0;
+    private int refusalsBefore = 0;
+    private int checksAfter = 0;
+    private int refusalsAfter = 0;
+    private int snapshotChecks = 0;
+    private int snapshotRefusals = 0;
+    private boolean compactedOnce = false;
+
+    public MemoryCompactor(Memory memory) {
+        this(memory, DEFAULT_COPY_GB_PER_S, DEFAULT_MAX_PAUSE_PER_TICK_S, DEFAULT_TRIGGER_FRAGMENTATION);
+    }
+
+    /**
+     * @param memory Memory backed by a {@link PageFrameAllocator}.
+     * @param copyGbPerS Modelled copy bandwidth in GB per second.
+     * @param maxPausePerTickS Most copy time spent in a single tick.
+     * @param triggerFragmentation External fragmentation (0..1) at which a cycle starts on its own.
+     */
+    public MemoryCompactor(Memory memory, double copyGbPerS, double maxPausePerTickS, double triggerFragmentation) {
+        if (!(memory.getBackend() instanceof PageFrameAllocator)) {
+            throw new IllegalArgumentException("compaction needs a page-frame backend, got " + memory.getBackend().getName());
+        }
+        if (copyGbPerS <= 0 || maxPausePerTickS <= 0) {
+            throw new IllegalArgumentException("copy bandwidth and pause budget must be positive");
+        }
+        this.memory = memory;
+        this.allocator = (PageFrameAllocator) memory.getBackend();
+        this.copyGbPerS = copyGbPerS;
+        this.maxPausePerTickS = maxPausePerTickS;
+        this.triggerFragmentation = triggerFragmentation;
+        this.frameCopyS = 1.0 / allocator.getFramesPerGb() / copyGbPerS;
+        this.framesPerTick = Math.max(1, (int) (maxPausePerTickS / frameCopyS));
+    }
+
+    /** @param listener told how many seconds of copy time to charge to each owner whose pages moved. */
+    public void setOnOwnerStalled(BiConsumer<Integer, Double> listener) {
+        this.onOwnerStalled = listener;
+    }
+
+    /**
+     * Advances compaction by one bounded slice.
+     * Starts a cycle when a placement was refused for fragmentation or fragmentation passed the trigger.
+     * @param deltaTime Time elapsed since the last update in seconds.
+     * @return copy time spent this tick, in seconds.
+     */
+    public double update(double deltaTime) {
+        double pauseS = advance(deltaTime);
+        // charged outside the memory lock, the listener may need core / scheduler locks
+        for (Map.Entry<Integer, Integer> e : movedScratch.entrySet()) {
+            onOwnerStalled.accept(e.getKey(), e.getValue() * frameCopyS);
+        }
+        // joining free runs can make room for parked requests without any memory being freed
+        memory.wakeWaiters();
+        return pauseS;
+    }
+
+    private double advance(double deltaTime) {
+        synchronized (memory) {
+            movedScratch.clear();
+            clockS += deltaTime;
+            int refusals = allocator.getFragmentationRefusals();
+            boolean refused = refusals > lastRefusals;
+            lastRefusals = refusals;
+            if (!active) {
+                if (!refused && allocator.getExternalFragmentation() < triggerFragmentation) {
+                    return 0;
+                }
+                if (allocator.getExternalFragmentation() == 0) {
+                    return 0; // nothing to gain, free memory is already one run
+                }
+                startCycle();
+            }
+            int moved = compactSlice();
+            double pauseS = moved * frameCopyS;
+            framesMoved += moved;
+            totalPauseS += pauseS;
+            maxTickPauseS = Math.max(maxTickPauseS, pauseS);
+            return pauseS;
+        }
+    }
+
+    /** Stops any cycle in progress and clears statistics (memory itself is not touched). */
+    public void reset() {
+        synchronized (memory) {
+            active = false;
+            cursor = 0;
+            clockS = 0;
+            lastRefusals = allocator.getFragmentationRefusals();
+            snapshotChecks = allocator.getPlacementChecks();
+            snapshotRefusals = lastRefusals;
+            cycles = 0;
+            framesMoved = 0;
+            totalPauseS = 0;
+            maxTickPauseS = 0;
+            lastCycleS = 0;
+            largestFreeBeforeGb = 0;
+            largestFreeAfterGb = 0;
+            checksBefore = refusalsBefore = checksAfter = refusalsAfter = 0;
+            compactedOnce = false;
+        }
+    }
+
+    // slides used frames down into the lowest holes, up to the per-tick budget
+    private int compactSlice() {
+        int moved = 0;
+        while (moved < framesPerTick) {
+            int hole = allocator.nextFreeFrameNoWrap(cursor);
+            // huge pages stay put, base frames above them may still slide below them
+            int used = hole < 0 ? -1 : allocator.nextMovableFrame(hole + 1);
+            if (used < 0) {
+                // frees since the cycle began may have opened holes below the cursor; holes
+                // pinned by huge pages never close, so only rescan after progress
+                if (cursor > 0 && movedThisPass > 0 && allocator.getLargestFreeRun() < allocator.getFreeFrames()) {
+                    cursor = 0;
+                    movedThisPass = 0;
+                    continue;
+                }
+                finishCycle();
+                break;
+            }
+            int owner = allocator.relocateFrame(used, hole);
+            movedScratch.merge(owner, 1, Integer::sum);
+            cursor = hole + 1;
+            moved++;
+            movedThisPass++;
+        }
+        return moved;
+    }
+
+    private void startCycle() {
+        recordPlacementWindow();
+        active = true;
+        cursor = 0;
+        movedThisPass = 0;
+        cycleStartS = clockS;
+        largestFreeBeforeGb = (double) allocator.getLargestFreeRun() / allocator.getFramesPerGb();
+        Log.d(TAG, "compaction started, fragmentation " + String.format("%.2f", allocator.getExternalFragmentation()));
+    }
+
+    private void finishCycle() {
+        active = false;
+        cycles++;
+        compactedOnce = true;
+        lastCycleS = clockS - cycleStartS;
+        largestFreeAfterGb = (double) allocator.getLargestFreeRun() / allocator.getFramesPerGb();
+        snapshotChecks = allocator.getPlacementChecks();
+        snapshotRefusals = allocator.getFragmentationRefusals();
+        Log.i(TAG, "compaction finished in " + String.format("%.2f", lastCycleS) + "s, largest free run "
+                + String.format("%.1f", largestFreeBeforeGb) + " -> " + String.format("%.1f", largestFreeAfterGb) + "GB");
+    }
+
+    // attributes placement attempts since the last snapshot to the 'before' or 'after' window
+    private void recordPlacementWindow() {
+        int checks = allocator.getPlacementChecks() - snapshotChecks;
+        int refusals = allocator.getFragmentationRefusals() - snapshotRefusals;
+        if (compactedOnce) {
+            checksAfter += checks;
+            refusalsAfter += refusals;
+        } else {
+            checksBefore += checks;
+            refusalsBefore += refusals;
+        }
+    }
+
+    // --- statistics --- //
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public int getCycles() {
+        return cycles;
+    }
+
+    public long getFramesMoved() {
+        return framesMoved;
+    }
+
+    /** @return GB copied so far. */
+    public double getGbMoved() {
+        return (double) framesMoved / allocator.getFramesPerGb();
+    }
+
+    /** @return total modelled copy time charged to processes. */
+    public double getTotalPauseS() {
+        return totalPauseS;
+    }
+
+    /** @return the longest copy time spent in one tick (bounded by the per-tick budget). */
+    public double getMaxTickPauseS() {
+        return maxTickPauseS;
+    }
+
+    public double getMaxPausePerTickS() {
+        return maxPausePerTickS;
+    }
+
+    public double getCopyGbPerS() {
+        return copyGbPerS;
+    }
+
+    /** @return wall time the last completed cycle took from start to finish. */
+    public double getLastCycleS() {
+        return lastCycleS;
+    }
+
+    public double getLargestFreeBeforeGb() {
+        return largestFreeBeforeGb;
+    }
+
+    public double getLargestFreeAfterGb() {
+        return largestFreeAfterGb;
+    }
+
+    /** @return fraction of placement attempts that found a free run before the first compaction. */
+    public double getPlacementSuccessBefore() {
+        synchronized (memory) {
+            if (compactedOnce || active) {
+                return successRate(checksBefore, refusalsBefore);
+            }
+            return successRate(checksBefore + allocator.getPlacementChecks() - snapshotChecks,
+                    refusalsBefore + allocator.getFragmentationRefusals() - snapshotRefusals);
+        }
+    }
+
+    /** @return fraction of placement attempts that found a free run after compaction cycles. */
+    public double getPlacementSuccessAfter() {
+        synchronized (memory) {
+            int checks = checksAfter;
+            int refusals = refusalsAfter;
+            if (compactedOnce && !active) { // include the window since the last cycle finished
+                checks += allocator.getPlacementChecks() - snapshotChecks;
+                refusals += allocator.getFragmentationRefusals() - snapshotRefusals;
+            }
+            return successRate(checks, refusals);
+        }
+    }
+
+    private static double successRate(int checks, int refusals) {
+        return checks == 0 ? 1.0 : 1.0 - (double) refusals / checks;
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.cs205game;
+
+/** Physical memory allocators available behind {@link Memory}. */
+public enum MemoryModel {
+    SCALAR, // single free counter, no placement
+    PAGE_FRAME, // bitmap of page frames with per-process page tables
+    PAGE_FRAME_CONTIGUOUS, // page frames, but every allocation needs one free run (compacted incrementally)
+    PAGE_FRAME_HUGE, // page frames, large jobs mapped with 64mb huge pages where aligned runs are free
+    PAGE_FRAME_HUGE_1GB, // page frames, large jobs mapped with 1gb huge pages
+    PAGE_FRAME_CONTIGUOUS_HUGE, // contiguous page frames, large jobs placed 1gb aligned as huge pages
+    BUDDY, // power-of-two buddy blocks, rounding waste shown on the memory block map
+    VIRTUAL_FIFO, // demand paging with swap, replacement policy per suffix
+    VIRTUAL_LRU,
+    VIRTUAL_CLOCK,
+    VIRTUAL_ARC,
+    NUMA_LOCAL_FIRST, // two numa nodes, placement policy per suffix
+    NUMA_INTERLEAVE,
+    NUMA_BIND,
+    OVERCOMMIT_CONSERVATIVE, // commits up to 1.25x capacity, oom killer reclaims touched memory
+    OVERCOMMIT_AGGRESSIVE, // commits up to 2x capacity
+    SHARED_COW; // program images shared copy-on-write between processes, counted once
+
+    public static final int FRAMES_PER_GB = 256; // page frames per gb (4mb simulated pages)
+    public static final int LARGE_HUGE_FRAMES = 16; // 64mb huge pages
+    public static final int GIGANTIC_HUGE_FRAMES = FRAMES_PER_GB; // 1gb huge pages
+
+    /**
+     * Builds a backend of this model.
+     * @param capacity Capacity in GB.
+     */
+    public MemoryBackend create(int capacity) {
+        switch (this) {
+            case VIRTUAL_FIFO:
+                return new VirtualMemory(capacity, VirtualMemory.Replacement.FIFO);
+            case VIRTUAL_LRU:
+                return new VirtualMemory(capacity, VirtualMemory.Replacement.LRU);
+            case VIRTUAL_CLOCK:
+                return new VirtualMemory(capacity, VirtualMemory.Replacement.CLOCK);
+            case VIRTUAL_ARC:
+                return new VirtualMemory(capacity, VirtualMemory.Replacement.ARC);
+            case SCALAR:
+                return new ScalarMemoryBackend(capacity);
+            case PAGE_FRAME_CONTIGUOUS:
+                return new PageFrameAllocator(capacity, FRAMES_PER_GB, true);
+            case PAGE_FRAME_HUGE:
+                return new PageFrameAllocator(capacity, FRAMES_PER_GB, false, PageFrameAllocator.HugePages.LARGE_JOBS,
+                        LARGE_HUGE_FRAMES, PageFrameAllocator.DEFAULT_HUGE_THRESHOLD_GB);
+            case PAGE_FRAME_HUGE_1GB:
+                return new PageFrameAllocator(capacity, FRAMES_PER_GB, false, PageFrameAllocator.HugePages.LARGE_JOBS,
+                        GIGANTIC_HUGE_FRAMES, PageFrameAllocator.DEFAULT_HUGE_THRESHOLD_GB);
+            case PAGE_FRAME_CONTIGUOUS_HUGE:
+                return new PageFrameAllocator(capacity, FRAMES_PER_GB, true, PageFrameAllocator.HugePages.LARGE_JOBS,
+                        GIGANTIC_HUGE_FRAMES, PageFrameAllocator.DEFAULT_HUGE_THRESHOLD_GB);
+            case NUMA_LOCAL_FIRST:
+                return new NumaMemory(capacity, NumaMemory.DEFAULT_NODES, NumaMemory.Policy.LOCAL_FIRST);
+            case NUMA_INTERLEAVE:
+                return new NumaMemory(capacity, NumaMemory.DEFAULT_NODES, NumaMemory.Policy.INTERLEAVE);
+            case NUMA_BIND:
+                return new NumaMemory(capacity, NumaMemory.DEFAULT_NODES, NumaMemory.Policy.BIND);
+            case OVERCOMMIT_CONSERVATIVE:
+                return new OvercommitMemory(capacity, OvercommitMemory.CONSERVATIVE_RATIO);
+            case OVERCOMMIT_AGGRESSIVE:
+                return new OvercommitMemory(capacity, OvercommitMemory.AGGRESSIVE_RATIO);
+            case SHARED_COW:
+                return new CowMemory(capacity);
+            case BUDDY:
+                return new BuddyAllocator(capacity, 1);
+            case PAGE_FRAME:
+            default:
+                return new PageFrameAllocator(capacity, FRAMES_PER_GB, false);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.cs205game;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Allocation requests that could not be satisfied, parked until memory is released.
+ * {@link Memory} owns the queue and calls {@link #grant} under its monitor after every free, so
+ * waiters are woken exactly when their request fits instead of being retried every tick.
+ */
+public class MemoryWaitQueue {
+
+    /** Order in which parked requests are granted. */
+    public enum Policy {
+        FIFO, // strict arrival order, a large request at the head blocks smaller ones behind it
+        SMALLEST_FIRST // smallest request first, later small requests may overtake a large one
+    }
+
+    /** A parked request; the callback receives how long it waited, in simulated seconds. */
+    static final class Waiter {
+        final int ownerId;
+        final int amount;
+        final double parkedAtS;
+        final long sequence;
+        final DoubleConsumer onGranted;
+        double waitS;
+
+        Waiter(int ownerId, int amount, double parkedAtS, long sequence, DoubleConsumer onGranted) {
+            this.ownerId = ownerId;
+            this.amount = amount;
+            this.parkedAtS = parkedAtS;
+            this.sequence = sequence;
+            this.onGranted = onGranted;
+        }
+    }
+
+    private final Policy policy;
+    private final PriorityQueue<Waiter> waiters;
+    private volatile int size = 0; // read without the memory lock by the lock-free release path
+    private long nextSequence = 0;
+
+    // statistics
+    private long grants = 0;
+    private long cancellations = 0;
+    private double totalWaitS = 0;
+    private double maxWaitS = 0;
+    private double lastWaitS = 0;
+
+    public MemoryWaitQueue(Policy policy) {
+        this.policy = policy;
+        Comparator<Waiter> arrival = Comparator.comparingLong(w -> w.sequence);
+        this.waiters = new PriorityQueue<>(policy == Policy.SMALLEST_FIRST
+                ? Comparator.<Waiter>comparingInt(w -> w.amount).thenComparing(arrival)
+                : arrival);
+    }
+
+    public Policy getPolicy() {
+        return policy;
+    }
+
+    /** @return true if a new request may be served before requests already parked. */
+    boolean allowsBypass() {
+        return policy == Policy.SMALLEST_FIRST;
+    }
+
+    synchronized Waiter add(int ownerId, int amount, double nowS, DoubleConsumer onGranted) {
+        Waiter waiter = new Waiter(ownerId, amount, nowS, nextSequence++, onGranted);
+        waiters.add(waiter);
+        size = waiters.size();
+        return waiter;
+    }
+
+    /** Removes every parked request of an owner. @return true if one was found. */
+    synchronized boolean remove(int ownerId) {
+        boolean removed = false;
+        for (Iterator<Waiter> it = waiters.iterator(); it.hasNext(); ) {
+            if (it.next().ownerId == ownerId) {
+                it.remove();
+                removed = true;
+                cancellations++;
+            }
+        }
+        size = waiters.size();
+        return removed;
+    }
+
+    synchronized boolean contains(int ownerId) {
+        for (Waiter waiter : waiters) {
+            if (waiter.ownerId == ownerId) return true;
+        }
+        return false;
+    }
+
+    synchronized double waitedS(int ownerId, double nowS) {
+        for (Waiter waiter : waiters) {
+            if (waiter.ownerId == ownerId) return nowS - waiter.parkedAtS;
+        }
+        return -1;
+    }
+
+    /**
+     * Allocates for parked requests in policy order, stopping at the first one that does not fit.
+     * @param backend Backend to allocate from.
+     * @param nowS Current simulated time.
+     * @param granted Receives the requests that now hold their memory; their callbacks are left
+     *                to the caller so they can run outside the memory lock.
+     */
+    synchronized void grant(MemoryBackend backend, double nowS, List<Waiter> granted) {
+        Waiter head;
+        while ((head = waiters.peek()) != null && backend.allocate(head.ownerId, head.amount)) {
+            waiters.poll();
+            head.waitS = nowS - head.parkedAtS;
+            grants++;
+            totalWaitS += head.waitS;
+            maxWaitS = Math.max(maxWaitS, head.waitS);
+            lastWaitS = head.waitS;
+            granted.add(head);
+        }
+        size = waiters.size();
+    }
+
+    synchronized void clear() {
+        waiters.clear();
+        size = 0;
+    }
+
+    synchronized void resetStats() {
+        grants = 0;
+        cancellations = 0;
+        totalWaitS = 0;
+        maxWaitS = 0;
+        lastWaitS = 0;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // --- statistics --- //
+
+    public synchronized long getGrants() {
+        return grants;
+    }
+
+    public synchronized long getCancellations() {
+        return cancellations;
+    }
+
+    /** @return mean time a granted request spent parked, in simulated seconds. */
+    public synchronized double getMeanWaitS() {
+        return grants == 0 ? 0 : totalWaitS / grants;
+    }
+
+    public synchronized double getMaxWaitS() {
+        return maxWaitS;
+    }
+
+    /** @return wait of the most recently granted request. */
+    public synchronized double getLastWaitS() {
+        return lastWaitS;
+    }
+}
@@ -0,0 +1,293 @@
+package com.example.cs205game;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Memory split into NUMA nodes, each with its own free counter. Every process gets a home node
+ * when it allocates; the placement policy decides where its memory actually lands. As an
+ * {@link ExecutionHook} it slows down cpu progress on a core in proportion to how much of the
+ * running process's memory lives on another node than the core's home node.
+ */
+public class NumaMemory implements MemoryBackend, ExecutionHook {
+    public static final int DEFAULT_NODES = 2;
+    public static final double DEFAULT_MEMORY_BOUND_FRACTION = 0.3; // share of cpu time spent waiting on memory
+    public static final double DEFAULT_REMOTE_LATENCY_FACTOR = 1.6; // remote access cost relative to local
+
+    /** Where an allocation's memory is placed relative to its home node. */
+    public enum Policy {
+        LOCAL_FIRST, // home node first, spill the rest to other nodes
+        INTERLEAVE, // round-robin GB by GB over all nodes
+        BIND // home node only, fail if it is full
+    }
+
+    private final int capacity; // in GB, over all nodes
+    private final ScalarMemoryBackend[] nodes;
+    private final Policy policy;
+    private final double memoryBoundFraction;
+    private final double remoteLatencyFactor;
+    private final Map<Integer, int[]> placement = new HashMap<>(); // owner -> GB per node
+    private final Map<Integer, Integer> homeNodes = new HashMap<>();
+    private final Map<Integer, Integer> preferredNodes = new HashMap<>(); // hints from callers that know the core
+    private int interleaveStart = 0;
+
+    // statistics
+    private long localGbAllocated = 0;
+    private long remoteGbAllocated = 0;
+    private double localCpuS = 0; // cpu time weighted by the share of memory that was local
+    private double remoteCpuS = 0;
+    private double remoteStallS = 0;
+    private int failedAllocations = 0;
+
+    public NumaMemory(int capacity, int nodeCount, Policy policy) {
+        this(capacity, nodeCount, policy, DEFAULT_MEMORY_BOUND_FRACTION, DEFAULT_REMOTE_LATENCY_FACTOR);
+    }
+
+    /**
+     * @param capacity Total capacity in GB, split as evenly as possible over the nodes.
+     * @param nodeCount Number of nodes.
+     * @param policy Placement policy.
+     * @param memoryBoundFraction Share of cpu time a process spends on memory accesses.
+     * @param remoteLatencyFactor How much slower a remote access is than a local one.
+     */
+    public NumaMemory(int capacity, int nodeCount, Policy policy, double memoryBoundFraction, double remoteLatencyFactor) {
+        if (nodeCount <= 0 || capacity < nodeCount) {
+            throw new IllegalArgumentException("invalid numa geometry: " + capacity + "GB over " + nodeCount + " nodes");
+        }
+        this.capacity = capacity;
+        this.nodes = new ScalarMemoryBackend[nodeCount];
+        for (int n = 0; n < nodeCount; n++) {
+            nodes[n] = new ScalarMemoryBackend(capacity / nodeCount + (n < capacity % nodeCount ? 1 : 0));
+        }
+        this.policy = policy;
+        this.memoryBoundFraction = memoryBoundFraction;
+        this.remoteLatencyFactor = remoteLatencyFactor;
+    }
+
+    /** Spreads cores over the nodes in contiguous groups (cores 0..k-1 on node 0, ...). */
+    public void assignHomeNodes(List<Core> cores) {
+        for (int i = 0; i < cores.size(); i++) {
+            cores.get(i).setHomeNode(i * nodes.length / cores.size());
+        }
+    }
+
+    /**
+     * Asks that the owner's next allocation use the given home node (e.g. the core it is dropped on).
+     * The hint is kept until an allocation succeeds. Under BIND it is ignored if the node cannot
+     * hold the request whole.
+     */
+    public synchronized void preferNode(int ownerId, int node) {
+        preferredNodes.put(ownerId, Math.floorMod(node, nodes.length));
+    }
+
+    @Override
+    public String getName() {
+        return "numa x" + nodes.length + " (" + policy.name().toLowerCase(Locale.ROOT) + ")";
+    }
+
+    @Override
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public synchronized int getAvailableMemory() {
+        int available = 0;
+        for (ScalarMemoryBackend node : nodes) {
+            available += node.getAvailableMemory();
+        }
+        return available;
+    }
+
+    @Override
+    public synchronized boolean canAllocate(int amount) {
+        if (policy == Policy.BIND) {
+            // a new owner lands on its hinted node if that fits, else on the most free one (see homeNodeFor)
+            return nodes[mostFreeNode()].canAllocate(amount);
+        }
+        return getAvailableMemory() >= amount;
+    }
+
+    @Override
+    public synchronized boolean allocate(int ownerId, int amount) {
+        if (amount <= 0) return true;
+        int home = homeNodeFor(ownerId, amount);
+        int[] taken = new int[nodes.length];
+        boolean ok;
+        switch (policy) {
+            case BIND:
+                ok = nodes[home].tryAllocate(amount);
+                if (ok) taken[home] = amount;
+                break;
+            case INTERLEAVE:
+                ok = interleave(amount, taken);
+                break;
+            case LOCAL_FIRST:
+            default:
+                ok = localFirst(home, amount, taken);
+                break;
+        }
+        if (!ok) {
+            failedAllocations++;
+            return false;
+        }
+        homeNodes.put(ownerId, home);
+        preferredNodes.remove(ownerId);
+        int[] held = placement.computeIfAbsent(ownerId, k -> new int[nodes.length]);
+        for (int n = 0; n < nodes.length; n++) {
+            held[n] += taken[n];
+            if (n == home) localGbAllocated += taken[n];
+            else remoteGbAllocated += taken[n];
+        }
+        return true;
+    }
+
+    @Override
+    public synchronized int free(int ownerId, int amount) {
+        int[] held = placement.get(ownerId);
+        if (held == null || amount <= 0) return 0;
+        int home = homeNodes.get(ownerId);
+        int remaining = amount;
+        // give back remote memory first so whatever stays is as local as possible
+        for (int i = 1; i <= nodes.length && remaining > 0; i++) {
+            int n = (home + i) % nodes.length;
+            int give = Math.min(remaining, held[n]);
+            held[n] -= nodes[n].release(give);
+            remaining -= give;
+        }
+        int freed = amount - remaining;
+        int left = 0;
+        for (int gb : held) left += gb;
+        if (left == 0) {
+            placement.remove(ownerId);
+            homeNodes.remove(ownerId);
+        }
+        return freed;
+    }
+
+    @Override
+    public synchronized void clear() {
+        for (ScalarMemoryBackend node : nodes) {
+            node.clear();
+        }
+        placement.clear();
+        homeNodes.clear();
+        preferredNodes.clear();
+        interleaveStart = 0;
+    }
+
+    /** Charges the extra latency of remote accesses made by the running process. */
+    @Override
+    public synchronized void onExecute(Core core, Process process, double runS) {
+        int[] held = placement.get(process.getId());
+        if (held == null) return;
+        int total = 0;
+        for (int gb : held) total += gb;
+        if (total == 0) return;
+        int node = Math.floorMod(core.getHomeNode(), nodes.length);
+        double remoteShare = 1.0 - (double) held[node] / total;
+        localCpuS += runS * (1.0 - remoteShare);
+        remoteCpuS += runS * remoteShare;
+        double stallS = runS * memoryBoundFraction * remoteShare * (remoteLatencyFactor - 1.0);
+        remoteStallS += stallS;
+        process.addStall(stallS);
+    }
+
+    private boolean localFirst(int home, int amount, int[] taken) {
+        if (getAvailableMemory() < amount) return false;
+        int remaining = amount;
+        for (int i = 0; i < nodes.length && remaining > 0; i++) {
+            int n = (home + i) % nodes.length;
+            int give = Math.min(remaining, nodes[n].getAvailableMemory());
+            if (give > 0 && nodes[n].tryAllocate(give)) {
+                taken[n] += give;
+                remaining -= give;
+            }
+        }
+        return true;
+    }
+
+    private boolean interleave(int amount, int[] taken) {
+        if (getAvailableMemory() < amount) return false;
+        int n = interleaveStart;
+        for (int gb = 0; gb < amount; gb++) {
+            while (!nodes[n].tryAllocate(1)) {
+                n = (n + 1) % nodes.length; // full node, skip it
+            }
+            taken[n]++;
+            n = (n + 1) % nodes.length;
+        }
+        interleaveStart = n;
+        return true;
+    }
+
+    // an owner keeps its home; a new one takes its hint unless BIND could not fit it there
+    private int homeNodeFor(int ownerId, int amount) {
+        Integer home = homeNodes.get(ownerId);
+        if (home != null) return home;
+        Integer preferred = preferredNodes.get(ownerId);
+        if (preferred != null && (policy != Policy.BIND || nodes[preferred].canAllocate(amount))) {
+            return preferred;
+        }
+        return mostFreeNode();
+    }
+
+    private int mostFreeNode() {
+        int best = 0;
+        for (int n = 1; n < nodes.length; n++) {
+            if (nodes[n].getAvailableMemory() > nodes[best].getAvailableMemory()) best = n;
+        }
+        return best;
+    }
+
+    // --- inspection / statistics --- //
+
+    public int getNodeCount() {
+        return nodes.length;
+    }
+
+    public Policy getPolicy() {
+        return policy;
+    }
+
+    /** @return the owner's home node, or -1 if it holds no memory. */
+    public synchronized int getHomeNode(int ownerId) {
+        Integer home = homeNodes.get(ownerId);
+        return home == null ? -1 : home;
+    }
+
+    public synchronized int getNodeAvailableMemory(int node) {
+        return nodes[node].getAvailableMemory();
+    }
+
+    public synchronized int getNodeCapacity(int node) {
+        return nodes[node].getCapacity();
+    }
+
+    /** @return share of allocated GB that landed on the owner's home node. */
+    public synchronized double getLocalAllocationRatio() {
+        long total = localGbAllocated + remoteGbAllocated;
+        return total == 0 ? 1.0 : (double) localGbAllocated / total;
+    }
+
+    /** @return share of cpu time whose memory accesses were local to the running core. */
+    public synchronized double getLocalAccessRatio() {
+        double total = localCpuS + remoteCpuS;
+        return total == 0 ? 1.0 : localCpuS / total;
+    }
+
+    public synchronized double getRemoteAccessRatio() {
+        return 1.0 - getLocalAccessRatio();
+    }
+
+    /** @return total cpu progress lost to remote access latency. */
+    public synchronized double getRemoteStallS() {
+        return remoteStallS;
+    }
+
+    public synchronized int getFailedAllocations() {
+        return failedAllocations;
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.cs205game;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * A direct (off-heap) ByteBuffer cut into equal chunks, one per simulated GB. Owners claim and
+ * release chunks, and touch them with read-modify-write passes so simulated memory traffic
+ * becomes real loads and stores. All bookkeeping lives in primitive arrays allocated up front:
+ * claiming, releasing and touching never allocate on the Java heap.
+ * Not thread safe, see {@link ArenaBackedMemory}.
+ */
+public class OffHeapArena {
+    public static final int NO_OWNER = Integer.MIN_VALUE;
+    private static final int WORD_BYTES = Long.BYTES;
+
+    private final ByteBuffer buffer;
+    private final int chunkBytes;
+    private final int[] chunkOwner; // owner id per chunk, NO_OWNER if free
+    private final int[] chunkCursor; // next offset a touch pass continues from, per chunk
+    private int freeChunks;
+
+    // statistics
+    private long bytesTouched = 0;
+    private long bytesZeroed = 0;
+    private long touchNanos = 0; // wall time spent in touch passes
+
+    /**
+     * @param chunks Number of chunks (simulated GB).
+     * @param chunkBytes Real bytes per chunk, a multiple of 8.
+     */
+    public OffHeapArena(int chunks, int chunkBytes) {
+        if (chunks <= 0 || chunkBytes <= 0 || chunkBytes % WORD_BYTES != 0
+                || (long) chunks * chunkBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("invalid arena geometry: " + chunks + " x " + chunkBytes + " bytes");
+        }
+        this.buffer = ByteBuffer.allocateDirect(chunks * chunkBytes).order(ByteOrder.nativeOrder());
+        this.chunkBytes = chunkBytes;
+        this.chunkOwner = new int[chunks];
+        this.chunkCursor = new int[chunks];
+        clear();
+    }
+
+    /**
+     * Claims chunks for an owner and zero-fills them, like a fresh mapping.
+     * @return false (claiming nothing) if fewer chunks are free.
+     */
+    public boolean claim(int ownerId, int count) {
+        if (count > freeChunks) return false;
+        int claimed = 0;
+        for (int c = 0; c < chunkOwner.length && claimed < count; c++) {
+            if (chunkOwner[c] != NO_OWNER) continue;
+            chunkOwner[c] = ownerId;
+            chunkCursor[c] = 0;
+            int base = c * chunkBytes;
+            for (int off = 0; off < chunkBytes; off += WORD_BYTES) {
+                buffer.putLong(base + off, 0L);
+            }
+            bytesZeroed += chunkBytes;
+            claimed++;
+        }
+        freeChunks -= claimed;
+        return true;
+    }
+
+    /**
+     * Releases up to count of the owner's chunks, highest first.
+     * @return the number of chunks released.
+     */
+    public int release(int ownerId, int count) {
+        int released = 0;
+        for (int c = chunkOwner.length - 1; c >= 0 && released < count; c--) {
+            if (chunkOwner[c] == ownerId) {
+                chunkOwner[c] = NO_OWNER;
+                released++;
+            }
+        }
+        freeChunks += released;
+        return released;
+    }
+
+    /**
+     * Streams over the owner's chunks, incrementing every word on the way (one load and one store
+     * per 8 bytes). The bytes are spread evenly over the chunks, each pass resuming where the
+     * previous one stopped and wrapping at the chunk end.
+     * @return bytes actually touched (0 if the owner holds nothing).
+     */
+    public long touch(int ownerId, long bytes) {
+        int owned = 0;
+        for (int owner : chunkOwner) {
+            if (owner == ownerId) owned++;
+        }
+        if (owned == 0 || bytes <= 0) return 0;
+        long perChunk = Math.max(WORD_BYTES, bytes / owned / WORD_BYTES * WORD_BYTES);
+        long startNs = System.nanoTime();
+        long touched = 0;
+        for (int c = 0; c < chunkOwner.length; c++) {
+            if (chunkOwner[c] != ownerId) continue;
+            int base = c * chunkBytes;
+            int cursor = chunkCursor[c];
+            for (long done = 0; done < perChunk; done += WORD_BYTES) {
+                int index = base + cursor;
+                buffer.putLong(index, buffer.getLong(index) + 1);
+                cursor += WORD_BYTES;
+                if (cursor == chunkBytes) cursor = 0;
+            }
+            chunkCursor[c] = cursor;
+            touched += perChunk;
+        }
+        touchNanos += System.nanoTime() - startNs;
+        bytesTouched += touched;
+        return touched;
+    }
+
+    /** Frees every chunk (contents are zeroed again on the next claim). */
+    public void clear() {
+        Arrays.fill(chunkOwner, NO_OWNER);
+        Arrays.fill(chunkCursor, 0);
+        freeChunks = chunkOwner.length;
+    }
+
+    /** Clears statistics, not the chunks. */
+    public void resetStats() {
+        bytesTouched = 0;
+        bytesZeroed = 0;
+        touchNanos = 0;
+    }
+
+    // --- inspection / statistics --- //
+
+    public int getChunks() {
+        return chunkOwner.length;
+    }
+
+    public int getChunkBytes() {
+        return chunkBytes;
+    }
+
+    public int getFreeChunks() {
+        return freeChunks;
+    }
+
+    /** @return the chunk's owner, or NO_OWNER if it is free. */
+    public int getChunkOwner(int chunk) {
+        return chunkOwner[chunk];
+    }
+
+    /** @return the word at a byte offset (a multiple of 8) within a chunk. */
+    public long getWord(int chunk, int offset) {
+        return buffer.getLong(chunk * chunkBytes + offset);
+    }
+
+    public long getCapacityBytes() {
+        return (long) chunkOwner.length * chunkBytes;
+    }
+
+    public boolean isDirect() {
+        return buffer.isDirect();
+    }
+
+    public long getBytesTouched() {
+        return bytesTouched;
+    }
+
+    /** @return bytes written by zero-filling claimed chunks. */
+    public long getBytesZeroed() {
+        return bytesZeroed;
+    }
+
+    /** @return wall time spent touching, in nanoseconds. */
+    public long getTouchNanos() {
+        return touchNanos;
+    }
+}
@@ -0,0 +1,210 @@
+package com.example.cs205game;
+
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Out-of-memory killer for {@link OvercommitMemory}. When resident memory crosses a threshold
+ * of physical capacity it kills the highest scoring processes on the cores, io devices and dma
+ * channels, or blocked on a lock, until pressure is back under the threshold. The score favours big processes,
+ * processes that have made little progress (least work thrown away) and low priority ones, in
+ * proportions set by the weights. Each kill is reported with a configurable health penalty.
+ */
+public class OomKiller {
+    private static final String TAG = "OomKiller";
+    public static final double DEFAULT_THRESHOLD = 0.95; // share of capacity that may be resident
+    public static final double DEFAULT_SIZE_WEIGHT = 1.0;
+    public static final double DEFAULT_AGE_WEIGHT = 0.5;
+    public static final double DEFAULT_PRIORITY_WEIGHT = 0.25;
+    public static final int DEFAULT_PENALTY = 10; // health lost per kill, like an expired patience
+
+    private final Memory memory;
+    private final OvercommitMemory overcommit;
+    private final List<Core> cores;
+    private final IODevices ioDevices;
+    private final double threshold;
+    private final double sizeWeight;
+    private final double ageWeight;
+    private final double priorityWeight;
+    private final int penalty;
+    private final List<Process> candidates = new ArrayList<>(); // reused every check
+    private BiConsumer<Process, Integer> onKilled = (victim, penalty) -> { };
+    private DmaEngine dmaEngine = null; // transfers whose processes may be killed, null for none
+    private LockManager lockManager = null; // its blocked processes may be killed, null for none
+
+    // statistics
+    private int kills = 0;
+    private double gbReclaimed = 0;
+    private double cpuLostS = 0; // progress thrown away with the victims
+
+    public OomKiller(Memory memory, List<Core> cores, IODevices ioDevices) {
+        this(memory, cores, ioDevices, DEFAULT_THRESHOLD, DEFAULT_SIZE_WEIGHT, DEFAULT_AGE_WEIGHT,
+                DEFAULT_PRIORITY_WEIGHT, DEFAULT_PENALTY);
+    }
+
+    /**
+     * @param memory Memory backed by an {@link OvercommitMemory}.
+     * @param cores Cores whose processes may be killed.
+     * @param ioDevices Io devices whose processes being served may be killed.
+     * @param threshold Resident share of capacity above which processes are killed.
+     * @param sizeWeight Score weight of the victim's resident memory (share of capacity).
+     * @param ageWeight Score weight of how little of its cpu work the victim has done.
+     * @param priorityWeight Score weight per priority level below the default.
+     * @param penalty Health penalty reported with each kill.
+     */
+    public OomKiller(Memory memory, List<Core> cores, IODevices ioDevices, double threshold,
+                     double sizeWeight, double ageWeight, double priorityWeight, int penalty) {
+        if (!(memory.getBackend() instanceof OvercommitMemory)) {
+            throw new IllegalArgumentException("oom killer needs an overcommit backend, got " + memory.getBackend().getName());
+        }
+        this.memory = memory;
+        this.overcommit = (OvercommitMemory) memory.getBackend();
+        this.cores = cores;
+        this.ioDevices = ioDevices;
+        this.threshold = threshold;
+        this.sizeWeight = sizeWeight;
+        this.ageWeight = ageWeight;
+        this.priorityWeight = priorityWeight;
+        this.penalty = penalty;
+    }
+
+    /**
+     * @param listener told about each victim and its penalty, after it has been removed and its
+     *                 memory released (e.g. to release its locks, take it out of a lock's wait
+     *                 queue and charge the penalty).
+     */
+    public void setOnKilled(BiConsumer<Process, Integer> listener) {
+        this.onKilled = listener;
+    }
+
+    /**
+     * @param dmaEngine engine whose processes moving data may be killed; a victim's transfer is
+     *                  dropped from it.
+     */
+    public void setDmaEngine(DmaEngine dmaEngine) {
+        this.dmaEngine = dmaEngine;
+    }
+
+    /**
+     * @param lockManager lock manager whose blocked processes may be killed; the kill listener
+     *                    must take a blocked victim out of its wait queue.
+     */
+    public void setLockManager(LockManager lockManager) {
+        this.lockManager = lockManager;
+    }
+
+    /**
+     * Kills processes while resident memory is over the threshold.
+     * Call once per tick after the cores have run; takes core locks, so not while holding memory.
+     * @return number of processes killed.
+     */
+    public int update() {
+        int killed = 0;
+        double limitGb = threshold * overcommit.getCapacity();
+        while (overcommit.getResidentGb() > limitGb) {
+            Process victim = pickVictim();
+            if (victim == null) {
+                Log.w(TAG, "out of memory but nothing to kill, resident " + String.format("%.1f", overcommit.getResidentGb()) + "GB");
+                break;
+            }
+            kill(victim);
+            killed++;
+        }
+        return killed;
+    }
+
+    /** @return the oom score of a process; the highest scoring resident process is killed first. */
+    public double score(Process process) {
+        double sizeShare = overcommit.getResidentGb(process.getId()) / overcommit.getCapacity();
+        double unfinished = process.getCpuTimer() <= 0 ? 0 : process.getRemainingCpuTime() / process.getCpuTimer();
+        return sizeWeight * sizeShare
+                + ageWeight * unfinished
+                + priorityWeight * (Process.DEFAULT_PRIORITY - process.getPriority());
+    }
+
+    private Process pickVictim() {
+        candidates.clear();
+        for (Core core : cores) {
+            Process p = core.getCurrentProcess();
+            if (p != null) candidates.add(p);
+        }
+        for (IOArea device : ioDevices.getDevices()) {
+            for (Process inIo : device.getInService()) {
+                if (!candidates.contains(inIo)) { // pinned io keeps its core as well
+                    candidates.add(inIo);
+                }
+            }
+        }
+        if (dmaEngine != null) {
+            candidates.addAll(dmaEngine.getInService());
+        }
+        if (lockManager != null) {
+            candidates.addAll(lockManager.getBlockedProcesses());
+        }
+        Process best = null;
+        double bestScore = 0;
+        for (Process p : candidates) {
+            if (overcommit.getResidentGb(p.getId()) <= 0) continue;
+            double s = score(p);
+            if (best == null || s > bestScore) {
+                best = p;
+                bestScore = s;
+            }
+        }
+        return best;
+    }
+
+    private void kill(Process victim) {
+        for (Core core : cores) {
+            synchronized (core) {
+                if (core.getCurrentProcess() == victim) core.removeProcess();
+            }
+        }
+        ioDevices.remove(victim); // pinned victims may also be queued on a device
+        if (dmaEngine != null) {
+            dmaEngine.remove(victim);
+        }
+        double residentGb = overcommit.getResidentGb(victim.getId());
+        Log.w(TAG, "killed process " + victim.getId() + " (" + String.format("%.1f", residentGb) + "GB resident, score "
+                + String.format("%.2f", score(victim)) + ")");
+        victim.setCurrentState(Process.ProcessState.KILLED);
+        memory.release(victim.getId(), victim.getMemoryRequirement());
+        kills++;
+        gbReclaimed += residentGb;
+        cpuLostS += victim.getCpuProgress();
+        onKilled.accept(victim, penalty);
+    }
+
+    /** Clears statistics. */
+    public void reset() {
+        kills = 0;
+        gbReclaimed = 0;
+        cpuLostS = 0;
+    }
+
+    // --- statistics --- //
+
+    public double getThreshold() {
+        return threshold;
+    }
+
+    public int getPenalty() {
+        return penalty;
+    }
+
+    public int getKills() {
+        return kills;
+    }
+
+    public double getGbReclaimed() {
+        return gbReclaimed;
+    }
+
+    /** @return cpu seconds of work lost with killed processes. */
+    public double getCpuLostS() {
+        return cpuLostS;
+    }
+}
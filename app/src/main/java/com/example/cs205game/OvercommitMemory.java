@@ -0,0 +1,168 @@
+package com.example.cs205game;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Memory that admits processes beyond physical capacity, up to an overcommit ratio. An
+ * allocation only commits memory; a process touches a growing share of its commitment as it
+ * makes cpu progress (half at admission, all of it by completion), and only touched memory is
+ * resident. When the resident total nears capacity an {@link OomKiller} has to reclaim it.
+ */
+public class OvercommitMemory implements MemoryBackend, ExecutionHook {
+    public static final double CONSERVATIVE_RATIO = 1.25;
+    public static final double AGGRESSIVE_RATIO = 2.0;
+    public static final double DEFAULT_INITIAL_TOUCH_FRACTION = MemoryAccessGenerator.DEFAULT_HOT_FRACTION;
+
+    // per process commitment and how much of it has been touched
+    private static final class Commitment {
+        int committedGb;
+        double touchedGb;
+    }
+
+    private final int capacity; // physical, in GB
+    private final double overcommitRatio;
+    private final double initialTouchFraction;
+    private final Map<Integer, Commitment> commitments = new HashMap<>();
+    private int committedGb = 0;
+    private double residentGb = 0;
+    private double peakResidentGb = 0;
+    private int failedAllocations = 0;
+
+    public OvercommitMemory(int capacity, double overcommitRatio) {
+        this(capacity, overcommitRatio, DEFAULT_INITIAL_TOUCH_FRACTION);
+    }
+
+    /**
+     * @param capacity Physical capacity in GB.
+     * @param overcommitRatio Memory that may be committed, as a multiple of capacity.
+     * @param initialTouchFraction Share of an allocation that is resident at admission.
+     */
+    public OvercommitMemory(int capacity, double overcommitRatio, double initialTouchFraction) {
+        if (capacity <= 0 || overcommitRatio < 1.0 || initialTouchFraction < 0 || initialTouchFraction > 1) {
+            throw new IllegalArgumentException("invalid overcommit: " + capacity + "GB x " + overcommitRatio
+                    + ", initial touch " + initialTouchFraction);
+        }
+        this.capacity = capacity;
+        this.overcommitRatio = overcommitRatio;
+        this.initialTouchFraction = initialTouchFraction;
+    }
+
+    @Override
+    public String getName() {
+        return "overcommit x" + overcommitRatio;
+    }
+
+    @Override
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /** @return physical memory not yet touched, in GB. */
+    @Override
+    public synchronized int getAvailableMemory() {
+        return Math.max(0, capacity - (int) Math.ceil(residentGb));
+    }
+
+    /** Admission only needs commit headroom, resident memory is the oom killer's problem. */
+    @Override
+    public synchronized boolean canAllocate(int amount) {
+        return committedGb + amount <= getCommitLimitGb();
+    }
+
+    @Override
+    public synchronized boolean allocate(int ownerId, int amount) {
+        if (amount <= 0) return true;
+        if (!canAllocate(amount)) {
+            failedAllocations++;
+            return false;
+        }
+        Commitment c = commitments.computeIfAbsent(ownerId, k -> new Commitment());
+        c.committedGb += amount;
+        committedGb += amount;
+        touch(c, c.touchedGb + amount * initialTouchFraction);
+        return true;
+    }
+
+    @Override
+    public synchronized int free(int ownerId, int amount) {
+        Commitment c = commitments.get(ownerId);
+        if (c == null || amount <= 0) return 0;
+        int freed = Math.min(amount, c.committedGb);
+        // touched memory is given back in proportion to the commitment released
+        double touchedFreed = c.committedGb == 0 ? 0 : c.touchedGb * freed / c.committedGb;
+        c.committedGb -= freed;
+        c.touchedGb -= touchedFreed;
+        committedGb -= freed;
+        residentGb = Math.max(0, residentGb - touchedFreed);
+        if (c.committedGb == 0) {
+            commitments.remove(ownerId);
+        }
+        return freed;
+    }
+
+    @Override
+    public synchronized void clear() {
+        commitments.clear();
+        committedGb = 0;
+        residentGb = 0;
+        peakResidentGb = 0;
+    }
+
+    /** Touches more of the running process's commitment as it progresses. */
+    @Override
+    public synchronized void onExecute(Core core, Process process, double runS) {
+        Commitment c = commitments.get(process.getId());
+        if (c == null || process.getCpuTimer() <= 0) return;
+        double progress = Math.min(1.0, (process.getCpuProgress() + runS) / process.getCpuTimer());
+        touch(c, c.committedGb * (initialTouchFraction + (1.0 - initialTouchFraction) * progress));
+    }
+
+    // touched memory only grows (until freed)
+    private void touch(Commitment c, double touchedGb) {
+        double target = Math.min(c.committedGb, touchedGb);
+        if (target <= c.touchedGb) return;
+        residentGb += target - c.touchedGb;
+        c.touchedGb = target;
+        peakResidentGb = Math.max(peakResidentGb, residentGb);
+    }
+
+    // --- inspection / statistics --- //
+
+    public double getOvercommitRatio() {
+        return overcommitRatio;
+    }
+
+    /** @return most memory that may be committed, in GB. */
+    public int getCommitLimitGb() {
+        return (int) Math.floor(capacity * overcommitRatio);
+    }
+
+    public synchronized int getCommittedGb() {
+        return committedGb;
+    }
+
+    /** @return memory actually touched by all processes, in GB (may exceed capacity). */
+    public synchronized double getResidentGb() {
+        return residentGb;
+    }
+
+    /** @return memory touched by one process, or 0 if it holds none. */
+    public synchronized double getResidentGb(int ownerId) {
+        Commitment c = commitments.get(ownerId);
+        return c == null ? 0 : c.touchedGb;
+    }
+
+    /** @return resident memory as a share of physical capacity. */
+    public synchronized double getPressure() {
+        return residentGb / capacity;
+    }
+
+    public synchronized double getPeakResidentGb() {
+        return peakResidentGb;
+    }
+
+    public synchronized int getFailedAllocations() {
+        return failedAllocations;
+    }
+}
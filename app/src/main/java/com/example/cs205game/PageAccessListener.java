@@ -0,0 +1,18 @@
+package com.example.cs205game;
+
+/**
+ * Observes the page references a running process makes (see {@link MemoryAccessGenerator}),
+ * e.g. to model page faults or tlb misses.
+ */
+public interface PageAccessListener {
+
+    /**
+     * @param core The core the process runs on.
+     * @param process The process making the reference.
+     * @param page Virtual page number within the process.
+     * @param write True if the reference writes the page.
+     * @param stallSoFarS Stall already charged for earlier references in this tick.
+     * @return extra stall in seconds caused by this reference.
+     */
+    double onPageAccess(Core core, Process process, int page, boolean write, double stallSoFarS);
+}
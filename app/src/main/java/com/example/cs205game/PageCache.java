@@ -0,0 +1,263 @@
+package com.example.cs205game;
+
+import android.util.Log;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * A block cache in front of the io devices, its capacity reserved from {@link Memory} so it
+ * competes with processes for the same gigabytes. A request covers {@code ioSize / MB_PER_BLOCK}
+ * device blocks starting at its block address.
+ * <ul>
+ *     <li>Reads whose blocks are all resident complete without touching a device; otherwise the
+ *     device only does the missing share of the request plus a read-ahead of the following
+ *     blocks.</li>
+ *     <li>Writes are absorbed as dirty blocks (write-back). Dirty blocks are flushed to the
+ *     devices as background work every flush interval or when evicted; a writer pushing the dirty
+ *     share past the dirty ratio writes the excess through itself.</li>
+ * </ul>
+ * Which block to evict is left to a {@link PageReplacementPolicy} (LRU, 2Q, ARC, ...).
+ */
+public class PageCache {
+    private static final String TAG = "PageCache";
+    public static final int OWNER_ID = -2; // memory owner of the cache's reservation
+    public static final int MB_PER_BLOCK = 16;
+    public static final int BLOCKS_PER_GB = 1024 / MB_PER_BLOCK;
+    public static final int DEFAULT_READ_AHEAD_BLOCKS = 8;
+    public static final double DEFAULT_FLUSH_INTERVAL_S = 5.0;
+    public static final double DEFAULT_DIRTY_RATIO = 0.2; // share of slots allowed dirty before writers throttle
+
+    private final Memory memory;
+    private final int requestedGb;
+    private final VirtualMemory.Replacement replacement;
+    private final int readAheadBlocks;
+    private final double flushIntervalS;
+    private final double dirtyRatio;
+    private final int deviceBlocks = SeekModel.DEFAULT_BLOCKS;
+    private int capacityGb = 0; // what memory actually granted
+    private int slots = 0;
+    private PageReplacementPolicy policy;
+    private final Set<Integer> resident = new HashSet<>();
+    private final LinkedHashSet<Integer> dirty = new LinkedHashSet<>(); // oldest first
+    private final Set<Integer> prefetched = new HashSet<>(); // read ahead, not yet asked for
+    private double sinceFlushS = 0;
+
+    // statistics
+    private long blockLookups = 0;
+    private long blockHits = 0;
+    private int requests = 0;
+    private int requestsServed = 0; // completed without a device
+    private long readAheadBlocksLoaded = 0;
+    private long readAheadBlocksUsed = 0;
+    private long writebackBlocks = 0;
+    private long throttledBlocks = 0; // written through because too much was dirty
+    private long unchargedWritebackBlocks = 0; // devices that do not model background io
+
+    public PageCache(Memory memory, int capacityGb, VirtualMemory.Replacement replacement) {
+        this(memory, capacityGb, replacement, DEFAULT_READ_AHEAD_BLOCKS, DEFAULT_FLUSH_INTERVAL_S, DEFAULT_DIRTY_RATIO);
+    }
+
+    /**
+     * @param memory Memory the cache reserves its capacity from.
+     * @param capacityGb GB to reserve; less is used if memory cannot grant it.
+     * @param replacement Eviction policy.
+     * @param readAheadBlocks Blocks loaded past the end of a read that missed.
+     * @param flushIntervalS Seconds between write-backs of all dirty blocks.
+     * @param dirtyRatio Share of the slots that may be dirty before writers are throttled.
+     */
+    public PageCache(Memory memory, int capacityGb, VirtualMemory.Replacement replacement, int readAheadBlocks,
+                     double flushIntervalS, double dirtyRatio) {
+        if (capacityGb < 0 || readAheadBlocks < 0 || flushIntervalS <= 0 || dirtyRatio < 0 || dirtyRatio > 1) {
+            throw new IllegalArgumentException("invalid page cache: " + capacityGb + "GB, read ahead " + readAheadBlocks
+                    + ", flush " + flushIntervalS + "s, dirty ratio " + dirtyRatio);
+        }
+        this.memory = memory;
+        this.requestedGb = capacityGb;
+        this.replacement = replacement;
+        this.readAheadBlocks = readAheadBlocks;
+        this.flushIntervalS = flushIntervalS;
+        this.dirtyRatio = dirtyRatio;
+        reserve();
+    }
+
+    // takes the capacity out of memory, as much of it as is free
+    private void reserve() {
+        int granted = Math.min(requestedGb, memory.getAvailableMemory());
+        if (granted > 0 && !memory.tryAllocate(OWNER_ID, granted)) {
+            granted = 0;
+        }
+        if (granted < requestedGb) {
+            Log.w(TAG, "Page cache got " + granted + "GB of " + requestedGb + "GB requested");
+        }
+        capacityGb = granted;
+        slots = granted * BLOCKS_PER_GB;
+        policy = replacement.create(Math.max(1, slots));
+    }
+
+    /**
+     * Looks the request's blocks up, loading or dirtying them.
+     * @param process The request.
+     * @param devices Devices that take write-back of evicted dirty blocks.
+     * @return share of the request's io the device still has to do: 0 if the cache served it,
+     * above 1 when read-ahead adds to a miss.
+     */
+    public synchronized double serve(IOProcess process, IODevices devices) {
+        requests++;
+        int count = (int) Math.max(1, Math.ceil(process.getIoSizeMb() / MB_PER_BLOCK));
+        if (slots == 0) return 1.0;
+        int first = process.getBlockAddress();
+        double deviceBlocksNeeded;
+        if (process.isWrite()) {
+            for (int i = 0; i < count; i++) {
+                int block = (first + i) % deviceBlocks;
+                lookup(block, devices);
+                dirty.remove(block);
+                dirty.add(block); // most recently dirtied last
+            }
+            long limit = (long) (dirtyRatio * slots);
+            int excess = 0;
+            for (Iterator<Integer> it = dirty.iterator(); it.hasNext() && dirty.size() > limit; ) {
+                it.next();
+                it.remove();
+                excess++;
+            }
+            throttledBlocks += excess;
+            deviceBlocksNeeded = excess;
+        } else {
+            int missing = 0;
+            for (int i = 0; i < count; i++) {
+                if (!lookup((first + i) % deviceBlocks, devices)) missing++;
+            }
+            if (missing > 0) {
+                for (int i = count; i < count + readAheadBlocks; i++) {
+                    int block = (first + i) % deviceBlocks;
+                    if (resident.contains(block)) continue;
+                    load(block, devices);
+                    prefetched.add(block);
+                    readAheadBlocksLoaded++;
+                    missing++;
+                }
+            }
+            deviceBlocksNeeded = missing;
+        }
+        if (deviceBlocksNeeded == 0) requestsServed++;
+        return deviceBlocksNeeded / count;
+    }
+
+    // one block access: a hit, or a miss that loads it
+    private boolean lookup(int block, IODevices devices) {
+        blockLookups++;
+        long key = PageReplacementPolicy.key(0, block);
+        if (resident.contains(block)) {
+            blockHits++;
+            if (prefetched.remove(block)) readAheadBlocksUsed++;
+            policy.onAccess(key);
+            return true;
+        }
+        load(block, devices);
+        return false;
+    }
+
+    private void load(int block, IODevices devices) {
+        long key = PageReplacementPolicy.key(0, block);
+        while (resident.size() >= slots) {
+            long victim = policy.evict(key);
+            if (victim == PageReplacementPolicy.NO_PAGE) break;
+            int victimBlock = PageReplacementPolicy.pageOf(victim);
+            resident.remove(victimBlock);
+            prefetched.remove(victimBlock);
+            if (dirty.remove(victimBlock)) {
+                writeBack(victimBlock, devices);
+            }
+        }
+        resident.add(block);
+        policy.onInsert(key);
+    }
+
+    // charges one block of write-back to the device holding it
+    private void writeBack(int block, IODevices devices) {
+        writebackBlocks++;
+        IOArea device = devices.getDevice(block % devices.size());
+        if (!device.addBackgroundWork((double) MB_PER_BLOCK / IOProcess.MB_PER_IO_S)) {
+            unchargedWritebackBlocks++;
+        }
+    }
+
+    /** Flushes every dirty block once the flush interval has passed. */
+    public synchronized void update(double deltaTime, IODevices devices) {
+        sinceFlushS += deltaTime;
+        if (sinceFlushS < flushIntervalS) return;
+        sinceFlushS = 0;
+        if (dirty.isEmpty()) return;
+        Log.d(TAG, "Flushing " + dirty.size() + " dirty blocks");
+        for (int block : dirty) {
+            writeBack(block, devices);
+        }
+        dirty.clear();
+    }
+
+    /**
+     * Empties the cache and its statistics and takes its capacity out of memory again.
+     * Call after the memory itself has been cleared.
+     */
+    public synchronized void clear() {
+        resident.clear();
+        dirty.clear();
+        prefetched.clear();
+        sinceFlushS = 0;
+        blockLookups = 0;
+        blockHits = 0;
+        requests = 0;
+        requestsServed = 0;
+        readAheadBlocksLoaded = 0;
+        readAheadBlocksUsed = 0;
+        writebackBlocks = 0;
+        throttledBlocks = 0;
+        unchargedWritebackBlocks = 0;
+        reserve();
+    }
+
+    // --- statistics --- //
+
+    public synchronized int getCapacityGb() {
+        return capacityGb;
+    }
+
+    public String getPolicyName() {
+        return replacement.name();
+    }
+
+    public synchronized int getDirtyBlocks() {
+        return dirty.size();
+    }
+
+    /** @return share of block lookups that were resident. */
+    public synchronized double getHitRate() {
+        return blockLookups == 0 ? 0 : (double) blockHits / blockLookups;
+    }
+
+    /** @return share of requests completed without a device. */
+    public synchronized double getRequestHitRate() {
+        return requests == 0 ? 0 : (double) requestsServed / requests;
+    }
+
+    /** @return share of read-ahead blocks that were asked for before being evicted. */
+    public synchronized double getReadAheadAccuracy() {
+        return readAheadBlocksLoaded == 0 ? 0 : (double) readAheadBlocksUsed / readAheadBlocksLoaded;
+    }
+
+    public synchronized double getWritebackGb() {
+        return writebackBlocks / (double) BLOCKS_PER_GB;
+    }
+
+    public synchronized long getThrottledBlocks() {
+        return throttledBlocks;
+    }
+
+    public synchronized long getUnchargedWritebackBlocks() {
+        return unchargedWritebackBlocks;
+    }
+}
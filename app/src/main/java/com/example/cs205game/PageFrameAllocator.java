@@ -0,0 +1,590 @@
+package com.example.cs205game;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Physical memory as an array of page frames tracked in a bitmap (1 = in use), with a page
+ * table per owner. Each GB is split into {@code framesPerGb} frames. An allocation first looks
+ * for one contiguous run of free frames (first fit) and, unless contiguity is required, falls
+ * back to gathering scattered free frames. Searches scan the bitmap a 64-bit word at a time, so
+ * hundreds of thousands of frames cost only a few thousand word reads per allocation.
+ * <p>
+ * Optionally, whole aligned blocks of {@code hugeFrames} frames are mapped as huge pages for
+ * large allocations: one tlb entry then covers the whole block, but the block needs an aligned
+ * free run (falling back to base pages when fragmentation leaves none) and cannot be moved by
+ * compaction.
+ */
+public class PageFrameAllocator implements MemoryBackend, HugePageMap {
+    private static final long ALL_USED = -1L;
+    private static final int NO_OWNER = Integer.MIN_VALUE; // reverse map entry for a free frame
+    public static final int DEFAULT_HUGE_THRESHOLD_GB = 9; // the large jobs ProcessManager generates
+
+    /** When allocations are backed by huge pages. */
+    public enum HugePages {
+        NEVER,
+        LARGE_JOBS, // allocations of at least the threshold
+        ALWAYS // every allocation of at least one huge page
+    }
+
+    private final int capacity; // in GB
+    private final int framesPerGb;
+    private final int totalFrames;
+    private final long[] bitmap;
+    private final boolean requireContiguous; // model segments that must be physically contiguous
+    private final Map<Integer, PageTable> pageTables = new HashMap<>();
+    // reverse map so a frame can be moved without searching every page table
+    private final int[] frameOwner;
+    private final int[] framePage;
+    private int freeFrames;
+    private int scatterHint = 0; // next-fit start for scattered allocations
+    private final HugePages hugePages;
+    private final int hugeFrames; // frames per huge page
+    private final int hugeThresholdGb;
+    private final long[] hugeBitmap; // 1 = frame belongs to a huge page
+    private final Map<Integer, BitSet> hugeBlocks = new HashMap<>(); // owner -> virtual blocks mapped huge
+    private int hugeFramesInUse = 0;
+
+    // placement statistics
+    private int contiguousAllocations = 0;
+    private int scatteredAllocations = 0;
+    private int failedAllocations = 0;
+    private int placementChecks = 0; // allocations with enough free frames that had to be placed
+    private int fragmentationRefusals = 0; // of those, refused because no free run was long enough
+    private int hugeMappings = 0; // huge pages mapped
+    private int hugeFallbacks = 0; // huge pages wanted but mapped as base pages (no aligned free run)
+    private int hugeSplits = 0; // huge pages demoted to base pages by a partial free
+
+    /**
+     * @param capacity Capacity in GB.
+     * @param framesPerGb Page frames per GB (e.g. 256 for 4 MB pages, 262144 for 4 KB pages).
+     * @param requireContiguous If true, an allocation fails unless one free run can hold it.
+     */
+    public PageFrameAllocator(int capacity, int framesPerGb, boolean requireContiguous) {
+        this(capacity, framesPerGb, requireContiguous, HugePages.NEVER, framesPerGb, DEFAULT_HUGE_THRESHOLD_GB);
+    }
+
+    /**
+     * @param capacity Capacity in GB.
+     * @param framesPerGb Page frames per GB.
+     * @param requireContiguous If true, an allocation fails unless one free run can hold it.
+     * @param hugePages When to back allocations with huge pages.
+     * @param hugeFrames Frames per huge page (e.g. framesPerGb for 1 GB pages).
+     * @param hugeThresholdGb Smallest allocation that gets huge pages under LARGE_JOBS.
+     */
+    public PageFrameAllocator(int capacity, int framesPerGb, boolean requireContiguous,
+                              HugePages hugePages, int hugeFrames, int hugeThresholdGb) {
+        if (capacity <= 0 || framesPerGb <= 0 || (long) capacity * framesPerGb > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("invalid frame geometry: " + capacity + "GB x " + framesPerGb);
+        }
+        if (hugeFrames <= 0 || Integer.bitCount(hugeFrames) != 1) {
+            throw new IllegalArgumentException("huge page size must be a power of two frames: " + hugeFrames);
+        }
+        this.hugePages = hugePages;
+        this.hugeFrames = hugeFrames;
+        this.hugeThresholdGb = hugeThresholdGb;
+        this.capacity = capacity;
+        this.framesPerGb = framesPerGb;
+        this.totalFrames = capacity * framesPerGb;
+        this.bitmap = new long[(totalFrames + 63) >>> 6];
+        this.requireContiguous = requireContiguous;
+        this.frameOwner = new int[totalFrames];
+        this.framePage = new int[totalFrames];
+        this.hugeBitmap = new long[bitmap.length];
+        clear();
+    }
+
+    @Override
+    public String getName() {
+        String name = requireContiguous ? "page-frame (contiguous)" : "page-frame";
+        return hugePages == HugePages.NEVER ? name : name + " + " + hugeFrames + "-frame huge pages";
+    }
+
+    @Override
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public int getAvailableMemory() {
+        return freeFrames / framesPerGb;
+    }
+
+    @Override
+    public boolean canAllocate(int amount) {
+        int pages = amount * framesPerGb;
+        if (pages > freeFrames) return false;
+        // a query only: admission asks before every attempt, counting here would inflate the stats
+        return !requireContiguous || findFreeRun(pages) >= 0;
+    }
+
+    @Override
+    public boolean allocate(int ownerId, int amount) {
+        if (amount <= 0) return true;
+        int pages = amount * framesPerGb;
+        if (pages > freeFrames) {
+            failedAllocations++;
+            return false;
+        }
+        PageTable table = pageTables.get(ownerId);
+        if (table == null) {
+            table = new PageTable(ownerId, pages);
+            pageTables.put(ownerId, table);
+        }
+
+        placementChecks++;
+        int wantedHuge = hugePagesFor(amount, table);
+        int remaining = pages;
+        int fallbacks = 0; // counted only if the allocation succeeds, retries would inflate it
+        if (wantedHuge > 0 && requireContiguous) {
+            // the whole allocation in one run, aligned so its leading blocks can be huge pages
+            int start = findAlignedFreeRun(pages, hugeFrames);
+            if (start >= 0) {
+                int firstPage = table.size();
+                markRange(start, pages, true);
+                for (int f = start; f < start + pages; f++) {
+                    map(table, f);
+                }
+                for (int b = 0; b < wantedHuge; b++) {
+                    markHuge(table.getOwnerId(), firstPage + b * hugeFrames, start + b * hugeFrames);
+                }
+                contiguousAllocations++;
+                freeFrames -= pages;
+                return true;
+            }
+            fallbacks = wantedHuge;
+        } else if (wantedHuge > 0) {
+            for (int b = 0; b < wantedHuge; b++) {
+                int start = findAlignedFreeRun(hugeFrames, hugeFrames);
+                if (start < 0) {
+                    fallbacks = wantedHuge - b; // fragmented: the rest gets base pages
+                    break;
+                }
+                int firstPage = table.size();
+                markRange(start, hugeFrames, true);
+                for (int f = start; f < start + hugeFrames; f++) {
+                    map(table, f);
+                }
+                markHuge(table.getOwnerId(), firstPage, start);
+                remaining -= hugeFrames;
+            }
+        }
+
+        int runStart = remaining == 0 ? -1 : findFreeRun(remaining);
+        if (remaining == 0) {
+            contiguousAllocations++;
+        } else if (runStart >= 0) {
+            markRange(runStart, remaining, true);
+            for (int f = runStart; f < runStart + remaining; f++) {
+                map(table, f);
+            }
+            contiguousAllocations++;
+        } else if (requireContiguous) {
+            failedAllocations++;
+            fragmentationRefusals++;
+            if (table.size() == 0) pageTables.remove(ownerId);
+            return false;
+        } else {
+            gatherScattered(table, remaining);
+            scatteredAllocations++;
+        }
+        hugeFallbacks += fallbacks;
+        freeFrames -= pages;
+        return true;
+    }
+
+    @Override
+    public int free(int ownerId, int amount) {
+        PageTable table = pageTables.get(ownerId);
+        if (table == null || amount <= 0) return 0;
+        int pages = Math.min(amount * framesPerGb, table.size());
+        unmarkHugeFrom(table, table.size() - pages);
+        for (int i = 0; i < pages; i++) {
+            int frame = table.removeLast();
+            clearBit(frame);
+            frameOwner[frame] = NO_OWNER;
+        }
+        freeFrames += pages;
+        if (table.size() == 0) {
+            pageTables.remove(ownerId);
+        }
+        return pages / framesPerGb;
+    }
+
+    @Override
+    public void clear() {
+        java.util.Arrays.fill(bitmap, 0L);
+        // frames past the end of the last word are permanently "used" so scans never return them
+        int tail = totalFrames & 63;
+        if (tail != 0) {
+            bitmap[bitmap.length - 1] = ALL_USED << tail;
+        }
+        java.util.Arrays.fill(frameOwner, NO_OWNER);
+        java.util.Arrays.fill(hugeBitmap, 0L);
+        hugeBlocks.clear();
+        hugeFramesInUse = 0;
+        pageTables.clear();
+        freeFrames = totalFrames;
+        scatterHint = 0;
+    }
+
+    /** @return hugeFrames for pages inside a huge page, else 1. */
+    @Override
+    public int getTranslationSpan(int ownerId, int page) {
+        BitSet blocks = hugeBlocks.get(ownerId);
+        return blocks != null && page >= 0 && blocks.get(page / hugeFrames) ? hugeFrames : 1;
+    }
+
+    // --- huge pages --- //
+
+    // number of huge pages an allocation should get, 0 if none
+    private int hugePagesFor(int amount, PageTable table) {
+        if (hugePages == HugePages.NEVER) return 0;
+        if (hugePages == HugePages.LARGE_JOBS && amount < hugeThresholdGb) return 0;
+        if (table.size() % hugeFrames != 0) return 0; // virtual side must be aligned too
+        return amount * framesPerGb / hugeFrames;
+    }
+
+    private void markHuge(int ownerId, int firstPage, int firstFrame) {
+        for (int f = firstFrame; f < firstFrame + hugeFrames; f++) {
+            hugeBitmap[f >>> 6] |= 1L << f;
+        }
+        hugeBlocks.computeIfAbsent(ownerId, k -> new BitSet()).set(firstPage / hugeFrames);
+        hugeFramesInUse += hugeFrames;
+        hugeMappings++;
+    }
+
+    // pages from newSize up are being unmapped: their huge pages end, a cut one is demoted
+    private void unmarkHugeFrom(PageTable table, int newSize) {
+        BitSet blocks = hugeBlocks.get(table.getOwnerId());
+        if (blocks == null) return;
+        int cut = newSize / hugeFrames;
+        if (newSize % hugeFrames != 0 && blocks.get(cut)) {
+            hugeSplits++; // its lower part stays mapped, as base pages
+        }
+        for (int b = blocks.nextSetBit(cut); b >= 0; b = blocks.nextSetBit(b + 1)) {
+            for (int p = b * hugeFrames; p < (b + 1) * hugeFrames; p++) {
+                int frame = table.getFrame(p);
+                hugeBitmap[frame >>> 6] &= ~(1L << frame);
+            }
+            hugeFramesInUse -= hugeFrames;
+        }
+        blocks.clear(cut, Integer.MAX_VALUE);
+        if (blocks.isEmpty()) {
+            hugeBlocks.remove(table.getOwnerId());
+        }
+    }
+
+    /** @return true if the frame is part of a huge page (and so cannot be relocated). */
+    public boolean isHugeFrame(int frame) {
+        return (hugeBitmap[frame >>> 6] & (1L << frame)) != 0;
+    }
+
+    public HugePages getHugePages() {
+        return hugePages;
+    }
+
+    public int getHugeFrames() {
+        return hugeFrames;
+    }
+
+    public int getHugeMappings() {
+        return hugeMappings;
+    }
+
+    public int getHugeFallbacks() {
+        return hugeFallbacks;
+    }
+
+    public int getHugeSplits() {
+        return hugeSplits;
+    }
+
+    /** @return share of allocated frames that belong to huge pages. */
+    public double getHugePageShare() {
+        int used = totalFrames - freeFrames;
+        return used == 0 ? 0 : (double) hugeFramesInUse / used;
+    }
+
+    /** @return share of wanted huge pages that could be mapped as huge pages. */
+    public double getHugeSuccessRate() {
+        int wanted = hugeMappings + hugeFallbacks;
+        return wanted == 0 ? 1.0 : (double) hugeMappings / wanted;
+    }
+
+    // --- inspection --- //
+
+    public int getFramesPerGb() {
+        return framesPerGb;
+    }
+
+    public int getTotalFrames() {
+        return totalFrames;
+    }
+
+    public int getFreeFrames() {
+        return freeFrames;
+    }
+
+    /** @return the owner's page table, or null if it holds no frames. */
+    public PageTable getPageTable(int ownerId) {
+        return pageTables.get(ownerId);
+    }
+
+    /** @return true if the frame is allocated. */
+    public boolean isFrameUsed(int frame) {
+        return (bitmap[frame >>> 6] & (1L << frame)) != 0;
+    }
+
+    public int getContiguousAllocations() {
+        return contiguousAllocations;
+    }
+
+    public int getScatteredAllocations() {
+        return scatteredAllocations;
+    }
+
+    public int getFailedAllocations() {
+        return failedAllocations;
+    }
+
+    /** @return allocations that had enough free frames and went on to placement. */
+    public int getPlacementChecks() {
+        return placementChecks;
+    }
+
+    /** @return placement attempts refused only because no free run was long enough. */
+    public int getFragmentationRefusals() {
+        return fragmentationRefusals;
+    }
+
+    public boolean isContiguousRequired() {
+        return requireContiguous;
+    }
+
+    /** @return the owner of an allocated frame. */
+    public int getFrameOwner(int frame) {
+        if (!isFrameUsed(frame)) {
+            throw new IllegalArgumentException("frame " + frame + " is free");
+        }
+        return frameOwner[frame];
+    }
+
+    /** @return length in frames of the longest run of free frames. */
+    public int getLargestFreeRun() {
+        int best = 0;
+        int run = 0;
+        for (int w = 0; w < bitmap.length; w++) {
+            long used = bitmap[w];
+            if (used == 0) {
+                run += 64;
+                continue;
+            }
+            if (used == ALL_USED) {
+                best = Math.max(best, run);
+                run = 0;
+                continue;
+            }
+            int bit = 0;
+            while (bit < 64) {
+                long shifted = used >>> bit;
+                if ((shifted & 1L) == 0) {
+                    int len = shifted == 0 ? 64 - bit : Math.min(Long.numberOfTrailingZeros(shifted), 64 - bit);
+                    run += len;
+                    bit += len;
+                } else {
+                    best = Math.max(best, run);
+                    run = 0;
+                    bit += Math.min(Long.numberOfTrailingZeros(~shifted), 64 - bit);
+                }
+            }
+        }
+        return Math.max(best, run);
+    }
+
+    /**
+     * @return external fragmentation: 1 - largestFreeRun / freeFrames
+     * (0 when all free memory is one run, approaching 1 when it is shredded).
+     */
+    public double getExternalFragmentation() {
+        return freeFrames == 0 ? 0 : 1.0 - (double) getLargestFreeRun() / freeFrames;
+    }
+
+    // --- bitmap primitives --- //
+
+    /**
+     * First-fit search for {@code length} consecutive free frames, one word at a time.
+     * @return the first frame of the run, or -1 if there is none.
+     */
+    int findFreeRun(int length) {
+        if (length <= 0) return 0;
+        int runStart = -1;
+        int runLength = 0;
+        for (int w = 0; w < bitmap.length; w++) {
+            long used = bitmap[w];
+            if (used == 0) { // whole word free
+                if (runLength == 0) runStart = w << 6;
+                runLength += 64;
+                if (runLength >= length) return runStart;
+                continue;
+            }
+            if (used == ALL_USED) { // whole word used
+                runLength = 0;
+                continue;
+            }
+            int bit = 0;
+            while (bit < 64) {
+                long shifted = used >>> bit;
+                if ((shifted & 1L) == 0) {
+                    int len = shifted == 0 ? 64 - bit : Math.min(Long.numberOfTrailingZeros(shifted), 64 - bit);
+                    if (runLength == 0) runStart = (w << 6) + bit;
+                    runLength += len;
+                    if (runLength >= length) return runStart;
+                    bit += len;
+                } else {
+                    runLength = 0;
+                    bit += Math.min(Long.numberOfTrailingZeros(~shifted), 64 - bit);
+                }
+            }
+        }
+        return -1;
+    }
+
+    /** @return first frame of an {@code align}-aligned run of {@code length} free frames, or -1. */
+    int findAlignedFreeRun(int length, int align) {
+        for (int start = 0; start + length <= totalFrames; start += align) {
+            if (isRangeFree(start, length)) return start;
+        }
+        return -1;
+    }
+
+    // true if no frame in [start, start + length) is used, checked a word at a time
+    private boolean isRangeFree(int start, int length) {
+        int end = start + length;
+        int frame = start;
+        while (frame < end) {
+            int w = frame >>> 6;
+            int bit = frame & 63;
+            int count = Math.min(64 - bit, end - frame);
+            long mask = count == 64 ? ALL_USED : ((1L << count) - 1) << bit;
+            if ((bitmap[w] & mask) != 0) return false;
+            frame += count;
+        }
+        return true;
+    }
+
+    /** @return the first free frame at or after {@code from} (wrapping), or -1 if memory is full. */
+    int nextFreeFrame(int from) {
+        if (freeFrames == 0) return -1;
+        int startWord = from >>> 6;
+        for (int i = 0; i <= bitmap.length; i++) {
+            int w = (startWord + i) % bitmap.length;
+            long free = ~bitmap[w];
+            if (i == 0) free &= ALL_USED << (from & 63); // ignore frames before 'from' in the first word
+            if (free != 0) {
+                return (w << 6) + Long.numberOfTrailingZeros(free);
+            }
+        }
+        return -1;
+    }
+
+    /** @return the first used frame at or after {@code from} (no wrapping), or -1 if there is none. */
+    int nextUsedFrame(int from) {
+        for (int w = from >>> 6; w < bitmap.length; w++) {
+            long used = bitmap[w];
+            if (w == from >>> 6) used &= ALL_USED << (from & 63);
+            if (used != 0) {
+                int frame = (w << 6) + Long.numberOfTrailingZeros(used);
+                return frame < totalFrames ? frame : -1; // tail padding is not a real frame
+            }
+        }
+        return -1;
+    }
+
+    /** @return the first used frame at or after {@code from} that is not part of a huge page, or -1. */
+    int nextMovableFrame(int from) {
+        int frame = nextUsedFrame(from);
+        while (frame >= 0 && isHugeFrame(frame)) {
+            frame = nextUsedFrame((frame / hugeFrames + 1) * hugeFrames); // huge pages are aligned
+        }
+        return frame;
+    }
+
+    /** @return the first free frame at or after {@code from} (no wrapping), or -1 if there is none. */
+    int nextFreeFrameNoWrap(int from) {
+        for (int w = from >>> 6; w < bitmap.length; w++) {
+            long free = ~bitmap[w];
+            if (w == from >>> 6) free &= ALL_USED << (from & 63);
+            if (free != 0) {
+                return (w << 6) + Long.numberOfTrailingZeros(free);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Moves the page held in frame {@code from} to the free frame {@code to} and remaps the
+     * owner's page table. The caller models the copy cost.
+     * @return the owner of the moved page.
+     */
+    int relocateFrame(int from, int to) {
+        if (!isFrameUsed(from) || isFrameUsed(to) || isHugeFrame(from)) {
+            throw new IllegalStateException("cannot move frame " + from + " to " + to);
+        }
+        int owner = frameOwner[from];
+        int page = framePage[from];
+        pageTables.get(owner).setFrame(page, to);
+        clearBit(from);
+        setBit(to);
+        frameOwner[from] = NO_OWNER;
+        frameOwner[to] = owner;
+        framePage[to] = page;
+        return owner;
+    }
+
+    // appends a frame to a page table and records the reverse mapping
+    private void map(PageTable table, int frame) {
+        frameOwner[frame] = table.getOwnerId();
+        framePage[frame] = table.size();
+        table.append(frame);
+    }
+
+    // next-fit collection of individual free frames
+    private void gatherScattered(PageTable table, int pages) {
+        int frame = scatterHint;
+        for (int i = 0; i < pages; i++) {
+            frame = nextFreeFrame(frame);
+            setBit(frame);
+            map(table, frame);
+            frame = frame + 1 == totalFrames ? 0 : frame + 1;
+        }
+        scatterHint = frame;
+    }
+
+    /** Marks {@code length} frames starting at {@code start} as used or free, a word at a time. */
+    void markRange(int start, int length, boolean used) {
+        int end = start + length; // exclusive
+        int frame = start;
+        while (frame < end) {
+            int w = frame >>> 6;
+            int bit = frame & 63;
+            int count = Math.min(64 - bit, end - frame);
+            long mask = count == 64 ? ALL_USED : ((1L << count) - 1) << bit;
+            if (used) {
+                bitmap[w] |= mask;
+            } else {
+                bitmap[w] &= ~mask;
+            }
+            frame += count;
+        }
+    }
+
+    void setBit(int frame) {
+        bitmap[frame >>> 6] |= 1L << frame;
+    }
+
+    void clearBit(int frame) {
+        bitmap[frame >>> 6] &= ~(1L << frame);
+    }
+}
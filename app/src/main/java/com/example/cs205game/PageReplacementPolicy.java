@@ -0,0 +1,49 @@
+package com.example.cs205game;
+
+/**
+ * Chooses which resident page to evict when a new page needs a frame.
+ * Pages are identified by opaque long keys (see {@link #key(int, int)}), so the same
+ * policies can manage any fixed pool of slots.
+ */
+public interface PageReplacementPolicy {
+    long NO_PAGE = Long.MIN_VALUE;
+
+    /** @return a key combining an owner id and a page number. */
+    static long key(int ownerId, int page) {
+        return ((long) ownerId << 32) | (page & 0xffffffffL);
+    }
+
+    /** @return the owner id part of a key. */
+    static int ownerOf(long key) {
+        return (int) (key >> 32);
+    }
+
+    /** @return the page number part of a key. */
+    static int pageOf(long key) {
+        return (int) key;
+    }
+
+    /** @return a short name for logs and reports. */
+    String getName();
+
+    /** Records that a page was loaded into a free slot (after a miss). */
+    void onInsert(long key);
+
+    /** Records a hit on a resident page. */
+    void onAccess(long key);
+
+    /**
+     * Chooses a victim among resident pages and stops tracking it.
+     * @param incomingKey The page that needs the slot (used by adaptive policies such as ARC).
+     * @return the evicted key, or NO_PAGE if nothing is resident.
+     */
+    long evict(long incomingKey);
+
+    /** Stops tracking a resident page (e.g. its owner freed it). */
+    void remove(long key);
+
+    /** @return number of resident pages tracked. */
+    int size();
+
+    void clear();
+}
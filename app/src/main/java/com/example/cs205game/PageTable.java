@@ -0,0 +1,59 @@
+package com.example.cs205game;
+
+import java.util.Arrays;
+
+/**
+ * Per-process page table: maps virtual page numbers (0..size-1) to physical frame numbers.
+ * Grows as pages are mapped and shrinks from the top as they are unmapped.
+ */
+public class PageTable {
+    private final int ownerId;
+    private int[] frames;
+    private int size = 0;
+
+    public PageTable(int ownerId, int initialCapacity) {
+        this.ownerId = ownerId;
+        this.frames = new int[Math.max(1, initialCapacity)];
+    }
+
+    public int getOwnerId() {
+        return ownerId;
+    }
+
+    /** @return number of mapped pages. */
+    public int size() {
+        return size;
+    }
+
+    /** @return the frame backing a virtual page. */
+    public int getFrame(int virtualPage) {
+        if (virtualPage < 0 || virtualPage >= size) {
+            throw new IndexOutOfBoundsException("page " + virtualPage + " not mapped for owner " + ownerId);
+        }
+        return frames[virtualPage];
+    }
+
+    /** Remaps a virtual page to a different frame (used when memory is moved). */
+    public void setFrame(int virtualPage, int frame) {
+        if (virtualPage < 0 || virtualPage >= size) {
+            throw new IndexOutOfBoundsException("page " + virtualPage + " not mapped for owner " + ownerId);
+        }
+        frames[virtualPage] = frame;
+    }
+
+    /** Maps the next virtual page to the given frame. */
+    public void append(int frame) {
+        if (size == frames.length) {
+            frames = Arrays.copyOf(frames, frames.length * 2);
+        }
+        frames[size++] = frame;
+    }
+
+    /** Unmaps the highest virtual page. @return its frame. */
+    public int removeLast() {
+        if (size == 0) {
+            throw new IllegalStateException("page table for owner " + ownerId + " is empty");
+        }
+        return frames[--size];
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.cs205game;
+
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+/**
+ * Preemptive priority scheduling on effective priority (base priority raised by the lock protocol).
+ * Equal priorities are served in arrival order. A waiting process preempts a running one of
+ * strictly lower effective priority.
+ */
+public class PriorityReadyQueue implements ReadyQueue {
+
+    private static final class Entry {
+        final Process process;
+        final int priority; // snapshot, callers re-add the process when it changes
+        final long sequence;
+
+        Entry(Process process, long sequence) {
+            this.process = process;
+            this.priority = process.getEffectivePriority();
+            this.sequence = sequence;
+        }
+    }
+
+    private final PriorityQueue<Entry> heap = new PriorityQueue<>((a, b) -> {
+        int cmp = Integer.compare(b.priority, a.priority);
+        return cmp != 0 ? cmp : Long.compare(a.sequence, b.sequence);
+    });
+    private long sequence = 0;
+
+    @Override
+    public String getName() {
+        return "PRIORITY";
+    }
+
+    @Override
+    public synchronized void add(Process process) {
+        heap.offer(new Entry(process, sequence++));
+    }
+
+    @Override
+    public synchronized Process poll() {
+        Entry next = heap.poll();
+        return next == null ? null : next.process;
+    }
+
+    @Override
+    public synchronized boolean remove(Process process) {
+        return heap.removeIf(e -> e.process == process);
+    }
+
+    @Override
+    public synchronized int size() {
+        return heap.size();
+    }
+
+    @Override
+    public synchronized boolean isEmpty() {
+        return heap.isEmpty();
+    }
+
+    @Override
+    public synchronized void clear() {
+        heap.clear();
+    }
+
+    @Override
+    public synchronized void forEach(Consumer<Process> action) {
+        for (Entry e : heap) {
+            action.accept(e.process);
+        }
+    }
+
+    @Override
+    public synchronized Process peekPreemptor() {
+        Entry top = heap.peek();
+        return top == null ? null : top.process;
+    }
+}
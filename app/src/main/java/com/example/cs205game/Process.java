@@ -1,10 +1,14 @@
 package com.example.cs205game;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class Process {
     private static final AtomicInteger idCounter = new AtomicInteger(0); // Global ID counter using AtomicInteger for thread safety
     private static final double BUFFER_COOLDOWN = 1.5; // 1.5 seconds cooldown in buffer
+    public static final int DEFAULT_TICKETS = 100; // Share weight used by proportional-share schedulers
+    public static final int DEFAULT_PRIORITY = 0; // Base priority, higher runs first under priority scheduling
 
     /** Static method to reset the global ID counter. Call this when starting a new game. */
     public static void resetIdCounter() {
@@ -13,11 +17,15 @@ public class Process {
 
     public enum ProcessState {
         IN_QUEUE, // In the queue waiting to be processed
+        READY, // Admitted (memory allocated), waiting in the scheduler's ready queue for a core
         ON_CORE, // On a CPU core
+        WAITING_IO, // Only relevant for IOProcess, released its core and is waiting for the IO device
         IN_IO, // Only relevant for IOProcess
         IO_COMPLETED_WAITING_CORE, // Only relevant for IOProcess
+        BLOCKED, // Released its core while waiting for a shared resource lock
         IN_BUFFER, // In the buffer waiting to be consumed
-        CONSUMED // Process has been consumed
+        CONSUMED, // Process has been consumed
+        KILLED // Killed by the OOM killer to reclaim memory
     }
 
     protected final int id;
@@ -28,6 +36,13 @@ public class Process {
     protected double remainingCpuTime; // CPU time left (seconds)
     protected boolean processCompleted; // Overall completion flag (after buffer)
     protected ProcessState currentState;
+    protected int tickets = DEFAULT_TICKETS; // Proportional-share weight (lottery / stride)
+    protected double arrivalTimeS = 0; // Simulated time the process entered the queue
+    protected int priority = DEFAULT_PRIORITY; // Base priority assigned at spawn
+    protected int effectivePriority = DEFAULT_PRIORITY; // Base priority possibly raised by inheritance / ceiling
+    protected final List<CriticalSection> criticalSections = new ArrayList<>(); // Shared resource sections in cpu order
+    protected double stallRemainingS = 0; // Memory-system delay to serve before the next CPU progress
+    protected double totalStallS = 0; // All memory-system delay ever charged to this process
     private double bufferCooldown = BUFFER_COOLDOWN;
     private boolean readyForConsumption = false;
     private double bufferCooldownRemainingS;
@@ -76,6 +91,45 @@ public class Process {
         return currentState;
     }
 
+    public double getArrivalTimeS() {
+        return arrivalTimeS;
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    public int getEffectivePriority() {
+        return effectivePriority;
+    }
+
+    /** @return the first section not yet left (the last one once all are done), or null if none. */
+    public CriticalSection getCriticalSection() {
+        for (CriticalSection section : criticalSections) {
+            if (!section.isExited()) return section;
+        }
+        return criticalSections.isEmpty() ? null : criticalSections.get(criticalSections.size() - 1);
+    }
+
+    /** @return CPU seconds of work done so far. */
+    public double getCpuProgress() {
+        return cpuTimer - remainingCpuTime;
+    }
+
+    /** @return seconds of charged memory-system delay not yet served on a core. */
+    public double getStallRemainingS() {
+        return stallRemainingS;
+    }
+
+    /** @return total memory-system delay charged to this process. */
+    public double getTotalStallS() {
+        return totalStallS;
+    }
+
+    public int getTickets() {
+        return tickets;
+    }
+
     public double getBufferCooldownProgress() {
         return 1.0 - (bufferCooldown / BUFFER_COOLDOWN); // Calculate progress as a percentage
     }
@@ -98,6 +152,55 @@ public class Process {
         this.currentState = newState;
     }
 
+    public void setArrivalTimeS(double arrivalTimeS) {
+        this.arrivalTimeS = arrivalTimeS;
+    }
+
+    /** Sets the base priority and resets any boost. */
+    public void setPriority(int priority) {
+        this.priority = priority;
+        this.effectivePriority = priority;
+    }
+
+    /** Sets the boosted priority used by priority inheritance / ceiling protocols. */
+    public void setEffectivePriority(int effectivePriority) {
+        this.effectivePriority = effectivePriority;
+    }
+
+    /**
+     * Gives the process a critical section on a shared resource.
+     * @param criticalSection The section, or null for none.
+     */
+    public void setCriticalSection(CriticalSection criticalSection) {
+        criticalSections.clear();
+        if (criticalSection != null) {
+            criticalSections.add(criticalSection);
+        }
+    }
+
+    /**
+     * Adds a further critical section, entered after the ones already added are left.
+     * @param criticalSection The section, starting no earlier than the previous one ends.
+     */
+    public void addCriticalSection(CriticalSection criticalSection) {
+        if (!criticalSections.isEmpty()
+                && criticalSection.getStartS() < criticalSections.get(criticalSections.size() - 1).getEndS()) {
+            throw new IllegalArgumentException("critical sections must not overlap");
+        }
+        criticalSections.add(criticalSection);
+    }
+
+    /**
+     * Sets the proportional-share weight of this process.
+     * @param tickets Number of tickets, must be positive.
+     */
+    public void setTickets(int tickets) {
+        if (tickets <= 0) {
+            throw new IllegalArgumentException("tickets must be positive: " + tickets);
+        }
+        this.tickets = tickets;
+    }
+
     public void setProcessCompleted(boolean completed) {
         this.processCompleted = completed;
     }
@@ -132,6 +235,29 @@ public class Process {
          return true;
      }
 
+    /**
+     * Charges a delay (e.g. pages being copied by compaction) that the process serves on its core
+     * before making further CPU progress.
+     * @param seconds Delay in seconds.
+     */
+    public void addStall(double seconds) {
+        if (seconds <= 0) return;
+        this.stallRemainingS += seconds;
+        this.totalStallS += seconds;
+    }
+
+    /**
+     * Serves pending stall time out of a tick on the core.
+     * @param deltaTime Time on the core in seconds.
+     * @return the part of deltaTime left for CPU progress.
+     */
+    public double consumeStall(double deltaTime) {
+        if (stallRemainingS <= 0) return deltaTime;
+        double served = Math.min(stallRemainingS, deltaTime);
+        stallRemainingS -= served;
+        return deltaTime - served;
+    }
+
     public void updateBufferCooldown(double deltaTime) {
         if (!readyForConsumption && bufferCooldown > 0) {
             bufferCooldown -= deltaTime;
@@ -5,6 +5,8 @@ import android.util.Log;
 import java.util.LinkedList;
 import java.util.Queue;
 import java.util.Random;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
 
 public class ProcessManager {
     private static final String TAG = "ProcessManager";
@@ -20,21 +22,48 @@ public class ProcessManager {
     private static final int MIN_MEMORY_REQ = 1; // Minimum memory requirement
     private static final int MAX_MEMORY_REQ = 16; // Maximum memory requirement
     private static final double HIGH_MEMORY_PROBABILITY_FACTOR = 0.2; // Controls rarity of high memory reqs
+    private static final double THROTTLE_RETRY_S = 0.5; // Delay before retrying a throttled arrival
+    public static final double DEFAULT_WRITE_FRACTION = 0.5; // Share of io processes that write their data
 
     private double spawnTimer; // Timer for spawning processes
     private final Random random; // Random number generator
+    private final double loadFactor; // Divides the spawn interval (1.0 = normal game pace)
+    private double clockS = 0; // Simulated time since start, used to stamp arrivals
     private final Queue<Process> processQueue; // Queue of processes
     private int nextProcessId = 1; // Next process ID
+    private final AdmissionController admissionController; // Decides whether arrivals enter the system
+    private ToIntFunction<Process> ticketPolicy = p -> Process.DEFAULT_TICKETS; // Share weight for new processes
+    private Consumer<Process> processDecorator = p -> { }; // Extra per-process setup (priority, critical sections)
+    private double writeFraction = DEFAULT_WRITE_FRACTION; // Share of io processes that write
 
     public ProcessManager() {
-        random = new Random();
+        this(new AdmissionController());
+    }
+
+    public ProcessManager(AdmissionController admissionController) {
+        this(admissionController, new Random(), 1.0);
+    }
+
+    /**
+     * Creates a process manager with a reproducible workload.
+     * @param admissionController Admission control consulted before each spawn.
+     * @param random Random source for the workload (seed it for repeatable runs).
+     * @param loadFactor Arrival rate multiplier, 2.0 spawns twice as often as the game.
+     */
+    public ProcessManager(AdmissionController admissionController, Random random, double loadFactor) {
+        if (loadFactor <= 0) {
+            throw new IllegalArgumentException("loadFactor must be positive: " + loadFactor);
+        }
+        this.random = random;
+        this.loadFactor = loadFactor;
         processQueue = new LinkedList<>();
+        this.admissionController = admissionController;
         resetSpawnTimer();
     }
 
     /** Resets the spawn timer to a random value between MIN_SPAWN_INTERVAL and MAX_SPAWN_INTERVAL. */
     private void resetSpawnTimer() {
-        spawnTimer = MIN_SPAWN_INTERVAL + random.nextDouble() * (MAX_SPAWN_INTERVAL - MIN_SPAWN_INTERVAL); 
+        spawnTimer = (MIN_SPAWN_INTERVAL + random.nextDouble() * (MAX_SPAWN_INTERVAL - MIN_SPAWN_INTERVAL)) / loadFactor;
     }
 
     /**
@@ -45,15 +74,30 @@ public class ProcessManager {
      * @param onPatienceExpired A callback to handle processes whose patience runs out.
      */
     public void update(double deltaTime, java.util.function.Consumer<Process> onPatienceExpired) {
+        clockS += deltaTime;
+
         // 1. Update patience for existing processes in the queue
         updatePatienceCounters(deltaTime, onPatienceExpired);
 
         // 2. Check if it's time to spawn a new process
         spawnTimer -= deltaTime;
+        admissionController.update(deltaTime);
         
         if (spawnTimer <= 0 && processQueue.size() < MAX_QUEUE_CAPACITY) {
-            spawnProcess();
-            resetSpawnTimer();
+            // 3. Ask admission control whether downstream pressure allows a new arrival
+            switch (admissionController.onArrival()) {
+                case ADMIT:
+                    spawnProcess();
+                    resetSpawnTimer();
+                    break;
+                case THROTTLE:
+                    spawnTimer = THROTTLE_RETRY_S; // Hold the arrival back and retry shortly
+                    break;
+                case SHED:
+                    Log.i(TAG, "Arrival shed by admission control.");
+                    resetSpawnTimer(); // Arrival is dropped, wait for the next one
+                    break;
+            }
         }
     }
 
@@ -108,7 +152,10 @@ public class ProcessManager {
             double cpuTime = 3 + random.nextDouble() * 3;  // CPU Time: 3-6 seconds
             double ioTime = 2 + random.nextDouble() * 3;   // IO Time: 2-5 seconds
             
-            newProcess = new IOProcess(memory, patience, cpuTime, ioTime);
+            IOProcess ioProcess = new IOProcess(memory, patience, cpuTime, ioTime);
+            ioProcess.setBlockAddress(random.nextInt(SeekModel.DEFAULT_BLOCKS)); // data spread over the disk
+            ioProcess.setWrite(random.nextDouble() < writeFraction);
+            newProcess = ioProcess;
             Log.d(TAG, "Spawned IO Process with memory: " + memory + "GB, CPU time: " + 
                    String.format("%.1f", cpuTime) + "s, IO time: " + 
                    String.format("%.1f", ioTime) + "s");
@@ -132,10 +179,53 @@ public class ProcessManager {
                    "GB, CPU time: " + String.format("%.1f", cpuTime) + "s");
         }
         
+        newProcess.setTickets(ticketPolicy.applyAsInt(newProcess));
+        newProcess.setArrivalTimeS(clockS);
+        processDecorator.accept(newProcess);
         processQueue.offer(newProcess);
         newProcess.setCurrentState(Process.ProcessState.IN_QUEUE);
     }
 
+    public AdmissionController getAdmissionController() {
+        return admissionController;
+    }
+
+    /**
+     * Sets how many tickets newly spawned processes receive (e.g. per tenant or per process type).
+     * @param ticketPolicy Function from the new process to its ticket count.
+     */
+    public void setTicketPolicy(ToIntFunction<Process> ticketPolicy) {
+        this.ticketPolicy = ticketPolicy;
+    }
+
+    /**
+     * Sets the share of io processes that write rather than read their data.
+     * @param writeFraction Probability in [0, 1] that a new io process writes.
+     */
+    public void setWriteFraction(double writeFraction) {
+        if (writeFraction < 0 || writeFraction > 1) {
+            throw new IllegalArgumentException("writeFraction must be in [0, 1]: " + writeFraction);
+        }
+        this.writeFraction = writeFraction;
+    }
+
+    /**
+     * Sets a hook run on every spawned process, e.g. to assign priorities or critical sections.
+     * @param processDecorator Called after the process is created, before it is queued.
+     */
+    public void setProcessDecorator(Consumer<Process> processDecorator) {
+        this.processDecorator = processDecorator;
+    }
+
+    /** @return simulated seconds since this manager was created or reset. */
+    public double getClockS() {
+        return clockS;
+    }
+
+    public int getMaxQueueCapacity() {
+        return MAX_QUEUE_CAPACITY;
+    }
+
     public Queue<Process> getProcessQueue() {
         return processQueue;
     }
@@ -162,6 +252,8 @@ public class ProcessManager {
     /** Resets the process manager, clearing the queue and resetting spawn timer. */
     public synchronized void reset() {
         processQueue.clear();
+        admissionController.reset();
+        clockS = 0;
         resetSpawnTimer();
         nextProcessId = 1; // Reset process ID counter
         Log.d(TAG, "ProcessManager reset.");
@@ -0,0 +1,64 @@
+package com.example.cs205game;
+
+import java.util.function.Consumer;
+
+/**
+ * A ready queue holds admitted processes waiting for a cpu core.
+ * Each implementation embodies a scheduling policy: the order in which
+ * {@link #poll()} hands processes to the dispatcher.
+ */
+public interface ReadyQueue {
+
+    /** @return a short human readable name of the policy (used in logs and reports). */
+    String getName();
+
+    /** Adds a process that is ready to run. */
+    void add(Process process);
+
+    /**
+     * Removes and returns the next process to dispatch according to the policy.
+     * @return the chosen process, or null if the queue is empty.
+     */
+    Process poll();
+
+    /**
+     * Removes a specific process (e.g. killed or expired) from the queue.
+     * @return true if the process was in the queue.
+     */
+    boolean remove(Process process);
+
+    int size();
+
+    boolean isEmpty();
+
+    /** Removes all processes from the queue. */
+    void clear();
+
+    /** Visits every waiting process (in no particular order). */
+    void forEach(Consumer<Process> action);
+
+    /**
+     * @return the time slice after which a running process should be preempted when others
+     * are waiting, or 0 if the policy runs processes until they block or finish.
+     */
+    default double getTimeSliceS() {
+        return 0;
+    }
+
+    /**
+     * Informs the policy that a process consumed cpu time before being descheduled.
+     * Used by proportional-share policies to advance the process's position.
+     * @param process The process that ran.
+     * @param cpuSeconds How long it ran since it was dispatched.
+     */
+    default void charge(Process process, double cpuSeconds) {
+    }
+
+    /**
+     * @return the waiting process that should preempt a running process of lower effective
+     * priority, or null if the policy never preempts on priority.
+     */
+    default Process peekPreemptor() {
+        return null;
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.cs205game;
+
+import android.util.Log;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * An io device whose requests do real io through an {@link IoBackend} instead of counting down.
+ * The device hands each started request to its own worker thread and the request finishes when
+ * the host io does, so simulated io time follows the host's storage rather than the workload's
+ * io timer. Requests still queue and start one at a time like an {@link IOArea}; a removed
+ * (killed) request's io runs to completion before the next one begins. Closing the device stops
+ * its worker and closes the backend; opening it again starts a new worker on a fresh backend and
+ * restarts the request that was in flight.
+ */
+public class RealIOArea extends IOArea {
+    private static final String TAG = "RealIOArea";
+
+    private final Supplier<IoBackend> backends;
+    private IoBackend backend; // the last one opened, kept after close for its statistics
+    private ExecutorService worker; // null while closed
+    private Future<Long> inFlight = null;
+    private long submittedNs = 0;
+
+    // Host statistics
+    private long bytesMoved = 0;
+    private long hostBusyNs = 0;
+    private int errors = 0;
+    private final List<Long> hostLatenciesNs = new ArrayList<>();
+
+    /**
+     * @param id Device index.
+     * @param scheduler Order of queued requests.
+     * @param backends Creates the backend the io goes to, again each time the device is reopened.
+     *                 Each one is closed with the device.
+     */
+    public RealIOArea(int id, IoScheduler scheduler, Supplier<IoBackend> backends) {
+        super(id, 1.0, scheduler, SeekModel.NONE);
+        this.backends = backends;
+        open();
+    }
+
+    public synchronized IoBackend getBackend() {
+        return backend;
+    }
+
+    @Override
+    protected void onStart(IoRequest request) {
+        if (worker == null) return; // closed, open() starts it
+        IOProcess process = request.getProcess();
+        IoBackend target = backend;
+        submittedNs = System.nanoTime();
+        inFlight = worker.submit(() -> target.transfer(process));
+    }
+
+    @Override
+    public synchronized IOProcess removeProcess() {
+        inFlight = null; // a killed request's io still finishes on the worker
+        return super.removeProcess();
+    }
+
+    /**
+     * Checks whether the host io of the current request is done.
+     * @param deltaTime Time elapsed since the last update in seconds.
+     * @param onIoCompleted Callback for when the host io finishes, called once.
+     */
+    @Override
+    public void update(double deltaTime, java.util.function.Consumer<IOProcess> onIoCompleted) {
+        IOProcess finished = null;
+        synchronized (this) {
+            clockS += deltaTime;
+            if (inFlight == null) return;
+            busyS += deltaTime;
+            if (!inFlight.isDone()) return;
+            long latencyNs = System.nanoTime() - submittedNs;
+            try {
+                bytesMoved += inFlight.get();
+            } catch (ExecutionException e) {
+                errors++;
+                Log.e(TAG, "io failed on device " + id, e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            inFlight = null;
+            hostBusyNs += latencyNs;
+            hostLatenciesNs.add(latencyNs);
+            IoRequest request = getCurrentRequest();
+            finished = request.getProcess();
+            finished.decrementIoTime(finished.getRemainingIoTime()); // marks the io completed
+            completed++;
+            latenciesS.add(clockS - request.getQueuedAtS());
+        }
+        Log.i(TAG, "IOProcess " + finished.getId() + " finished host io on device " + id + ".");
+        onIoCompleted.accept(finished);
+    }
+
+    /** Only process requests do host io; background work is not modelled. */
+    @Override
+    public synchronized boolean addBackgroundWork(double ioS) {
+        return false;
+    }
+
+    @Override
+    public synchronized void clear() {
+        super.clear(); // an in-flight transfer finishes on the worker and is ignored
+        inFlight = null;
+        bytesMoved = 0;
+        hostBusyNs = 0;
+        errors = 0;
+        hostLatenciesNs.clear();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (worker == null) return;
+        worker.shutdownNow();
+        worker = null;
+        inFlight = null; // its io is cut short, open() runs the request again
+        try {
+            backend.close();
+        } catch (IOException e) {
+            Log.w(TAG, "could not close " + backend.getName() + " backend: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized void open() {
+        if (worker != null) return;
+        backend = backends.get();
+        worker = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "io-device-" + id);
+            t.setDaemon(true);
+            return t;
+        });
+        IoRequest current = getCurrentRequest();
+        if (current != null) {
+            onStart(current);
+        }
+    }
+
+    // --- Host statistics --- //
+
+    public synchronized long getBytesMoved() {
+        return bytesMoved;
+    }
+
+    public synchronized int getHostTransfers() {
+        return hostLatenciesNs.size();
+    }
+
+    public synchronized int getErrors() {
+        return errors;
+    }
+
+    /** Copies the host time of every finished transfer, in seconds, into the list. */
+    public synchronized void collectHostLatencies(List<Double> out) {
+        for (long ns : hostLatenciesNs) {
+            out.add(ns / 1e9);
+        }
+    }
+
+    public synchronized long getHostBusyNs() {
+        return hostBusyNs;
+    }
+
+    /** @return bytes per host second while a transfer was in flight, in MB (10^6 bytes). */
+    public synchronized double getHostMbPerS() {
+        return hostBusyNs == 0 ? 0 : bytesMoved * 1000.0 / hostBusyNs;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.cs205game;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The original model: a single counter of free GB, no placement at all.
+ * The counter is updated with compare-and-set, so {@link #tryAllocate(int)} and
+ * {@link #release(int)} are safe to call without any lock. One counter is enough here: a few
+ * dispatcher threads contend on it, and a striped counter would turn every capacity check into a
+ * sum over the stripes.
+ */
+public class ScalarMemoryBackend implements MemoryBackend {
+    private final int capacity;
+    private final AtomicInteger availableMemory;
+
+    public ScalarMemoryBackend(int capacity) {
+        this.capacity = capacity;
+        this.availableMemory = new AtomicInteger(capacity);
+    }
+
+    @Override
+    public String getName() {
+        return "scalar";
+    }
+
+    @Override
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public int getAvailableMemory() {
+        return availableMemory.get();
+    }
+
+    @Override
+    public boolean canAllocate(int amount) {
+        return availableMemory.get() >= amount;
+    }
+
+    @Override
+    public boolean allocate(int ownerId, int amount) {
+        return tryAllocate(amount);
+    }
+
+    @Override
+    public int free(int ownerId, int amount) {
+        return release(amount);
+    }
+
+    @Override
+    public void clear() {
+        availableMemory.set(capacity);
+    }
+
+    /**
+     * Lock-free allocation.
+     * @return true if the amount was taken, false if not enough memory is free.
+     */
+    public boolean tryAllocate(int amount) {
+        if (amount <= 0) return true;
+        while (true) {
+            int available = availableMemory.get();
+            if (available < amount) return false;
+            if (availableMemory.compareAndSet(available, available - amount)) return true;
+        }
+    }
+
+    /**
+     * Lock-free release, never raising free memory above capacity.
+     * @return the amount actually returned.
+     */
+    public int release(int amount) {
+        if (amount <= 0) return 0;
+        while (true) {
+            int available = availableMemory.get();
+            int freed = Math.min(amount, capacity - available); // cap at maximum capacity
+            if (availableMemory.compareAndSet(available, available + freed)) return freed;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.cs205game;
+
+/**
+ * Elevator: the head sweeps upwards serving requests in block order, then reverses and sweeps
+ * down. Reverses at the last request in its direction rather than the disk edge (the LOOK
+ * variant), so no seek is spent on empty blocks.
+ */
+public class ScanIoScheduler extends SortedIoScheduler {
+    private boolean upwards = true;
+
+    @Override
+    public String getName() {
+        return "SCAN";
+    }
+
+    @Override
+    public IoRequest poll(int headBlock, double nowS) {
+        if (byBlock.isEmpty()) return null;
+        IoRequest next = upwards ? ceiling(headBlock) : floor(headBlock);
+        if (next == null) {
+            upwards = !upwards;
+            next = upwards ? ceiling(headBlock) : floor(headBlock);
+        }
+        byBlock.remove(next);
+        return next;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        upwards = true;
+    }
+}
@@ -0,0 +1,465 @@
+package com.example.cs205game;
+
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * automatic dispatcher that plays the role of the os scheduler instead of the player.
+ * in manual mode it only records utilization statistics; in the automatic modes it admits
+ * processes from the arrival queue (fcfs, memory permitting), routes io processes to the io
+ * devices (queueing there) and back, and dispatches ready processes onto free cores. policies with a time slice
+ * (lottery, stride) preempt running processes when their quantum expires, the priority policy
+ * preempts lower priority work. critical sections on shared resources are enforced through
+ * the lock manager; processes blocked on a lock release their core.
+ */
+public class Scheduler {
+    private static final String TAG = "Scheduler";
+
+    /** how processes are moved between the queue, cores and the io area. */
+    public enum Mode {
+        MANUAL, // player drags processes around, scheduler only records statistics
+        PINNED, // automatic, but an io process keeps its core (idle) for the whole io round trip
+        IO_OVERLAP, // automatic, io interrupts release the core immediately and finished io
+                    // goes straight back to the ready queue so cpu work overlaps io waits
+        DMA // automatic, like io overlap but transfers run on the dma engine's parallel channels
+            // instead of the io devices, each completion interrupting the issuing core
+    }
+
+    private final Memory memory;
+    private final ProcessManager processManager;
+    private final List<Core> cores;
+    private final IoRing ioRing; // submissions go in, harvested completions come back through onIoCompleted
+    private final IODevices ioDevices;
+    private DmaEngine dmaEngine = new DmaEngine();
+    private final UtilizationStats stats = new UtilizationStats();
+    private final FairnessStats fairnessStats = new FairnessStats();
+    // reused every tick for fairness sampling
+    private final List<Process> runningScratch = new ArrayList<>();
+    private final List<Process> waitingScratch = new ArrayList<>();
+    private final LockManager lockManager = new LockManager(LockManager.Protocol.NONE);
+    // admissions whose parked memory request was granted, filled by whichever thread freed the memory
+    private final ConcurrentLinkedQueue<Process> grantedAdmissions = new ConcurrentLinkedQueue<>();
+    private Process parkedAdmission; // queue head waiting in memory's wait queue, null if none
+    private ReadyQueue readyQueue;
+    private Mode mode;
+
+    public Scheduler(Memory memory, ProcessManager processManager, List<Core> cores, IOArea ioArea,
+                     ReadyQueue readyQueue, Mode mode) {
+        this(memory, processManager, cores, new IODevices(ioArea), readyQueue, mode);
+    }
+
+    public Scheduler(Memory memory, ProcessManager processManager, List<Core> cores, IODevices ioDevices,
+                     ReadyQueue readyQueue, Mode mode) {
+        this(memory, processManager, cores, new IoRing(ioDevices), readyQueue, mode);
+    }
+
+    public Scheduler(Memory memory, ProcessManager processManager, List<Core> cores, IoRing ioRing,
+                     ReadyQueue readyQueue, Mode mode) {
+        this.memory = memory;
+        this.processManager = processManager;
+        this.cores = cores;
+        this.ioRing = ioRing;
+        this.ioDevices = ioRing.getDevices();
+        // the os frees the device at completion, only the player needs to drag processes off it
+        ioRing.setReleaseOnCompletion(this::isAutomatic);
+        this.readyQueue = readyQueue;
+        this.mode = mode;
+        updateInterruptHandler();
+        // keep the ready queue ordered when inheritance / ceiling changes a waiting process's priority
+        lockManager.setOnPriorityChanged(p -> {
+            if (p.getCurrentState() == Process.ProcessState.READY && this.readyQueue.remove(p)) {
+                this.readyQueue.add(p);
+            }
+        });
+    }
+
+    public synchronized Mode getMode() {
+        return mode;
+    }
+
+    /** switches mode. only safe between games (or while the ready and io wait queues are empty). */
+    public synchronized void setMode(Mode mode) {
+        this.mode = mode;
+        updateInterruptHandler();
+        Log.i(TAG, "scheduler mode set to " + mode);
+    }
+
+    // in the overlapping modes io interrupts are taken on core 0 (default irq affinity), stalling
+    // whatever runs there; pinned io waits on its own core and the player reaps io by hand
+    private void updateInterruptHandler() {
+        if (mode == Mode.IO_OVERLAP || mode == Mode.DMA) {
+            ioRing.setOnInterrupt(costS -> {
+                Process p = cores.get(0).getCurrentProcess();
+                if (p != null) p.addStall(costS);
+            });
+        } else {
+            ioRing.setOnInterrupt(costS -> { });
+        }
+    }
+
+    public synchronized ReadyQueue getReadyQueue() {
+        return readyQueue;
+    }
+
+    /** replaces the ready queue policy, carrying over any processes already waiting. */
+    public synchronized void setReadyQueue(ReadyQueue newQueue) {
+        Process p;
+        while ((p = readyQueue.poll()) != null) {
+            newQueue.add(p);
+        }
+        this.readyQueue = newQueue;
+        Log.i(TAG, "ready queue policy set to " + newQueue.getName());
+    }
+
+    public UtilizationStats getStats() {
+        return stats;
+    }
+
+    public FairnessStats getFairnessStats() {
+        return fairnessStats;
+    }
+
+    /** @return the lock manager owning shared resources (create resources and pick a protocol here). */
+    public LockManager getLockManager() {
+        return lockManager;
+    }
+
+    public synchronized boolean isAutomatic() {
+        return mode != Mode.MANUAL;
+    }
+
+    public synchronized DmaEngine getDmaEngine() {
+        return dmaEngine;
+    }
+
+    /** replaces the dma engine. only safe while no transfer is in flight. */
+    public synchronized void setDmaEngine(DmaEngine dmaEngine) {
+        this.dmaEngine = dmaEngine;
+    }
+
+    /** @return number of io processes queued behind the ones the io devices are serving. */
+    public synchronized int getIoWaitQueueSize() {
+        return ioDevices.getQueuedCount();
+    }
+
+    /**
+     * advances the scheduler by one tick. call after cores and the io area have been updated.
+     * @param deltaTime time elapsed since the last update in seconds.
+     */
+    public synchronized void update(double deltaTime) {
+        if (mode != Mode.MANUAL) {
+            lockManager.update(deltaTime);
+            admitFromArrivalQueue();
+            if (mode == Mode.PINNED) {
+                movePinnedProcessesToIo();
+            } else if (mode == Mode.DMA) {
+                dmaEngine.update(deltaTime, this::onTransferCompleted);
+            }
+            processCriticalSections();
+            preemptExpiredSlices();
+            preemptForPriority();
+            dispatchReadyProcesses();
+            sampleFairness(deltaTime);
+        }
+        stats.sample(deltaTime, cores, ioDevices.isAnyBusy() || dmaEngine.isBusy());
+    }
+
+    /**
+     * called by the game manager when a core raises an io interrupt.
+     * in io overlap mode the core is released straight away.
+     * note: called from inside core.update, the core's monitor is held by this thread.
+     */
+    public synchronized void onIoRequired(IOProcess ioProcess) {
+        if (mode != Mode.IO_OVERLAP && mode != Mode.DMA) return; // pinned mode moves it during update
+        Core core = findCoreRunning(ioProcess);
+        if (core == null) {
+            Log.e(TAG, "io interrupt for process " + ioProcess.getId() + " but it is not on any core");
+            return;
+        }
+        readyQueue.charge(ioProcess, core.getSliceElapsedS());
+        core.removeProcess();
+        if (mode == Mode.DMA) {
+            dmaEngine.submit(ioProcess, core.getId());
+        } else {
+            ioRing.submit(ioProcess, core.getId());
+        }
+        Log.d(TAG, "released core " + core.getId() + " on io interrupt of process " + ioProcess.getId());
+    }
+
+    /**
+     * called by the game manager for each io completion the io ring reaps.
+     * the process leaves its device; in io overlap mode it becomes ready, in pinned mode it
+     * resumes on the core it never released.
+     */
+    public synchronized void onIoCompleted(IOProcess ioProcess) {
+        if (mode == Mode.MANUAL) return; // the player drags it back
+        if (ioProcess.getCurrentState() == Process.ProcessState.KILLED) return;
+        IOArea device = ioDevices.findDevice(ioProcess);
+        if (device != null) {
+            // still on its device if automatic mode began after it finished
+            if (device.getCurrentProcess() != ioProcess) return;
+            device.removeProcess(); // starts the device's next queued request
+        }
+        ioProcess.setCpuPausedForIO(false);
+        if (mode == Mode.PINNED) {
+            ioProcess.setCurrentState(Process.ProcessState.ON_CORE);
+        } else {
+            makeReady(ioProcess);
+        }
+    }
+
+    // dma mode: the transfer is done, the issuing core pays for the interrupt
+    private synchronized void onTransferCompleted(IOProcess ioProcess, int issuingCoreId) {
+        if (ioProcess.getCurrentState() == Process.ProcessState.KILLED) return;
+        Process interrupted = cores.get(issuingCoreId).getCurrentProcess();
+        if (interrupted != null) interrupted.addStall(dmaEngine.getInterruptCostS());
+        ioProcess.setCpuPausedForIO(false);
+        makeReady(ioProcess);
+    }
+
+    /**
+     * called by the game manager when a process finishes its cpu work or is killed.
+     * releases any lock it still holds so waiters are not stranded, and takes it out of the
+     * wait queue it is blocked in so it is never handed a lock (or boosts a holder) again.
+     */
+    public synchronized void onProcessCompleted(Process process) {
+        CriticalSection section = process.getCriticalSection();
+        if (section != null && section.isHolding()) {
+            exitCriticalSection(process, section);
+        }
+        lockManager.abandon(process);
+    }
+
+    /** clears all scheduler owned queues and statistics. */
+    public synchronized void reset() {
+        readyQueue.clear();
+        dmaEngine.clear();
+        grantedAdmissions.clear();
+        parkedAdmission = null;
+        lockManager.reset();
+        stats.reset();
+        fairnessStats.reset();
+    }
+
+    // --- long term scheduling --- //
+
+    // admits arrivals in fcfs order while memory is available, like the player must.
+    // a head that does not fit is parked in memory's wait queue and admitted when a free grants it
+    private void admitFromArrivalQueue() {
+        Process granted;
+        while ((granted = grantedAdmissions.poll()) != null) {
+            if (granted == parkedAdmission) parkedAdmission = null;
+            if (processManager.getProcessQueue().peek() == granted) {
+                processManager.takeProcessFromQueue();
+                makeReady(granted);
+            } else {
+                // left the queue (patience) after its memory was granted, give the memory back
+                memory.release(granted.getId(), granted.getMemoryRequirement());
+            }
+        }
+        Process head;
+        while ((head = processManager.getProcessQueue().peek()) != null) {
+            if (head == parkedAdmission) {
+                return; // head of line blocks (fcfs) until a free wakes it, no retry
+            }
+            Process admitted = head;
+            if (!memory.allocateOrWait(head.getId(), head.getMemoryRequirement(),
+                    waitS -> grantedAdmissions.offer(admitted))) {
+                parkedAdmission = head;
+                return;
+            }
+            processManager.takeProcessFromQueue();
+            makeReady(head);
+        }
+    }
+
+    private void makeReady(Process process) {
+        process.setCurrentState(Process.ProcessState.READY);
+        readyQueue.add(process);
+    }
+
+    // --- short term scheduling --- //
+
+    private void dispatchReadyProcesses() {
+        while (!readyQueue.isEmpty() && hasFreeCore()) {
+            Process next = readyQueue.poll();
+            Core core = pickFreeCore(next);
+            synchronized (core) {
+                core.assignProcess(next);
+            }
+        }
+    }
+
+    // a free core, preferring one on the process's numa home node so its memory stays local
+    private Core pickFreeCore(Process process) {
+        int home = -1;
+        if (memory.getBackend() instanceof NumaMemory) {
+            home = ((NumaMemory) memory.getBackend()).getHomeNode(process.getId());
+        }
+        Core fallback = null;
+        for (Core core : cores) {
+            if (core.isUtilized()) continue;
+            if (home < 0 || core.getHomeNode() == home) return core;
+            if (fallback == null) fallback = core;
+        }
+        return fallback;
+    }
+
+    // puts processes whose quantum expired back into the ready queue (only if someone is waiting)
+    private void preemptExpiredSlices() {
+        double timeSlice = readyQueue.getTimeSliceS();
+        if (timeSlice <= 0) return;
+        for (Core core : cores) {
+            if (readyQueue.isEmpty()) return;
+            synchronized (core) {
+                Process p = core.getCurrentProcess();
+                if (p == null || isPausedForIo(p) || core.getSliceElapsedS() < timeSlice) continue;
+                double ran = core.getSliceElapsedS();
+                core.removeProcess();
+                readyQueue.charge(p, ran);
+                makeReady(p);
+            }
+        }
+    }
+
+    // preempts the lowest priority running process while a strictly higher priority one is waiting
+    private void preemptForPriority() {
+        for (int i = 0; i < cores.size(); i++) {
+            Process candidate = readyQueue.peekPreemptor();
+            if (candidate == null || hasFreeCore()) return; // nothing to do, or dispatch will place it
+            Core victim = null;
+            for (Core core : cores) {
+                Process p = core.getCurrentProcess();
+                if (p == null || isPausedForIo(p)) continue;
+                if (victim == null || p.getEffectivePriority() < victim.getCurrentProcess().getEffectivePriority()) {
+                    victim = core;
+                }
+            }
+            if (victim == null || victim.getCurrentProcess().getEffectivePriority() >= candidate.getEffectivePriority()) {
+                return;
+            }
+            synchronized (victim) {
+                Process preempted = victim.getCurrentProcess();
+                readyQueue.charge(preempted, victim.getSliceElapsedS());
+                victim.removeProcess();
+                makeReady(preempted);
+                victim.assignProcess(readyQueue.poll());
+            }
+        }
+    }
+
+    private boolean hasFreeCore() {
+        for (Core core : cores) {
+            if (!core.isUtilized()) return true;
+        }
+        return false;
+    }
+
+    // --- shared resources --- //
+
+    // enters / leaves critical sections based on each running process's cpu progress
+    private void processCriticalSections() {
+        for (Core core : cores) {
+            synchronized (core) {
+                Process p = core.getCurrentProcess();
+                if (p == null || isPausedForIo(p)) continue;
+                CriticalSection section = p.getCriticalSection();
+                if (section == null || section.isExited()) continue;
+                SharedResource resource = lockManager.getResource(section.getResourceId());
+                if (resource == null) continue;
+
+                if (!section.isEntered() && p.getCpuProgress() >= section.getStartS()) {
+                    if (lockManager.acquire(p, resource)) {
+                        section.markEntered();
+                    } else {
+                        // block: give the core away until the lock is handed over
+                        readyQueue.charge(p, core.getSliceElapsedS());
+                        core.removeProcess();
+                        p.setCurrentState(Process.ProcessState.BLOCKED);
+                        Log.d(TAG, "process " + p.getId() + " blocked on " + resource.getName()
+                                + " held by process " + resource.getOwner().getId());
+                    }
+                } else if (section.isHolding() && p.getCpuProgress() >= section.getEndS()) {
+                    exitCriticalSection(p, section);
+                }
+            }
+        }
+    }
+
+    private void exitCriticalSection(Process process, CriticalSection section) {
+        section.markExited();
+        Process next = lockManager.release(process, lockManager.getResource(section.getResourceId()));
+        if (next != null) {
+            next.getCriticalSection().markEntered();
+            makeReady(next);
+        }
+    }
+
+    private void sampleFairness(double deltaTime) {
+        runningScratch.clear();
+        waitingScratch.clear();
+        for (Core core : cores) {
+            Process p = core.getCurrentProcess();
+            if (p != null && !isPausedForIo(p)) {
+                runningScratch.add(p);
+            }
+        }
+        readyQueue.forEach(waitingScratch::add);
+        fairnessStats.sample(deltaTime, cores.size(), runningScratch, waitingScratch);
+    }
+
+    private static boolean isPausedForIo(Process p) {
+        return p instanceof IOProcess && ((IOProcess) p).isCpuPausedForIO();
+    }
+
+    // --- io handling --- //
+
+    // pinned: paused processes (by core id) are submitted for io, keeping their core while
+    // they queue and are served; onIoCompleted resumes them
+    private void movePinnedProcessesToIo() {
+        for (Core core : cores) {
+            synchronized (core) {
+                Process p = core.getCurrentProcess();
+                if (isPausedForIo(p) && !((IOProcess) p).isIoCompleted()
+                        && p.getCurrentState() == Process.ProcessState.ON_CORE) {
+                    ioRing.submit((IOProcess) p, core.getId());
+                }
+            }
+        }
+    }
+
+    /**
+     * finds a process that currently holds memory (on a core, in io, ready or blocked on a lock).
+     * @return the process, or null if no resident process has this id.
+     */
+    public synchronized Process findResidentProcess(int processId) {
+        for (Core core : cores) {
+            Process p = core.getCurrentProcess();
+            if (p != null && p.getId() == processId) return p;
+        }
+        IOProcess inIo = ioRing.find(processId);
+        if (inIo == null) inIo = dmaEngine.find(processId);
+        if (inIo != null) return inIo;
+        Process[] found = new Process[1];
+        readyQueue.forEach(p -> {
+            if (p.getId() == processId) found[0] = p;
+        });
+        if (found[0] != null) return found[0];
+        for (Process p : lockManager.getBlockedProcesses()) {
+            if (p.getId() == processId) return p;
+        }
+        return null;
+    }
+
+    private Core findCoreRunning(Process process) {
+        for (Core core : cores) {
+            if (core.getCurrentProcess() == process) {
+                return core;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.cs205game;
+
+/**
+ * Head movement cost of an io device: a settle time for any move plus a term growing with the
+ * square root of the distance (the arm accelerates, then coasts), up to a full stroke.
+ */
+public final class SeekModel {
+    public static final int DEFAULT_BLOCKS = 1 << 16;
+    public static final double DEFAULT_MIN_SEEK_S = 0.02; // track to track
+    public static final double DEFAULT_MAX_SEEK_S = 0.5; // full stroke, on the game's io time scale
+    /** No head: every request starts without a seek (solid state, and the game's io area). */
+    public static final SeekModel NONE = new SeekModel(DEFAULT_BLOCKS, 0, 0);
+
+    private final int blocks;
+    private final double minSeekS;
+    private final double maxSeekS;
+
+    public SeekModel() {
+        this(DEFAULT_BLOCKS, DEFAULT_MIN_SEEK_S, DEFAULT_MAX_SEEK_S);
+    }
+
+    /**
+     * @param blocks Addressable blocks.
+     * @param minSeekS Seek to an adjacent block.
+     * @param maxSeekS Seek across the whole device.
+     */
+    public SeekModel(int blocks, double minSeekS, double maxSeekS) {
+        if (blocks <= 0 || minSeekS < 0 || maxSeekS < minSeekS) {
+            throw new IllegalArgumentException("invalid seek model: " + blocks + " blocks, " + minSeekS + "-" + maxSeekS + "s");
+        }
+        this.blocks = blocks;
+        this.minSeekS = minSeekS;
+        this.maxSeekS = maxSeekS;
+    }
+
+    /** @return seconds to move the head between two blocks (0 if it is already there). */
+    public double seekS(int fromBlock, int toBlock) {
+        int distance = Math.abs(toBlock - fromBlock);
+        if (distance == 0 || maxSeekS == 0) return 0;
+        return minSeekS + (maxSeekS - minSeekS) * Math.sqrt((double) distance / blocks);
+    }
+
+    public int getBlocks() {
+        return blocks;
+    }
+
+    public boolean hasSeek() {
+        return maxSeekS > 0;
+    }
+}
@@ -66,6 +66,33 @@ public class SharedBuffer {
         }
     }
 
+    /**
+     * Non-blocking attempt to add a completed process to the buffer.
+     * Used by the game thread so a full buffer never stalls the update loop.
+     * @param process The completed process to add.
+     * @return true if the process was added, false if the buffer is full or shut down.
+     */
+    public boolean offer(Process process) {
+        if (process == null) {
+            throw new IllegalArgumentException("Cannot put null process into buffer");
+        }
+
+        bufferLock.lock();
+        try {
+            if (isShutdown || buffer.size() >= capacity) {
+                return false;
+            }
+            Log.d(TAG, "Offering Process " + process.getId() + " into buffer.");
+            process.resetBufferCooldown(); // Reset cooldown when adding to buffer
+            buffer.offer(process);
+            putCount.incrementAndGet();
+            notEmpty.signalAll(); // Wake up consumers
+            return true;
+        } finally {
+            bufferLock.unlock();
+        }
+    }
+
     /**
      * Takes a completed process from the buffer. Blocks if the buffer is empty or the head process is not ready.
      * Called by the consumers (Clients).
@@ -0,0 +1,74 @@
+package com.example.cs205game;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A lockable resource shared between processes (a mutex).
+ * Owned and mutated by the LockManager; waiters are granted in effective priority order.
+ */
+public class SharedResource {
+    private final int id;
+    private final String name;
+    private final int ceilingPriority; // highest priority of any process that may lock it
+    private Process owner = null;
+    private final List<Process> waiters = new ArrayList<>();
+
+    SharedResource(int id, String name, int ceilingPriority) {
+        this.id = id;
+        this.name = name;
+        this.ceilingPriority = ceilingPriority;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getCeilingPriority() {
+        return ceilingPriority;
+    }
+
+    public Process getOwner() {
+        return owner;
+    }
+
+    public boolean isLocked() {
+        return owner != null;
+    }
+
+    public int getWaiterCount() {
+        return waiters.size();
+    }
+
+    void setOwner(Process owner) {
+        this.owner = owner;
+    }
+
+    List<Process> getWaiters() {
+        return waiters;
+    }
+
+    /** @return the highest effective priority among waiters, or Integer.MIN_VALUE if none. */
+    int getHighestWaiterPriority() {
+        int max = Integer.MIN_VALUE;
+        for (Process p : waiters) {
+            max = Math.max(max, p.getEffectivePriority());
+        }
+        return max;
+    }
+
+    /** removes and returns the highest effective priority waiter (fifo among equals). */
+    Process pollHighestWaiter() {
+        int best = -1;
+        for (int i = 0; i < waiters.size(); i++) {
+            if (best < 0 || waiters.get(i).getEffectivePriority() > waiters.get(best).getEffectivePriority()) {
+                best = i;
+            }
+        }
+        return best < 0 ? null : waiters.remove(best);
+    }
+}
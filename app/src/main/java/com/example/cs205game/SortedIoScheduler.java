@@ -0,0 +1,56 @@
+package com.example.cs205game;
+
+import java.util.Iterator;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+/** Base of the io schedulers that keep their requests sorted by block. */
+abstract class SortedIoScheduler implements IoScheduler {
+    protected final TreeSet<IoRequest> byBlock = new TreeSet<>(IoRequest::compareByBlock);
+
+    @Override
+    public void add(IoRequest request) {
+        byBlock.add(request);
+    }
+
+    @Override
+    public boolean remove(Process process) {
+        for (Iterator<IoRequest> it = byBlock.iterator(); it.hasNext(); ) {
+            if (it.next().getProcess() == process) {
+                it.remove();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // first request at or above the head, in block order
+    protected IoRequest ceiling(int headBlock) {
+        return byBlock.ceiling(IoRequest.lowestAt(headBlock));
+    }
+
+    // last request at or below the head, in block order
+    protected IoRequest floor(int headBlock) {
+        return byBlock.floor(IoRequest.highestAt(headBlock));
+    }
+
+    @Override
+    public int size() {
+        return byBlock.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return byBlock.isEmpty();
+    }
+
+    @Override
+    public void clear() {
+        byBlock.clear();
+    }
+
+    @Override
+    public void forEach(Consumer<IoRequest> action) {
+        byBlock.forEach(action);
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.cs205game;
+
+import java.util.PriorityQueue;
+import java.util.WeakHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Stride scheduling: deterministic proportional share. Each process has a stride inversely
+ * proportional to its tickets and a pass value that advances by its stride for every quantum
+ * it runs. The process with the minimum pass is dispatched next (kept in a binary heap).
+ */
+public class StrideReadyQueue implements ReadyQueue {
+    public static final double DEFAULT_TIME_SLICE_S = 0.5;
+    private static final double STRIDE1 = 1 << 20; // Large constant so strides stay precise
+
+    /** heap entry, the pass is snapshotted when the process is queued */
+    private static final class Entry {
+        final Process process;
+        final double pass;
+        final long sequence; // tie breaker keeps equal passes in arrival order
+
+        Entry(Process process, double pass, long sequence) {
+            this.process = process;
+            this.pass = pass;
+            this.sequence = sequence;
+        }
+    }
+
+    private final PriorityQueue<Entry> heap = new PriorityQueue<>((a, b) -> {
+        int cmp = Double.compare(a.pass, b.pass);
+        return cmp != 0 ? cmp : Long.compare(a.sequence, b.sequence);
+    });
+    // pass values survive while a process is running or waiting on io, dropped once it is garbage
+    private final WeakHashMap<Process, Double> passes = new WeakHashMap<>();
+    private final double timeSliceS;
+    private double globalPass = 0; // pass of the most recently dispatched process
+    private long sequence = 0;
+
+    public StrideReadyQueue() {
+        this(DEFAULT_TIME_SLICE_S);
+    }
+
+    /** @param timeSliceS Quantum after which a running process is preempted if others are waiting. */
+    public StrideReadyQueue(double timeSliceS) {
+        this.timeSliceS = timeSliceS;
+    }
+
+    @Override
+    public String getName() {
+        return "STRIDE";
+    }
+
+    @Override
+    public synchronized void add(Process process) {
+        // newcomers (and processes returning from a long io wait) start at the global pass,
+        // so they cannot monopolise the cpu by cashing in time they were not runnable
+        Double pass = passes.get(process);
+        double effectivePass = pass == null ? globalPass : Math.max(pass, globalPass);
+        passes.put(process, effectivePass);
+        heap.offer(new Entry(process, effectivePass, sequence++));
+    }
+
+    @Override
+    public synchronized Process poll() {
+        Entry next = heap.poll();
+        if (next == null) return null;
+        globalPass = next.pass;
+        return next.process;
+    }
+
+    @Override
+    public synchronized boolean remove(Process process) {
+        return heap.removeIf(e -> e.process == process);
+    }
+
+    @Override
+    public synchronized int size() {
+        return heap.size();
+    }
+
+    @Override
+    public synchronized boolean isEmpty() {
+        return heap.isEmpty();
+    }
+
+    @Override
+    public synchronized void clear() {
+        heap.clear();
+        passes.clear();
+        globalPass = 0;
+    }
+
+    @Override
+    public synchronized void forEach(Consumer<Process> action) {
+        for (Entry e : heap) {
+            action.accept(e.process);
+        }
+    }
+
+    @Override
+    public double getTimeSliceS() {
+        return timeSliceS;
+    }
+
+    @Override
+    public synchronized void charge(Process process, double cpuSeconds) {
+        double stride = STRIDE1 / process.getTickets();
+        Double pass = passes.get(process);
+        double base = pass == null ? globalPass : pass;
+        passes.put(process, base + stride * (cpuSeconds / timeSliceS));
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.cs205game;
+
+/**
+ * Simulated swap device holding evicted pages. Transfers are served one at a time: each costs a
+ * fixed latency plus the page size over the device bandwidth, and a transfer issued while the
+ * device is busy also waits for the ones ahead of it.
+ */
+public class SwapDevice {
+    public static final double DEFAULT_LATENCY_S = 0.004; // seek / command overhead per page
+    public static final double DEFAULT_GB_PER_S = 2.0;
+
+    private final int capacityPages;
+    private final double pageGb;
+    private final double latencyS;
+    private final double gbPerS;
+    private int usedPages = 0;
+    private double busyUntilS = 0;
+
+    // statistics
+    private long pagesRead = 0;
+    private long pagesWritten = 0;
+    private double busyS = 0;
+
+    /**
+     * @param capacityPages Pages the device can hold.
+     * @param pageGb Size of one page in GB.
+     * @param latencyS Fixed cost per transfer in seconds.
+     * @param gbPerS Transfer bandwidth.
+     */
+    public SwapDevice(int capacityPages, double pageGb, double latencyS, double gbPerS) {
+        this.capacityPages = capacityPages;
+        this.pageGb = pageGb;
+        this.latencyS = latencyS;
+        this.gbPerS = gbPerS;
+    }
+
+    /** Reserves a slot for a page being swapped out for the first time. @return false if swap is full. */
+    public boolean reserve() {
+        if (usedPages >= capacityPages) return false;
+        usedPages++;
+        return true;
+    }
+
+    /** Frees the slot of a page that no longer needs a swap copy. */
+    public void release() {
+        if (usedPages > 0) usedPages--;
+    }
+
+    /**
+     * Writes one page out.
+     * @param nowS Simulated time the write is issued.
+     * @return seconds until the write completes (queueing + transfer).
+     */
+    public double write(double nowS) {
+        pagesWritten++;
+        return transfer(nowS);
+    }
+
+    /**
+     * Reads one page in.
+     * @param nowS Simulated time the read is issued.
+     * @return seconds until the read completes (queueing + transfer).
+     */
+    public double read(double nowS) {
+        pagesRead++;
+        return transfer(nowS);
+    }
+
+    private double transfer(double nowS) {
+        double serviceS = latencyS + pageGb / gbPerS;
+        double startS = Math.max(nowS, busyUntilS);
+        busyUntilS = startS + serviceS;
+        busyS += serviceS;
+        return busyUntilS - nowS;
+    }
+
+    /** Drops every stored page (statistics are kept). */
+    public void clear() {
+        usedPages = 0;
+        busyUntilS = 0;
+    }
+
+    public int getCapacityPages() {
+        return capacityPages;
+    }
+
+    public int getUsedPages() {
+        return usedPages;
+    }
+
+    public long getPagesRead() {
+        return pagesRead;
+    }
+
+    public long getPagesWritten() {
+        return pagesWritten;
+    }
+
+    public double getGbRead() {
+        return pagesRead * pageGb;
+    }
+
+    public double getGbWritten() {
+        return pagesWritten * pageGb;
+    }
+
+    /** @return total time the device spent transferring. */
+    public double getBusyS() {
+        return busyS;
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.cs205game;
+
+import java.util.Arrays;
+
+/**
+ * Set-associative translation lookaside buffer. Entries are (asid, virtual page) pairs; the set
+ * is chosen by the low bits of the page number and each set replaces its least recently used way.
+ */
+public class Tlb {
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private final int sets;
+    private final int ways;
+    private final long[] tags; // [set * ways + way] = key(asid, page)
+    private final long[] lastUse;
+    private long tick = 0;
+
+    // statistics
+    private long hits = 0;
+    private long misses = 0;
+    private int flushes = 0;
+
+    /**
+     * @param entries Total entries, a multiple of ways.
+     * @param ways Associativity (entries for fully associative, 1 for direct mapped).
+     */
+    public Tlb(int entries, int ways) {
+        if (entries <= 0 || ways <= 0 || entries % ways != 0) {
+            throw new IllegalArgumentException("invalid tlb geometry: " + entries + " entries, " + ways + " ways");
+        }
+        this.sets = entries / ways;
+        this.ways = ways;
+        this.tags = new long[entries];
+        this.lastUse = new long[entries];
+        Arrays.fill(tags, EMPTY);
+    }
+
+    /**
+     * Translates a page, filling the entry on a miss.
+     * @return true on a hit.
+     */
+    public boolean lookup(int asid, int page) {
+        long key = PageReplacementPolicy.key(asid, page);
+        int base = Math.floorMod(page, sets) * ways;
+        int victim = base;
+        tick++;
+        for (int i = base; i < base + ways; i++) {
+            if (tags[i] == key) {
+                lastUse[i] = tick;
+                hits++;
+                return true;
+            }
+            if (tags[i] == EMPTY || (tags[victim] != EMPTY && lastUse[i] < lastUse[victim])) {
+                victim = i;
+            }
+        }
+        misses++;
+        tags[victim] = key;
+        lastUse[victim] = tick;
+        return false;
+    }
+
+    /** Invalidates every entry (context switch without asids, or asid rollover). */
+    public void flush() {
+        Arrays.fill(tags, EMPTY);
+        flushes++;
+    }
+
+    public int getEntries() {
+        return tags.length;
+    }
+
+    public int getWays() {
+        return ways;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public int getFlushes() {
+        return flushes;
+    }
+
+    public double getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+}
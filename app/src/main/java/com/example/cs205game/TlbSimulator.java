@@ -0,0 +1,178 @@
+package com.example.cs205game;
+
+import android.util.Log;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Gives every core its own {@link Tlb} and charges a page walk for each miss. Listens to a
+ * {@link MemoryAccessGenerator}, so the walk cost is served as a stall on the core before the
+ * process makes further cpu progress (the same core time extra remaining cpu time would take).
+ * A context switch either flushes the core's tlb or, with address space ids, keeps entries
+ * tagged by process; when a core runs out of asids every entry is flushed and numbering restarts.
+ * Migration is costly for the same reason: the destination core's tlb starts cold.
+ * With a {@link HugePageMap}, one entry covers a whole huge page and its walk skips the last
+ * page table level.
+ */
+public class TlbSimulator implements PageAccessListener {
+    private static final String TAG = "TlbSimulator";
+    public static final int DEFAULT_ENTRIES = 32;
+    public static final int DEFAULT_WAYS = 4;
+    public static final int DEFAULT_ASIDS = 16; // 0 = untagged, flush on every switch
+    public static final int DEFAULT_WALK_LEVELS = 4; // page table levels read on a miss
+    public static final int DEFAULT_CYCLES_PER_LEVEL = 25;
+    // simulated time scale: each generated reference stands for a burst of real accesses
+    public static final double DEFAULT_SECONDS_PER_CYCLE = 1e-5;
+
+    // per core translation state
+    private static final class CoreTlb {
+        final Tlb tlb;
+        final Map<Integer, Integer> asidOf = new HashMap<>(); // process id -> asid
+        int nextAsid = 0;
+        int lastProcessId = Integer.MIN_VALUE;
+        int contextSwitches = 0;
+
+        CoreTlb(Tlb tlb) {
+            this.tlb = tlb;
+        }
+    }
+
+    private final int entries;
+    private final int ways;
+    private final int asids;
+    private final double walkS; // cost of one page walk
+    private final double hugeWalkS; // a huge page's walk ends one level early
+    private HugePageMap hugePageMap = null;
+    private final Map<Integer, CoreTlb> cores = new HashMap<>();
+
+    // statistics
+    private long walks = 0;
+    private double totalWalkS = 0;
+
+    public TlbSimulator() {
+        this(DEFAULT_ENTRIES, DEFAULT_WAYS, DEFAULT_ASIDS, DEFAULT_WALK_LEVELS, DEFAULT_CYCLES_PER_LEVEL,
+                DEFAULT_SECONDS_PER_CYCLE);
+    }
+
+    /**
+     * @param entries Entries per core.
+     * @param ways Associativity.
+     * @param asids Address space ids per core, 0 to flush on every context switch.
+     * @param walkLevels Page table levels read per miss.
+     * @param cyclesPerLevel Cycles per level read.
+     * @param secondsPerCycle Simulated seconds per cycle.
+     */
+    public TlbSimulator(int entries, int ways, int asids, int walkLevels, int cyclesPerLevel, double secondsPerCycle) {
+        if (entries <= 0 || ways <= 0 || entries % ways != 0) {
+            throw new IllegalArgumentException("invalid tlb geometry: " + entries + " entries, " + ways + " ways");
+        }
+        this.entries = entries;
+        this.ways = ways;
+        this.asids = asids;
+        this.walkS = walkLevels * cyclesPerLevel * secondsPerCycle;
+        this.hugeWalkS = Math.max(1, walkLevels - 1) * cyclesPerLevel * secondsPerCycle;
+    }
+
+    /**
+     * @param map Page sizes of the memory being translated, or null if every page is a base page.
+     *            Called while holding this simulator's lock.
+     */
+    public synchronized void setHugePageMap(HugePageMap map) {
+        this.hugePageMap = map;
+    }
+
+    @Override
+    public synchronized double onPageAccess(Core core, Process process, int page, boolean write, double stallSoFarS) {
+        CoreTlb state = cores.get(core.getId());
+        if (state == null) {
+            state = new CoreTlb(new Tlb(entries, ways));
+            cores.put(core.getId(), state);
+        }
+        if (state.lastProcessId != process.getId()) {
+            switchTo(state, process.getId());
+        }
+        int asid = asids == 0 ? 0 : state.asidOf.get(process.getId());
+        int span = hugePageMap == null ? 1 : hugePageMap.getTranslationSpan(process.getId(), page);
+        // huge page tags are negative so they never alias a base page number
+        int tag = span == 1 ? page : -1 - page / span;
+        if (state.tlb.lookup(asid, tag)) {
+            return 0;
+        }
+        double cost = span == 1 ? walkS : hugeWalkS;
+        walks++;
+        totalWalkS += cost;
+        return cost;
+    }
+
+    // context switch on a core: flush, or make sure the incoming process has an asid
+    private void switchTo(CoreTlb state, int processId) {
+        state.lastProcessId = processId;
+        state.contextSwitches++;
+        if (asids == 0) {
+            state.tlb.flush();
+            return;
+        }
+        if (state.asidOf.containsKey(processId)) return;
+        if (state.nextAsid == asids) {
+            // rollover: old tags could alias the new owners of their asids
+            state.tlb.flush();
+            state.asidOf.clear();
+            state.nextAsid = 0;
+            Log.d(TAG, "asid rollover");
+        }
+        state.asidOf.put(processId, state.nextAsid++);
+    }
+
+    /** @return hit rate of a core's tlb (0 if it has not translated anything yet). */
+    public synchronized double getHitRate(int coreId) {
+        CoreTlb state = cores.get(coreId);
+        return state == null ? 0 : state.tlb.getHitRate();
+    }
+
+    /** @return hit rate over all cores. */
+    public synchronized double getOverallHitRate() {
+        long hits = 0;
+        long lookups = 0;
+        for (CoreTlb state : cores.values()) {
+            hits += state.tlb.getHits();
+            lookups += state.tlb.getHits() + state.tlb.getMisses();
+        }
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    /** @return hit rate per core id. */
+    public synchronized Map<Integer, Double> getHitRates() {
+        Map<Integer, Double> rates = new HashMap<>();
+        for (Map.Entry<Integer, CoreTlb> e : cores.entrySet()) {
+            rates.put(e.getKey(), e.getValue().tlb.getHitRate());
+        }
+        return rates;
+    }
+
+    public synchronized int getFlushes(int coreId) {
+        CoreTlb state = cores.get(coreId);
+        return state == null ? 0 : state.tlb.getFlushes();
+    }
+
+    public synchronized int getContextSwitches(int coreId) {
+        CoreTlb state = cores.get(coreId);
+        return state == null ? 0 : state.contextSwitches;
+    }
+
+    public synchronized long getWalks() {
+        return walks;
+    }
+
+    /** @return total page walk time charged to processes. */
+    public synchronized double getTotalWalkS() {
+        return totalWalkS;
+    }
+
+    /** Forgets every core's tlb and the statistics. */
+    public synchronized void reset() {
+        cores.clear();
+        walks = 0;
+        totalWalkS = 0;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.cs205game;
+
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+
+/**
+ * 2Q (Johnson and Shasha). New pages enter A1in, a FIFO holding about a quarter of the slots;
+ * pages pushed out of it are remembered in the ghost list A1out. A page loaded again while its
+ * key is in A1out has proven itself and goes to Am, an LRU of the frequently used pages. One
+ * pass over many pages only churns A1in, so scans do not flush the hot set.
+ */
+public class TwoQueuePageReplacement implements PageReplacementPolicy {
+    private final int inCapacity; // Kin
+    private final int ghostCapacity; // Kout
+    // each set is ordered oldest / least recent first
+    private final LinkedHashSet<Long> a1in = new LinkedHashSet<>();
+    private final LinkedHashSet<Long> a1out = new LinkedHashSet<>();
+    private final LinkedHashSet<Long> am = new LinkedHashSet<>();
+
+    /** @param capacity Most pages resident at once. */
+    public TwoQueuePageReplacement(int capacity) {
+        this.inCapacity = Math.max(1, capacity / 4);
+        this.ghostCapacity = Math.max(1, capacity / 2);
+    }
+
+    @Override
+    public String getName() {
+        return "2Q";
+    }
+
+    @Override
+    public void onInsert(long key) {
+        if (a1out.remove(key)) {
+            am.add(key);
+        } else {
+            a1in.add(key);
+        }
+    }
+
+    @Override
+    public void onAccess(long key) {
+        // a hit in A1in is likely correlated with the load, only Am tracks recency
+        if (am.remove(key)) {
+            am.add(key);
+        }
+    }
+
+    @Override
+    public long evict(long incomingKey) {
+        if (a1in.size() > inCapacity || (am.isEmpty() && !a1in.isEmpty())) {
+            long victim = pollFirst(a1in);
+            a1out.add(victim);
+            if (a1out.size() > ghostCapacity) {
+                pollFirst(a1out);
+            }
+            return victim;
+        }
+        return am.isEmpty() ? NO_PAGE : pollFirst(am);
+    }
+
+    private static long pollFirst(LinkedHashSet<Long> set) {
+        Iterator<Long> it = set.iterator();
+        long first = it.next();
+        it.remove();
+        return first;
+    }
+
+    @Override
+    public void remove(long key) {
+        if (!a1in.remove(key)) {
+            am.remove(key);
+        }
+    }
+
+    @Override
+    public int size() {
+        return a1in.size() + am.size();
+    }
+
+    @Override
+    public void clear() {
+        a1in.clear();
+        a1out.clear();
+        am.clear();
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.cs205game;
+
+import java.util.List;
+
+/**
+ * Accumulates cpu and io utilization over time.
+ * Sampled once per tick by the scheduler; all ratios are over the total sampled time.
+ */
+public class UtilizationStats {
+    private double elapsedS = 0; // total sampled time
+    private double coreBusyS = 0; // sum over cores of time spent making cpu progress
+    private double corePinnedIdleS = 0; // sum over cores of time held by a process paused for io
+    private double cpuActiveS = 0; // time at least one core was making progress
+    private double ioBusyS = 0; // time the io device was serving a process
+    private double overlapS = 0; // time cpu and io were both active
+    private int numCores = 0;
+
+    /**
+     * Records one tick of system state.
+     * @param deltaTime Length of the tick in seconds.
+     * @param cores The cpu cores to inspect.
+     * @param ioBusy Whether the io device was serving a process during this tick.
+     */
+    public synchronized void sample(double deltaTime, List<Core> cores, boolean ioBusy) {
+        if (deltaTime <= 0) return;
+        numCores = cores.size();
+        int running = 0;
+        int pinned = 0;
+        for (Core core : cores) {
+            Process p = core.getCurrentProcess();
+            if (p == null) continue;
+            if (p instanceof IOProcess && ((IOProcess) p).isCpuPausedForIO()) {
+                pinned++; // core is held but idle
+            } else {
+                running++;
+            }
+        }
+        elapsedS += deltaTime;
+        coreBusyS += running * deltaTime;
+        corePinnedIdleS += pinned * deltaTime;
+        if (running > 0) cpuActiveS += deltaTime;
+        if (ioBusy) ioBusyS += deltaTime;
+        if (running > 0 && ioBusy) overlapS += deltaTime;
+    }
+
+    /** @return fraction of total core time spent making cpu progress. */
+    public synchronized double getCpuUtilization() {
+        return numCores == 0 || elapsedS == 0 ? 0 : coreBusyS / (numCores * elapsedS);
+    }
+
+    /** @return fraction of total core time wasted on cores pinned by processes waiting on io. */
+    public synchronized double getPinnedIdleRatio() {
+        return numCores == 0 || elapsedS == 0 ? 0 : corePinnedIdleS / (numCores * elapsedS);
+    }
+
+    /** @return fraction of time the io device was busy. */
+    public synchronized double getIoUtilization() {
+        return elapsedS == 0 ? 0 : ioBusyS / elapsedS;
+    }
+
+    /** @return fraction of io busy time during which at least one core was also making progress. */
+    public synchronized double getOverlapRatio() {
+        return ioBusyS == 0 ? 0 : overlapS / ioBusyS;
+    }
+
+    /** @return fraction of time at least one core was making progress. */
+    public synchronized double getCpuActiveRatio() {
+        return elapsedS == 0 ? 0 : cpuActiveS / elapsedS;
+    }
+
+    public synchronized double getElapsedS() {
+        return elapsedS;
+    }
+
+    public synchronized void reset() {
+        elapsedS = 0;
+        coreBusyS = 0;
+        corePinnedIdleS = 0;
+        cpuActiveS = 0;
+        ioBusyS = 0;
+        overlapS = 0;
+    }
+
+    /** @return a one line summary suitable for logs. */
+    public synchronized String getSummary() {
+        return String.format("cpu=%.1f%% pinnedIdle=%.1f%% io=%.1f%% overlap=%.1f%% over %.1fs",
+                getCpuUtilization() * 100, getPinnedIdleRatio() * 100,
+                getIoUtilization() * 100, getOverlapRatio() * 100, elapsedS);
+    }
+}
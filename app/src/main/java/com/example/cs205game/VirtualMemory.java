@@ -0,0 +1,365 @@
+package com.example.cs205game;
+
+import android.util.Log;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Demand-paged virtual memory backend. Allocating memory commits virtual space (up to an
+ * overcommit limit) but only makes a working set resident; the rest of a process's pages are
+ * faulted in while it runs. It listens to the references of a {@link MemoryAccessGenerator},
+ * and every fault stalls the process: a minor fault for a page never written out, or a swap
+ * read for one that was. When no frame is free a pluggable {@link PageReplacementPolicy} picks
+ * the victim, and dirty victims are written to a {@link SwapDevice} first.
+ */
+public class VirtualMemory implements MemoryBackend, PageAccessListener {
+    private static final String TAG = "VirtualMemory";
+    public static final int DEFAULT_PAGES_PER_GB = 4; // 256mb simulated pages
+    public static final double DEFAULT_OVERCOMMIT_RATIO = 2.0; // virtual commit limit / physical capacity
+    public static final double DEFAULT_WORKING_SET_FRACTION = MemoryAccessGenerator.DEFAULT_HOT_FRACTION; // resident at admission
+    public static final double MINOR_FAULT_S = 0.0005; // zero-fill / mapping cost without swap io
+
+    /** Available page replacement policies. */
+    public enum Replacement {
+        FIFO, LRU, CLOCK, ARC, TWO_Q;
+
+        /** @param frames Number of physical frames the policy manages. */
+        public PageReplacementPolicy create(int frames) {
+            switch (this) {
+                case FIFO:
+                    return new FifoPageReplacement();
+                case LRU:
+                    return new LruPageReplacement();
+                case ARC:
+                    return new ArcPageReplacement(frames);
+                case TWO_Q:
+                    return new TwoQueuePageReplacement(frames);
+                case CLOCK:
+                default:
+                    return new ClockPageReplacement(frames);
+            }
+        }
+    }
+
+    // per process virtual address space
+    private static final class AddressSpace {
+        final int ownerId;
+        int pages;
+        boolean[] resident;
+        boolean[] dirty;
+        boolean[] inSwap; // holds a swap slot with the page's contents
+        double pendingStallS = 0; // reclaim cost from admission, served on the first reference
+
+        AddressSpace(int ownerId, int pages) {
+            this.ownerId = ownerId;
+            this.pages = pages;
+            this.resident = new boolean[pages];
+            this.dirty = new boolean[pages];
+            this.inSwap = new boolean[pages];
+        }
+
+        void grow(int morePages) {
+            pages += morePages;
+            resident = Arrays.copyOf(resident, pages);
+            dirty = Arrays.copyOf(dirty, pages);
+            inSwap = Arrays.copyOf(inSwap, pages);
+        }
+
+        // the arrays keep their length, so the dropped tail is cleared for a later grow
+        void shrink(int fewerPages) {
+            int from = pages - fewerPages;
+            Arrays.fill(resident, from, pages, false);
+            Arrays.fill(dirty, from, pages, false);
+            Arrays.fill(inSwap, from, pages, false);
+            pages = from;
+        }
+    }
+
+    private final int capacity; // physical, in GB
+    private final int pagesPerGb;
+    private final int totalFrames;
+    private final double overcommitRatio;
+    private final double workingSetFraction;
+    private final PageReplacementPolicy policy;
+    private final SwapDevice swap;
+    private final Map<Integer, AddressSpace> spaces = new HashMap<>();
+    private int freeFrames;
+    private int committedGb = 0;
+    private double clockS = 0;
+
+    // statistics
+    private long accesses = 0;
+    private long minorFaults = 0;
+    private long majorFaults = 0;
+    private long evictions = 0;
+    private long dirtyEvictions = 0;
+    private long swapExhausted = 0; // dirty pages that could not get a swap slot
+    private int failedAllocations = 0;
+
+    public VirtualMemory(int capacity, Replacement replacement) {
+        this(capacity, DEFAULT_PAGES_PER_GB, replacement.create(capacity * DEFAULT_PAGES_PER_GB),
+                new SwapDevice(capacity * DEFAULT_PAGES_PER_GB, 1.0 / DEFAULT_PAGES_PER_GB,
+                        SwapDevice.DEFAULT_LATENCY_S, SwapDevice.DEFAULT_GB_PER_S),
+                DEFAULT_OVERCOMMIT_RATIO, DEFAULT_WORKING_SET_FRACTION);
+    }
+
+    /**
+     * @param capacity Physical capacity in GB.
+     * @param pagesPerGb Pages (and frames) per GB.
+     * @param policy Replacement policy sized for capacity * pagesPerGb frames.
+     * @param swap Device that receives evicted dirty pages.
+     * @param overcommitRatio Virtual memory that may be committed, as a multiple of capacity.
+     * @param workingSetFraction Share of a process's pages that are resident at admission.
+     */
+    public VirtualMemory(int capacity, int pagesPerGb, PageReplacementPolicy policy, SwapDevice swap,
+                         double overcommitRatio, double workingSetFraction) {
+        if (capacity <= 0 || pagesPerGb <= 0 || overcommitRatio < 1.0) {
+            throw new IllegalArgumentException("invalid virtual memory geometry: " + capacity + "GB x "
+                    + pagesPerGb + ", overcommit " + overcommitRatio);
+        }
+        this.capacity = capacity;
+        this.pagesPerGb = pagesPerGb;
+        this.totalFrames = capacity * pagesPerGb;
+        this.policy = policy;
+        this.swap = swap;
+        this.overcommitRatio = overcommitRatio;
+        this.workingSetFraction = workingSetFraction;
+        this.freeFrames = totalFrames;
+    }
+
+    @Override
+    public String getName() {
+        return "virtual (" + policy.getName() + ")";
+    }
+
+    @Override
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /** @return physical memory not holding any page, in GB. */
+    @Override
+    public synchronized int getAvailableMemory() {
+        return freeFrames / pagesPerGb;
+    }
+
+    /** Admission only needs commit headroom and room for the working set (others can be evicted). */
+    @Override
+    public synchronized boolean canAllocate(int amount) {
+        return committedGb + amount <= getCommitLimitGb() && workingSetPages(amount) <= totalFrames;
+    }
+
+    @Override
+    public synchronized boolean allocate(int ownerId, int amount) {
+        if (amount <= 0) return true;
+        if (!canAllocate(amount)) {
+            failedAllocations++;
+            return false;
+        }
+        int pages = amount * pagesPerGb;
+        int hot = workingSetPages(amount);
+        AddressSpace space = spaces.get(ownerId);
+        int firstPage = 0;
+        if (space == null) {
+            space = new AddressSpace(ownerId, pages);
+            spaces.put(ownerId, space);
+        } else {
+            firstPage = space.pages;
+            space.grow(pages);
+        }
+        // the working set starts resident (zero filled), evicting other processes' pages if needed
+        for (int page = firstPage; page < firstPage + hot; page++) {
+            long key = PageReplacementPolicy.key(ownerId, page);
+            space.pendingStallS += claimFrame(key);
+            space.resident[page] = true;
+            policy.onInsert(key);
+        }
+        committedGb += amount;
+        return true;
+    }
+
+    @Override
+    public synchronized int free(int ownerId, int amount) {
+        AddressSpace space = spaces.get(ownerId);
+        if (space == null || amount <= 0) return 0;
+        int pages = Math.min(amount * pagesPerGb, space.pages);
+        for (int page = space.pages - pages; page < space.pages; page++) {
+            if (space.resident[page]) {
+                policy.remove(PageReplacementPolicy.key(ownerId, page));
+                freeFrames++;
+            }
+            if (space.inSwap[page]) {
+                swap.release();
+            }
+        }
+        int freedGb = pages / pagesPerGb;
+        committedGb -= freedGb;
+        if (pages == space.pages) {
+            spaces.remove(ownerId);
+        } else {
+            space.shrink(pages);
+        }
+        return freedGb;
+    }
+
+    @Override
+    public synchronized void clear() {
+        spaces.clear();
+        policy.clear();
+        swap.clear();
+        freeFrames = totalFrames;
+        committedGb = 0;
+    }
+
+    @Override
+    public synchronized void update(double deltaTime) {
+        clockS += deltaTime;
+    }
+
+    /** Resolves one reference, returning the fault stall (plus any reclaim owed from admission). */
+    @Override
+    public synchronized double onPageAccess(Core core, Process process, int page, boolean write, double stallSoFarS) {
+        AddressSpace space = spaces.get(process.getId());
+        if (space == null || page >= space.pages) return 0;
+        double stallS = space.pendingStallS;
+        space.pendingStallS = 0;
+        return stallS + touch(space, page, write, clockS + stallSoFarS + stallS);
+    }
+
+    // one access; returns the stall it causes
+    private double touch(AddressSpace space, int page, boolean write, double nowS) {
+        accesses++;
+        long key = PageReplacementPolicy.key(space.ownerId, page);
+        if (space.resident[page]) {
+            policy.onAccess(key);
+            space.dirty[page] |= write;
+            return 0;
+        }
+        double costS = claimFrame(key);
+        if (space.inSwap[page]) {
+            majorFaults++;
+            costS += swap.read(nowS + costS);
+        } else {
+            minorFaults++;
+            costS += MINOR_FAULT_S;
+        }
+        space.resident[page] = true;
+        space.dirty[page] = write;
+        policy.onInsert(key);
+        return costS;
+    }
+
+    // takes a free frame, or evicts a victim (writing it to swap if dirty); returns the time spent
+    private double claimFrame(long incomingKey) {
+        if (freeFrames > 0) {
+            freeFrames--;
+            return 0;
+        }
+        long victimKey = policy.evict(incomingKey);
+        if (victimKey == PageReplacementPolicy.NO_PAGE) {
+            throw new IllegalStateException("no free frame and nothing to evict");
+        }
+        evictions++;
+        AddressSpace victim = spaces.get(PageReplacementPolicy.ownerOf(victimKey));
+        int page = PageReplacementPolicy.pageOf(victimKey);
+        victim.resident[page] = false;
+        if (!victim.dirty[page]) {
+            return 0; // clean: the swap copy (or zero fill) is still valid
+        }
+        victim.dirty[page] = false;
+        dirtyEvictions++;
+        if (!victim.inSwap[page]) {
+            if (!swap.reserve()) {
+                // nowhere to put it; the page is dropped, as if its owner had been killed for it
+                swapExhausted++;
+                Log.w(TAG, "swap exhausted evicting page " + page + " of process " + victim.ownerId);
+                return 0;
+            }
+            victim.inSwap[page] = true;
+        }
+        return swap.write(clockS);
+    }
+
+    private int workingSetPages(int amount) {
+        return MemoryAccessGenerator.hotPages(amount * pagesPerGb, workingSetFraction);
+    }
+
+    // --- statistics --- //
+
+    public synchronized int getCommittedGb() {
+        return committedGb;
+    }
+
+    /** @return most virtual memory that may be committed, in GB. */
+    public int getCommitLimitGb() {
+        return (int) Math.floor(capacity * overcommitRatio);
+    }
+
+    public int getPagesPerGb() {
+        return pagesPerGb;
+    }
+
+    public PageReplacementPolicy getReplacementPolicy() {
+        return policy;
+    }
+
+    public SwapDevice getSwapDevice() {
+        return swap;
+    }
+
+    /** @return resident pages of a process, or 0 if it holds no memory. */
+    public synchronized int getResidentPages(int ownerId) {
+        AddressSpace space = spaces.get(ownerId);
+        if (space == null) return 0;
+        int count = 0;
+        for (int page = 0; page < space.pages; page++) {
+            if (space.resident[page]) count++;
+        }
+        return count;
+    }
+
+    public synchronized long getAccesses() {
+        return accesses;
+    }
+
+    public synchronized long getMinorFaults() {
+        return minorFaults;
+    }
+
+    public synchronized long getMajorFaults() {
+        return majorFaults;
+    }
+
+    /** @return faults per page access. */
+    public synchronized double getFaultRate() {
+        return accesses == 0 ? 0 : (double) (minorFaults + majorFaults) / accesses;
+    }
+
+    /** @return major (swap-in) faults per simulated second. */
+    public synchronized double getMajorFaultsPerS() {
+        return clockS == 0 ? 0 : majorFaults / clockS;
+    }
+
+    /** @return swap traffic (reads plus writes) in GB per simulated second. */
+    public synchronized double getSwapGbPerS() {
+        return clockS == 0 ? 0 : (swap.getGbRead() + swap.getGbWritten()) / clockS;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized long getDirtyEvictions() {
+        return dirtyEvictions;
+    }
+
+    public synchronized long getSwapExhausted() {
+        return swapExhausted;
+    }
+
+    public synchronized int getFailedAllocations() {
+        return failedAllocations;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.cs205game;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class AdmissionControllerTest {
+
+    @Test
+    public void tokenRefillIsScaledDownByPressure() {
+        AdmissionController controller = new AdmissionController(AdmissionController.Strategy.TOKEN_BUCKET, 1.0, 1.0);
+        assertEquals(AdmissionController.Decision.ADMIT, controller.onArrival());
+        assertEquals(0.0, controller.getTokens(), 1e-9);
+
+        controller.observe(0.5, 0.2, 0.1); // the most saturated resource counts
+        controller.update(1.0);
+        assertEquals(0.5, controller.getTokens(), 1e-9);
+        assertEquals(AdmissionController.Decision.THROTTLE, controller.onArrival());
+
+        // never below a tenth of the base rate
+        controller.observe(0.9, 0, 0);
+        controller.update(1.0);
+        assertEquals(0.6, controller.getTokens(), 1e-9);
+    }
+
+    @Test
+    public void aimdHalvesTheRateAboveTheHighWatermark() {
+        AdmissionController controller = new AdmissionController(AdmissionController.Strategy.AIMD, 0.4, 1.0);
+        controller.observe(0, 0.8, 0);
+        controller.update(1.0);
+        assertEquals(0.2, controller.getAimdRate(), 1e-9);
+
+        controller.observe(0, 0.75, 0); // at the watermark is not congestion
+        controller.update(1.0);
+        assertEquals(0.22, controller.getAimdRate(), 1e-9);
+    }
+
+    @Test
+    public void arrivalsAreShedAtTheShedThreshold() {
+        AdmissionController controller = new AdmissionController(AdmissionController.Strategy.TOKEN_BUCKET, 1.0, 1.0);
+        controller.onArrival(); // spends the only token
+
+        controller.observe(0.94, 0, 0);
+        assertEquals(AdmissionController.Decision.THROTTLE, controller.onArrival());
+        controller.observe(0.95, 0, 0);
+        assertEquals(AdmissionController.Decision.SHED, controller.onArrival());
+
+        assertEquals(1, controller.getAdmittedCount());
+        assertEquals(1, controller.getThrottledCount());
+        assertEquals(1, controller.getShedCount());
+    }
+}
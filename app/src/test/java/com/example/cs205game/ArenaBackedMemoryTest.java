@@ -0,0 +1,37 @@
+package com.example.cs205game;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ArenaBackedMemoryTest {
+
+    @Test
+    public void arenaRefusalRollsBackTheInnerAllocation() {
+        // overcommit grants up to 8 GB, the arena only has 4 chunks
+        OvercommitMemory inner = new OvercommitMemory(4, 2.0);
+        ArenaBackedMemory memory = new ArenaBackedMemory(inner, 64, 64);
+        assertTrue(memory.allocate(1, 4));
+
+        assertFalse(memory.allocate(2, 2));
+        assertEquals(1, memory.getArenaRefusals());
+        assertEquals(4, inner.getCommittedGb());
+        assertEquals(0, memory.getArena().getFreeChunks());
+    }
+
+    @Test
+    public void freesReleaseChunksAndRunningProcessesTouchTheirOwn() {
+        ArenaBackedMemory memory = new ArenaBackedMemory(new ScalarMemoryBackend(4), 64, 128);
+        Process process = new Process(2, 10, 1);
+        assertTrue(memory.allocate(process.getId(), 2));
+        assertEquals(2, memory.getAvailableMemory());
+
+        memory.onExecute(null, process, 0.5); // 64 bytes: the first four words of each of its chunks
+        assertEquals(64, memory.getBytesTouched());
+        assertEquals(1, memory.getArena().getWord(1, 24));
+
+        assertEquals(1, memory.free(process.getId(), 1));
+        assertEquals(OffHeapArena.NO_OWNER, memory.getArena().getChunkOwner(1));
+        assertEquals(3, memory.getAvailableMemory());
+    }
+}
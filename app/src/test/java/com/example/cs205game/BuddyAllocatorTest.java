@@ -0,0 +1,47 @@
+package com.example.cs205game;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BuddyAllocatorTest {
+
+    @Test
+    public void allocationSplitsTheTopBlockIntoBuddies() {
+        BuddyAllocator buddy = new BuddyAllocator(16, 1);
+        assertTrue(buddy.allocate(1, 3)); // rounded up to a 4 GB block
+
+        // 16 -> 8 + 8 -> 8 + 4 + 4: one free 8 and one free 4 remain
+        assertArrayEquals(new int[]{0, 0, 1, 1, 0}, buddy.getFreeBlockCounts());
+        assertEquals(12, buddy.getAvailableMemory());
+        assertEquals(0.25, buddy.getInternalFragmentation(), 1e-9);
+    }
+
+    @Test
+    public void freeCoalescesOnlyWhenTheBuddyIsFree() {
+        BuddyAllocator buddy = new BuddyAllocator(16, 1);
+        assertTrue(buddy.allocate(1, 4)); // [0, 4)
+        assertTrue(buddy.allocate(2, 4)); // [4, 8), buddy of the first
+
+        assertEquals(4, buddy.free(1, 4));
+        assertArrayEquals(new int[]{0, 0, 1, 1, 0}, buddy.getFreeBlockCounts());
+
+        assertEquals(4, buddy.free(2, 4));
+        assertArrayEquals(new int[]{0, 0, 0, 0, 1}, buddy.getFreeBlockCounts());
+        assertEquals(0, buddy.getExternalFragmentation(), 1e-9);
+    }
+
+    @Test
+    public void topBlocksOfAnUnevenCapacityNeverMerge() {
+        BuddyAllocator buddy = new BuddyAllocator(24, 1); // 16 + 8
+        assertArrayEquals(new int[]{0, 0, 0, 1, 1}, buddy.getFreeBlockCounts());
+        assertTrue(buddy.allocate(1, 8));
+        assertTrue(buddy.allocate(2, 16));
+        assertFalse(buddy.canAllocate(1));
+
+        buddy.free(1, 8);
+        buddy.free(2, 16);
+        assertArrayEquals(new int[]{0, 0, 0, 1, 1}, buddy.getFreeBlockCounts());
+        assertFalse(buddy.canAllocate(24));
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.cs205game;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CowMemoryTest {
+    private static final int PAGES_PER_GB = 4;
+
+    // no program images, so only forks and segments share frames
+    private final CowMemory cow = new CowMemory(8, PAGES_PER_GB, 0.0, 1.0);
+
+    @Test
+    public void forkSharesEveryFrameUntilAWriteCopiesOne() {
+        Process parent = new Process(2, 10, 1);
+        Process child = new Process(2, 10, 1);
+        assertTrue(cow.allocate(parent.getId(), 2));
+        assertTrue(cow.fork(parent.getId(), child.getId()));
+        assertEquals(6, cow.getAvailableMemory());
+        assertEquals(8, cow.getSharedFrames());
+        assertEquals(2.0, cow.getSavedGb(), 1e-9);
+
+        // the child's write copies the page; reads never do
+        assertEquals(0, cow.onPageAccess(null, child, 0, false, 0), 1e-9);
+        assertEquals(0.25, cow.onPageAccess(null, child, 0, true, 0), 1e-9);
+        assertEquals(1, cow.getCowFaults());
+        assertEquals(7, cow.getSharedFrames());
+
+        // the parent is now the only mapping of the old frame: it takes it over without a copy
+        assertEquals(0, cow.onPageAccess(null, parent, 0, true, 0), 1e-9);
+        assertEquals(1, cow.getCowFaults());
+
+        assertEquals(2, cow.free(parent.getId(), 2));
+        assertEquals(0, cow.getSharedFrames());
+        assertEquals(2, cow.free(child.getId(), 2));
+        assertEquals(8, cow.getAvailableMemory());
+    }
+
+    @Test
+    public void hintedForkTakesNoFramesAndIsIgnoredOnceTheParentLeft() {
+        Process parent = new Process(1, 10, 1);
+        Process child = new Process(1, 10, 1);
+        Process orphan = new Process(1, 10, 1);
+        assertTrue(cow.allocate(parent.getId(), 1));
+        cow.forkOnAllocate(child.getId(), parent.getId());
+        assertTrue(cow.allocate(child.getId(), 1));
+        assertEquals(7, cow.getAvailableMemory());
+        assertEquals(1, cow.getForks());
+
+        cow.forkOnAllocate(orphan.getId(), parent.getId());
+        cow.free(parent.getId(), 1);
+        assertTrue(cow.allocate(orphan.getId(), 1));
+        assertEquals(1, cow.getForks());
+        assertEquals(6, cow.getAvailableMemory());
+    }
+
+    @Test
+    public void segmentFramesAreCountedOnceAndFreedAfterTheLastDetach() {
+        Process a = new Process(2, 10, 1);
+        Process b = new Process(2, 10, 1);
+        assertTrue(cow.createSegment(7, 1));
+        cow.attachOnAllocate(a.getId(), 7);
+        cow.attachOnAllocate(b.getId(), 7);
+        assertTrue(cow.allocate(a.getId(), 2)); // 1 GB private + the segment
+        assertTrue(cow.allocate(b.getId(), 2));
+        assertEquals(5, cow.getAvailableMemory());
+        assertEquals(4, cow.getSharedFrames());
+        assertEquals(2, cow.getAttachments());
+
+        // writes to a segment are shared, not copied
+        assertEquals(0, cow.onPageAccess(null, a, 7, true, 0), 1e-9);
+        assertEquals(0, cow.getCowFaults());
+
+        cow.destroySegment(7);
+        cow.free(a.getId(), 2);
+        assertEquals(6, cow.getAvailableMemory());
+        cow.free(b.getId(), 2);
+        assertEquals(8, cow.getAvailableMemory());
+        assertFalse(cow.attachSegment(b.getId(), 7));
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.cs205game;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class DmaEngineTest {
+
+    @Test
+    public void transfersBeyondTheChannelsWait() {
+        DmaEngine engine = new DmaEngine(2, 1.0, 2.0, 1.0, 0);
+        IOProcess a = transfer(engine, 1.0);
+        IOProcess b = transfer(engine, 1.0);
+        IOProcess c = transfer(engine, 1.0);
+        assertEquals(2, engine.getActiveTransfers());
+        assertEquals(Process.ProcessState.WAITING_IO, c.getCurrentState());
+
+        List<IOProcess> finished = new ArrayList<>();
+        engine.update(1.0, (process, coreId) -> finished.add(process));
+        assertEquals(List.of(a, b), finished);
+        assertEquals(List.of(c), engine.getInService());
+        assertEquals(Process.ProcessState.IN_IO, c.getCurrentState());
+        assertEquals(1.0 / 3, engine.getMeanWaitS(), 1e-9);
+    }
+
+    @Test
+    public void activeTransfersShareTheTotalBandwidth() {
+        DmaEngine engine = new DmaEngine(4, 1.0, 2.0, 1.0, 0);
+        List<IOProcess> processes = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            processes.add(transfer(engine, 1.0));
+        }
+
+        // four channels at 0.5 GB/s each, under their 1 GB/s cap
+        engine.update(1.0, (process, coreId) -> fail("half done"));
+        for (IOProcess p : processes) {
+            assertEquals(0.5, p.getRemainingIoTime(), 1e-9);
+        }
+        assertEquals(2.0, engine.getGbPerS(), 1e-9);
+        assertEquals(1.0, engine.getChannelUtilization(), 1e-9);
+    }
+
+    @Test
+    public void aTransferFinishingMidTickCountsOnlyItsData() {
+        DmaEngine engine = new DmaEngine(1, 1.0, 2.0, 1.0, 0);
+        transfer(engine, 0.25);
+        engine.update(1.0, (process, coreId) -> { });
+        assertEquals(1, engine.getCompleted());
+        assertEquals(0.25, engine.getGbPerS(), 1e-9);
+        assertEquals(0.25, engine.getChannelUtilization(), 1e-9);
+    }
+
+    @Test
+    public void removingATransferFreesItsChannel() {
+        DmaEngine engine = new DmaEngine(1, 1.0, 2.0, 1.0, 0);
+        IOProcess a = transfer(engine, 1.0);
+        IOProcess b = transfer(engine, 1.0);
+        IOProcess c = transfer(engine, 1.0);
+
+        assertTrue(engine.remove(c)); // still waiting
+        assertTrue(engine.remove(a));
+        assertEquals(List.of(b), engine.getInService());
+        assertFalse(engine.remove(a));
+        assertNull(engine.find(c.getId()));
+    }
+
+    private static IOProcess transfer(DmaEngine engine, double ioTimeS) {
+        IOProcess process = new IOProcess(1, 10, 1, ioTimeS);
+        engine.submit(process, 0);
+        return process;
+    }
+}
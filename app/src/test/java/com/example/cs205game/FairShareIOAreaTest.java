@@ -0,0 +1,62 @@
+package com.example.cs205game;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class FairShareIOAreaTest {
+
+    @Test
+    public void bandwidthIsSplitByTickets() {
+        FairShareIOArea device = new FairShareIOArea(0, 1.0, 2, new FifoIoScheduler());
+        IOProcess heavy = ioProcess(300, 1.0); // 100 MB each at 100 MB/s
+        IOProcess light = ioProcess(100, 1.0);
+        device.enqueue(heavy);
+        device.enqueue(light);
+
+        List<IOProcess> finished = new ArrayList<>();
+        device.update(3.0, finished::add);
+
+        // heavy gets 3/4 of the bandwidth: done at 100 MB / 75 MB/s, then light has the device
+        assertEquals(List.of(heavy, light), finished);
+        List<Double> latencies = latencies(device);
+        assertEquals(4.0 / 3.0, latencies.get(0), 1e-9);
+        assertEquals(2.0, latencies.get(1), 1e-9);
+    }
+
+    @Test
+    public void finishTagsAreFixedAtAdmission() {
+        FairShareIOArea device = new FairShareIOArea(0, 1.0, 2, new FifoIoScheduler());
+        IOProcess a = ioProcess(300, 1.0);
+        IOProcess b = ioProcess(100, 1.0);
+        IOProcess c = ioProcess(100, 1.0);
+        device.enqueue(a);
+        device.enqueue(b);
+        assertFalse("depth 2: the third request waits", device.enqueue(c));
+
+        List<IOProcess> finished = new ArrayList<>();
+        device.update(4.0, finished::add);
+
+        // a finishes at virtual time 1/3, c is admitted with tag 1/3 + 1 and so finishes after b (tag 1)
+        assertEquals(List.of(a, b, c), finished);
+        List<Double> latencies = latencies(device);
+        assertEquals(4.0 / 3.0, latencies.get(0), 1e-9);
+        assertEquals(8.0 / 3.0, latencies.get(1), 1e-9);
+        assertEquals(3.0, latencies.get(2), 1e-9);
+    }
+
+    private static IOProcess ioProcess(int tickets, double ioTimeS) {
+        IOProcess process = new IOProcess(1, 10, 1, ioTimeS);
+        process.setTickets(tickets);
+        return process;
+    }
+
+    private static List<Double> latencies(IOArea device) {
+        List<Double> out = new ArrayList<>();
+        device.collectLatencies(out);
+        return out;
+    }
+}
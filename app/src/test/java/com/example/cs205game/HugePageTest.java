@@ -0,0 +1,97 @@
+package com.example.cs205game;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class HugePageTest {
+    // 8 GB of 4 frames per GB with 2 GB huge pages; 4 GB and up is a large job
+    private static final int FRAMES_PER_GB = 4;
+    private static final int HUGE_FRAMES = 8;
+
+    @Test
+    public void largeJobOnFreshMemoryGetsHugePages() {
+        PageFrameAllocator allocator = allocator(false);
+        assertTrue(allocator.allocate(1, 4));
+        assertEquals(2, allocator.getHugeMappings());
+        assertEquals(0, allocator.getHugeFallbacks());
+        assertEquals(HUGE_FRAMES, allocator.getTranslationSpan(1, 0));
+        assertEquals(HUGE_FRAMES, allocator.getTranslationSpan(1, 15));
+        assertEquals(1.0, allocator.getHugePageShare(), 1e-9);
+
+        assertTrue("small jobs stay on base pages", allocator.allocate(2, 1));
+        assertEquals(1, allocator.getTranslationSpan(2, 0));
+    }
+
+    @Test
+    public void fragmentedMemoryFallsBackToBasePages() {
+        PageFrameAllocator allocator = checkerboard(false);
+        // 16 frames free, but only in 4-frame holes: no aligned 8-frame run
+        assertTrue(allocator.allocate(9, 4));
+        assertEquals(0, allocator.getHugeMappings());
+        assertEquals(2, allocator.getHugeFallbacks());
+        assertEquals(0.0, allocator.getHugeSuccessRate(), 1e-9);
+        for (int page = 0; page < 16; page++) {
+            assertEquals(1, allocator.getTranslationSpan(9, page));
+        }
+    }
+
+    @Test
+    public void contiguousFallbackIsRefusedWithoutCountingIt() {
+        PageFrameAllocator allocator = checkerboard(true);
+        assertFalse(allocator.allocate(9, 4));
+        assertEquals(1, allocator.getFragmentationRefusals());
+        assertEquals("a refused allocation maps nothing", 0, allocator.getHugeFallbacks());
+    }
+
+    @Test
+    public void partialFreeSplitsTheCutHugePage() {
+        PageFrameAllocator allocator = allocator(false);
+        assertTrue(allocator.allocate(1, 4));
+        assertEquals(1, allocator.free(1, 1)); // pages 12..15 go, cutting the second huge page
+        assertEquals(1, allocator.getHugeSplits());
+        assertEquals(HUGE_FRAMES, allocator.getTranslationSpan(1, 7));
+        assertEquals(1, allocator.getTranslationSpan(1, 8));
+    }
+
+    @Test
+    public void hugePagesExtendTlbReach() {
+        // 4 entries reach 4 base pages, or 32 pages as huge pages
+        Core core = new Core(0, (coreId, p) -> { }, p -> { });
+        TlbSimulator base = new TlbSimulator(4, 4, 16, 4, 25, 1e-5);
+        TlbSimulator huge = new TlbSimulator(4, 4, 16, 4, 25, 1e-5);
+        PageFrameAllocator allocator = allocator(false);
+        Process process = new Process(4, 10, 4.0);
+        assertTrue(allocator.allocate(process.getId(), 4));
+        huge.setHugePageMap(allocator);
+
+        for (int pass = 0; pass < 2; pass++) {
+            for (int page = 0; page < 16; page++) {
+                base.onPageAccess(core, process, page, false, 0);
+                huge.onPageAccess(core, process, page, false, 0);
+            }
+        }
+        assertEquals("a sweep of 16 pages thrashes 4 entries", 32, base.getWalks());
+        assertEquals("one walk per huge page", 2, huge.getWalks());
+        // 4 levels of 25 cycles, a huge page's walk stops a level early
+        assertEquals(2 * 75e-5, huge.getTotalWalkS(), 1e-12);
+        assertEquals(30.0 / 32, huge.getOverallHitRate(), 1e-9);
+    }
+
+    private static PageFrameAllocator allocator(boolean requireContiguous) {
+        return new PageFrameAllocator(8, FRAMES_PER_GB, requireContiguous,
+                PageFrameAllocator.HugePages.LARGE_JOBS, HUGE_FRAMES, 4);
+    }
+
+    // eight 1 GB allocations with every other one freed
+    private static PageFrameAllocator checkerboard(boolean requireContiguous) {
+        PageFrameAllocator allocator = allocator(requireContiguous);
+        for (int owner = 1; owner <= 8; owner++) {
+            assertTrue(allocator.allocate(owner, 1));
+        }
+        for (int owner = 1; owner <= 8; owner += 2) {
+            allocator.free(owner, 1);
+        }
+        return allocator;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.cs205game;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class IODevicesTest {
+
+    @Test
+    public void roundRobinTakesTheDevicesInTurn() {
+        IODevices devices = new IODevices(3, IODevices.Routing.ROUND_ROBIN);
+        List<IOArea> routed = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            routed.add(devices.route(0)); // the core makes no difference
+        }
+        List<IOArea> all = devices.getDevices();
+        assertEquals(List.of(all.get(0), all.get(1), all.get(2), all.get(0), all.get(1)), routed);
+    }
+
+    @Test
+    public void shortestQueueWeighsBacklogByServiceRate() {
+        // the second device serves four times as fast
+        IODevices devices = new IODevices(IODevices.Routing.SHORTEST_QUEUE, 1.0, 4.0);
+        IOArea slow = devices.getDevice(0);
+        IOArea fast = devices.getDevice(1);
+
+        assertSame("a tie goes to the first device", slow, devices.submit(request(2.0), 0));
+        assertSame(fast, devices.submit(request(4.0), 0)); // 2 s queued vs none
+        assertEquals(1.0, fast.getBacklogS(), 1e-9);
+        assertSame(fast, devices.submit(request(3.0), 0)); // 1 s vs 2 s
+        assertSame("1.75 s vs 2 s", fast, devices.submit(request(1.0), 0));
+        assertSame("2 s vs 2 s", slow, devices.submit(request(1.0), 0));
+        assertEquals(3.0, slow.getBacklogS(), 1e-9);
+    }
+
+    @Test
+    public void affinityGivesEachCoreAHomeDevice() {
+        IODevices devices = new IODevices(3, IODevices.Routing.AFFINITY);
+        assertSame(devices.getDevice(0), devices.route(0));
+        assertSame(devices.getDevice(1), devices.route(4));
+        assertSame(devices.getDevice(1), devices.route(4));
+        assertSame(devices.getDevice(2), devices.route(-1));
+
+        IOProcess process = request(1.0);
+        devices.submit(process, 5);
+        assertSame(devices.getDevice(2), devices.findDevice(process));
+    }
+
+    @Test
+    public void changingTheRoutingAppliesToTheNextRequest() {
+        IODevices devices = new IODevices(2, IODevices.Routing.AFFINITY);
+        assertSame(devices.getDevice(1), devices.route(1));
+        devices.setRouting(IODevices.Routing.ROUND_ROBIN);
+        assertSame(devices.getDevice(0), devices.route(1));
+        assertSame(devices.getDevice(1), devices.route(1));
+    }
+
+    private static IOProcess request(double ioTimeS) {
+        return new IOProcess(1, 10, 1, ioTimeS);
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.cs205game;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class IoRingTest {
+    private static final double TICK_S = 0.1;
+
+    @Test
+    public void withoutCoalescingEveryCompletionRaisesAnInterrupt() {
+        IoRing ring = new IoRing(new IODevices(1, IODevices.Routing.ROUND_ROBIN));
+        ring.setReleaseOnCompletion(() -> true);
+        List<IOProcess> submitted = submit(ring, 3);
+
+        List<IOProcess> reaped = run(ring, 10);
+        assertEquals(submitted, reaped);
+        assertEquals(3, ring.getInterrupts());
+        assertEquals(0, ring.getMeanHarvestDelayS(), 1e-9);
+    }
+
+    @Test
+    public void countCoalescingReapsTheBatchInOneInterrupt() {
+        IoRing ring = new IoRing(new IODevices(1, IODevices.Routing.ROUND_ROBIN),
+                new IoRing.Coalescing(3, Double.MAX_VALUE), 0.002, 0.0005);
+        ring.setReleaseOnCompletion(() -> true);
+        double[] chargedS = {0};
+        ring.setOnInterrupt(costS -> chargedS[0] += costS);
+        List<IOProcess> submitted = submit(ring, 3);
+
+        List<IOProcess> reaped = run(ring, 2);
+        assertTrue("nothing is reaped before the batch is full", reaped.isEmpty());
+
+        reaped = run(ring, 10);
+        assertEquals(submitted, reaped);
+        assertEquals(1, ring.getInterrupts());
+        assertEquals(3.0, ring.getCompletionsPerInterrupt(), 1e-9);
+        assertEquals(0.002 + 3 * 0.0005, chargedS[0], 1e-9);
+        // completions 0.3 s apart: the first waited 0.6 s for the batch, the second 0.3 s
+        assertEquals(0.3, ring.getMeanHarvestDelayS(), 1e-6);
+    }
+
+    @Test
+    public void timeCoalescingBoundsTheWait() {
+        IoRing ring = new IoRing(new IODevices(1, IODevices.Routing.ROUND_ROBIN),
+                new IoRing.Coalescing(Integer.MAX_VALUE, 0.25), 0.002, 0.0005);
+        ring.setReleaseOnCompletion(() -> true);
+        submit(ring, 3);
+
+        assertEquals(3, run(ring, 15).size());
+        assertTrue(ring.getInterrupts() >= 2);
+        assertTrue(ring.getMaxHarvestDelayS() <= 0.25 + TICK_S);
+    }
+
+    private static List<IOProcess> submit(IoRing ring, int count) {
+        List<IOProcess> submitted = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            IOProcess process = new IOProcess(1, 10, 1, 0.3);
+            ring.submit(process, 0);
+            submitted.add(process);
+        }
+        return submitted;
+    }
+
+    private static List<IOProcess> run(IoRing ring, int ticks) {
+        List<IOProcess> reaped = new ArrayList<>();
+        for (int t = 0; t < ticks; t++) {
+            ring.update(TICK_S, reaped::add);
+        }
+        return reaped;
+    }
+}
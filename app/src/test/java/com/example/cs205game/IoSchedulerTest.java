@@ -0,0 +1,59 @@
+package com.example.cs205game;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class IoSchedulerTest {
+    private static final int HEAD = 50;
+
+    @Test
+    public void scanSweepsUpThenReverses() {
+        IoScheduler scan = IoScheduler.Kind.SCAN.create();
+        queue(scan, 0, 10, 40, 60, 90);
+        assertEquals(List.of(60, 90, 40, 10), drain(scan, HEAD, 0));
+    }
+
+    @Test
+    public void cLookJumpsBackToTheLowestRequest() {
+        IoScheduler cLook = IoScheduler.Kind.C_LOOK.create();
+        queue(cLook, 0, 10, 40, 60, 90);
+        assertEquals(List.of(60, 90, 10, 40), drain(cLook, HEAD, 0));
+    }
+
+    @Test
+    public void deadlineFollowsCLookUntilARequestExpires() {
+        DeadlineIoScheduler deadline = new DeadlineIoScheduler(5.0);
+        queue(deadline, 0, 10, 60, 90, 40);
+        assertEquals(List.of(60, 90, 10, 40), drain(deadline, HEAD, 1.0));
+        assertEquals(0, deadline.getExpiredServed());
+
+        queue(deadline, 0, 10);
+        queue(deadline, 4.0, 60, 90, 40);
+        // at 6 s the request for block 10 is past its deadline and goes first, far from the head
+        assertEquals(List.of(10, 40, 60, 90), drain(deadline, HEAD, 6.0));
+        assertEquals(1, deadline.getExpiredServed());
+    }
+
+    private static void queue(IoScheduler scheduler, double queuedAtS, int... blocks) {
+        for (int block : blocks) {
+            IOProcess process = new IOProcess(1, 10, 1, 1);
+            process.setBlockAddress(block);
+            scheduler.add(new IoRequest(process, queuedAtS, scheduler.size()));
+        }
+    }
+
+    // serves everything, moving the head to each request served
+    private static List<Integer> drain(IoScheduler scheduler, int head, double nowS) {
+        List<Integer> order = new ArrayList<>();
+        IoRequest next;
+        while ((next = scheduler.poll(head, nowS)) != null) {
+            order.add(next.getBlock());
+            head = next.getBlock();
+        }
+        return order;
+    }
+}
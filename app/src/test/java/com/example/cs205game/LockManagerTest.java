@@ -0,0 +1,160 @@
+package com.example.cs205game;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/** Runs small priority inversion scripts on one core under each lock protocol. */
+public class LockManagerTest {
+    private static final double TICK_S = 0.01;
+    private static final double SLACK_S = 0.1; // a few ticks of dispatch latency
+
+    @Test
+    public void inheritanceBoundsBlockingByTheHoldersSection() {
+        // low locks at once and holds for 3 s; high arrives at 1 s needing the lock, medium
+        // (no lock, 5 s of work) arrives with it and would run ahead of the low holder
+        LockScript none = inversionScript(LockManager.Protocol.NONE);
+        LockScript inheritance = inversionScript(LockManager.Protocol.INHERITANCE);
+
+        assertTrue("medium priority work stretches the inversion",
+                none.lockManager.getMaxInversionS() >= 5.0);
+        assertEquals("only the rest of the holder's section", 2.0,
+                inheritance.lockManager.getMaxInversionS(), SLACK_S);
+        assertTrue(inheritance.finishedS.get("high") < inheritance.finishedS.get("medium"));
+    }
+
+    @Test
+    public void ceilingPreventsChainedBlocking() {
+        // two low processes each hold a different lock that high needs one after the other
+        LockScript inheritance = chainScript(LockManager.Protocol.INHERITANCE);
+        LockScript ceiling = chainScript(LockManager.Protocol.CEILING);
+
+        assertEquals("inheritance blocks high once per lock", 2, inheritance.lockManager.getInversionCount());
+        assertEquals("under the ceiling nobody enters a section high could need",
+                0, ceiling.lockManager.getInversionCount());
+        // high waits for at most the one section already running when it arrived
+        double ceilingTurnaround = ceiling.finishedS.get("high") - 1.0;
+        double inheritanceTurnaround = inheritance.finishedS.get("high") - 1.0;
+        assertEquals(2.0 + 1.0, ceilingTurnaround, SLACK_S);
+        assertTrue(inheritanceTurnaround > ceilingTurnaround + 2.0);
+    }
+
+    @Test
+    public void killedWaiterStopsBoostingTheHolder() {
+        LockScript script = new LockScript(LockManager.Protocol.INHERITANCE, 1);
+        script.arrive(0.0, "low", 0, 4.0, new CriticalSection(0, 0.0, 3.0));
+        script.arrive(1.0, "high", 2, 1.0, new CriticalSection(0, 0.0, 0.5));
+        script.arrive(1.0, "medium", 1, 5.0);
+        script.kill(1.5, "high");
+        script.run(20.0);
+
+        // low falls back to its own priority as soon as high is gone, so medium runs first
+        assertFalse(script.finishedS.containsKey("high"));
+        assertEquals(1.5 + 5.0, script.finishedS.get("medium"), SLACK_S);
+        assertEquals(1.5 + 5.0 + 2.5, script.finishedS.get("low"), SLACK_S);
+        assertTrue(script.lockManager.getBlockedProcesses().isEmpty());
+    }
+
+    private static LockScript inversionScript(LockManager.Protocol protocol) {
+        LockScript script = new LockScript(protocol, 1);
+        script.arrive(0.0, "low", 0, 4.0, new CriticalSection(0, 0.0, 3.0));
+        script.arrive(1.0, "high", 2, 1.0, new CriticalSection(0, 0.0, 0.5));
+        script.arrive(1.0, "medium", 1, 5.0);
+        script.run(20.0);
+        return script;
+    }
+
+    private static LockScript chainScript(LockManager.Protocol protocol) {
+        LockScript script = new LockScript(protocol, 2);
+        script.arrive(0.0, "low", 0, 4.0, new CriticalSection(0, 0.0, 3.0));
+        script.arrive(0.5, "medium", 1, 4.0, new CriticalSection(1, 0.0, 3.0));
+        script.arrive(1.0, "high", 2, 1.0, new CriticalSection(0, 0.0, 0.5), new CriticalSection(1, 0.5, 0.5));
+        script.run(20.0);
+        return script;
+    }
+
+    // one core, priority scheduling, processes injected into the arrival queue at set times
+    private static final class LockScript {
+        final LockManager lockManager;
+        final Map<String, Double> finishedS = new HashMap<>();
+        private final ProcessManager processManager = new ProcessManager();
+        private final Memory memory = new Memory(16);
+        private final Core core;
+        private final Scheduler scheduler;
+        private final List<Object[]> arrivals = new ArrayList<>(); // {time, process}
+        private final List<Object[]> kills = new ArrayList<>(); // {time, name}
+        private final Map<Process, String> names = new HashMap<>();
+        private double clockS = 0;
+
+        LockScript(LockManager.Protocol protocol, int resources) {
+            Scheduler[] holder = new Scheduler[1];
+            core = new Core(0, (coreId, p) -> {
+                holder[0].onProcessCompleted(p);
+                memory.release(p.getId(), p.getMemoryRequirement());
+                p.setCurrentState(Process.ProcessState.CONSUMED);
+                finishedS.put(names.get(p), clockS);
+            }, p -> { });
+            List<Core> cores = new ArrayList<>();
+            cores.add(core);
+            scheduler = new Scheduler(memory, processManager, cores, new IODevices(1, IODevices.Routing.ROUND_ROBIN),
+                    new PriorityReadyQueue(), Scheduler.Mode.IO_OVERLAP);
+            holder[0] = scheduler;
+            lockManager = scheduler.getLockManager();
+            lockManager.setProtocol(protocol);
+            for (int i = 0; i < resources; i++) {
+                lockManager.createResource("lock " + i, 2);
+            }
+        }
+
+        void arrive(double atS, String name, int priority, double cpuS, CriticalSection... sections) {
+            Process process = new Process(1, 1000, cpuS);
+            process.setPriority(priority);
+            for (CriticalSection section : sections) {
+                process.addCriticalSection(section);
+            }
+            names.put(process, name);
+            arrivals.add(new Object[]{atS, process});
+        }
+
+        // withdraws a process the way the oom killer does, wherever it is
+        void kill(double atS, String name) {
+            kills.add(new Object[]{atS, name});
+        }
+
+        void run(double durationS) {
+            int ticks = (int) Math.round(durationS / TICK_S);
+            for (int t = 0; t < ticks; t++) {
+                for (Object[] arrival : arrivals) {
+                    if (Math.abs((double) arrival[0] - clockS) < TICK_S / 2) {
+                        processManager.getProcessQueue().add((Process) arrival[1]);
+                    }
+                }
+                for (Object[] kill : kills) {
+                    if (Math.abs((double) kill[0] - clockS) < TICK_S / 2) {
+                        withdraw((String) kill[1]);
+                    }
+                }
+                scheduler.update(TICK_S);
+                clockS += TICK_S;
+                core.update(TICK_S);
+            }
+            assertEquals("every process finishes", arrivals.size() - kills.size(), finishedS.size());
+        }
+
+        private void withdraw(String name) {
+            for (Map.Entry<Process, String> entry : names.entrySet()) {
+                if (!entry.getValue().equals(name)) continue;
+                Process p = entry.getKey();
+                if (core.getCurrentProcess() == p) core.removeProcess();
+                scheduler.onProcessCompleted(p);
+                memory.release(p.getId(), p.getMemoryRequirement());
+                p.setCurrentState(Process.ProcessState.KILLED);
+            }
+        }
+    }
+}
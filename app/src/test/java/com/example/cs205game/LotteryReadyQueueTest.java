@@ -0,0 +1,53 @@
+package com.example.cs205game;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class LotteryReadyQueueTest {
+
+    @Test
+    public void winsFollowTicketsWithinSamplingError() {
+        LotteryReadyQueue queue = new LotteryReadyQueue(new Random(7), LotteryReadyQueue.DEFAULT_TIME_SLICE_S);
+        List<Process> processes = List.of(process(300), process(200), process(100));
+        processes.forEach(queue::add);
+        Map<Process, Integer> wins = new HashMap<>();
+
+        int draws = 6000;
+        for (int i = 0; i < draws; i++) {
+            Process next = queue.poll();
+            wins.merge(next, 1, Integer::sum);
+            queue.add(next);
+        }
+        // the largest share's standard deviation is about 0.65 percentage points
+        for (Process p : processes) {
+            assertEquals(p.getTickets() / 600.0, wins.get(p) / (double) draws, 0.02);
+        }
+    }
+
+    @Test
+    public void removedProcessesHoldNoTickets() {
+        LotteryReadyQueue queue = new LotteryReadyQueue(new Random(7), LotteryReadyQueue.DEFAULT_TIME_SLICE_S);
+        Process heavy = process(1000);
+        Process light = process(1);
+        queue.add(heavy);
+        queue.add(light);
+        assertTrue(queue.remove(heavy));
+
+        for (int i = 0; i < 100; i++) {
+            assertSame(light, queue.poll());
+            queue.add(light);
+        }
+    }
+
+    private static Process process(int tickets) {
+        Process process = new Process(1, 10, 100);
+        process.setTickets(tickets);
+        return process;
+    }
+}
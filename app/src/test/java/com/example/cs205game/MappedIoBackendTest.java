@@ -0,0 +1,27 @@
+package com.example.cs205game;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
+
+import static org.junit.Assert.*;
+
+public class MappedIoBackendTest {
+
+    @Test
+    public void closedBackendRefusesTransfers() throws IOException {
+        MappedIoBackend backend = new MappedIoBackend(1 << 20, 1 << 16);
+        IOProcess process = new IOProcess(1, 10, 1, 1); // one io second: 16 pages
+        assertEquals(1 << 16, backend.transfer(process));
+        assertEquals(16, backend.getColdPages());
+
+        backend.close();
+        try {
+            backend.transfer(process);
+            fail("transfer after close");
+        } catch (ClosedChannelException expected) {
+            // the mapping was dropped with the channel
+        }
+    }
+}
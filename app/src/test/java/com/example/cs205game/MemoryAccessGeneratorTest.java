@@ -0,0 +1,52 @@
+package com.example.cs205game;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class MemoryAccessGeneratorTest {
+    private static final int PAGES_PER_GB = 4;
+
+    @Test
+    public void runsWalkForwardAPageEveryFewReferences() {
+        MemoryAccessGenerator generator = new MemoryAccessGenerator(PAGES_PER_GB, 1.0, 1.0, 0.0, 32, 32, 8,
+                new Random(7));
+        List<Integer> pages = record(generator);
+        Process process = new Process(4, 10, 1); // 16 pages
+
+        // half a run, then the rest of it on the process's next slice
+        generator.onExecute(null, process, 0.5);
+        generator.onExecute(null, process, 0.5);
+        assertEquals(32, pages.size());
+        int first = pages.get(0);
+        for (int i = 0; i < pages.size(); i++) {
+            assertEquals((first + i / 8) % 16, (int) pages.get(i));
+        }
+    }
+
+    @Test
+    public void aRunOfOneGivesIndependentReferences() {
+        MemoryAccessGenerator generator = new MemoryAccessGenerator(PAGES_PER_GB, 1.0, 1.0, 0.0, 64, 1, 1,
+                new Random(7));
+        List<Integer> pages = record(generator);
+        generator.onExecute(null, new Process(4, 10, 1), 1.0);
+        int repeats = 0;
+        for (int i = 1; i < pages.size(); i++) {
+            if (pages.get(i).equals(pages.get(i - 1))) repeats++;
+        }
+        assertTrue("uniform references over 16 pages rarely repeat: " + repeats, repeats < 16);
+    }
+
+    private static List<Integer> record(MemoryAccessGenerator generator) {
+        List<Integer> pages = new ArrayList<>();
+        generator.addListener((core, process, page, write, stallSoFarS) -> {
+            pages.add(page);
+            return 0;
+        });
+        return pages;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.cs205game;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class MemoryCompactorTest {
+    private static final int FRAMES_PER_GB = 4;
+    // 0.25 s to copy a frame at 1 GB/s, so a 0.5 s budget moves two frames a tick
+    private static final double COPY_GB_PER_S = 1.0;
+    private static final double BUDGET_S = 0.5;
+
+    @Test
+    public void eachTickStaysWithinItsBudgetAndOwnersPayForTheirFrames() {
+        Memory memory = checkerboard();
+        MemoryCompactor compactor = new MemoryCompactor(memory, COPY_GB_PER_S, BUDGET_S, 0.3);
+        Map<Integer, Double> stalls = new HashMap<>();
+        compactor.setOnOwnerStalled((ownerId, seconds) -> stalls.merge(ownerId, seconds, Double::sum));
+
+        assertEquals(BUDGET_S, compactor.update(0.1), 1e-9);
+        assertTrue(compactor.isActive());
+        // the lowest used frames (owner 2's) slide into the hole owner 1 left
+        assertEquals(Map.of(2, BUDGET_S), stalls);
+
+        int copyingTicks = 1;
+        while (compactor.isActive()) {
+            double pauseS = compactor.update(0.1);
+            assertTrue(pauseS <= BUDGET_S + 1e-9);
+            if (pauseS > 0) {
+                copyingTicks++;
+            }
+        }
+        // each survivor slides down by one 4-frame hole, two frames a tick
+        assertEquals(16, compactor.getFramesMoved());
+        assertEquals(8, copyingTicks);
+        assertEquals(BUDGET_S, compactor.getMaxTickPauseS(), 1e-9);
+        assertEquals(Map.of(2, 1.0, 4, 1.0, 6, 1.0, 8, 1.0), stalls);
+        assertEquals(compactor.getTotalPauseS(), stalls.values().stream().mapToDouble(Double::doubleValue).sum(), 1e-9);
+        assertEquals(4.0, compactor.getLargestFreeAfterGb(), 1e-9);
+        assertEquals(1, compactor.getCycles());
+    }
+
+    @Test
+    public void compactionGrantsARequestWaitingForAContiguousRun() {
+        Memory memory = checkerboard();
+        MemoryCompactor compactor = new MemoryCompactor(memory, COPY_GB_PER_S, BUDGET_S, 0.3);
+        List<Double> granted = new ArrayList<>();
+        assertFalse("4 GB free, but in 1 GB holes", memory.allocateOrWait(9, 4, granted::add));
+
+        while (granted.isEmpty()) {
+            memory.update(0.1);
+            compactor.update(0.1);
+            assertTrue(compactor.getCycles() <= 1);
+        }
+        assertEquals(0, memory.getAvailableMemory());
+    }
+
+    @Test
+    public void unfragmentedMemoryIsLeftAlone() {
+        Memory memory = new Memory(new PageFrameAllocator(8, FRAMES_PER_GB, true));
+        assertTrue(memory.tryAllocate(1, 3));
+        MemoryCompactor compactor = new MemoryCompactor(memory, COPY_GB_PER_S, BUDGET_S, 0.3);
+        assertEquals(0.0, compactor.update(0.1), 0);
+        assertFalse(compactor.isActive());
+        assertEquals(0, compactor.getFramesMoved());
+    }
+
+    // 8 GB in 1 GB allocations with every other one freed: 4 GB free in four separate holes
+    private static Memory checkerboard() {
+        Memory memory = new Memory(new PageFrameAllocator(8, FRAMES_PER_GB, true));
+        for (int owner = 1; owner <= 8; owner++) {
+            assertTrue(memory.tryAllocate(owner, 1));
+        }
+        for (int owner = 1; owner <= 8; owner += 2) {
+            memory.release(owner, 1);
+        }
+        return memory;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.cs205game;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class MemoryTest {
+
+    @Test
+    public void scalarMemoryIsTakenWithoutParkingWhileItFits() {
+        Memory memory = new Memory(8);
+        assertTrue(memory.allocateOrWait(1, 5, waitS -> fail("allocated straight away")));
+        assertEquals(3, memory.getAvailableMemory());
+        assertTrue(memory.getWaitQueue().isEmpty());
+    }
+
+    @Test
+    public void fifoWaitersAreNotOvertakenByTheFastPath() {
+        Memory memory = new Memory(8);
+        List<Integer> granted = new ArrayList<>();
+        assertTrue(memory.allocateOrWait(1, 6, waitS -> granted.add(1)));
+        assertFalse(memory.allocateOrWait(2, 4, waitS -> granted.add(2)));
+        // 2 GB is free, but process 2 is waiting first
+        assertFalse(memory.allocateOrWait(3, 1, waitS -> granted.add(3)));
+        assertEquals(2, memory.getAvailableMemory());
+
+        assertEquals(6, memory.release(1, 6));
+        assertEquals(List.of(2, 3), granted);
+        assertEquals(3, memory.getAvailableMemory());
+    }
+
+    @Test
+    public void smallestFirstLetsAFittingRequestBypassTheQueue() {
+        Memory memory = new Memory(new ScalarMemoryBackend(8), MemoryWaitQueue.Policy.SMALLEST_FIRST);
+        assertTrue(memory.allocateOrWait(1, 6, waitS -> { }));
+        assertFalse(memory.allocateOrWait(2, 4, waitS -> { }));
+        assertTrue(memory.allocateOrWait(3, 1, waitS -> fail("allocated straight away")));
+        assertEquals(1, memory.getAvailableMemory());
+    }
+
+    @Test
+    public void waitTimeIsReportedWhileParked() {
+        Memory memory = new Memory(8);
+        assertTrue(memory.allocateOrWait(1, 6, waitS -> { }));
+        assertEquals(-1, memory.getWaitS(2), 0);
+        assertFalse(memory.allocateOrWait(2, 4, waitS -> { }));
+        memory.update(1.5);
+        assertEquals(1.5, memory.getWaitS(2), 1e-9);
+
+        memory.release(1, 6);
+        assertEquals("granted requests are no longer waiting", -1, memory.getWaitS(2), 0);
+    }
+}
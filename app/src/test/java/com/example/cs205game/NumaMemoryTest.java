@@ -0,0 +1,33 @@
+package com.example.cs205game;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class NumaMemoryTest {
+
+    @Test
+    public void bindPlacesAHintThatDoesNotFitOnTheNodeCanAllocateChecked() {
+        NumaMemory numa = new NumaMemory(8, 2, NumaMemory.Policy.BIND);
+        assertTrue(numa.allocate(1, 3)); // node 0, one GB left there
+        assertEquals(0, numa.getHomeNode(1));
+
+        numa.preferNode(2, 0);
+        assertTrue(numa.canAllocate(3));
+        assertTrue(numa.allocate(2, 3));
+        assertEquals(1, numa.getHomeNode(2));
+    }
+
+    @Test
+    public void hintSurvivesAFailedAllocation() {
+        NumaMemory numa = new NumaMemory(8, 2, NumaMemory.Policy.LOCAL_FIRST);
+        assertTrue(numa.allocate(1, 7));
+        numa.preferNode(2, 1);
+        assertFalse(numa.canAllocate(2));
+        assertFalse(numa.allocate(2, 2));
+
+        numa.free(1, 7);
+        assertTrue(numa.allocate(2, 2));
+        assertEquals(1, numa.getHomeNode(2));
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.cs205game;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.*;
+
+public class OffHeapArenaTest {
+    private static final int CHUNK_BYTES = 64; // 8 words
+
+    @Test
+    public void claimZeroFillsReusedChunks() {
+        OffHeapArena arena = new OffHeapArena(2, CHUNK_BYTES);
+        assertTrue(arena.claim(1, 2));
+        assertEquals(2 * CHUNK_BYTES, arena.touch(1, 2 * CHUNK_BYTES));
+        assertEquals(1, arena.getWord(1, CHUNK_BYTES - 8));
+
+        assertEquals(2, arena.release(1, 2));
+        assertTrue(arena.claim(2, 2));
+        for (int chunk = 0; chunk < 2; chunk++) {
+            for (int offset = 0; offset < CHUNK_BYTES; offset += 8) {
+                assertEquals(0, arena.getWord(chunk, offset));
+            }
+        }
+        assertEquals(4 * CHUNK_BYTES, arena.getBytesZeroed());
+        assertFalse("nothing left to claim", arena.claim(3, 1));
+    }
+
+    @Test
+    public void releaseFreesTheHighestChunksFirst() {
+        OffHeapArena arena = new OffHeapArena(4, CHUNK_BYTES);
+        assertTrue(arena.claim(1, 3));
+        assertEquals(1, arena.release(1, 1));
+        assertEquals(1, arena.getChunkOwner(1));
+        assertEquals(OffHeapArena.NO_OWNER, arena.getChunkOwner(2));
+        assertEquals("only what the owner holds", 2, arena.release(1, 5));
+        assertEquals(4, arena.getFreeChunks());
+    }
+
+    @Test
+    public void touchSpreadsBytesEvenlyAndResumes() {
+        OffHeapArena arena = new OffHeapArena(3, CHUNK_BYTES);
+        assertTrue(arena.claim(1, 2));
+        assertTrue(arena.claim(2, 1));
+
+        // half a chunk each: the first four words of chunks 0 and 1
+        assertEquals(CHUNK_BYTES, arena.touch(1, CHUNK_BYTES));
+        assertEquals(1, arena.getWord(0, 24));
+        assertEquals(0, arena.getWord(0, 32));
+        assertEquals(1, arena.getWord(1, 24));
+        assertEquals(0, arena.getWord(2, 0));
+
+        // the next pass continues at the fifth word, the one after wraps
+        arena.touch(1, CHUNK_BYTES);
+        assertEquals(1, arena.getWord(1, 56));
+        arena.touch(1, CHUNK_BYTES);
+        assertEquals(2, arena.getWord(1, 0));
+        assertEquals(1, arena.getWord(1, 32));
+        assertEquals(0, arena.touch(3, CHUNK_BYTES));
+    }
+
+    @Test
+    public void claimTouchAndReleaseDoNotAllocateOnTheHeap() {
+        OffHeapArena arena = new OffHeapArena(16, 4096);
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        cycle(arena, 10_000); // warm up
+        threads.getThreadAllocatedBytes(threadId);
+
+        long before = threads.getThreadAllocatedBytes(threadId);
+        cycle(arena, 10_000);
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+        // a single allocation per cycle would be well over this
+        assertTrue("allocated " + allocated + " bytes", allocated < 1024);
+    }
+
+    private static void cycle(OffHeapArena arena, int rounds) {
+        for (int i = 0; i < rounds; i++) {
+            arena.claim(i, 4);
+            arena.touch(i, 8192);
+            arena.release(i, 4);
+        }
+    }
+}
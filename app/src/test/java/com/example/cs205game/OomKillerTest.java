@@ -0,0 +1,142 @@
+package com.example.cs205game;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class OomKillerTest {
+
+    @Test
+    public void scoreWeighsSizeProgressAndPriority() {
+        Memory memory = new Memory(new OvercommitMemory(10, 2.0, 1.0));
+        OomKiller killer = new OomKiller(memory, List.of(), new IODevices(1, IODevices.Routing.ROUND_ROBIN));
+        Process big = process(memory, 6);
+        Process small = process(memory, 2);
+
+        // size share 0.6 vs 0.2, both untouched by the cpu
+        assertEquals(0.6 + 0.5, killer.score(big), 1e-9);
+        assertEquals(0.2 + 0.5, killer.score(small), 1e-9);
+
+        big.decrementCpuTime(2.0); // half its work done
+        assertEquals(0.6 + 0.25, killer.score(big), 1e-9);
+        big.setPriority(Process.DEFAULT_PRIORITY + 2);
+        assertEquals(0.6 + 0.25 - 0.5, killer.score(big), 1e-9);
+        assertTrue(killer.score(small) > killer.score(big));
+    }
+
+    @Test
+    public void victimLeavesItsCoreAndItsMemoryWakesWaiters() {
+        // half of each commitment is resident: 20 GB committed is 10 GB resident, over 9.5
+        Memory memory = new Memory(new OvercommitMemory(10, 2.0, 0.5));
+        List<Core> cores = cores(3);
+        OomKiller killer = new OomKiller(memory, cores, new IODevices(1, IODevices.Routing.ROUND_ROBIN));
+        List<Process> killed = new ArrayList<>();
+        List<Integer> penalties = new ArrayList<>();
+        killer.setOnKilled((victim, penalty) -> {
+            killed.add(victim);
+            penalties.add(penalty);
+        });
+        Process a = onCore(memory, cores.get(0), 8);
+        Process b = onCore(memory, cores.get(1), 4);
+        Process c = onCore(memory, cores.get(2), 8);
+        a.setPriority(Process.DEFAULT_PRIORITY + 2);
+        c.setPriority(Process.DEFAULT_PRIORITY + 2);
+        List<Integer> granted = new ArrayList<>();
+        assertFalse("over the commit limit", memory.allocateOrWait(99, 2, waitS -> granted.add(99)));
+
+        // b is the smallest but the only default priority process
+        assertEquals(1, killer.update());
+        assertEquals(List.of(b), killed);
+        assertEquals(List.of(OomKiller.DEFAULT_PENALTY), penalties);
+        assertEquals(Process.ProcessState.KILLED, b.getCurrentState());
+        assertFalse(cores.get(1).isUtilized());
+        assertSame(a, cores.get(0).getCurrentProcess());
+        assertSame(c, cores.get(2).getCurrentProcess());
+        assertEquals("the freed commitment went to the waiter", List.of(99), granted);
+        assertEquals(2.0, killer.getGbReclaimed(), 1e-9);
+
+        assertEquals("resident memory is back under the threshold", 0, killer.update());
+        assertEquals(1, killed.size());
+    }
+
+    @Test
+    public void victimInIoLeavesTheDevice() {
+        Memory memory = new Memory(new OvercommitMemory(10, 2.0, 0.5));
+        List<Core> cores = cores(1);
+        IODevices devices = new IODevices(1, IODevices.Routing.ROUND_ROBIN);
+        OomKiller killer = new OomKiller(memory, cores, devices);
+        Process onCore = onCore(memory, cores.get(0), 8);
+        onCore.setPriority(Process.DEFAULT_PRIORITY + 2);
+        IOProcess inIo = new IOProcess(12, 10, 4.0, 2.0);
+        assertTrue(memory.tryAllocate(inIo.getId(), inIo.getMemoryRequirement()));
+        assertTrue(devices.getDevice(0).enqueue(inIo));
+
+        assertEquals(1, killer.update());
+        assertEquals(Process.ProcessState.KILLED, inIo.getCurrentState());
+        assertFalse(devices.getDevice(0).isBusy());
+        assertNull(devices.findDevice(inIo));
+        assertSame(onCore, cores.get(0).getCurrentProcess());
+        assertEquals(8, ((OvercommitMemory) memory.getBackend()).getCommittedGb());
+    }
+
+    @Test
+    public void victimMovingDataLeavesTheDmaEngine() {
+        Memory memory = new Memory(new OvercommitMemory(10, 2.0, 0.5));
+        DmaEngine dma = new DmaEngine(1, 1.0, 1.0, 1.0, 0);
+        OomKiller killer = new OomKiller(memory, cores(0), new IODevices(1, IODevices.Routing.ROUND_ROBIN));
+        killer.setDmaEngine(dma);
+        IOProcess moving = new IOProcess(12, 10, 4.0, 2.0);
+        IOProcess next = new IOProcess(8, 10, 4.0, 2.0);
+        assertTrue(memory.tryAllocate(moving.getId(), 12));
+        assertTrue(memory.tryAllocate(next.getId(), 8));
+        dma.submit(moving, 0);
+        dma.submit(next, 0);
+
+        assertEquals(1, killer.update());
+        assertEquals(Process.ProcessState.KILLED, moving.getCurrentState());
+        assertEquals("the freed channel goes to the waiting transfer", List.of(next), dma.getInService());
+    }
+
+    @Test
+    public void victimBlockedOnALockLeavesItsWaitQueue() {
+        Memory memory = new Memory(new OvercommitMemory(10, 2.0, 0.5));
+        LockManager locks = new LockManager(LockManager.Protocol.NONE);
+        SharedResource resource = locks.createResource("lock", Process.DEFAULT_PRIORITY);
+        OomKiller killer = new OomKiller(memory, cores(0), new IODevices(1, IODevices.Routing.ROUND_ROBIN));
+        killer.setLockManager(locks);
+        killer.setOnKilled((victim, penalty) -> locks.abandon(victim));
+        Process holder = process(memory, 4);
+        Process waiter = process(memory, 16);
+        assertTrue(locks.acquire(holder, resource));
+        assertFalse(locks.acquire(waiter, resource));
+
+        // the holder is on no core, device or channel, so only the waiter is a candidate
+        assertEquals(1, killer.update());
+        assertEquals(Process.ProcessState.KILLED, waiter.getCurrentState());
+        assertTrue(locks.getBlockedProcesses().isEmpty());
+        assertNull("nobody is left to hand the lock to", locks.release(holder, resource));
+    }
+
+    private static List<Core> cores(int count) {
+        List<Core> cores = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            cores.add(new Core(i, (coreId, p) -> { }, p -> { }));
+        }
+        return cores;
+    }
+
+    private static Process process(Memory memory, int gb) {
+        Process process = new Process(gb, 10, 4.0);
+        assertTrue(memory.tryAllocate(process.getId(), gb));
+        return process;
+    }
+
+    private static Process onCore(Memory memory, Core core, int gb) {
+        Process process = process(memory, gb);
+        assertTrue(core.assignProcess(process));
+        return process;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.cs205game;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class OvercommitMemoryTest {
+
+    @Test
+    public void admissionIsBoundByTheCommitLimitNotByCapacity() {
+        OvercommitMemory memory = new OvercommitMemory(8, 1.5, 0.5);
+        assertEquals(12, memory.getCommitLimitGb());
+        assertTrue(memory.allocate(1, 8));
+        assertTrue(memory.allocate(2, 4));
+        assertFalse(memory.allocate(3, 1));
+        assertEquals(1, memory.getFailedAllocations());
+        assertEquals(6.0, memory.getResidentGb(), 1e-9);
+    }
+
+    @Test
+    public void residentMemoryGrowsWithProgressAndIsFreedInProportion() {
+        OvercommitMemory memory = new OvercommitMemory(8, 2.0, 0.5);
+        Process process = new Process(4, 10, 4.0);
+        assertTrue(memory.allocate(process.getId(), 4));
+        assertEquals(2.0, memory.getResidentGb(process.getId()), 1e-9);
+
+        memory.onExecute(null, process, 2.0); // half way through its cpu work
+        assertEquals(3.0, memory.getResidentGb(process.getId()), 1e-9);
+        memory.onExecute(null, process, 4.0);
+        assertEquals(4.0, memory.getResidentGb(process.getId()), 1e-9);
+        assertEquals(4.0, memory.getPeakResidentGb(), 1e-9);
+
+        assertEquals(1, memory.free(process.getId(), 1));
+        assertEquals(3.0, memory.getResidentGb(), 1e-9);
+        assertEquals(3, memory.free(process.getId(), 4));
+        assertEquals(0.0, memory.getResidentGb(), 1e-9);
+        assertEquals(0, memory.getCommittedGb());
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.cs205game;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class PageCacheTest {
+    private static final double BLOCK_IO_S = (double) PageCache.MB_PER_BLOCK / IOProcess.MB_PER_IO_S;
+
+    @Test
+    public void readHitCompletesWithoutADevice() {
+        PageCache cache = new PageCache(new Memory(16), 1, VirtualMemory.Replacement.LRU);
+        IODevices devices = new IODevices(1, IODevices.Routing.ROUND_ROBIN);
+        devices.setPageCache(cache);
+
+        IOArea miss = devices.submit(request(10, 1, false), 0);
+        assertSame("a miss goes to the device", devices.getDevice(0), miss);
+        devices.getDevice(0).clear();
+
+        IOProcess hit = request(10, 1, false);
+        assertNull(devices.submit(hit, 0));
+        assertFalse(devices.getDevice(0).isBusy());
+        assertEquals(0, devices.getDevice(0).getQueuedCount());
+        assertTrue(hit.isIoCompleted());
+        assertEquals(0.0, cache.serve(request(10, 1, false), devices), 0);
+
+        List<IOProcess> finished = new ArrayList<>();
+        devices.update(0.1, finished::add);
+        assertEquals(List.of(hit), finished);
+        assertEquals(2.0 / 3.0, cache.getRequestHitRate(), 1e-9);
+    }
+
+    @Test
+    public void readAheadBlocksCountOnceWhenUsed() {
+        PageCache cache = new PageCache(new Memory(16), 1, VirtualMemory.Replacement.LRU, 4, 5.0, 0.2);
+        IODevices devices = new IODevices(1, IODevices.Routing.ROUND_ROBIN);
+
+        // the missing block plus four read ahead
+        assertEquals(5.0, cache.serve(request(0, 1, false), devices), 1e-9);
+        assertEquals(0.0, cache.getReadAheadAccuracy(), 0);
+
+        assertEquals(0.0, cache.serve(request(1, 2, false), devices), 0);
+        assertEquals(0.5, cache.getReadAheadAccuracy(), 1e-9);
+        cache.serve(request(1, 1, false), devices);
+        assertEquals("a block is used once", 0.5, cache.getReadAheadAccuracy(), 1e-9);
+    }
+
+    @Test
+    public void evictingADirtyBlockChargesWriteBack() {
+        PageCache cache = new PageCache(new Memory(16), 1, VirtualMemory.Replacement.LRU, 0, 5.0, 1.0);
+        IODevices devices = new IODevices(1, IODevices.Routing.ROUND_ROBIN);
+        int slots = PageCache.BLOCKS_PER_GB;
+
+        assertEquals(0.0, cache.serve(request(0, slots, true), devices), 0);
+        assertEquals(slots, cache.getDirtyBlocks());
+        assertEquals(0.0, devices.getDevice(0).getBacklogS(), 0);
+
+        cache.serve(request(slots, 1, false), devices); // evicts block 0, the least recently used
+        assertEquals(slots - 1, cache.getDirtyBlocks());
+        assertEquals(BLOCK_IO_S, devices.getDevice(0).getBacklogS(), 1e-9);
+        assertEquals(1.0 / PageCache.BLOCKS_PER_GB, cache.getWritebackGb(), 1e-9);
+        assertEquals(0, cache.getUnchargedWritebackBlocks());
+    }
+
+    @Test
+    public void dirtyRatioWritesTheExcessThrough() {
+        // 64 slots, at most 8 dirty
+        PageCache cache = new PageCache(new Memory(16), 1, VirtualMemory.Replacement.LRU, 0, 5.0, 0.125);
+        IODevices devices = new IODevices(1, IODevices.Routing.ROUND_ROBIN);
+
+        assertEquals(0.0, cache.serve(request(0, 4, true), devices), 0);
+        assertEquals(0.5, cache.serve(request(4, 8, true), devices), 1e-9);
+        assertEquals(4, cache.getThrottledBlocks());
+        assertEquals(8, cache.getDirtyBlocks());
+    }
+
+    @Test
+    public void clearTakesTheReservationAgain() {
+        Memory memory = new Memory(16);
+        PageCache cache = new PageCache(memory, 4, VirtualMemory.Replacement.LRU);
+        IODevices devices = new IODevices(1, IODevices.Routing.ROUND_ROBIN);
+        assertEquals(12, memory.getAvailableMemory());
+        cache.serve(request(0, 1, false), devices);
+
+        memory.clear();
+        cache.clear();
+        assertEquals(12, memory.getAvailableMemory());
+        assertEquals(4, cache.getCapacityGb());
+        assertEquals(0.0, cache.getHitRate(), 0);
+
+        // a cache cleared into fuller memory gets what is left
+        memory.clear();
+        assertTrue(memory.tryAllocate(1, 14));
+        cache.clear();
+        assertEquals(2, cache.getCapacityGb());
+        assertEquals(0, memory.getAvailableMemory());
+    }
+
+    // an io request over `blocks` cache blocks starting at `first`
+    private static IOProcess request(int first, int blocks, boolean write) {
+        // just under the blocks' size, so rounding cannot spill into one more block
+        IOProcess process = new IOProcess(1, 10, 1, (blocks * PageCache.MB_PER_BLOCK - 0.5) / IOProcess.MB_PER_IO_S);
+        process.setBlockAddress(first);
+        process.setWrite(write);
+        return process;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.cs205game;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PageFrameAllocatorTest {
+
+    @Test
+    public void canAllocateOnlyAsksAndAllocateCountsRefusals() {
+        PageFrameAllocator frames = new PageFrameAllocator(4, 1, true);
+        assertTrue(frames.allocate(1, 1));
+        assertTrue(frames.allocate(2, 1));
+        assertTrue(frames.allocate(3, 1));
+        assertEquals(1, frames.free(2, 1)); // two free frames, not adjacent
+        assertEquals(3, frames.getPlacementChecks());
+
+        for (int i = 0; i < 5; i++) {
+            assertFalse(frames.canAllocate(2));
+        }
+        assertEquals(3, frames.getPlacementChecks());
+        assertEquals(0, frames.getFragmentationRefusals());
+
+        assertFalse(frames.allocate(4, 2));
+        assertEquals(4, frames.getPlacementChecks());
+        assertEquals(1, frames.getFragmentationRefusals());
+    }
+}
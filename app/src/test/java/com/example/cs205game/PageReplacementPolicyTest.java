@@ -0,0 +1,69 @@
+package com.example.cs205game;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class PageReplacementPolicyTest {
+
+    @Test
+    public void clockGivesReferencedPagesASecondChance() {
+        ClockPageReplacement clock = new ClockPageReplacement(3);
+        List<Long> evicted = new ArrayList<>();
+        for (long key = 1; key <= 4; key++) {
+            load(clock, 3, key, evicted);
+        }
+        // every bit was set, so the hand cleared them all and came back to the oldest page
+        assertEquals(List.of(1L), evicted);
+
+        clock.onAccess(2);
+        load(clock, 3, 5, evicted);
+        assertEquals(List.of(1L, 3L), evicted);
+    }
+
+    @Test
+    public void twoQueueKeepsAPageSeenTwiceThroughAScan() {
+        TwoQueuePageReplacement twoQ = new TwoQueuePageReplacement(4);
+        List<Long> evicted = new ArrayList<>();
+        for (long key = 1; key <= 5; key++) {
+            load(twoQ, 4, key, evicted);
+        }
+        load(twoQ, 4, 1, evicted); // back from the ghost list: promoted to Am
+        for (long key = 6; key <= 9; key++) {
+            load(twoQ, 4, key, evicted);
+        }
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L), evicted);
+    }
+
+    @Test
+    public void arcProtectsAFrequentPageUntilAGhostHitGrowsTheRecencyTarget() {
+        ArcPageReplacement arc = new ArcPageReplacement(3);
+        List<Long> evicted = new ArrayList<>();
+        load(arc, 3, 1, evicted);
+        arc.onAccess(1); // now in T2
+        for (long key = 2; key <= 6; key++) {
+            load(arc, 3, key, evicted);
+        }
+        // with a recency target of 0 the scan only churns T1
+        assertEquals(List.of(2L, 3L, 4L), evicted);
+
+        // 4 comes back while still remembered in the recency ghost list (older ghosts were
+        // trimmed): it joins T2 and T1's target grows to 1
+        load(arc, 3, 4, evicted);
+        assertEquals(List.of(2L, 3L, 4L, 5L), evicted);
+        // T1 is now at its target, so the least recent frequent page goes
+        load(arc, 3, 7, evicted);
+        assertEquals(List.of(2L, 3L, 4L, 5L, 1L), evicted);
+    }
+
+    // a miss the way VirtualMemory handles one: evict when full, then insert
+    private static void load(PageReplacementPolicy policy, int capacity, long key, List<Long> evicted) {
+        if (policy.size() >= capacity) {
+            evicted.add(policy.evict(key));
+        }
+        policy.onInsert(key);
+    }
+}
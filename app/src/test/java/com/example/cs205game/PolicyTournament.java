@@ -0,0 +1,986 @@
+package com.example.cs205game;
+
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Headless benchmark that runs every scheduling / dispatch policy against the same seeded
+ * ProcessManager workload over a grid of core counts, memory capacities and load levels.
+ * Runs use a fixed simulated tick, no rendering and no client threads (a process counts as
+ * finished when its cpu work completes), so results are reproducible for a given seed.
+ * It lives with the unit tests so it is not packaged into the app; run the grids with
+ * {@code ./gradlew :app:policyTournament}.
+ */
+public class PolicyTournament {
+    private static final String TAG = "PolicyTournament";
+    public static final double DEFAULT_TICK_S = 1.0 / 60.0; // Same tick as the game thread
+    public static final double DEFAULT_DURATION_S = 600.0; // Ten simulated minutes per run
+    public static final double HOT_IO_SHARE = 0.8; // share of io aimed at the hot blocks when a scenario has them
+    public static final int HIGHEST_PRIORITY = 2; // lock workloads draw base priorities 0..2
+    public static final double SECTION_START = 0.2; // share of its cpu work a process does before locking
+    public static final double SECTION_HOLD = 0.5; // share of its cpu work done holding the lock
+
+    /** A named combination of dispatch mode, ready queue policy, admission strategy and lock protocol. */
+    public static final class Policy {
+        public final String name;
+        public final Scheduler.Mode mode;
+        public final AdmissionController.Strategy admission;
+        public final LockManager.Protocol lockProtocol;
+        private final Supplier<ReadyQueue> readyQueueFactory;
+
+        public Policy(String name, Scheduler.Mode mode, Supplier<ReadyQueue> readyQueueFactory,
+                      AdmissionController.Strategy admission) {
+            this(name, mode, readyQueueFactory, admission, LockManager.Protocol.NONE);
+        }
+
+        public Policy(String name, Scheduler.Mode mode, Supplier<ReadyQueue> readyQueueFactory,
+                      AdmissionController.Strategy admission, LockManager.Protocol lockProtocol) {
+            this.name = name;
+            this.mode = mode;
+            this.readyQueueFactory = readyQueueFactory;
+            this.admission = admission;
+            this.lockProtocol = lockProtocol;
+        }
+    }
+
+    /** One point of the environment grid, built with {@link #builder}. */
+    public static final class Scenario {
+        public final int cores;
+        public final int memoryCapacity;
+        public final double loadFactor;
+        public final MemoryModel memoryModel;
+        public final boolean offHeapArena; // back the model with real off-heap bytes
+        public final int ioDevices;
+        public final IODevices.Routing ioRouting;
+        public final IoScheduler.Kind ioScheduler;
+        public final SeekModel seekModel;
+        public final IoRing.Coalescing coalescing;
+        public final int ioQueueDepth; // io requests sharing a device's bandwidth, 1 is exclusive
+        public final IoBackend.Kind ioBackend; // simulated countdown or real host io
+        public final int pageCacheGb; // memory reserved for a block cache in front of the devices, 0 for none
+        public final VirtualMemory.Replacement cachePolicy;
+        public final int ioHotBlocks; // blocks most io goes to, 0 spreads io uniformly
+        public final double ioWriteShare; // share of io processes that write rather than read
+        public final int sharedResources; // locks processes contend for, 0 for none
+        public final double criticalShare; // share of processes with a critical section on one of them
+        public final double forkShare; // share of processes forked from an earlier one of the same size
+        public final int sharedSegments; // shared memory segments processes can attach, 0 for none
+        public final int segmentGb;
+        public final double segmentShare; // share of processes that map a segment as part of their memory
+
+        private Scenario(Builder b) {
+            this.cores = b.cores;
+            this.memoryCapacity = b.memoryCapacity;
+            this.loadFactor = b.loadFactor;
+            this.memoryModel = b.memoryModel;
+            this.offHeapArena = b.offHeapArena;
+            this.ioDevices = b.ioDevices;
+            this.ioRouting = b.ioRouting;
+            this.ioScheduler = b.ioScheduler;
+            this.seekModel = b.seekModel;
+            this.coalescing = b.coalescing;
+            this.ioQueueDepth = b.ioQueueDepth;
+            this.ioBackend = b.ioBackend;
+            this.pageCacheGb = b.pageCacheGb;
+            this.cachePolicy = b.cachePolicy;
+            this.ioHotBlocks = b.ioHotBlocks;
+            this.ioWriteShare = b.ioWriteShare;
+            this.sharedResources = b.sharedResources;
+            this.criticalShare = b.criticalShare;
+            this.forkShare = b.forkShare;
+            this.sharedSegments = b.sharedSegments;
+            this.segmentGb = b.segmentGb;
+            this.segmentShare = b.segmentShare;
+        }
+
+        /** @return a builder for a scenario with scalar memory and one exclusive, simulated fifo io device. */
+        public static Builder builder(int cores, int memoryCapacity, double loadFactor) {
+            return new Builder(cores, memoryCapacity, loadFactor);
+        }
+
+        /** @return the scenario's settings as csv columns, in a fixed order. */
+        Map<String, Object> describe() {
+            Map<String, Object> columns = new LinkedHashMap<>();
+            columns.put("memory_model", memoryModel);
+            columns.put("cores", cores);
+            columns.put("memory_gb", memoryCapacity);
+            columns.put("load", loadFactor);
+            columns.put("off_heap_arena", offHeapArena);
+            columns.put("io_devices", ioDevices);
+            columns.put("io_routing", ioRouting);
+            columns.put("io_scheduler", ioScheduler);
+            columns.put("coalescing", coalescing);
+            columns.put("io_queue_depth", ioQueueDepth);
+            columns.put("io_backend", ioBackend);
+            columns.put("page_cache_gb", pageCacheGb);
+            columns.put("cache_policy", pageCacheGb == 0 ? "" : cachePolicy);
+            columns.put("io_hot_blocks", ioHotBlocks);
+            columns.put("io_write_share", ioWriteShare);
+            columns.put("shared_resources", sharedResources);
+            columns.put("critical_share", criticalShare);
+            columns.put("fork_share", forkShare);
+            columns.put("shared_segments", sharedSegments);
+            columns.put("segment_gb", sharedSegments == 0 ? "" : segmentGb);
+            columns.put("segment_share", segmentShare);
+            return columns;
+        }
+
+        public static final class Builder {
+            private final int cores;
+            private final int memoryCapacity;
+            private final double loadFactor;
+            private MemoryModel memoryModel = MemoryModel.SCALAR;
+            private boolean offHeapArena;
+            private int ioDevices = 1;
+            private IODevices.Routing ioRouting = IODevices.Routing.ROUND_ROBIN;
+            private IoScheduler.Kind ioScheduler = IoScheduler.Kind.FIFO;
+            private SeekModel seekModel = SeekModel.NONE;
+            private IoRing.Coalescing coalescing = IoRing.Coalescing.NONE;
+            private int ioQueueDepth = 1;
+            private IoBackend.Kind ioBackend = IoBackend.Kind.SIMULATED;
+            private int pageCacheGb;
+            private VirtualMemory.Replacement cachePolicy = VirtualMemory.Replacement.LRU;
+            private int ioHotBlocks;
+            private double ioWriteShare = ProcessManager.DEFAULT_WRITE_FRACTION;
+            private int sharedResources;
+            private double criticalShare;
+            private double forkShare;
+            private int sharedSegments;
+            private int segmentGb;
+            private double segmentShare;
+
+            private Builder(int cores, int memoryCapacity, double loadFactor) {
+                this.cores = cores;
+                this.memoryCapacity = memoryCapacity;
+                this.loadFactor = loadFactor;
+            }
+
+            public Builder memoryModel(MemoryModel memoryModel) {
+                this.memoryModel = memoryModel;
+                return this;
+            }
+
+            public Builder offHeapArena(boolean offHeapArena) {
+                this.offHeapArena = offHeapArena;
+                return this;
+            }
+
+            public Builder ioDevices(int ioDevices, IODevices.Routing ioRouting) {
+                this.ioDevices = ioDevices;
+                this.ioRouting = ioRouting;
+                return this;
+            }
+
+            public Builder ioScheduler(IoScheduler.Kind ioScheduler, SeekModel seekModel) {
+                this.ioScheduler = ioScheduler;
+                this.seekModel = seekModel;
+                return this;
+            }
+
+            public Builder coalescing(IoRing.Coalescing coalescing) {
+                this.coalescing = coalescing;
+                return this;
+            }
+
+            public Builder ioQueueDepth(int ioQueueDepth) {
+                this.ioQueueDepth = ioQueueDepth;
+                return this;
+            }
+
+            public Builder ioBackend(IoBackend.Kind ioBackend) {
+                this.ioBackend = ioBackend;
+                return this;
+            }
+
+            public Builder pageCache(int pageCacheGb, VirtualMemory.Replacement cachePolicy) {
+                this.pageCacheGb = pageCacheGb;
+                this.cachePolicy = cachePolicy;
+                return this;
+            }
+
+            public Builder ioHotBlocks(int ioHotBlocks) {
+                this.ioHotBlocks = ioHotBlocks;
+                return this;
+            }
+
+            public Builder ioWriteShare(double ioWriteShare) {
+                this.ioWriteShare = ioWriteShare;
+                return this;
+            }
+
+            /**
+             * Gives processes base priorities 0..{@link #HIGHEST_PRIORITY} and a share of them a
+             * critical section on one of {@code sharedResources} locks.
+             */
+            public Builder criticalSections(int sharedResources, double criticalShare) {
+                this.sharedResources = sharedResources;
+                this.criticalShare = criticalShare;
+                return this;
+            }
+
+            /**
+             * Forks a share of processes from the latest arrival of the same size, so they start
+             * with its memory copy-on-write. Only {@link MemoryModel#SHARED_COW} can share frames.
+             */
+            public Builder forks(double forkShare) {
+                this.forkShare = forkShare;
+                return this;
+            }
+
+            /**
+             * Creates {@code sharedSegments} segments of {@code segmentGb} up front; a share of
+             * processes maps one of them as part of its memory. Only {@link MemoryModel#SHARED_COW}.
+             */
+            public Builder sharedSegments(int sharedSegments, int segmentGb, double segmentShare) {
+                this.sharedSegments = sharedSegments;
+                this.segmentGb = segmentGb;
+                this.segmentShare = segmentShare;
+                return this;
+            }
+
+            public Scenario build() {
+                return new Scenario(this);
+            }
+        }
+    }
+
+    /**
+     * Outcome of one policy on one scenario: the headline numbers every run has, plus the
+     * metrics of each subsystem the scenario switched on, keyed by csv column name.
+     */
+    public static final class Result {
+        public final Policy policy;
+        public final Scenario scenario;
+        public final int completed;
+        public final double throughputPerMin;
+        public final double meanTurnaroundS;
+        public final double p99TurnaroundS;
+        public final int patienceExpirations;
+        public final double admissionRate; // fraction of arrivals that got memory and left the queue
+        public final double memoryUtilization;
+        public final double costPerEventNs;
+        private final Map<String, Number> metrics;
+
+        Result(Policy policy, Scenario scenario, int completed, double throughputPerMin,
+               double meanTurnaroundS, double p99TurnaroundS, int patienceExpirations,
+               double admissionRate, double memoryUtilization, double costPerEventNs,
+               Map<String, Number> metrics) {
+            this.policy = policy;
+            this.scenario = scenario;
+            this.completed = completed;
+            this.throughputPerMin = throughputPerMin;
+            this.meanTurnaroundS = meanTurnaroundS;
+            this.p99TurnaroundS = p99TurnaroundS;
+            this.patienceExpirations = patienceExpirations;
+            this.admissionRate = admissionRate;
+            this.memoryUtilization = memoryUtilization;
+            this.costPerEventNs = costPerEventNs;
+            this.metrics = Collections.unmodifiableMap(metrics);
+        }
+
+        /** @return subsystem metrics in the order they were recorded. */
+        public Map<String, Number> getMetrics() {
+            return metrics;
+        }
+
+        public boolean hasMetric(String name) {
+            return metrics.containsKey(name);
+        }
+
+        /** @return the named subsystem metric; throws if the run did not record it. */
+        public double metric(String name) {
+            Number value = metrics.get(name);
+            if (value == null) {
+                throw new IllegalArgumentException("no metric " + name + " in " + policy.name);
+            }
+            return value.doubleValue();
+        }
+    }
+
+    private final long seed;
+    private final double durationS;
+    private final double tickS;
+
+    public PolicyTournament(long seed) {
+        this(seed, DEFAULT_DURATION_S, DEFAULT_TICK_S);
+    }
+
+    /**
+     * @param seed Seed shared by every run so all policies see the same arrivals.
+     * @param durationS Simulated seconds per run.
+     * @param tickS Simulated tick length in seconds.
+     */
+    public PolicyTournament(long seed, double durationS, double tickS) {
+        this.seed = seed;
+        this.durationS = durationS;
+        this.tickS = tickS;
+    }
+
+    /** @return every dispatch mode combined with every ready queue policy, plus the admission strategies. */
+    public List<Policy> defaultPolicies() {
+        List<Policy> policies = new ArrayList<>();
+        for (Scheduler.Mode mode : new Scheduler.Mode[]{Scheduler.Mode.PINNED, Scheduler.Mode.IO_OVERLAP}) {
+            String prefix = mode.name().toLowerCase(Locale.ROOT);
+            policies.add(new Policy(prefix + "/fifo", mode, FifoReadyQueue::new, AdmissionController.Strategy.NONE));
+            policies.add(new Policy(prefix + "/lottery", mode,
+                    () -> new LotteryReadyQueue(new Random(seed), LotteryReadyQueue.DEFAULT_TIME_SLICE_S),
+                    AdmissionController.Strategy.NONE));
+            policies.add(new Policy(prefix + "/stride", mode, StrideReadyQueue::new, AdmissionController.Strategy.NONE));
+        }
+        policies.add(new Policy("io_overlap/priority", Scheduler.Mode.IO_OVERLAP, PriorityReadyQueue::new,
+                AdmissionController.Strategy.NONE));
+        policies.add(new Policy("io_overlap/fifo+token_bucket", Scheduler.Mode.IO_OVERLAP, FifoReadyQueue::new,
+                AdmissionController.Strategy.TOKEN_BUCKET));
+        policies.add(new Policy("io_overlap/fifo+aimd", Scheduler.Mode.IO_OVERLAP, FifoReadyQueue::new,
+                AdmissionController.Strategy.AIMD));
+        return policies;
+    }
+
+    /** @return pinned io, io overlap on the io devices and dma offload, each with a fifo ready queue. */
+    public List<Policy> dmaPolicies() {
+        List<Policy> policies = new ArrayList<>();
+        for (Scheduler.Mode mode : new Scheduler.Mode[]{Scheduler.Mode.PINNED, Scheduler.Mode.IO_OVERLAP,
+                Scheduler.Mode.DMA}) {
+            policies.add(new Policy(mode.name().toLowerCase(Locale.ROOT) + "/fifo", mode, FifoReadyQueue::new,
+                    AdmissionController.Strategy.NONE));
+        }
+        return policies;
+    }
+
+    /** @return preemptive priority scheduling without a lock protocol, with inheritance and with ceilings. */
+    public List<Policy> lockPolicies() {
+        List<Policy> policies = new ArrayList<>();
+        for (LockManager.Protocol protocol : LockManager.Protocol.values()) {
+            policies.add(new Policy("io_overlap/priority+" + protocol.name().toLowerCase(Locale.ROOT),
+                    Scheduler.Mode.IO_OVERLAP, PriorityReadyQueue::new, AdmissionController.Strategy.NONE, protocol));
+        }
+        return policies;
+    }
+
+    /**
+     * @return the default environment grid: 2/4/8 cores, 16/32 GB, 1x/2x/4x load, with scalar,
+     * buddy, compacted contiguous page-frame and virtual (CLOCK) memory.
+     */
+    public static List<Scenario> defaultGrid() {
+        List<Scenario> grid = new ArrayList<>();
+        for (MemoryModel model : new MemoryModel[]{MemoryModel.SCALAR, MemoryModel.BUDDY,
+                MemoryModel.PAGE_FRAME_CONTIGUOUS, MemoryModel.VIRTUAL_CLOCK}) {
+            for (int cores : new int[]{2, 4, 8}) {
+                for (int memory : new int[]{16, 32}) {
+                    for (double load : new double[]{1.0, 2.0, 4.0}) {
+                        grid.add(Scenario.builder(cores, memory, load).memoryModel(model).build());
+                    }
+                }
+            }
+        }
+        return grid;
+    }
+
+    /** @return 4 cores / 16 GB at 2x and 4x load under each virtual memory replacement policy. */
+    public static List<Scenario> replacementGrid() {
+        List<Scenario> grid = new ArrayList<>();
+        for (double load : new double[]{2.0, 4.0}) {
+            for (MemoryModel model : new MemoryModel[]{MemoryModel.VIRTUAL_FIFO, MemoryModel.VIRTUAL_LRU,
+                    MemoryModel.VIRTUAL_CLOCK, MemoryModel.VIRTUAL_ARC}) {
+                grid.add(Scenario.builder(4, 16, load).memoryModel(model).build());
+            }
+        }
+        return grid;
+    }
+
+    /** @return 8 cores / 32 GB at 2x and 4x load: flat memory against each numa placement policy. */
+    public static List<Scenario> numaGrid() {
+        List<Scenario> grid = new ArrayList<>();
+        for (double load : new double[]{2.0, 4.0}) {
+            for (MemoryModel model : new MemoryModel[]{MemoryModel.SCALAR, MemoryModel.NUMA_LOCAL_FIRST,
+                    MemoryModel.NUMA_INTERLEAVE, MemoryModel.NUMA_BIND}) {
+                grid.add(Scenario.builder(8, 32, load).memoryModel(model).build());
+            }
+        }
+        return grid;
+    }
+
+    /** @return 4 cores / 16 GB at 2x and 4x load: no overcommit against conservative and aggressive overcommit. */
+    public static List<Scenario> overcommitGrid() {
+        List<Scenario> grid = new ArrayList<>();
+        for (double load : new double[]{2.0, 4.0}) {
+            for (MemoryModel model : new MemoryModel[]{MemoryModel.SCALAR, MemoryModel.OVERCOMMIT_CONSERVATIVE,
+                    MemoryModel.OVERCOMMIT_AGGRESSIVE}) {
+                grid.add(Scenario.builder(4, 16, load).memoryModel(model).build());
+            }
+        }
+        return grid;
+    }
+
+    /** @return 4 and 8 cores / 16 GB scalar memory at 2x and 4x load, counted only vs backed by an off-heap arena. */
+    public static List<Scenario> arenaGrid() {
+        List<Scenario> grid = new ArrayList<>();
+        for (int cores : new int[]{4, 8}) {
+            for (double load : new double[]{2.0, 4.0}) {
+                grid.add(Scenario.builder(cores, 16, load).build());
+                grid.add(Scenario.builder(cores, 16, load).offHeapArena(true).build());
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * @return 4 cores / 16 GB at 2x and 4x load: private memory against shared copy-on-write
+     * program images, alone, with half the processes forked and with half mapping one of two
+     * 1 GB shared segments.
+     */
+    public static List<Scenario> sharingGrid() {
+        List<Scenario> grid = new ArrayList<>();
+        for (double load : new double[]{2.0, 4.0}) {
+            grid.add(Scenario.builder(4, 16, load).build());
+            grid.add(Scenario.builder(4, 16, load).memoryModel(MemoryModel.SHARED_COW).build());
+            grid.add(Scenario.builder(4, 16, load).memoryModel(MemoryModel.SHARED_COW).forks(0.5).build());
+            grid.add(Scenario.builder(4, 16, load).memoryModel(MemoryModel.SHARED_COW)
+                    .sharedSegments(2, 1, 0.5).build());
+        }
+        return grid;
+    }
+
+    /**
+     * @return 4 cores / 16 GB at 2x and 4x load: base pages against 64 MB and 1 GB huge pages for
+     * the large jobs, scattered and contiguous.
+     */
+    public static List<Scenario> hugePageGrid() {
+        List<Scenario> grid = new ArrayList<>();
+        for (double load : new double[]{2.0, 4.0}) {
+            for (MemoryModel model : new MemoryModel[]{MemoryModel.PAGE_FRAME, MemoryModel.PAGE_FRAME_HUGE,
+                    MemoryModel.PAGE_FRAME_HUGE_1GB, MemoryModel.PAGE_FRAME_CONTIGUOUS,
+                    MemoryModel.PAGE_FRAME_CONTIGUOUS_HUGE}) {
+                grid.add(Scenario.builder(4, 16, load).memoryModel(model).build());
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * @return 8 cores / 32 GB at 2x and 4x load with 1, 2 and 4 io devices, several devices under
+     * each routing policy.
+     */
+    public static List<Scenario> ioDeviceGrid() {
+        List<Scenario> grid = new ArrayList<>();
+        for (double load : new double[]{2.0, 4.0}) {
+            grid.add(Scenario.builder(8, 32, load).build());
+            for (int devices : new int[]{2, 4}) {
+                for (IODevices.Routing routing : IODevices.Routing.values()) {
+                    grid.add(Scenario.builder(8, 32, load).ioDevices(devices, routing).build());
+                }
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * @return 8 cores / 32 GB at 2x and 4x load with one disk-like io device (seek model on)
+     * under each io scheduler.
+     */
+    public static List<Scenario> ioSchedulerGrid() {
+        List<Scenario> grid = new ArrayList<>();
+        for (double load : new double[]{2.0, 4.0}) {
+            for (IoScheduler.Kind kind : IoScheduler.Kind.values()) {
+                grid.add(Scenario.builder(8, 32, load).ioScheduler(kind, new SeekModel()).build());
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * @return 8 cores / 32 GB at 4x load with 4 io devices: an interrupt per completion against
+     * coalescing by count, by time and by both.
+     */
+    public static List<Scenario> coalescingGrid() {
+        List<Scenario> grid = new ArrayList<>();
+        for (IoRing.Coalescing coalescing : new IoRing.Coalescing[]{IoRing.Coalescing.NONE,
+                new IoRing.Coalescing(4, Double.MAX_VALUE), new IoRing.Coalescing(Integer.MAX_VALUE, 0.1),
+                new IoRing.Coalescing(Integer.MAX_VALUE, 0.5), new IoRing.Coalescing(4, 0.1)}) {
+            grid.add(Scenario.builder(8, 32, 4.0).ioDevices(4, IODevices.Routing.SHORTEST_QUEUE)
+                    .coalescing(coalescing).build());
+        }
+        return grid;
+    }
+
+    /** @return 4 and 8 cores / 32 GB at 2x and 4x load with one io device, for comparing dma offload. */
+    public static List<Scenario> dmaGrid() {
+        List<Scenario> grid = new ArrayList<>();
+        for (int cores : new int[]{4, 8}) {
+            for (double load : new double[]{2.0, 4.0}) {
+                grid.add(Scenario.builder(cores, 32, load).build());
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * @return 8 cores / 32 GB at 2x and 4x load with one io device, serving requests one at a
+     * time against sharing its bandwidth between 2, 4 and 8 requests under fair queuing.
+     */
+    public static List<Scenario> fairShareGrid() {
+        List<Scenario> grid = new ArrayList<>();
+        for (double load : new double[]{2.0, 4.0}) {
+            for (int depth : new int[]{1, 2, 4, 8}) {
+                grid.add(Scenario.builder(8, 32, load).ioQueueDepth(depth).build());
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * @return 4 cores / 32 GB at 2x and 4x load with one io device, counting io time down against
+     * doing it as real reads and writes on a temp file and as loads and stores on a mapped one.
+     */
+    public static List<Scenario> realIoGrid() {
+        List<Scenario> grid = new ArrayList<>();
+        for (double load : new double[]{2.0, 4.0}) {
+            for (IoBackend.Kind backend : IoBackend.Kind.values()) {
+                grid.add(Scenario.builder(4, 32, load).ioBackend(backend).build());
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * @return 8 cores / 32 GB at 4x load with one io device and most io on 4 GB worth of blocks:
+     * no cache against 2, 4 and 8 GB of memory given to a page cache under LRU, 2Q and ARC.
+     */
+    public static List<Scenario> pageCacheGrid() {
+        List<Scenario> grid = new ArrayList<>();
+        int hotBlocks = 4 * PageCache.BLOCKS_PER_GB;
+        grid.add(Scenario.builder(8, 32, 4.0).ioHotBlocks(hotBlocks).build());
+        for (VirtualMemory.Replacement policy : new VirtualMemory.Replacement[]{VirtualMemory.Replacement.LRU,
+                VirtualMemory.Replacement.TWO_Q, VirtualMemory.Replacement.ARC}) {
+            for (int cacheGb : new int[]{2, 4, 8}) {
+                grid.add(Scenario.builder(8, 32, 4.0).pageCache(cacheGb, policy).ioHotBlocks(hotBlocks).build());
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * @return 1, 2 and 4 cores / 32 GB at 1x and 2x load where half the processes hold one of 1
+     * or 2 locks for half their cpu work. Inversion is starkest on one core, where a holder
+     * preempted by medium priority work keeps every high priority waiter off the lock.
+     */
+    public static List<Scenario> lockGrid() {
+        List<Scenario> grid = new ArrayList<>();
+        for (int cores : new int[]{1, 2, 4}) {
+            for (double load : new double[]{1.0, 2.0}) {
+                for (int resources : new int[]{1, 2}) {
+                    grid.add(Scenario.builder(cores, 32, load).criticalSections(resources, 0.5).build());
+                }
+            }
+        }
+        return grid;
+    }
+
+    /** Runs every policy on every scenario. */
+    public List<Result> runAll(List<Policy> policies, List<Scenario> scenarios) {
+        List<Result> results = new ArrayList<>(policies.size() * scenarios.size());
+        for (Scenario scenario : scenarios) {
+            for (Policy policy : policies) {
+                results.add(run(policy, scenario));
+            }
+        }
+        return results;
+    }
+
+    /** Runs a single policy on a single scenario. */
+    public Result run(Policy policy, Scenario scenario) {
+        IODevices ioDevices = new IODevices(scenario.ioDevices, scenario.ioRouting, scenario.ioScheduler,
+                scenario.seekModel, scenario.ioQueueDepth, scenario.ioBackend);
+        try {
+            return run(policy, scenario, ioDevices);
+        } finally {
+            ioDevices.close(); // real backends hold temp files and worker threads
+        }
+    }
+
+    private Result run(Policy policy, Scenario scenario, IODevices ioDevices) {
+        Process.resetIdCounter();
+        MemoryBackend backend = scenario.memoryModel.create(scenario.memoryCapacity);
+        ArenaBackedMemory arena = scenario.offHeapArena ? new ArenaBackedMemory(backend) : null;
+        Memory memory = new Memory(arena != null ? arena : backend);
+        VirtualMemory virtualMemory = memory.getBackend() instanceof VirtualMemory
+                ? (VirtualMemory) memory.getBackend() : null;
+        CowMemory cow = memory.getBackend() instanceof CowMemory ? (CowMemory) memory.getBackend() : null;
+        AdmissionController admission = new AdmissionController(policy.admission, 0.25 * scenario.loadFactor, 3.0);
+        ProcessManager processManager = new ProcessManager(admission, new Random(seed), scenario.loadFactor);
+        processManager.setWriteFraction(scenario.ioWriteShare);
+        // decorators draw from their own seeds, leaving the arrival stream as in every other scenario
+        Consumer<Process> decorator = p -> { };
+        if (scenario.ioHotBlocks > 0) {
+            Random blocks = new Random(seed + 1);
+            decorator = decorator.andThen(p -> {
+                if (p instanceof IOProcess && blocks.nextDouble() < HOT_IO_SHARE) {
+                    ((IOProcess) p).setBlockAddress(blocks.nextInt(scenario.ioHotBlocks));
+                }
+            });
+        }
+        if (scenario.sharedResources > 0) {
+            Random locks = new Random(seed + 2);
+            decorator = decorator.andThen(p -> {
+                p.setPriority(locks.nextInt(HIGHEST_PRIORITY + 1));
+                if (locks.nextDouble() < scenario.criticalShare) {
+                    p.setCriticalSection(new CriticalSection(locks.nextInt(scenario.sharedResources),
+                            SECTION_START * p.getCpuTimer(), SECTION_HOLD * p.getCpuTimer()));
+                }
+            });
+        }
+        if (cow != null && (scenario.forkShare > 0 || scenario.sharedSegments > 0)) {
+            for (int i = 0; i < scenario.sharedSegments; i++) {
+                cow.createSegment(i, scenario.segmentGb);
+            }
+            Random sharing = new Random(seed + 3);
+            Map<Integer, Integer> latestOfSize = new HashMap<>(); // memory requirement -> process id
+            decorator = decorator.andThen(p -> {
+                Integer parentId = latestOfSize.put(p.getMemoryRequirement(), p.getId());
+                if (parentId != null && sharing.nextDouble() < scenario.forkShare) {
+                    cow.forkOnAllocate(p.getId(), parentId);
+                } else if (scenario.sharedSegments > 0 && sharing.nextDouble() < scenario.segmentShare) {
+                    cow.attachOnAllocate(p.getId(), sharing.nextInt(scenario.sharedSegments));
+                }
+            });
+        }
+        processManager.setProcessDecorator(decorator);
+        PageCache pageCache = scenario.pageCacheGb > 0
+                ? new PageCache(memory, scenario.pageCacheGb, scenario.cachePolicy) : null;
+        ioDevices.setPageCache(pageCache);
+        IoRing ioRing = new IoRing(ioDevices, scenario.coalescing, IoRing.DEFAULT_INTERRUPT_COST_S,
+                IoRing.DEFAULT_PER_COMPLETION_COST_S);
+        List<Core> cores = new ArrayList<>(scenario.cores);
+        List<Double> turnarounds = new ArrayList<>();
+        List<Double> highPriorityTurnarounds = new ArrayList<>();
+        int[] counters = new int[2]; // [0] cpu completions + io interrupts, [1] patience expirations
+        Scheduler[] scheduler = new Scheduler[1]; // filled in below, cores need it in their callbacks
+
+        for (int i = 0; i < scenario.cores; i++) {
+            cores.add(new Core(i, (coreId, p) -> {
+                scheduler[0].onProcessCompleted(p);
+                memory.release(p.getId(), p.getMemoryRequirement());
+                p.setCurrentState(Process.ProcessState.CONSUMED);
+                turnarounds.add(processManager.getClockS() - p.getArrivalTimeS());
+                if (scenario.sharedResources > 0 && p.getPriority() == HIGHEST_PRIORITY) {
+                    highPriorityTurnarounds.add(processManager.getClockS() - p.getArrivalTimeS());
+                }
+                counters[0]++;
+            }, p -> {
+                counters[0]++;
+                scheduler[0].onIoRequired(p);
+            }));
+        }
+        scheduler[0] = new Scheduler(memory, processManager, cores, ioRing, policy.readyQueueFactory.get(), policy.mode);
+        LockManager lockManager = scheduler[0].getLockManager();
+        lockManager.setProtocol(policy.lockProtocol);
+        for (int i = 0; i < scenario.sharedResources; i++) {
+            lockManager.createResource("lock " + i, HIGHEST_PRIORITY); // ids 0..n-1
+        }
+        MemoryAccessGenerator accessGenerator = new MemoryAccessGenerator(
+                MemoryAccessGenerator.pagesPerGbOf(memory.getBackend()), new Random(seed));
+        TlbSimulator tlbs = new TlbSimulator();
+        accessGenerator.addListener(tlbs);
+        if (memory.getBackend() instanceof PageAccessListener) {
+            accessGenerator.addListener((PageAccessListener) memory.getBackend());
+        }
+        for (Core core : cores) {
+            core.addExecutionHook(accessGenerator);
+        }
+        NumaMemory numa = memory.getBackend() instanceof NumaMemory ? (NumaMemory) memory.getBackend() : null;
+        if (numa != null) {
+            numa.assignHomeNodes(cores);
+            for (Core core : cores) {
+                core.addExecutionHook(numa);
+            }
+        }
+        MemoryCompactor compactor = null;
+        PageFrameAllocator frames = memory.getBackend() instanceof PageFrameAllocator
+                ? (PageFrameAllocator) memory.getBackend() : null;
+        if (frames != null) {
+            tlbs.setHugePageMap((ownerId, page) -> {
+                synchronized (memory) {
+                    return frames.getTranslationSpan(ownerId, page);
+                }
+            });
+            compactor = new MemoryCompactor(memory);
+            compactor.setOnOwnerStalled((ownerId, seconds) -> {
+                Process owner = scheduler[0].findResidentProcess(ownerId);
+                if (owner != null) owner.addStall(seconds);
+            });
+        }
+
+        if (arena != null) {
+            for (Core core : cores) {
+                core.addExecutionHook(arena);
+            }
+        }
+        OomKiller oomKiller = null;
+        if (memory.getBackend() instanceof OvercommitMemory) {
+            for (Core core : cores) {
+                core.addExecutionHook((OvercommitMemory) memory.getBackend());
+            }
+            oomKiller = new OomKiller(memory, cores, ioDevices);
+            oomKiller.setOnKilled((victim, penalty) -> scheduler[0].onProcessCompleted(victim));
+            oomKiller.setDmaEngine(scheduler[0].getDmaEngine());
+            oomKiller.setLockManager(scheduler[0].getLockManager());
+        }
+
+        double memoryUsedIntegral = 0;
+        double sharedSavedIntegral = 0; // gb-seconds saved by sharing / gb-seconds mapped
+        double sharedMappedIntegral = 0;
+        double hugeShareIntegral = 0;
+        double fragmentationIntegral = 0;
+        int ticks = (int) Math.round(durationS / tickS);
+        long startNs = System.nanoTime();
+        for (int t = 0; t < ticks; t++) {
+            int queuedBefore = processManager.getProcessQueue().size();
+            double pressure = (double) memory.getUsedMemory() / memory.getCapacity();
+            admission.observe(0, pressure, (double) queuedBefore / processManager.getMaxQueueCapacity());
+            processManager.update(tickS, p -> {
+                memory.cancelWait(p.getId());
+                counters[1]++;
+            });
+            memory.update(tickS);
+            if (compactor != null) {
+                compactor.update(tickS);
+            }
+            for (Core core : cores) {
+                core.update(tickS);
+            }
+            ioRing.update(tickS, scheduler[0]::onIoCompleted);
+            if (oomKiller != null) {
+                oomKiller.update();
+            }
+            scheduler[0].update(tickS);
+            memoryUsedIntegral += memory.getUsedMemory() * tickS;
+            if (cow != null) {
+                sharedSavedIntegral += cow.getSavedGb() * tickS;
+                sharedMappedIntegral += cow.getMappedGb() * tickS;
+            }
+            if (frames != null) {
+                hugeShareIntegral += frames.getHugePageShare() * tickS;
+                fragmentationIntegral += frames.getExternalFragmentation() * tickS;
+            }
+        }
+        long elapsedNs = System.nanoTime() - startNs;
+        MappedIoBackend mapped = mappedBackendOf(ioDevices);
+
+        int arrivals = admission.getAdmittedCount();
+        int admitted = arrivals - counters[1] - processManager.getProcessQueue().size();
+        int events = counters[0] + counters[1] + arrivals;
+        double[] sorted = sortedOf(turnarounds);
+        double mean = meanOf(sorted);
+        double[] ioLatencies = ioDevices.getSortedLatencies();
+        double[] hostIoLatencies = ioDevices.getSortedHostLatencies();
+        DmaEngine dma = scheduler[0].getDmaEngine();
+
+        Map<String, Number> metrics = new LinkedHashMap<>();
+        metrics.put("mean_memory_wait_s", memory.getWaitQueue().getMeanWaitS());
+        metrics.put("max_memory_wait_s", memory.getWaitQueue().getMaxWaitS());
+        metrics.put("tlb_hit_rate", tlbs.getOverallHitRate());
+        if (compactor != null) {
+            metrics.put("compaction_pause_s", compactor.getTotalPauseS());
+            metrics.put("max_compaction_tick_pause_ms", compactor.getMaxTickPauseS() * 1000);
+        }
+        if (frames != null) {
+            metrics.put("huge_page_share", hugeShareIntegral / durationS);
+            metrics.put("huge_fallbacks", frames.getHugeFallbacks());
+            metrics.put("mean_fragmentation", fragmentationIntegral / durationS);
+        }
+        if (virtualMemory != null) {
+            metrics.put("page_fault_rate", virtualMemory.getFaultRate());
+            metrics.put("swap_gb_per_s", virtualMemory.getSwapGbPerS());
+        }
+        if (numa != null) {
+            metrics.put("numa_local_ratio", numa.getLocalAccessRatio());
+            metrics.put("numa_stall_s", numa.getRemoteStallS());
+        }
+        if (oomKiller != null) {
+            metrics.put("oom_kills", oomKiller.getKills());
+            metrics.put("oom_cpu_lost_s", oomKiller.getCpuLostS());
+        }
+        if (arena != null) {
+            metrics.put("arena_mb_per_s", arena.getBytesTouchedPerS() / (1 << 20));
+            metrics.put("arena_host_gb_per_s", arena.getHostGbPerS());
+        }
+        if (cow != null) {
+            metrics.put("memory_savings", sharedMappedIntegral == 0 ? 0 : sharedSavedIntegral / sharedMappedIntegral);
+            metrics.put("cow_fault_rate", cow.getCowFaultRate());
+            metrics.put("forks", cow.getForks());
+            metrics.put("segment_attachments", cow.getAttachments());
+        }
+        metrics.put("io_utilization", ioDevices.getMeanUtilization());
+        metrics.put("mean_io_wait_s", ioDevices.getMeanWaitS());
+        metrics.put("io_p50_latency_s", percentile(ioLatencies, 0.50));
+        metrics.put("io_p99_latency_s", percentile(ioLatencies, 0.99));
+        metrics.put("io_per_min", (ioDevices.getCompleted() + dma.getCompleted()) / (durationS / 60.0));
+        metrics.put("mean_seek_ms", ioDevices.getMeanSeekS() * 1000);
+        metrics.put("completions_per_interrupt", ioRing.getCompletionsPerInterrupt());
+        metrics.put("mean_harvest_delay_ms", ioRing.getMeanHarvestDelayS() * 1000);
+        metrics.put("overhead_per_completion_us", ioRing.getOverheadPerCompletionS() * 1e6);
+        metrics.put("host_ns_per_completion", ioRing.getHostNsPerCompletion());
+        if (policy.mode == Scheduler.Mode.DMA) {
+            metrics.put("dma_channel_utilization", dma.getChannelUtilization());
+            metrics.put("dma_gb_per_s", dma.getGbPerS());
+            metrics.put("mean_dma_wait_s", dma.getMeanWaitS());
+            metrics.put("dma_interrupt_cpu_s", dma.getInterruptCpuS());
+        }
+        if (scenario.ioBackend != IoBackend.Kind.SIMULATED) {
+            metrics.put("host_io_p50_us", percentile(hostIoLatencies, 0.50) * 1e6);
+            metrics.put("host_io_p99_us", percentile(hostIoLatencies, 0.99) * 1e6);
+            metrics.put("host_io_mb_per_s", ioDevices.getHostMbPerS());
+        }
+        if (mapped != null) {
+            metrics.put("page_ins", mapped.getColdPages());
+            metrics.put("host_ns_per_page_access", mapped.getMeanAccessNs());
+            metrics.put("page_in_ns", mapped.getPageInNs());
+        }
+        if (scenario.sharedResources > 0) {
+            double[] highPriority = sortedOf(highPriorityTurnarounds);
+            metrics.put("inversions", lockManager.getInversionCount());
+            metrics.put("mean_inversion_s", lockManager.getMeanInversionS());
+            metrics.put("max_inversion_s", lockManager.getMaxInversionS());
+            metrics.put("total_inversion_s", lockManager.getTotalInversionS());
+            metrics.put("high_priority_mean_turnaround_s", meanOf(highPriority));
+            metrics.put("high_priority_p99_turnaround_s", percentile(highPriority, 0.99));
+        }
+        if (pageCache != null) {
+            metrics.put("cache_gb", pageCache.getCapacityGb());
+            metrics.put("cache_hit_rate", pageCache.getHitRate());
+            metrics.put("cache_request_hit_rate", pageCache.getRequestHitRate());
+            metrics.put("read_ahead_accuracy", pageCache.getReadAheadAccuracy());
+            metrics.put("writeback_gb", pageCache.getWritebackGb());
+            metrics.put("throttled_blocks", pageCache.getThrottledBlocks());
+        }
+        Result result = new Result(policy, scenario, sorted.length,
+                sorted.length / (durationS / 60.0), mean, percentile(sorted, 0.99), counters[1],
+                arrivals == 0 ? 0 : (double) admitted / arrivals,
+                memoryUsedIntegral / (durationS * memory.getCapacity()),
+                events == 0 ? 0 : (double) elapsedNs / events, metrics);
+        Log.d(TAG, "Finished " + policy.name + " on " + scenario.cores + " cores / " + scenario.memoryCapacity
+                + "GB " + scenario.memoryModel + " / load " + scenario.loadFactor);
+        return result;
+    }
+
+    // the first device's backend if it is memory-mapped
+    private static MappedIoBackend mappedBackendOf(IODevices ioDevices) {
+        IOArea device = ioDevices.getDevice(0);
+        if (device instanceof RealIOArea && ((RealIOArea) device).getBackend() instanceof MappedIoBackend) {
+            return (MappedIoBackend) ((RealIOArea) device).getBackend();
+        }
+        return null;
+    }
+
+    private static double[] sortedOf(List<Double> values) {
+        double[] sorted = new double[values.size()];
+        for (int i = 0; i < sorted.length; i++) sorted[i] = values.get(i);
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    private static double meanOf(double[] values) {
+        double sum = 0;
+        for (double v : values) sum += v;
+        return values.length == 0 ? 0 : sum / values.length;
+    }
+
+    // nearest-rank percentile of an ascending array
+    private static double percentile(double[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        int rank = (int) Math.ceil(p * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+    }
+
+    /**
+     * @return one csv row per result, with a header line: the scenario's settings, the headline
+     * numbers, then every subsystem metric any of the results recorded, left blank where a
+     * result's scenario did not have that subsystem.
+     */
+    public static String toCsv(List<Result> results) {
+        Set<String> scenarioColumns = new LinkedHashSet<>();
+        Set<String> metricColumns = new LinkedHashSet<>();
+        for (Result r : results) {
+            scenarioColumns.addAll(r.scenario.describe().keySet());
+            metricColumns.addAll(r.metrics.keySet());
+        }
+        StringBuilder sb = new StringBuilder("policy");
+        for (String column : scenarioColumns) sb.append(',').append(column);
+        sb.append(",completed,throughput_per_min,mean_turnaround_s,p99_turnaround_s,patience_expirations,")
+                .append("admission_rate,memory_utilization,cost_per_event_ns");
+        for (String column : metricColumns) sb.append(',').append(column);
+        sb.append('\n');
+        for (Result r : results) {
+            sb.append(r.policy.name);
+            Map<String, Object> settings = r.scenario.describe();
+            for (String column : scenarioColumns) {
+                Object value = settings.get(column);
+                sb.append(',').append(value instanceof Number ? formatNumber((Number) value)
+                        : value == null ? "" : value);
+            }
+            sb.append(String.format(Locale.ROOT, ",%d,%.3f,%.3f,%.3f,%d,%.4f,%.4f,%.1f", r.completed,
+                    r.throughputPerMin, r.meanTurnaroundS, r.p99TurnaroundS, r.patienceExpirations,
+                    r.admissionRate, r.memoryUtilization, r.costPerEventNs));
+            for (String column : metricColumns) {
+                Number value = r.metrics.get(column);
+                sb.append(',').append(value == null ? "" : formatNumber(value));
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    // integers as they are, fractions to four decimals
+    private static String formatNumber(Number value) {
+        if (value instanceof Double || value instanceof Float) {
+            return String.format(Locale.ROOT, "%.4f", value.doubleValue());
+        }
+        return value.toString();
+    }
+
+    /** @return a markdown summary: one table per scenario with policies ranked by throughput. */
+    public static String toMarkdown(List<Result> results) {
+        StringBuilder sb = new StringBuilder("# Scheduling policy tournament\n");
+        Scenario current = null;
+        List<Result> group = new ArrayList<>();
+        for (Result r : results) {
+            if (current != null && r.scenario != current) {
+                appendScenarioTable(sb, current, group);
+                group.clear();
+            }
+            current = r.scenario;
+            group.add(r);
+        }
+        if (current != null) {
+            appendScenarioTable(sb, current, group);
+        }
+        return sb.toString();
+    }
+
+    private static void appendScenarioTable(StringBuilder sb, Scenario scenario, List<Result> group) {
+        List<Result> ranked = new ArrayList<>(group);
+        ranked.sort((a, b) -> Double.compare(b.throughputPerMin, a.throughputPerMin));
+        sb.append(String.format(Locale.ROOT, "%n## %d cores, %d GB %s memory, load x%.1f%n%n", scenario.cores,
+                scenario.memoryCapacity, scenario.memoryModel.name().toLowerCase(Locale.ROOT), scenario.loadFactor));
+        sb.append("| policy | throughput/min | mean turnaround (s) | p99 turnaround (s) | expirations | admitted | mem util | ns/event |\n");
+        sb.append("|---|---:|---:|---:|---:|---:|---:|---:|\n");
+        for (Result r : ranked) {
+            sb.append(String.format(Locale.ROOT, "| %s | %.2f | %.2f | %.2f | %d | %.1f%% | %.1f%% | %.0f |%n",
+                    r.policy.name, r.throughputPerMin, r.meanTurnaroundS, r.p99TurnaroundS,
+                    r.patienceExpirations, r.admissionRate * 100, r.memoryUtilization * 100, r.costPerEventNs));
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.cs205game;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs the scheduling policy tournament grids on the development machine and writes one csv per
+ * grid (plus summary.md for the default grid) to build/reports/policy-tournament. The full run
+ * takes a long time, so it is left out of the unit test tasks: run it with
+ * {@code ./gradlew :app:policyTournament}.
+ */
+public class PolicyTournamentBenchmark {
+    private static final long SEED = 205L;
+    private static final File OUT_DIR = new File("build/reports/policy-tournament");
+
+    private final PolicyTournament tournament = new PolicyTournament(SEED);
+
+    @Test
+    public void runTournament() throws IOException {
+        List<PolicyTournament.Result> results = run("results.csv", tournament.defaultPolicies(),
+                PolicyTournament.defaultGrid());
+        write(new File(OUT_DIR, "summary.md"), PolicyTournament.toMarkdown(results));
+    }
+
+    @Test
+    public void compareReplacementPolicies() throws IOException {
+        run("replacement.csv", tournament.defaultPolicies(), PolicyTournament.replacementGrid());
+    }
+
+    @Test
+    public void compareNumaPlacement() throws IOException {
+        run("numa.csv", tournament.defaultPolicies(), PolicyTournament.numaGrid());
+    }
+
+    @Test
+    public void compareOvercommit() throws IOException {
+        run("overcommit.csv", tournament.defaultPolicies(), PolicyTournament.overcommitGrid());
+    }
+
+    @Test
+    public void measureArenaBandwidth() throws IOException {
+        run("arena.csv", tournament.defaultPolicies(), PolicyTournament.arenaGrid());
+    }
+
+    @Test
+    public void compareSharedMemory() throws IOException {
+        run("sharing.csv", tournament.defaultPolicies(), PolicyTournament.sharingGrid());
+    }
+
+    @Test
+    public void compareHugePages() throws IOException {
+        run("hugepages.csv", tournament.defaultPolicies(), PolicyTournament.hugePageGrid());
+    }
+
+    @Test
+    public void compareIoDevices() throws IOException {
+        run("iodevices.csv", tournament.defaultPolicies(), PolicyTournament.ioDeviceGrid());
+    }
+
+    @Test
+    public void compareIoSchedulers() throws IOException {
+        run("ioschedulers.csv", tournament.defaultPolicies(), PolicyTournament.ioSchedulerGrid());
+    }
+
+    @Test
+    public void compareInterruptCoalescing() throws IOException {
+        run("coalescing.csv", tournament.defaultPolicies(), PolicyTournament.coalescingGrid());
+    }
+
+    @Test
+    public void compareDmaOffload() throws IOException {
+        run("dma.csv", tournament.dmaPolicies(), PolicyTournament.dmaGrid());
+    }
+
+    @Test
+    public void compareFairShareDevices() throws IOException {
+        run("fairshare.csv", tournament.defaultPolicies(), PolicyTournament.fairShareGrid());
+    }
+
+    @Test
+    public void compareRealFileIo() throws IOException {
+        run("realio.csv", tournament.dmaPolicies().subList(0, 2), PolicyTournament.realIoGrid());
+    }
+
+    @Test
+    public void comparePageCache() throws IOException {
+        run("pagecache.csv", tournament.dmaPolicies().subList(1, 2), PolicyTournament.pageCacheGrid());
+    }
+
+    @Test
+    public void compareLockProtocols() throws IOException {
+        run("locks.csv", tournament.lockPolicies(), PolicyTournament.lockGrid());
+    }
+
+    private List<PolicyTournament.Result> run(String csvName, List<PolicyTournament.Policy> policies,
+                                              List<PolicyTournament.Scenario> grid) throws IOException {
+        List<PolicyTournament.Result> results = tournament.runAll(policies, grid);
+        assertEquals(policies.size() * grid.size(), results.size());
+        assertTrue(OUT_DIR.isDirectory() || OUT_DIR.mkdirs());
+        write(new File(OUT_DIR, csvName), PolicyTournament.toCsv(results));
+        return results;
+    }
+
+    private static void write(File file, String content) throws IOException {
+        try (Writer writer = new FileWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(content);
+        }
+    }
+}
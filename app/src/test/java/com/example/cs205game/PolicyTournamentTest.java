@@ -0,0 +1,61 @@
+package com.example.cs205game;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class PolicyTournamentTest {
+    private static final long SEED = 205L;
+    private static final double SHORT_RUN_S = 120;
+
+    @Test
+    public void sameSeedGivesSameResults() {
+        PolicyTournament.Scenario scenario = PolicyTournament.Scenario.builder(4, 16, 2.0).build();
+        PolicyTournament first = new PolicyTournament(SEED, SHORT_RUN_S, PolicyTournament.DEFAULT_TICK_S);
+        PolicyTournament second = new PolicyTournament(SEED, SHORT_RUN_S, PolicyTournament.DEFAULT_TICK_S);
+        for (PolicyTournament.Policy policy : first.defaultPolicies()) {
+            PolicyTournament.Result a = first.run(policy, scenario);
+            PolicyTournament.Result b = second.run(policy, scenario);
+            assertEquals(policy.name, a.completed, b.completed);
+            assertEquals(policy.name, a.patienceExpirations, b.patienceExpirations);
+            assertEquals(policy.name, a.meanTurnaroundS, b.meanTurnaroundS, 1e-9);
+        }
+    }
+
+    @Test
+    public void resultsOnlyCarryTheMetricsOfSubsystemsTheScenarioUses() {
+        PolicyTournament tournament = new PolicyTournament(SEED, SHORT_RUN_S, PolicyTournament.DEFAULT_TICK_S);
+        PolicyTournament.Policy policy = tournament.dmaPolicies().get(1);
+        PolicyTournament.Result scalar = tournament.run(policy,
+                PolicyTournament.Scenario.builder(4, 16, 2.0).build());
+        PolicyTournament.Result virtual = tournament.run(policy,
+                PolicyTournament.Scenario.builder(4, 16, 2.0).memoryModel(MemoryModel.VIRTUAL_CLOCK).build());
+
+        assertFalse(scalar.hasMetric("page_fault_rate"));
+        assertTrue(virtual.metric("page_fault_rate") > 0);
+        assertTrue(scalar.hasMetric("io_utilization"));
+    }
+
+    @Test
+    public void csvLeavesMissingMetricsBlank() {
+        PolicyTournament tournament = new PolicyTournament(SEED, SHORT_RUN_S, PolicyTournament.DEFAULT_TICK_S);
+        PolicyTournament.Policy policy = tournament.dmaPolicies().get(1);
+        List<PolicyTournament.Result> results = List.of(
+                tournament.run(policy, PolicyTournament.Scenario.builder(4, 16, 2.0).build()),
+                tournament.run(policy, PolicyTournament.Scenario.builder(4, 16, 2.0)
+                        .memoryModel(MemoryModel.VIRTUAL_CLOCK).build()));
+
+        String[] lines = PolicyTournament.toCsv(results).split("\n");
+        assertEquals(3, lines.length);
+        String[] header = lines[0].split(",", -1);
+        int column = List.of(header).indexOf("page_fault_rate");
+        assertTrue(column > 0);
+        for (int i = 1; i < lines.length; i++) {
+            assertEquals(header.length, lines[i].split(",", -1).length);
+        }
+        assertEquals("", lines[1].split(",", -1)[column]);
+        assertNotEquals("", lines[2].split(",", -1)[column]);
+    }
+}
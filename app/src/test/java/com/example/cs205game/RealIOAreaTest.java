@@ -0,0 +1,39 @@
+package com.example.cs205game;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class RealIOAreaTest {
+    private final RealIOArea device = new RealIOArea(0, IoScheduler.Kind.FIFO.create(),
+            IoBackend.Kind.FILE_CHANNEL::create);
+
+    @After
+    public void closeDevice() {
+        device.close();
+    }
+
+    @Test
+    public void reopenedDeviceRunsTheInterruptedRequestOnAFreshBackend() throws InterruptedException {
+        IoBackend first = device.getBackend();
+        IOProcess process = new IOProcess(1, 10, 1, 1);
+        assertTrue(device.assignProcess(process));
+
+        device.close();
+        device.close(); // a second close is harmless
+        device.open();
+        assertNotSame(first, device.getBackend());
+
+        List<IOProcess> finished = new ArrayList<>();
+        for (int i = 0; i < 500 && finished.isEmpty(); i++) {
+            device.update(0.01, finished::add);
+            Thread.sleep(2);
+        }
+        assertEquals(List.of(process), finished);
+        assertEquals(0, device.getErrors());
+    }
+}
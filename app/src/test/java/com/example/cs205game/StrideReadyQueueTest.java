@@ -0,0 +1,64 @@
+package com.example.cs205game;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class StrideReadyQueueTest {
+    private static final double SLICE_S = StrideReadyQueue.DEFAULT_TIME_SLICE_S;
+
+    @Test
+    public void quantaFollowTicketsWithinOneQuantumAtEveryPoint() {
+        StrideReadyQueue queue = new StrideReadyQueue();
+        List<Process> processes = List.of(process(300), process(200), process(100));
+        processes.forEach(queue::add);
+        Map<Process, Integer> quanta = new HashMap<>();
+
+        for (int n = 1; n <= 600; n++) {
+            Process next = queue.poll();
+            queue.charge(next, SLICE_S);
+            quanta.merge(next, 1, Integer::sum);
+            queue.add(next);
+            for (Process p : processes) {
+                double expected = n * p.getTickets() / 600.0;
+                assertEquals("after " + n + " quanta", expected, quanta.getOrDefault(p, 0), 1.0);
+            }
+        }
+        assertEquals(300, (int) quanta.get(processes.get(0)));
+        assertEquals(100, (int) quanta.get(processes.get(2)));
+    }
+
+    @Test
+    public void aNewcomerStartsAtTheGlobalPass() {
+        StrideReadyQueue queue = new StrideReadyQueue();
+        Process old = process(100);
+        queue.add(old);
+        for (int i = 0; i < 50; i++) {
+            queue.charge(queue.poll(), SLICE_S);
+            queue.add(old);
+        }
+
+        // without the global pass the newcomer would run 50 quanta in a row
+        Process newcomer = process(100);
+        queue.add(newcomer);
+        Map<Process, Integer> quanta = new HashMap<>();
+        for (int i = 0; i < 10; i++) {
+            Process next = queue.poll();
+            queue.charge(next, SLICE_S);
+            quanta.merge(next, 1, Integer::sum);
+            queue.add(next);
+        }
+        assertEquals(5, (int) quanta.get(old));
+        assertEquals(5, (int) quanta.get(newcomer));
+    }
+
+    private static Process process(int tickets) {
+        Process process = new Process(1, 10, 100);
+        process.setTickets(tickets);
+        return process;
+    }
+}
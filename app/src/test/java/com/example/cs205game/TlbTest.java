@@ -0,0 +1,42 @@
+package com.example.cs205game;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TlbTest {
+
+    @Test
+    public void sameVirtualPageOfTwoAddressSpacesGetsTwoEntries() {
+        Tlb tlb = new Tlb(4, 4);
+        assertFalse(tlb.lookup(1, 7));
+        assertTrue(tlb.lookup(1, 7));
+        assertFalse("another asid must not hit on process 1's translation", tlb.lookup(2, 7));
+        // no flush on the switch back: both translations stay cached
+        assertTrue(tlb.lookup(1, 7));
+        assertTrue(tlb.lookup(2, 7));
+        assertEquals(0, tlb.getFlushes());
+    }
+
+    @Test
+    public void fullSetReplacesItsLeastRecentlyUsedWay() {
+        Tlb tlb = new Tlb(2, 2); // one set
+        tlb.lookup(1, 1);
+        tlb.lookup(1, 2);
+        assertTrue(tlb.lookup(1, 1));
+        assertFalse(tlb.lookup(2, 1)); // evicts (1, 2)
+        assertTrue(tlb.lookup(1, 1));
+        assertFalse(tlb.lookup(1, 2));
+    }
+
+    @Test
+    public void flushDropsEveryAddressSpace() {
+        Tlb tlb = new Tlb(4, 2);
+        tlb.lookup(1, 3);
+        tlb.lookup(2, 3);
+        tlb.flush();
+        assertFalse(tlb.lookup(1, 3));
+        assertFalse(tlb.lookup(2, 3));
+        assertEquals(1, tlb.getFlushes());
+    }
+}
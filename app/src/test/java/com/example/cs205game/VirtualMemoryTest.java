@@ -0,0 +1,31 @@
+package com.example.cs205game;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class VirtualMemoryTest {
+    private static final int PAGES_PER_GB = 2;
+
+    @Test
+    public void growAfterAPartialFreeStartsFromCleanPages() {
+        VirtualMemory memory = new VirtualMemory(2, PAGES_PER_GB, new LruPageReplacement(),
+                new SwapDevice(4, 1.0 / PAGES_PER_GB, 0.01, 1.0), 2.0, 0.5);
+        Process process = new Process(2, 10, 1);
+        assertTrue(memory.allocate(process.getId(), 2)); // pages 0-3, working set 0-1
+        memory.onPageAccess(null, process, 3, true, 0);
+        assertEquals(3, memory.getResidentPages(process.getId()));
+        assertEquals(1, memory.getMinorFaults());
+
+        assertEquals(1, memory.free(process.getId(), 1)); // drops pages 2-3
+        assertEquals(2, memory.getResidentPages(process.getId()));
+        assertEquals(1, memory.getAvailableMemory());
+
+        // the new page 3 reuses the old slot but was never touched: not resident, faults again
+        assertTrue(memory.allocate(process.getId(), 1));
+        assertEquals(3, memory.getResidentPages(process.getId()));
+        memory.onPageAccess(null, process, 3, false, 0);
+        assertEquals(2, memory.getMinorFaults());
+        assertEquals(0, memory.getAvailableMemory());
+    }
+}